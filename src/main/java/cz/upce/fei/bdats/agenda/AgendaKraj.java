@@ -2,13 +2,21 @@ package cz.upce.fei.bdats.agenda;
 
 // <editor-fold defaultstate="collapsed" desc="Importy">
 import cz.upce.fei.bdats.data.Obec;
+import cz.upce.fei.bdats.data.SouhrnObyvatel;
 import cz.upce.fei.bdats.generator.Generator;
 import cz.upce.fei.bdats.generator.ObecGenerator;
 import cz.upce.fei.bdats.perzistence.IPerzistence;
 import cz.upce.fei.bdats.perzistence.ObecPerzistence;
-import cz.upce.fei.bdats.strom.AbstrTable;
+import cz.upce.fei.bdats.strom.BKStrom;
 import cz.upce.fei.bdats.strom.ETypProhl;
 import cz.upce.fei.bdats.strom.IAbstrTable;
+import cz.upce.fei.bdats.strom.IndexovanaTable;
+import cz.upce.fei.bdats.strom.MetrikyStromu;
+import cz.upce.fei.bdats.strom.PerzistentniTable;
+import cz.upce.fei.bdats.strom.PocitadlaStromu;
+import cz.upce.fei.bdats.strom.PosluchacTabulky;
+import cz.upce.fei.bdats.strom.RadixovyStrom;
+import cz.upce.fei.bdats.strom.SekundarniIndex;
 import cz.upce.fei.bdats.vyjimky.AgendaKrajException;
 import cz.upce.fei.bdats.vyjimky.StromException;
 import cz.upce.fei.bdats.vyjimky.zpravy.ChybovaZpravaKraje;
@@ -16,6 +24,8 @@ import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
 import java.util.Iterator;
+import java.util.List;
+import java.util.function.ToLongFunction;
 // </editor-fold>
 
 /**
@@ -24,10 +34,48 @@ import java.util.Iterator;
  * obcemi
  *
  * <p>Třída používá Singleton návrhový vzor, čímž zabezpečuje jedinou instanci v rámci aplikace
+ *
+ * <p>Obce jsou uloženy v perzistentní tabulce {@link PerzistentniTable}, takže agendu lze používat z více vláken
+ * současně: vyhledávání a iterátory pracují bez zámku nad neměnnou verzí stromu a zápisy (včetně importu
+ * a generování) se serializují. Snímek stromu ({@link AgendaKraj#dejInstanceStromu()}) stojí konstantní čas
+ *
+ * <p>Všechny zápisy i vyhledávání procházejí přes {@link IndexovanaTable}, která ke stromu udržuje hašovací
+ * index podle názvu obce. Vyhledání obce a kontrola unikátnosti názvu (dialogy GUI, generátor) tak nestojí
+ * průchod stromem, strom obsluhuje pouze uspořádané operace
+ *
+ * <p>K hašovacímu indexu je zaregistrovaný předponový strom názvů {@link RadixovyStrom}, který se udržuje
+ * při každém zápisu (včetně importu, generování a zrušení) a obsluhuje vyhledávání při psaní
+ * ({@link AgendaKraj#dejDoplneni(String, int)}, {@link AgendaKraj#dejPocetSPredponou(String)}). Stejně se
+ * udržuje i BK-strom názvů {@link BKStrom} pro vyhledání obcí podle názvu s překlepem
+ * ({@link AgendaKraj#najdiPodobne(String, int)})
+ *
+ * <p>Strom v každém uzlu udržuje součty počtů mužů, žen a obyvatel za celý podstrom, takže souhrn obyvatel
+ * obcí v intervalu názvů ({@link AgendaKraj#dejSouhrnObyvatel(String, String)}) stojí {@code O(log n)}
+ *
+ * <p>Obce lze vyhledávat i podle jiných atributů než názvu přes sekundární indexy {@link SekundarniIndex}
+ * podle PSČ, čísla kraje a počtu obyvatel, které se stejně jako předponový strom udržují při každém zápisu.
+ * Další indexy lze zaregistrovat metodou {@link AgendaKraj#pridejIndex(PosluchacTabulky)}
  */
 public final class AgendaKraj implements IAgendaKraj<String, Obec> {
 
-    private IAbstrTable<String, Obec> strom;
+    private PerzistentniTable<String, Obec> strom;
+    /**
+     * Ukazatele obce, jejichž součty udržuje strom (pořadí odpovídá složkám {@link SouhrnObyvatel})
+     */
+    private final List<ToLongFunction<? super Obec>> UKAZATELE_OBYVATEL =
+            List.of(Obec::getPocetMuzu, Obec::getPocetZen, Obec::getCelkem);
+    private final int INDEX_MUZU = 0;
+    private final int INDEX_ZEN = 1;
+    private final int INDEX_CELKEM = 2;
+    /**
+     * Strom {@link AgendaKraj#strom} obalený hašovacím indexem, všechny zápisy musí procházet přes něj
+     */
+    private IndexovanaTable<String, Obec> tabulka;
+    private RadixovyStrom predponovyStrom;
+    private BKStrom<Obec> podobnostniStrom;
+    private SekundarniIndex<String, String, Obec> indexPsc;
+    private SekundarniIndex<Integer, String, Obec> indexKraju;
+    private SekundarniIndex<Integer, String, Obec> indexObyvatel;
     private Generator obecGenerator;
     private IPerzistence<String, Obec> perzistence;
 
@@ -37,9 +85,11 @@ public final class AgendaKraj implements IAgendaKraj<String, Obec> {
     /**
      * Tovární metoda (factory method) pro vytvoření a získání instance Singletonu
      *
+     * <p>Metoda je synchronizovaná, aby při prvním souběžném volání z více vláken nevznikly dvě instance
+     *
      * @return vratí buď již existující anebo nově vytvořenou instanci
      */
-    public static AgendaKraj getInstance() {
+    public static synchronized AgendaKraj getInstance() {
         if (instance == null)
             instance = new AgendaKraj();
         return instance;
@@ -49,7 +99,18 @@ public final class AgendaKraj implements IAgendaKraj<String, Obec> {
     private AgendaKraj() { nastav(); }
 
     private void nastav() {
-        this.strom = new AbstrTable<>();
+        this.strom = new PerzistentniTable<>(UKAZATELE_OBYVATEL);
+        this.tabulka = new IndexovanaTable<>(strom);
+        this.predponovyStrom = new RadixovyStrom();
+        this.tabulka.pridejPosluchace(predponovyStrom);
+        this.podobnostniStrom = new BKStrom<>();
+        this.tabulka.pridejPosluchace(podobnostniStrom);
+        this.indexPsc = new SekundarniIndex<>(Obec::getPsc);
+        this.tabulka.pridejPosluchace(indexPsc);
+        this.indexKraju = new SekundarniIndex<>(Obec::getCisloKraje);
+        this.tabulka.pridejPosluchace(indexKraju);
+        this.indexObyvatel = new SekundarniIndex<>(Obec::getCelkem);
+        this.tabulka.pridejPosluchace(indexObyvatel);
         this.obecGenerator = new ObecGenerator();
         this.perzistence = new ObecPerzistence();
     }
@@ -57,7 +118,7 @@ public final class AgendaKraj implements IAgendaKraj<String, Obec> {
     @Override
     public boolean importDat(String cesta) {
         try {
-            return perzistence.nactiCsv(strom, cesta);
+            return perzistence.nactiCsv(tabulka, cesta);
         } catch (IOException ex) {
             return false;
         }
@@ -75,16 +136,27 @@ public final class AgendaKraj implements IAgendaKraj<String, Obec> {
     @Override
     public Obec najdi(String nazevObce) throws AgendaKrajException {
         try {
-            return strom.najdi(nazevObce);
+            return tabulka.najdi(nazevObce);
         } catch (StromException ex) {
             throw new AgendaKrajException(ChybovaZpravaKraje.PRVEK_NENALEZEN.getZprava());
         }
     }
 
+    /**
+     * Přibližné vyhledání obsluhuje BK-strom, takže se dotaz neporovnává s názvy všech obcí
+     */
+    @Override
+    public @NotNull List<Obec> najdiPodobne(@NotNull String nazevObce, int maxVzdalenost) {
+        return podobnostniStrom.najdiPodobne(nazevObce, maxVzdalenost);
+    }
+
+    @Override
+    public boolean obsahuje(String nazevObce) { return tabulka.obsahuje(nazevObce); }
+
     @Override
     public void vloz(@NotNull Obec obec) throws AgendaKrajException {
         try {
-            strom.vloz(obec.getNazevObce(), obec);
+            tabulka.vloz(obec.getNazevObce(), obec);
         } catch (StromException ignored) {
             throw new AgendaKrajException(ChybovaZpravaKraje.NULL_KLIC.getZprava());
         }
@@ -93,7 +165,7 @@ public final class AgendaKraj implements IAgendaKraj<String, Obec> {
     @Override
     public Obec odeber(String nazevObce) throws AgendaKrajException {
         try {
-            return strom.odeber(nazevObce);
+            return tabulka.odeber(nazevObce);
         } catch (StromException ex) {
             throw new AgendaKrajException(ChybovaZpravaKraje.PRVEK_NENALEZEN.getZprava());
         }
@@ -105,53 +177,118 @@ public final class AgendaKraj implements IAgendaKraj<String, Obec> {
     }
 
     @Override
-    public void generuj(int pocet) {
-        obecGenerator.generuj(strom, pocet);
+    public Iterator<Obec> vytvorIterator(String od, String po) {
+        return strom.vytvorIterator(od, po);
     }
 
+// <editor-fold defaultstate="collapsed" desc="Metoda: Iterator<Obec> vytvorIteratorPredpony(String predpona)">
+    /**
+     * Nejvyšší hodnota znaku, u které nelze vytvořit následující znak
+     */
+    private final char MAX_ZNAK = Character.MAX_VALUE;
+
+    /**
+     * Předpona se převede na interval {@code [predpona, nasledujici(predpona))}, takže se použije rozsahový
+     * iterátor tabulky a neprochází se celý strom
+     */
     @Override
-    public @NotNull IAbstrTable<String, Obec> dejInstanceStromu() throws AgendaKrajException {
-        final IAbstrTable<String, Obec> novaInstance = new AbstrTable<>();
-        try {
-            final Iterator<Obec> iterator = strom.vytvorIterator(ETypProhl.HLOUBKA);
-            while (iterator.hasNext()) {
-                final Obec obec = iterator.next();
-                novaInstance.vloz(obec.getNazevObce(), obec);
-            }
-            return novaInstance;
-        } catch (StromException ex) {
-            throw new AgendaKrajException(ChybovaZpravaKraje.DUPLICITNI_KLIC.getZprava());
-        }
+    public Iterator<Obec> vytvorIteratorPredpony(@NotNull String predpona) {
+        return strom.vytvorIterator(predpona, dejNasledujiciPredponu(predpona));
+    }
+
+    /**
+     * Vrací nejmenší řetězec, který je větší než všechny řetězce začínající zadanou předponou. Poslední znak,
+     * který lze zvýšit, se zvýší o jedničku a zbytek řetězce za ním se zahodí
+     *
+     * @param predpona Předpona názvu obce
+     *
+     * @return Horní mez intervalu nebo {@code null}, pokud taková mez neexistuje (prázdná předpona nebo
+     * předpona složená pouze ze znaků {@link Character#MAX_VALUE})
+     */
+    private String dejNasledujiciPredponu(@NotNull String predpona) {
+        int index = predpona.length() - 1;
+        while (index >= 0 && predpona.charAt(index) == MAX_ZNAK)
+            index--;
+        if (index < 0)
+            return null;
+        return predpona.substring(0, index) + (char) (predpona.charAt(index) + 1);
     }
+// </editor-fold>
 
+    /**
+     * Doplnění obsluhuje předponový strom, takže se neprochází ani rozsah stromu, ani celá tabulka
+     */
     @Override
-    public void zrus() { strom.zrus(); }
+    public @NotNull List<String> dejDoplneni(@NotNull String predpona, int pocet) {
+        return predponovyStrom.dejDoplneni(predpona, pocet);
+    }
 
-// <editor-fold defaultstate="collapsed" desc="Metoda: String VypisStrom(ETypProhl typ)">
-    private final String POPISEK_VYSTUPU = "Posloupnost výstupu: ";
-    private final String ODDELOVAC_VYSTUPU = ", ";
+    @Override
+    public int dejPocetSPredponou(@NotNull String predpona) { return predponovyStrom.dejPocetSPredponou(predpona); }
+
+    /**
+     * Součty se zjistí ze součtů podstromů dvěma sestupy stromem, obce z intervalu se neprocházejí
+     */
+    @Override
+    public @NotNull SouhrnObyvatel dejSouhrnObyvatel(String od, String po) {
+        final long[] soucty = strom.dejSoucty(od, po);
+        return new SouhrnObyvatel(soucty[INDEX_MUZU], soucty[INDEX_ZEN], soucty[INDEX_CELKEM]);
+    }
+
+// <editor-fold defaultstate="collapsed" desc="Sekundární indexy">
+    @Override
+    public @NotNull List<Obec> najdiPodlePsc(@NotNull String psc) { return indexPsc.najdi(psc); }
+
+    @Override
+    public @NotNull List<Obec> najdiPodleKraje(int cisloKraje) { return indexKraju.najdi(cisloKraje); }
+
+    @Override
+    public @NotNull List<Obec> najdiPodlePoctuObyvatel(int od, int po) { return indexObyvatel.najdiRozsah(od, po); }
 
     @Override
-    public @NotNull String vypisStrom(ETypProhl typ) {
-        return strom.vypisStrom(typ) + dejVystupPosloupnosti(typ);
+    public void pridejIndex(@NotNull PosluchacTabulky<? super String, ? super Obec> index) {
+        tabulka.pridejPosluchace(index);
+    }
+// </editor-fold>
+
+    @Override
+    public void generuj(int pocet) {
+        obecGenerator.generuj(tabulka, pocet);
     }
 
     /**
-     * Vrací textovou posloupnost prvků stromu v zadaném typu průchodu
-     *
-     * @param typ Typ průchodu stromem ({@link ETypProhl#SIRKA} nebo {@link ETypProhl#HLOUBKA})
-     *
-     * @return Textový výstup posloupnosti prvků stromu
+     * Vrací snímek stromu v konstantním čase. Snímek sdílí uzly s tabulkou agendy a pozdější změny agendy
+     * se v něm neprojeví, takže ho lze bez zámku a bez kopírování použít např. pro export nebo zobrazení
      */
-    private @NotNull String dejVystupPosloupnosti(ETypProhl typ) {
-        final StringBuilder sb = new StringBuilder(POPISEK_VYSTUPU);
-        final Iterator<Obec> iterator = strom.vytvorIterator(typ);
-        while (iterator.hasNext()) {
-            sb.append(iterator.next().getNazevObce());
-            if (iterator.hasNext())
-                sb.append(ODDELOVAC_VYSTUPU);
-        }
-        return sb.toString();
+    @Override
+    public @NotNull IAbstrTable<String, Obec> dejInstanceStromu() { return strom.snimek(); }
+
+    @Override
+    public void zrus() { tabulka.zrus(); }
+
+    /**
+     * Metriky se počítají nad snímkem stromu, takže souběžné zápisy do agendy nečekají na jejich výpočet
+     */
+    @Override
+    public @NotNull MetrikyStromu dejMetriky() { return strom.snimek().dejMetriky(); }
+
+    /**
+     * Počítadla jsou po vytvoření agendy vypnutá, aby čtení bez zámku nesdílela nesynchronizovaná počítadla.
+     * Pro měření je zapne volající ({@link PocitadlaStromu#zapni()}) a po měření opět vypne. Vyhledání podle
+     * názvu obce obsluhuje hašovací index, takže porovnání klíčů pochází z vkládání, odebírání a uspořádaných
+     * dotazů
+     */
+    @Override
+    public @NotNull PocitadlaStromu dejPocitadla() { return strom.dejPocitadla(); }
+
+// <editor-fold defaultstate="collapsed" desc="Metoda: void vypisStrom(ETypProhl typ, Appendable cil, ...)">
+    /**
+     * Výřez se zapisuje jediným průchodem stromu, který se na pořadí {@code od} nastaví sestupem stromem
+     * (průchod do hloubky), takže stránkování nestojí průchod všech předchozích prvků
+     */
+    @Override
+    public void vypisStrom(ETypProhl typ, Appendable cil, int od, int pocet) throws IOException {
+        strom.vypisStrom(typ, cil, od, pocet);
     }
 // </editor-fold>
 }
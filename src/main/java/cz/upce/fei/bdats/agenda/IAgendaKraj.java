@@ -1,12 +1,18 @@
 package cz.upce.fei.bdats.agenda;
 
 import cz.upce.fei.bdats.data.Obec;
+import cz.upce.fei.bdats.data.SouhrnObyvatel;
 import cz.upce.fei.bdats.strom.ETypProhl;
 import cz.upce.fei.bdats.strom.IAbstrTable;
+import cz.upce.fei.bdats.strom.MetrikyStromu;
+import cz.upce.fei.bdats.strom.PocitadlaStromu;
+import cz.upce.fei.bdats.strom.PosluchacTabulky;
 import cz.upce.fei.bdats.vyjimky.AgendaKrajException;
 import cz.upce.fei.bdats.vyjimky.StromException;
 
+import java.io.IOException;
 import java.util.Iterator;
+import java.util.List;
 
 /**
  * Toto rozhraní slouží k abstrakci funkcionalit pro práci s agendou kraje
@@ -43,6 +49,28 @@ public interface IAgendaKraj<K extends Comparable<K>, V> {
      */
     Obec najdi(String nazevObce) throws AgendaKrajException;
 
+    /**
+     * Přibližné vyhledání obcí podle názvu zadaného s překlepem, např. po neúspěšném
+     * {@link IAgendaKraj#najdi(String)}
+     *
+     * @param nazevObce Hledaný (případně chybně zapsaný) název obce
+     * @param maxVzdalenost Nejvyšší počet vložených, smazaných nebo zaměněných znaků (editační vzdálenost)
+     *
+     * @return Obce s názvem ve vzdálenosti nejvýše {@code maxVzdalenost}, nejpodobnější jako první
+     *
+     * @throws IllegalArgumentException Pokud je {@code maxVzdalenost} záporná
+     */
+    List<Obec> najdiPodobne(String nazevObce, int maxVzdalenost);
+
+    /**
+     * Ověří, zda agenda obsahuje obec se zadaným názvem
+     *
+     * @param nazevObce Název obce
+     *
+     * @return {@code true}, pokud obec s daným názvem existuje, jinak {@code false}
+     */
+    boolean obsahuje(String nazevObce);
+
     /**
      * Vložení obce
      *
@@ -72,6 +100,96 @@ public interface IAgendaKraj<K extends Comparable<K>, V> {
      */
     Iterator<Obec> vytvorIterator(ETypProhl typ);
 
+    /**
+     * Vrací iterátor obcí, jejichž názvy leží v polouzavřeném intervalu {@code [od, po)}, seřazených podle názvu
+     *
+     * @param od Dolní mez názvu (včetně), {@code null} znamená bez dolní meze
+     * @param po Horní mez názvu (vyloučena), {@code null} znamená bez horní meze
+     *
+     * @return {@link Iterator} obcí v daném intervalu
+     */
+    Iterator<Obec> vytvorIterator(String od, String po);
+
+    /**
+     * Vrací iterátor obcí, jejichž název začíná zadanou předponou (např. všechny obce začínající na "Nov"),
+     * seřazených podle názvu
+     *
+     * @param predpona Předpona názvu obce
+     *
+     * @return {@link Iterator} obcí se zadanou předponou
+     */
+    Iterator<Obec> vytvorIteratorPredpony(String predpona);
+
+    /**
+     * Vrací názvy obcí pro doplnění při psaní: nejvýše {@code pocet} abecedně prvních názvů, které začínají
+     * zadanou předponou. Doba odezvy závisí na délce předpony a počtu doplnění, ne na počtu obcí
+     *
+     * @param predpona Předpona názvu obce
+     * @param pocet Nejvyšší počet vrácených názvů
+     *
+     * @return Seřazené názvy obcí se zadanou předponou
+     *
+     * @throws IllegalArgumentException Pokud je {@code pocet} záporný
+     */
+    List<String> dejDoplneni(String predpona, int pocet);
+
+    /**
+     * Vrací počet obcí, jejichž název začíná zadanou předponou
+     *
+     * @param predpona Předpona názvu obce
+     *
+     * @return Počet obcí se zadanou předponou
+     */
+    int dejPocetSPredponou(String predpona);
+
+    /**
+     * Vrací součty počtů mužů, žen a obyvatel obcí, jejichž názvy leží v polouzavřeném intervalu
+     * {@code [od, po)}, v čase {@code O(log n)}
+     *
+     * @param od Dolní mez názvu (včetně), {@code null} znamená bez dolní meze
+     * @param po Horní mez názvu (vyloučena), {@code null} znamená bez horní meze
+     *
+     * @return Souhrn obyvatel obcí v intervalu
+     */
+    SouhrnObyvatel dejSouhrnObyvatel(String od, String po);
+
+    /**
+     * Vyhledání obcí podle PSČ
+     *
+     * @param psc PSČ obce
+     *
+     * @return Obce se zadaným PSČ seřazené podle názvu
+     */
+    List<Obec> najdiPodlePsc(String psc);
+
+    /**
+     * Vyhledání obcí podle čísla kraje
+     *
+     * @param cisloKraje Číslo kraje
+     *
+     * @return Obce zadaného kraje seřazené podle názvu
+     */
+    List<Obec> najdiPodleKraje(int cisloKraje);
+
+    /**
+     * Vyhledání obcí, jejichž celkový počet obyvatel leží v polouzavřeném intervalu {@code [od, po)}
+     *
+     * @param od Dolní mez počtu obyvatel (včetně)
+     * @param po Horní mez počtu obyvatel (vyloučena)
+     *
+     * @return Obce seřazené podle počtu obyvatel, potom podle názvu
+     */
+    List<Obec> najdiPodlePoctuObyvatel(int od, int po);
+
+    /**
+     * Zaregistruje další index obcí (např. {@link cz.upce.fei.bdats.strom.SekundarniIndex} podle jiného
+     * atributu). Index se nejprve naplní obcemi, které agenda již obsahuje, a dále se udržuje při každém
+     * vložení, odebrání, importu, generování i zrušení
+     *
+     * @param index Registrovaný index
+     */
+    void pridejIndex(PosluchacTabulky<? super K, ? super V> index);
+
     /**
      * Umožnuje generovat jednotlivé obce
      *
@@ -80,7 +198,7 @@ public interface IAgendaKraj<K extends Comparable<K>, V> {
     void generuj(int pocet);
 
     /**
-     * Vratí nově vytvořenou instanci stromu se stejným obsahem
+     * Vratí instanci stromu se stejným obsahem. Pozdější změny agendy se ve vrácené instanci neprojeví
      *
      * @return Nová instance binárního vyhledávacího stromu
      *
@@ -95,9 +213,31 @@ public interface IAgendaKraj<K extends Comparable<K>, V> {
     void zrus();
 
     /**
-     * Vratí text s vnitřním uspořádání binárního stromu podle zvoleného typu prohlížení
+     * Vrací okamžitý tvar stromu agendy (výška, průměrná hloubka, histogram hloubek), např. pro odhalení
+     * degenerovaného stromu
+     *
+     * @return Metriky stromu
+     */
+    MetrikyStromu dejMetriky();
+
+    /**
+     * Vrací průběžná počítadla porovnání klíčů, vložení, odebrání a vyvažovacích kroků stromu agendy. Počítadla
+     * jsou ve výchozím stavu vypnutá a počítají až po {@link PocitadlaStromu#zapni()}
+     *
+     * @return Počítadla stromu
+     */
+    PocitadlaStromu dejPocitadla();
+
+    /**
+     * Zapíše výřez textu s vnitřním uspořádáním stromu podle zvoleného typu prohlížení přímo do zadaného cíle
+     * jediným průchodem stromu, aniž by se celý výpis sestavil v paměti. Každý prvek má ve výpisu jeden řádek
+     *
+     * @param typ Typ prohlížení
+     * @param cil Cíl výpisu, např. {@link java.io.Writer} souboru nebo {@link StringBuilder} stránky
+     * @param od Pořadí prvního vypsaného prvku (od nuly)
+     * @param pocet Nejvyšší počet vypsaných prvků
      *
-     * @return Textový řetězec s popisem struktury stromu
+     * @throws IOException Pokud selže zápis do cíle
      */
-    String vypisStrom(ETypProhl typ);
+    void vypisStrom(ETypProhl typ, Appendable cil, int od, int pocet) throws IOException;
 }
@@ -0,0 +1,23 @@
+package cz.upce.fei.bdats.data;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Záznam představuje souhrnné počty obyvatel skupiny obcí (např. obcí s názvy v zadaném intervalu), tj. součty
+ * hodnot {@link Obec#getPocetMuzu()}, {@link Obec#getPocetZen()} a {@link Obec#getCelkem()}
+ *
+ * @param pocetMuzu Součet počtů mužů
+ * @param pocetZen Součet počtů žen
+ * @param celkem Součet celkových počtů obyvatel
+ */
+public record SouhrnObyvatel(long pocetMuzu, long pocetZen, long celkem) {
+
+    @Override
+    public @NotNull String toString() {
+        return "SouhrnObyvatel{" +
+                "pocetMuzu=" + pocetMuzu +
+                ", pocetZen=" + pocetZen +
+                ", celkem=" + celkem +
+                '}';
+    }
+}
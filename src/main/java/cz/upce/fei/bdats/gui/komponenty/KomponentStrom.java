@@ -19,7 +19,9 @@ import javafx.scene.control.ChoiceBox;
 import javafx.scene.layout.GridPane;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.StringJoiner;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 // </editor-fold>
@@ -242,7 +244,8 @@ public final class KomponentStrom extends TitulkovyPanel {
 
     /**
      * Obstarává společné kroky pro vyhledání obce v seznamu a provedení akce nad nalezeným prvkem
-     * (pro operace vyhledávání a odebírání prvku)
+     * (pro operace vyhledávání a odebírání prvku). Pokud obec nalezena není, nabídne chybové hlášení názvy
+     * obcí, které se od zadaného názvu liší jen o několik znaků (překlep)
      *
      * @param dialog Dialogové okno
      * @param akce Funkce v podobě objektu rozhraní {@link Consumer}, která bude provedena nad nalezeným prvkem
@@ -253,12 +256,32 @@ public final class KomponentStrom extends TitulkovyPanel {
         if (odpoved.isPresent() && dialog.jeTlacitkoOk(odpoved.get())) {
             final String klic = dialog.getTfNazevObce().getText();
             final Optional<Obec> nalezenaObec = seznamPanel.nalezni(klic);
-            nalezenaObec.ifPresentOrElse(
-                    akce,
-                    () -> ErrorAlert.nahlasErrorLog(ZpravaLogu.LOG_NALEZENI_NENI_PRVEK.getZprava()));
+            nalezenaObec.ifPresentOrElse(akce, () -> nahlasNenalezenouObec(klic));
         }
     }
 
+    /**
+     * Oddělovač názvů podobných obcí v chybovém hlášení
+     */
+    private final String ODDELOVAC_NAZVU = ", ";
+
+    /**
+     * Nahlásí neúspěšné vyhledání obce, případně s názvy podobných obcí
+     *
+     * @param klic Název obce zadaný uživatelem
+     */
+    private void nahlasNenalezenouObec(String klic) {
+        final List<Obec> podobne = seznamPanel.nalezniPodobne(klic);
+        if (podobne.isEmpty()) {
+            ErrorAlert.nahlasErrorLog(ZpravaLogu.LOG_NALEZENI_NENI_PRVEK.getZprava());
+            return;
+        }
+        final StringJoiner nazvy = new StringJoiner(ODDELOVAC_NAZVU, ZpravaLogu.LOG_NALEZENI_PODOBNE.getZprava(), "");
+        for (Obec obec : podobne)
+            nazvy.add(obec.getNazevObce());
+        ErrorAlert.nahlasErrorLog(nazvy.toString());
+    }
+
     /**
      * Přepne všechny ostatní tlačítka po odebírání prvku ze stromu
      */
@@ -12,6 +12,7 @@ import javafx.scene.text.Font;
 import org.jetbrains.annotations.NotNull;
 import java.io.IOException;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -26,6 +27,12 @@ public interface ISeznamPanel<T> {
     String NAZEV_SEZNAM_FONTU = "Monospaced";
     int DIMENZE_SEZNAM_FONTU = 13;
     String PRAZDNY_RETEZEC = "";
+    /**
+     * Nejvyšší editační vzdálenost názvů nabízených po neúspěšném vyhledání (viz
+     * {@link ISeznamPanel#nalezniPodobne(String)})
+     */
+    int MAX_VZDALENOST_NAZVU = 2;
+    int MAX_POCET_PODOBNYCH = 10;
 
     /**
      * Přidá novou obec do seznamu {@link ListView} a samotného stromu pomocí její agendy {@link AgendaKraj}
@@ -67,6 +74,16 @@ public interface ISeznamPanel<T> {
      */
     Optional<Obec> nalezni(String klic);
 
+    /**
+     * Nalezne prvky, jejichž klíč se od vstupního klíče liší nejvýše o {@link ISeznamPanel#MAX_VZDALENOST_NAZVU}
+     * znaků (např. při překlepu v názvu obce)
+     *
+     * @param klic Klíč, podle kterého bude probíhat vyhledávání prvků
+     *
+     * @return Nejvýše {@link ISeznamPanel#MAX_POCET_PODOBNYCH} nalezených prvků seřazených od nejpodobnějšího
+     */
+    List<Obec> nalezniPodobne(String klic);
+
     /**
      * Vymaže předaný prvek ze seznamu. Nevrací odebranou hodnotu a nekontroluje, zda vstupní obec existuje nebo
      * ne - musí to být zajišťěno před voláním této metody
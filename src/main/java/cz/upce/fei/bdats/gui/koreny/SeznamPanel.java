@@ -9,7 +9,10 @@ import cz.upce.fei.bdats.vyjimky.SeznamPanelException;
 import javafx.scene.control.ListView;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -85,14 +88,7 @@ public final class SeznamPanel extends ListView<String> implements ISeznamPanel<
     }
 
     @Override
-    public boolean jeUnikatnimKlicem(String klic) {
-        try {
-            agendaKraj.najdi(klic);
-            return false;
-        } catch (AgendaKrajException ex) {
-            return true;
-        }
-    }
+    public boolean jeUnikatnimKlicem(String klic) { return !agendaKraj.obsahuje(klic); }
 
     @Override
     public Optional<Obec> nalezni(String klic) {
@@ -103,6 +99,12 @@ public final class SeznamPanel extends ListView<String> implements ISeznamPanel<
         }
     }
 
+    @Override
+    public List<Obec> nalezniPodobne(@NotNull String klic) {
+        final List<Obec> podobne = agendaKraj.najdiPodobne(klic, MAX_VZDALENOST_NAZVU);
+        return podobne.subList(0, Math.min(podobne.size(), MAX_POCET_PODOBNYCH));
+    }
+
     @Override
     public boolean vymaz(@NotNull Obec obec) {
         try {
@@ -123,11 +125,21 @@ public final class SeznamPanel extends ListView<String> implements ISeznamPanel<
         this.getItems().remove(obec.toString());
     }
 
+    /**
+     * Výpis se zapisuje do jediného {@link StringBuilder} jedním průchodem stromu agendy (viz
+     * {@link IAgendaKraj#vypisStrom(ETypProhl, Appendable, int, int)})
+     */
     @Override
     public void vypisStrom(ETypProhl typ) {
         ulozAktualniStav();
         vycistiSeznam();
-        this.getItems().add(agendaKraj.vypisStrom(typ));
+        final StringBuilder vypis = new StringBuilder();
+        try {
+            agendaKraj.vypisStrom(typ, vypis, 0, Integer.MAX_VALUE);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        this.getItems().add(vypis.toString());
     }
 
     @Override
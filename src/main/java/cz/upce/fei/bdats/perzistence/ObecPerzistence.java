@@ -7,7 +7,9 @@ import cz.upce.fei.bdats.vyjimky.StromException;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.*;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 /**
  * Implementace rozhraní {@link IPerzistence} pro perzistenci dat obcí do/z CSV souboru
@@ -16,9 +18,16 @@ public final class ObecPerzistence implements IPerzistence<String, Obec> {
 
     /**
      * {@inheritDoc}
+     *
+     * <p> Obce se nejprve načtou celé a poté se vloží do tabulky najednou metodou
+     * {@link IAbstrTable#vlozVse(Comparable[], Object[])}. Soubor uložený metodou {@link ObecPerzistence#ulozCsv}
+     * je seřazený podle názvu obce, takže se z něj strom postaví v lineárním čase. Pokud soubor obsahuje chybný
+     * řádek nebo duplicitní název obce, nevloží se do tabulky nic
      */
     @Override
     public boolean nactiCsv(IAbstrTable<String, Obec> strom, String cesta) throws IOException {
+        final List<String> nazvyObci = new ArrayList<>();
+        final List<Obec> obce = new ArrayList<>();
         try (BufferedReader br = new BufferedReader(new FileReader(cesta))) {
             String line;
             while ((line = br.readLine()) != null) {
@@ -39,11 +48,13 @@ public final class ObecPerzistence implements IPerzistence<String, Obec> {
                             pocetMuzu,
                             pocetZen,
                             celkem);
-                    strom.vloz(nazevObce, obec);
+                    nazvyObci.add(nazevObce);
+                    obce.add(obec);
                 } else {
                     return false;
                 }
             }
+            strom.vlozVse(nazvyObci.toArray(new String[0]), obce.toArray(new Obec[0]));
         } catch (StromException e) {
             return false;
         }
@@ -6,8 +6,15 @@ import cz.upce.fei.bdats.vyjimky.StrukturaException;
 import cz.upce.fei.bdats.vyjimky.zpravy.ChybovaZpravaStromu;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
 
 /**
  * Třída představuje implementaci abstraktního binárního vyhledávacího stromu. Strom obsahuje uzly
@@ -15,12 +22,38 @@ import java.util.NoSuchElementException;
  * rychlé vyhledávání prvků. Používá generické typy pro klíče {@code K} a hodnoty {@code V}, kde {@code K}
  * musí implementovat rozhraní {@link Comparable}. Klíče jsou porovnávány pro uspořádání stromu
  *
+ * <p> Strom je udržován jako <b>AVL strom</b>: po každém vložení a odebrání se na cestě od změněného uzlu ke
+ * kořeni přepočítá výška a mohutnost uzlů a případná nevyváženost (rozdíl výšek podstromů větší než jedna)
+ * se odstraní rotací. Výška stromu je tak vždy nejvýše {@code 1.44 * log2(n)}, a to i při vkládání
+ * seřazených klíčů (např. opakovaný import souboru uloženého v in-order pořadí)
+ *
+ * <p> Volitelný {@link KodovacKlice} (např. {@link RetezcovyKodovac} pro názvy obcí) uloží do každého uzlu
+ * zhuštěnou předponu klíče. Vyhledávání, vkládání a odebírání pak na každém patře nejprve porovnají předpony
+ * jako čísla {@code long} a úplné porovnání klíčů ({@link Comparable#compareTo(Object)}) provedou jen při
+ * shodě předpon (totéž platí pro pořadové a navigační dotazy). Porovnání rozhodnutá předponou se do počítadla
+ * porovnání ({@link PocitadlaStromu}) nezapočítávají, takže počítadlo ukazuje, kolik úplných porovnání kodér
+ * ušetřil
+ *
+ * <p> Volitelné číselné ukazatele hodnot (např. počty obyvatel obce, viz
+ * {@link AbstrTable#AbstrTable(List)}) se sčítají za každý podstrom stejně jako mohutnost, takže součet
+ * ukazatelů prvků v intervalu klíčů ({@link AbstrTable#dejSoucty(Comparable, Comparable)}) stojí
+ * {@code O(log n)}
+ *
  * @param <K> Typ klíče prvků v stromu, musí implementovat {@link Comparable}
  * @param <V> Typ hodnoty
  */
 public final class AbstrTable<K extends Comparable<K>, V> implements IAbstrTable<K, V> {
 
     private Uzel koren;
+    private final PocitadlaStromu pocitadla = new PocitadlaStromu();
+    /**
+     * Kodér předpon klíčů, {@code null} pokud tabulka předpony nepoužívá (všechny předpony jsou pak nulové)
+     */
+    private final KodovacKlice<K> kodovac;
+    /**
+     * Ukazatele hodnot sčítané za podstromy, {@code null} pokud tabulka součty neudržuje
+     */
+    private final Ukazatele<V> ukazatele;
 
     /**
      * Konstanta pro nulu
@@ -31,32 +64,73 @@ public final class AbstrTable<K extends Comparable<K>, V> implements IAbstrTable
      * zejména u metody {@link AbstrTable#dejMohutnost(Comparable)}
      */
     private final int UKAZATEL_ABSENCE = -1;
+    /**
+     * Konstanty reprezentují mohutnost a výšku listu, tj. uzlu bez potomků (mohutnost i výška prázdného
+     * podstromu jsou nulové)
+     */
+    private final int MOHUTNOST_LISTU = 1;
+    private final int VYSKA_LISTU = 1;
+    /**
+     * Konstanta pro maximální povolený rozdíl výšek levého a pravého podstromu v AVL stromu
+     */
+    private final int MAX_ROZDIL_VYSEK = 1;
+    /**
+     * Konstanta reprezentuje předponu klíče v tabulce bez kodéru
+     */
+    private final long ZADNA_PREDPONA = 0L;
 
     /**
-     * Privátní třída reprezentující uzel stromu. Každý uzel má klíč, hodnotu,
-     * levý a pravý podstrom a velikost
+     * Privátní třída reprezentující uzel stromu. Každý uzel má klíč, zakódovanou předponu klíče, hodnotu,
+     * levý a pravý podstrom, velikost (mohutnost), výšku a součty ukazatelů svého podstromu
      */
     private class Uzel {
         K klic;
+        long predpona;
         V hodnota;
         Uzel rodic;
         Uzel vlevo;
         Uzel vpravo;
         int mohutnost;
+        int vyska;
+        long[] soucty;
 
         Uzel(K klic, V hodnota, Uzel rodic) {
             this.klic = klic;
+            this.predpona = zakoduj(klic);
             this.hodnota = hodnota;
             this.rodic = rodic;
             vlevo = vpravo = null;
-            mohutnost = NULTA_HODNOTA;
+            mohutnost = MOHUTNOST_LISTU;
+            vyska = VYSKA_LISTU;
+            soucty = ukazatele == null ? null : ukazatele.spocitej(null, hodnota, null, null);
         }
     }
 
     /**
      * Konstruktor inicializuje kořen stromu jako {@code null}
      */
-    public AbstrTable() { koren = null; }
+    public AbstrTable() { this(null, null); }
+
+    /**
+     * Konstruktor vytvoří prázdnou tabulku, která do uzlů ukládá předpony klíčů zakódované zadaným kodérem
+     *
+     * @param kodovac Kodér předpon klíčů
+     */
+    public AbstrTable(@NotNull KodovacKlice<K> kodovac) { this(kodovac, null); }
+
+    /**
+     * Konstruktor vytvoří prázdnou tabulku, která v každém uzlu udržuje součty zadaných ukazatelů hodnot za
+     * celý podstrom (viz {@link AbstrTable#dejSoucty(Comparable, Comparable)})
+     *
+     * @param ukazatele Funkce, které z hodnoty spočítají jednotlivé ukazatele (např. {@code Obec::getCelkem})
+     */
+    public AbstrTable(@NotNull List<ToLongFunction<? super V>> ukazatele) { this(null, new Ukazatele<>(ukazatele)); }
+
+    private AbstrTable(KodovacKlice<K> kodovac, Ukazatele<V> ukazatele) {
+        this.koren = null;
+        this.kodovac = kodovac;
+        this.ukazatele = ukazatele;
+    }
 
     /**
      * Nastaví kořen stromu na {@code null} pro zrušení celého stromu
@@ -70,6 +144,9 @@ public final class AbstrTable<K extends Comparable<K>, V> implements IAbstrTable
     @Override
     public boolean jePrazdny() { return koren == null; }
 
+    @Override
+    public @NotNull PocitadlaStromu dejPocitadla() { return pocitadla; }
+
 // <editor-fold defaultstate="collapsed" desc="Metoda: V najdi(K klic)">
     /**
      * Popis logiky:
@@ -79,10 +156,10 @@ public final class AbstrTable<K extends Comparable<K>, V> implements IAbstrTable
      *     <li> <b>pozadatNePrazdnyKlic(klic)</b>
      *     <li> <b>pozadatNePrazdnyKoren()</b>
      *     </ul>
-     * <li> Rekurzivně vyhledává hodnoty v stromu až nenajde uzel, který obsahuje hledanou hodnotu, následně
+     * <li> Iterativně sestupuje stromem, dokud nenajde uzel, který obsahuje hledaný klíč, následně
      * vrátí hodnotu tohoto uzlu. Pokud ale je nalezený uzel {@code null}, vyvolá výjimku
      *     <ul>
-     *     <li> <b>final Uzel uzel = najdiRekurzivne(koren, klic)</b>
+     *     <li> <b>final Uzel uzel = najdiUzel(klic)</b>
      *     <li> <b>if (uzel == null)</b>
      *     <li> <b>return uzel.hodnota</b>
      *     </ul>
@@ -93,47 +170,54 @@ public final class AbstrTable<K extends Comparable<K>, V> implements IAbstrTable
         pozadatNePrazdnyKlic(klic);
         pozadatNePrazdnyKoren();
 
-        final Uzel uzel = najdiRekurzivne(koren, klic);
+        final Uzel uzel = najdiUzel(klic);
         if (uzel == null)
             throw new StromException(ChybovaZpravaStromu.PRVEK_NENALEZEN.getZprava());
         return uzel.hodnota;
     }
 
     /**
-     * Pomocná metoda pro {@link AbstrTable#vloz(Comparable, Object)}}
+     * Vyhledá hodnotu podle klíče bez výjimky pro chybějící prvek (pro doplňkové indexy v tomto balíčku, např.
+     * {@link SekundarniIndex}, kde je chybějící klíč běžným případem a výjimka by stála vyplnění zásobníku
+     * volání)
      *
-     * <p> Popis logiký jednotlivých bloků kódu:
-     * <ol>
-     * <li> Pokud je {@code uzel} prázdný (neexistuje), vrátí {@code null}
-     *     <ul>
-     *     <li> <b>if (uzel == null)</b>
-     *     </ul>
-     * <li> Porovnává klíč, podle kterého se provádí vyhledívaní s klíčem aktuálního uzlu
-     *     <ul>
-     *     <li> <b>jeNula(klic, uzel.klic)</b>: Pokud klíče jsou ekvivalentní, vrátí nalezený {@code uzel}
-     *     <li> <b>jeZaporne(klic, uzel.klic)</b>: Pokud klíč  je menší než klíč uzlu, pokračuje hledat v levém
-     *     podstromu rekurzivně
-     *     <li> <b>jeKladne(klic, uzel.klic)</b>: Pokud klíč je větší než klíč uzlu, pokračuje hledat v pravém
-     *     podstromu rekurzivně
-     *     </ul>
-     * </ol>
+     * @param klic Klíč hledaného prvku
+     *
+     * @return Hodnota prvku nebo {@code null}, pokud tabulka prvek neobsahuje (nebo je klíč {@code null})
+     */
+    V dejHodnotu(K klic) {
+        final Uzel uzel = najdiUzel(klic);
+        return uzel == null ? null : uzel.hodnota;
+    }
+
+    /**
+     * Pomocná metoda pro vyhledání uzlu podle klíče
+     *
+     * <p> Vyhledávání je iterativní (nevyužívá zásobník volání), takže je bezpečné při libovolné hloubce
+     * stromu. Na každém patře se klíče porovnají právě jednou a podle výsledku se pokračuje:
+     * <ul>
+     * <li> <b>vysledek == NULTA_HODNOTA</b>: Klíče jsou ekvivalentní, vrátí nalezený {@code uzel}
+     * <li> <b>vysledek < NULTA_HODNOTA</b>: Klíč je menší než klíč uzlu, pokračuje v levém podstromu
+     * <li> <b>else</b>: Klíč je větší než klíč uzlu, pokračuje v pravém podstromu
+     * </ul>
      *
-     * @param uzel Aktuální uzel, ve kterém se provádí vyhledávání
      * @param klic Klíč, podle kterého se vyhledává hodnota
      *
      * @return {@link Uzel} odpovídající zadanému klíči nebo {@code null}, pokud hodnota není nalezena
+     * (nebo je klíč {@code null})
      */
-    private Uzel najdiRekurzivne(Uzel uzel, K klic) {
-        if (uzel == null)
+    private Uzel najdiUzel(K klic) {
+        if (klic == null)
             return null;
 
-        if (jeNula(klic, uzel.klic))
-            return uzel;
-        if (jeZaporne(klic, uzel.klic))
-            return najdiRekurzivne(uzel.vlevo, klic);
-        if (jeKladne(klic, uzel.klic))
-            return najdiRekurzivne(uzel.vpravo, klic);
-
+        final long predpona = zakoduj(klic);
+        Uzel uzel = koren;
+        while (uzel != null) {
+            final int vysledek = porovnejSUzlem(klic, predpona, uzel);
+            if (vysledek == NULTA_HODNOTA)
+                return uzel;
+            uzel = vysledek < NULTA_HODNOTA ? uzel.vlevo : uzel.vpravo;
+        }
         return null;
     }
 // </editor-fold>
@@ -142,110 +226,241 @@ public final class AbstrTable<K extends Comparable<K>, V> implements IAbstrTable
     /**
      * Popis logiký jednotlivých bloků kódu:
      * <ol>
-     * <li> Zkontroluje, zda klíč není prázdný a zda klíč již existuje ve stromu
+     * <li> Zkontroluje, zda klíč není prázdný. Pokud kořen stromu neexistuje, vytvoří nový uzel jako kořen
      *     <ul>
      *     <li> <b>pozadatNePrazdnyKlic(klic)</b>
-     *     <li> <b>if (jeExistujicimKlicem(klic))</b>
+     *     <li> <b>if (koren == null)</b>
      *     </ul>
-     * <li> Pokud kořen stromu existuje, provede rekurzivní vkládání nového uzlu, v opačmém případě (kořen
-     * neexistuje), vytvoří nový uzel
+     * <li> Jediným iterativním sestupem od kořene hledá místo pro nový uzel. Na každém patře porovná klíče
+     * právě jednou; pokud narazí na uzel se stejným klíčem, vyhodí výjimku (existence klíče se tak nezjišťuje
+     * samostatným průchodem stromu předem)
      *     <ul>
-     *     <li> <b>if (koren == null)</b>
-     *     <li> <b>else</b>
+     *     <li> <b>vysledek == NULTA_HODNOTA</b>: Duplicitní klíč
+     *     <li> <b>vysledek < NULTA_HODNOTA</b>: Pokračuje vlevo
+     *     <li> <b>else</b>: Pokračuje vpravo
      *     </ul>
-     * <li> Zvětší mohutnost kořene stromu o hodnotu konstanty
+     * <li> Připojí nový uzel k poslednímu navštívenému uzlu (podle posledního výsledku porovnání) a při
+     * jediném průchodu zpět ke kořeni přepočítá mohutnost a výšku uzlů a vyváží strom
      *     <ul>
-     *     <li> <b>koren.mohutnost</b>
+     *     <li> <b>vyvazCestuKeKoreni(rodic)</b>
      *     </ul>
      * </ol>
      */
     @Override
     public void vloz(K klic, V hodnota) throws StromException {
         pozadatNePrazdnyKlic(klic);
-        if (jeExistujicimKlicem(klic))
-            throw new StromException(ChybovaZpravaStromu.EXISTUJICI_KLIC.getZprava());
-
         if (koren == null) {
             koren = new Uzel(klic, hodnota, null);
-            aktualizujMohutnostPoVlozeni(koren);
-        }
-        else {
-            final Uzel novyUzel = vlozRekurzivne(klic, hodnota, koren);
-            aktualizujMohutnostPoVlozeni(novyUzel);
+            pocitadla.zapocitejVlozeni();
+            return;
         }
+
+        final long predpona = zakoduj(klic);
+        Uzel rodic;
+        Uzel uzel = koren;
+        int vysledek;
+        do {
+            rodic = uzel;
+            vysledek = porovnejSUzlem(klic, predpona, uzel);
+            if (vysledek == NULTA_HODNOTA)
+                throw new StromException(ChybovaZpravaStromu.EXISTUJICI_KLIC.getZprava());
+            uzel = vysledek < NULTA_HODNOTA ? uzel.vlevo : uzel.vpravo;
+        } while (uzel != null);
+
+        final Uzel novyUzel = new Uzel(klic, hodnota, rodic);
+        if (vysledek < NULTA_HODNOTA)
+            rodic.vlevo = novyUzel;
+        else
+            rodic.vpravo = novyUzel;
+        vyvazCestuKeKoreni(rodic);
+        pocitadla.zapocitejVlozeni();
     }
+// </editor-fold>
 
+// <editor-fold defaultstate="collapsed" desc="Metoda: void vlozVse(K[] klice, V[] hodnoty)">
     /**
-     * Pomocná metoda pro {@link AbstrTable#vloz(Comparable, Object)}}
-     *
-     * <p> Popis logiký:
+     * Popis logiký jednotlivých bloků kódu:
      * <ol>
-     * <li> Provádí rekurzivní prohledávání stromu, dokud nenalezne uzel se zadaným klíčem {@code klic}
+     * <li> Ověří vstupní pole a zkopíruje je (vstupní pole volajícího se nemění)
+     *     <ul>
+     *     <li> <b>NastrojeTabulek.overDavku(klice, hodnoty)</b>
+     *     </ul>
+     * <li> Jedním průchodem zjistí, zda jsou klíče vzestupně seřazené, a zároveň odhalí sousední duplicity.
+     * Pokud seřazené nejsou, seřadí se (spolu s hodnotami) a kontrola duplicit se provede znovu
+     *     <ul>
+     *     <li> <b>NastrojeTabulek.seradDavku(noveKlice, noveHodnoty, this::porovnej)</b>
+     *     </ul>
+     * <li> Pokud tabulka není prázdná, slije její in-order posloupnost s novými klíči (a odhalí duplicity
+     * vůči tabulce). Žádná změna tabulky se neprovede, dokud není jisté, že vstup neobsahuje duplicitu
+     * <li> Z výsledné seřazené posloupnosti postaví dokonale vyvážený strom v lineárním čase
+     *     <ul>
+     *     <li> <b>koren = postavPodstrom(...)</b>
+     *     </ul>
      * </ol>
+     */
+    @Override
+    public void vlozVse(K[] klice, V[] hodnoty) throws StromException {
+        NastrojeTabulek.overDavku(klice, hodnoty);
+
+        K[] noveKlice = Arrays.copyOf(klice, klice.length);
+        V[] noveHodnoty = Arrays.copyOf(hodnoty, hodnoty.length);
+        NastrojeTabulek.seradDavku(noveKlice, noveHodnoty, this::porovnej);
+
+        if (koren != null) {
+            final int pocet = dejMohutnostUzlu(koren) + noveKlice.length;
+            final K[] vsechnyKlice = NastrojeTabulek.vytvorPoleKlicu(pocet);
+            final V[] vsechnyHodnoty = NastrojeTabulek.vytvorPoleHodnot(pocet);
+            slijSTabulkou(noveKlice, noveHodnoty, vsechnyKlice, vsechnyHodnoty);
+            noveKlice = vsechnyKlice;
+            noveHodnoty = vsechnyHodnoty;
+        }
+        koren = postavPodstrom(noveKlice, noveHodnoty, NULTA_HODNOTA, noveKlice.length, null);
+        pocitadla.zapocitejVlozeni(klice.length);
+    }
+
+    /**
+     * Slije in-order posloupnost tabulky se seřazenými novými klíči do výstupních polí
      *
-     * @param klic Klíč, který se má zkontrolovat na existenci ve stromu
-     *
-     * @return {@code true}, pokud klíč již existuje ve stromu, jinak {@code false}
+     * @throws StromException Pokud se některý nový klíč již v tabulce nachází
      */
-    private boolean jeExistujicimKlicem(K klic) {
-        return najdiRekurzivne(koren, klic) != null;
+    private void slijSTabulkou(K[] noveKlice, V[] noveHodnoty,
+                               K[] klice, V[] hodnoty) throws StromException {
+        int iNovy = NULTA_HODNOTA;
+        int iVystup = NULTA_HODNOTA;
+        for (Uzel uzel = najdiMinimum(koren); uzel != null; uzel = najdiNaslednika(uzel)) {
+            while (iNovy < noveKlice.length) {
+                final int vysledek = porovnej(noveKlice[iNovy], uzel.klic);
+                if (vysledek == NULTA_HODNOTA)
+                    throw new StromException(ChybovaZpravaStromu.EXISTUJICI_KLIC.getZprava());
+                if (vysledek > NULTA_HODNOTA)
+                    break;
+                klice[iVystup] = noveKlice[iNovy];
+                hodnoty[iVystup++] = noveHodnoty[iNovy++];
+            }
+            klice[iVystup] = uzel.klic;
+            hodnoty[iVystup++] = uzel.hodnota;
+        }
+        while (iNovy < noveKlice.length) {
+            klice[iVystup] = noveKlice[iNovy];
+            hodnoty[iVystup++] = noveHodnoty[iNovy++];
+        }
     }
 
     /**
-     * Pomocná metoda pro {@link AbstrTable#vloz(Comparable, Object)}}
+     * Postaví dokonale vyvážený podstrom ze seřazeného úseku {@code [od, po)}. Kořenem podstromu je prostřední
+     * prvek úseku, levý a pravý podstrom se postaví z levé a pravé poloviny. Mohutnosti obou polovin se liší
+     * nejvýše o jedničku, a proto je výsledný strom zároveň AVL stromem s minimální výškou
      *
-     * <p> Popis logiký jednotlivých bloků kódu:
+     * <p> Hloubka rekurze je rovna výšce stavěného stromu, tj. {@code log2(n)}
+     *
+     * @param klice Seřazené klíče
+     * @param hodnoty Hodnoty odpovídající klíčům
+     * @param od Začátek úseku (včetně)
+     * @param po Konec úseku (vyloučen)
+     * @param rodic Rodič kořene podstromu
+     *
+     * @return Kořen postaveného podstromu nebo {@code null} pro prázdný úsek
+     */
+    private Uzel postavPodstrom(K[] klice, V[] hodnoty, int od, int po, Uzel rodic) {
+        if (od >= po)
+            return null;
+        final int stred = (od + po) >>> 1;
+        final Uzel uzel = new Uzel(klice[stred], hodnoty[stred], rodic);
+        uzel.vlevo = postavPodstrom(klice, hodnoty, od, stred, uzel);
+        uzel.vpravo = postavPodstrom(klice, hodnoty, stred + 1, po, uzel);
+        prepocitejUzel(uzel);
+        return uzel;
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Metoda: VysledekDavky<K> vlozDavku(K[] klice, V[] hodnoty)">
+    /**
+     * Popis logiky:
      * <ol>
-     * <li> Porovná klíče a rozhodne, do kterého podstromu nový uzel patří
+     * <li> Ověří vstupní pole a zkopíruje je. Pokud klíče nejsou vzestupně seřazené, seřadí je spolu
+     * s hodnotami; řazení je stabilní, takže z opakujících se klíčů dávky je první vždy prvek vložený dříve
+     *     <ul>
+     *     <li> <b>NastrojeTabulek.seradPodleKlicu(noveKlice, noveHodnoty, this::porovnej)</b>
+     *     </ul>
+     * <li> Jedním průchodem seřazené dávky vyřadí opakující se (sousední) klíče mezi odmítnuté
+     *     <ul>
+     *     <li> <b>vyradOpakovane(noveKlice, noveHodnoty, odmitnute)</b>
+     *     </ul>
+     * <li> Rekurzivně sestupuje stromem v in-order pořadí a seřazenou dávku dělí binárním vyhledáním podle
+     * klíče uzlu na menší a větší část; klíč shodný s klíčem uzlu se odmítne. Podstrom, do kterého nepatří
+     * žádný nový klíč, se převezme beze změny a z úseku dávky, který připadne prázdnému podstromu, se postaví
+     * dokonale vyvážený podstrom
      *     <ul>
-     *     <li> <b>jeKladne(aktualniUzel.klic, klic)</b>: Pokud klíč uzlu je větší než klíč nového uzlu {@code klic},
-     *     vloží nový uzel do levého podstromu
-     *          <ul>
-     *          <li> <b>else</b>: Pokud levý potomek uzlu {@code aktualniUzel.vlevo} není prázdný, volá se rekurzivně
-     *          tato metoda pro levého potomka
-     *          </ul>
-     *     <li> <b>else</b>: Pokud klíč uzlu je menší nebo roven klíči nového uzlu {@code klic}, vloží nový uzel do
-     *     pravého podstromu
-     *          <ul>
-     *          <li> <b>else</b>: Pokud pravý potomek uzlu {@code aktualniUzel.vpravo} není prázdný, volá se
-     *          rekurzivně tato metoda pro pravého potomka
-     *          </ul>
+     *     <li> <b>vlozSerazene(koren, ...)</b>
      *     </ul>
+     * <li> Uzel se zpracovanými podstromy se znovu připojí spojením, které strom udrží vyvážený
      * </ol>
+     * Pro dávku s {@code m} prvky a tabulku s {@code n} prvky stojí sloučení {@code O(m log(n/m + 1))}:
+     * malá dávka projde jen cesty ke svým místům, velká dávka zpracuje každý uzel nejvýše jednou, tj. stejně
+     * jako přestavění stromu, ale bez vytváření nových uzlů pro stávající prvky
+     */
+    @Override
+    public @NotNull VysledekDavky<K> vlozDavku(K[] klice, V[] hodnoty) throws StromException {
+        NastrojeTabulek.overDavku(klice, hodnoty);
+
+        final K[] noveKlice = Arrays.copyOf(klice, klice.length);
+        final V[] noveHodnoty = Arrays.copyOf(hodnoty, hodnoty.length);
+        if (!NastrojeTabulek.jsouNeklesajici(noveKlice, this::porovnej))
+            NastrojeTabulek.seradPodleKlicu(noveKlice, noveHodnoty, this::porovnej);
+        final List<K> odmitnute = new ArrayList<>();
+        final int pocet = vyradOpakovane(noveKlice, noveHodnoty, odmitnute);
+
+        final int puvodniMohutnost = dejMohutnostUzlu(koren);
+        koren = odpoj(vlozSerazene(odpoj(koren), noveKlice, noveHodnoty, NULTA_HODNOTA, pocet, odmitnute));
+        final int pocetVlozenych = dejMohutnostUzlu(koren) - puvodniMohutnost;
+        pocitadla.zapocitejVlozeni(pocetVlozenych);
+        odmitnute.sort(this::porovnej);
+        return new VysledekDavky<>(pocetVlozenych, odmitnute);
+    }
+
+    /**
+     * Vyřadí ze seřazených polí klíče shodné s předchozím klíčem a setřese zbylé prvky na začátek polí
      *
-     * @param klic Klíč, který se má vložit
-     * @param hodnota Hodnota, která se má vložit
-     * @param aktualniUzel Aktuální uzel, ve kterém se hledá místo pro vložení nového uzlu (prvku)
+     * @param odmitnute Seznam, do kterého se přidají vyřazené klíče
      *
-     * @return Nově vložený uzel
+     * @return Počet ponechaných prvků
      */
-    private Uzel vlozRekurzivne(K klic, V hodnota, Uzel aktualniUzel) {
-        Uzel novyUzel;
-        if (jeKladne(aktualniUzel.klic, klic)) {
-            if (aktualniUzel.vlevo == null)
-                novyUzel = aktualniUzel.vlevo = new Uzel(klic, hodnota, aktualniUzel);
-            else
-                novyUzel = vlozRekurzivne(klic, hodnota, aktualniUzel.vlevo);
-        } else {
-            if (aktualniUzel.vpravo == null)
-                novyUzel = aktualniUzel.vpravo = new Uzel(klic, hodnota, aktualniUzel);
-            else
-                novyUzel = vlozRekurzivne(klic, hodnota, aktualniUzel.vpravo);
+    private int vyradOpakovane(K[] klice, V[] hodnoty, List<K> odmitnute) {
+        int pocet = NULTA_HODNOTA;
+        for (int i = 0; i < klice.length; i++) {
+            if (pocet > NULTA_HODNOTA && porovnej(klice[pocet - 1], klice[i]) == NULTA_HODNOTA) {
+                odmitnute.add(klice[i]);
+            } else {
+                klice[pocet] = klice[i];
+                hodnoty[pocet++] = hodnoty[i];
+            }
         }
-        return novyUzel;
+        return pocet;
     }
 
     /**
-     * Aktualizuje mohutnost uzlů po vložení nového uzlu do stromu. Postupuje od vloženého uzlu až ke kořeni
-     * stromu a zvyšuje mohutnost každého uzlu na cestě
+     * Vloží do podstromu prvky ze seřazeného úseku {@code [od, po)} polí bez opakujících se klíčů. Klíče, které
+     * podstrom již obsahuje, přidá mezi odmítnuté
+     *
+     * @param uzel Odpojený kořen podstromu
      *
-     * @param novyUzel Uzel, od kterého se začíná aktualizace mohutnosti
+     * @return Odpojený kořen výsledného podstromu
      */
-    private void aktualizujMohutnostPoVlozeni(Uzel novyUzel) {
-        while (novyUzel != null) {
-            zvysMohutnost(novyUzel);
-            novyUzel = novyUzel.rodic;
-        }
+    private Uzel vlozSerazene(Uzel uzel, K[] klice, V[] hodnoty, int od, int po, List<K> odmitnute) {
+        if (od >= po)
+            return uzel;
+        if (uzel == null)
+            return postavPodstrom(klice, hodnoty, od, po, null);
+        final int pozice = Arrays.binarySearch(klice, od, po, uzel.klic, this::porovnej);
+        final boolean duplicitni = pozice >= NULTA_HODNOTA;
+        final int hranice = duplicitni ? pozice : -pozice - 1;
+        if (duplicitni)
+            odmitnute.add(klice[pozice]);
+
+        final Uzel vlevo = vlozSerazene(odpoj(uzel.vlevo), klice, hodnoty, od, hranice, odmitnute);
+        final Uzel vpravo = vlozSerazene(odpoj(uzel.vpravo), klice, hodnoty,
+                duplicitni ? hranice + 1 : hranice, po, odmitnute);
+        return spoj(vlevo, uzel, vpravo);
     }
 // </editor-fold>
 
@@ -260,7 +475,7 @@ public final class AbstrTable<K extends Comparable<K>, V> implements IAbstrTable
      *      </ul>
      * <li> Hledá {@code uzel} s odpovídajícím klíčem {@code klic} a zkontroluje ho na {@code null}
      *      <ul>
-     *      <li> <b>najdiUzel()</b>
+     *      <li> <b>najdiUzel(klic)</b>
      *      <li> <b>if (uzel == null)</b>
      *      </ul>
      * <li> Připraví proměnnou {@code odebranaHodnota} pro následný návrat. Pak ověří existence obou
@@ -279,11 +494,11 @@ public final class AbstrTable<K extends Comparable<K>, V> implements IAbstrTable
      *      obdobnou operaci s pravým potomkem
      *      <li> <b>else if (jeListem(uzel))</b> {@code uzel} je listem, a proto odstraní ten samý {@code uzel}
      *      </ul>
-     * <li> Aktualizuje mohutnost uzlů po odebrání
+     * <li> Aktualizuje mohutnost a výšku uzlů po odebrání a vyváží strom
      *      <ul>
-     *      <li> <b>aktualizujMohutnostPoOdebirani(uzel)</b>: Postupně prochází uzly na cestě od odebraného
-     *      uzlu ke kořeni a snižuje jejich mohutnost o jedničku, čímž udržuje konzistenci mohutnosti v rámci
-     *      stromu
+     *      <li> <b>vyvazCestuKeKoreni(uzel.rodic)</b>: Postupně prochází uzly na cestě od rodiče odebraného
+     *      uzlu ke kořeni, přepočítává jejich mohutnost a výšku z potomků a případně provádí rotace, čímž
+     *      udržuje konzistenci mohutnosti i vyváženost v rámci stromu
      *      <li> <b>return odebranaHodnota</b>
      *      </ul>
      * </ol>
@@ -293,7 +508,7 @@ public final class AbstrTable<K extends Comparable<K>, V> implements IAbstrTable
         pozadatNePrazdnyKlic(klic);
         pozadatNePrazdnyKoren();
 
-        Uzel uzel = najdiRekurzivne(koren, klic);
+        Uzel uzel = najdiUzel(klic);
         if (uzel == null)
             throw new StromException(ChybovaZpravaStromu.PRVEK_NENALEZEN.getZprava());
 
@@ -301,6 +516,7 @@ public final class AbstrTable<K extends Comparable<K>, V> implements IAbstrTable
         if (jsouObaPotomky(uzel)) {
             final Uzel naslednik = najdiNaslednika(uzel);
             uzel.klic = naslednik.klic;
+            uzel.predpona = naslednik.predpona;
             uzel.hodnota = naslednik.hodnota;
             uzel = naslednik;
         }
@@ -313,7 +529,8 @@ public final class AbstrTable<K extends Comparable<K>, V> implements IAbstrTable
             odeberUzelBezPotomku(uzel);
         }
 
-        aktualizujMohutnostPoOdebirani(uzel);
+        vyvazCestuKeKoreni(uzel.rodic);
+        pocitadla.zapocitejOdebrani();
         return odebranaHodnota;
     }
 
@@ -398,25 +615,329 @@ public final class AbstrTable<K extends Comparable<K>, V> implements IAbstrTable
         else if (jePravymPotomkem(uzel))
             uzel.rodic.vpravo = null;
     }
+// </editor-fold>
 
+// <editor-fold defaultstate="collapsed" desc="Metody: rozdel(K klic) a spoj(IAbstrTable jina)">
     /**
-     * Pomocná metoda pro {@link AbstrTable#odeber(Comparable)}
+     * Rozdělí tabulku podle zadaného klíče. V této tabulce zůstanou prvky s klíči menšími než zadaný klíč
+     * a prvky ostatní se přesunou do nové tabulky
+     *
+     * <p> Uzly se mezi tabulkami nekopírují, strom se rozdělí rozpojením a spojením uzlů na cestě k hranici
+     * (viz {@link AbstrTable#rozdel(Uzel, Comparable)}). Obě tabulky jsou opět AVL stromy se správnými
+     * mohutnostmi a odkazy na rodiče a rozdělení stojí {@code O(log n)}
+     *
+     * @param klic Hranice rozdělení (prvek s tímto klíčem připadne nové tabulce)
+     *
+     * @return Nová tabulka s prvky, jejichž klíče jsou větší nebo rovny zadanému klíči
+     *
+     * @throws StromException Pokud je klíč prázdný
+     */
+    public @NotNull AbstrTable<K, V> rozdel(K klic) throws StromException {
+        pozadatNePrazdnyKlic(klic);
+
+        final Rozdeleni rozdeleni = rozdel(odpoj(koren), klic);
+        koren = odpoj(rozdeleni.mensi);
+        final AbstrTable<K, V> ostatni = new AbstrTable<>(kodovac, ukazatele);
+        ostatni.koren = odpoj(rozdeleni.ostatni);
+        pocitadla.zapocitejOdebrani(dejMohutnostUzlu(ostatni.koren));
+        return ostatni;
+    }
+
+    /**
+     * Přesune do této tabulky všechny prvky zadané tabulky, která tím zůstane prázdná. Tabulky nesmí mít
+     * společný klíč
      *
      * <p> Popis logiky:
      * <ol>
-     * <li> <b>snizMohutnost()</b>: Sníží mohutnost aktuálního uzlu uzel o jedničku
-     * <li> <b>uzel = uzel.rodic</b>: Přesune se k rodiči aktuálního uzlu tím, že {@code uzel} se nastaví na
-     * svého rodiče a pokračuje, dokud se nedostane až ke kořeni stromu (nebo dokud {@code uzel} není {@code null}),
-     * čímž zajišťuje procházení všech uzlů na cestě od odebraného uzlu ke kořeni a snižuje jejich mohutnost
+     * <li> Pokud je druhá tabulka také {@link AbstrTable} a všechny její klíče leží před nebo za klíči této
+     * tabulky a obě tabulky sdílejí kodér předpon a ukazatele (např. tabulka vzniklá rozdělením této tabulky),
+     * oba stromy se spojí bez kopírování uzlů v čase {@code O(log n)}
+     *     <ul>
+     *     <li> <b>spoj(mensi, vetsi)</b>
+     *     </ul>
+     * <li> Jinak (prolínající se klíče nebo jiná implementace tabulky) se nejprve ověří, že žádný klíč druhé
+     * tabulky v této tabulce není, a prvky se po jednom vloží
      * </ol>
      *
-     * @param uzel Prvek, který byl odebrán
+     * @param jina Tabulka, jejíž prvky se přesunou
+     *
+     * @throws StromException Pokud mají tabulky společný klíč (žádná z tabulek se pak nezmění)
      */
-    private void aktualizujMohutnostPoOdebirani(Uzel uzel) {
-        while (uzel != null) {
-            snizMohutnost(uzel);
-            uzel = uzel.rodic;
+    public void spoj(@NotNull IAbstrTable<K, V> jina) throws StromException {
+        if (jina.jePrazdny())
+            return;
+        if (jina == this)
+            throw new StromException(ChybovaZpravaStromu.EXISTUJICI_KLIC.getZprava());
+
+        if (jina instanceof AbstrTable<K, V> druha && druha.kodovac == kodovac && druha.ukazatele == ukazatele) {
+            final Uzel druhyKoren = druha.koren;
+            final int pocetPresunutych = dejMohutnostUzlu(druhyKoren);
+            if (koren == null || porovnej(najdiMaximum(koren).klic, najdiMinimum(druhyKoren).klic) < NULTA_HODNOTA) {
+                druha.koren = null;
+                koren = odpoj(spoj(odpoj(koren), odpoj(druhyKoren)));
+                pocitadla.zapocitejVlozeni(pocetPresunutych);
+                return;
+            }
+            if (porovnej(najdiMaximum(druhyKoren).klic, najdiMinimum(koren).klic) < NULTA_HODNOTA) {
+                druha.koren = null;
+                koren = odpoj(spoj(odpoj(druhyKoren), odpoj(koren)));
+                pocitadla.zapocitejVlozeni(pocetPresunutych);
+                return;
+            }
+        }
+
+        final int pocet = jina.dejMohutnost();
+        for (int poradi = NULTA_HODNOTA; poradi < pocet; poradi++) {
+            if (obsahuje(jina.dejKlicNaPoradi(poradi)))
+                throw new StromException(ChybovaZpravaStromu.EXISTUJICI_KLIC.getZprava());
+        }
+        for (int poradi = NULTA_HODNOTA; poradi < pocet; poradi++)
+            vloz(jina.dejKlicNaPoradi(poradi), jina.dejPrvekNaPoradi(poradi));
+        jina.zrus();
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Hromadné odebírání: odeberRozsah a odeberVse (rozdělení a spojení stromu)">
+    /**
+     * Popis logiky:
+     * <ol>
+     * <li> Rozdělí strom podle dolní meze na prvky menší než {@code od} a ostatní
+     *     <ul>
+     *     <li> <b>rozdel(koren, od)</b>
+     *     </ul>
+     * <li> Ostatní prvky rozdělí podle horní meze na prvky z intervalu a prvky větší nebo rovné {@code po}
+     * <li> Podstrom s prvky z intervalu se zahodí celý (jeho mohutnost je počtem odebraných prvků) a zbylé
+     * dva stromy se spojí
+     *     <ul>
+     *     <li> <b>spoj(mensi, vetsi)</b>
+     *     </ul>
+     * </ol>
+     * Rozdělení i spojení stojí {@code O(log n)} a mohutnosti se přepočítají pouze u uzlů na cestě, takže
+     * složitost nezávisí na počtu odebraných prvků
+     */
+    @Override
+    public int odeberRozsah(K od, K po) {
+        if (koren == null || (od != null && po != null && porovnej(od, po) >= NULTA_HODNOTA))
+            return NULTA_HODNOTA;
+
+        final Uzel mensi;
+        Uzel ostatni = odpoj(koren);
+        if (od != null) {
+            final Rozdeleni rozdeleni = rozdel(ostatni, od);
+            mensi = rozdeleni.mensi;
+            ostatni = rozdeleni.ostatni;
+        } else {
+            mensi = null;
+        }
+        Uzel vetsi = null;
+        if (po != null) {
+            final Rozdeleni rozdeleni = rozdel(ostatni, po);
+            ostatni = rozdeleni.mensi;
+            vetsi = rozdeleni.ostatni;
+        }
+        koren = odpoj(spoj(mensi, vetsi));
+        pocitadla.zapocitejOdebrani(dejMohutnostUzlu(ostatni));
+        return dejMohutnostUzlu(ostatni);
+    }
+
+    /**
+     * Popis logiky:
+     * <ol>
+     * <li> Ověří klíče a seřadí je (duplicity se vynechají). Tabulka se do té doby nemění
+     * <li> Rekurzivně sestupuje stromem a seřazené klíče dělí podle klíče uzlu na menší a větší. Podstrom,
+     * do kterého nepatří žádný odebíraný klíč, se převezme beze změny
+     *     <ul>
+     *     <li> <b>odeberSerazene(koren, ...)</b>
+     *     </ul>
+     * <li> Uzel se zpracovanými podstromy se znovu připojí spojením, odebíraný uzel se vynechá
+     * </ol>
+     * Každý uzel se zpracuje nejvýše jednou a mohutnosti se přepočítají jen u uzlů, jejichž podstrom se změnil
+     */
+    @Override
+    public int odeberVse(Iterable<K> klice) throws StromException {
+        final List<K> seznam = NastrojeTabulek.dejNePrazdneKlice(klice);
+        if (koren == null || seznam.isEmpty())
+            return NULTA_HODNOTA;
+
+        seznam.sort(this::porovnej);
+        final K[] serazene = NastrojeTabulek.vytvorPoleKlicu(seznam.size());
+        int pocet = NULTA_HODNOTA;
+        for (K klic : seznam) {
+            if (pocet == NULTA_HODNOTA || porovnej(serazene[pocet - 1], klic) != NULTA_HODNOTA)
+                serazene[pocet++] = klic;
+        }
+        final int puvodniMohutnost = dejMohutnostUzlu(koren);
+        koren = odpoj(odeberSerazene(odpoj(koren), serazene, NULTA_HODNOTA, pocet));
+        final int pocetOdebranych = puvodniMohutnost - dejMohutnostUzlu(koren);
+        pocitadla.zapocitejOdebrani(pocetOdebranych);
+        return pocetOdebranych;
+    }
+
+    /**
+     * Odebere z podstromu klíče ze seřazeného úseku {@code [od, po)} pole klíčů
+     *
+     * @param uzel Odpojený kořen podstromu
+     *
+     * @return Odpojený kořen výsledného podstromu
+     */
+    private Uzel odeberSerazene(Uzel uzel, K[] klice, int od, int po) {
+        if (uzel == null || od >= po)
+            return uzel;
+        final int pozice = Arrays.binarySearch(klice, od, po, uzel.klic, this::porovnej);
+        final boolean odebrat = pozice >= NULTA_HODNOTA;
+        final int hranice = odebrat ? pozice : -pozice - 1;
+
+        final Uzel vlevo = odeberSerazene(odpoj(uzel.vlevo), klice, od, hranice);
+        final Uzel vpravo = odeberSerazene(odpoj(uzel.vpravo), klice, odebrat ? hranice + 1 : hranice, po);
+        return odebrat ? spoj(vlevo, vpravo) : spoj(vlevo, uzel, vpravo);
+    }
+
+    /**
+     * Výsledek rozdělení stromu: odpojené kořeny stromu s menšími klíči a stromu s ostatními klíči
+     */
+    private final class Rozdeleni {
+        final Uzel mensi;
+        final Uzel ostatni;
+
+        Rozdeleni(Uzel mensi, Uzel ostatni) {
+            this.mensi = mensi;
+            this.ostatni = ostatni;
+        }
+    }
+
+    /**
+     * Rozdělí strom na prvky s klíči menšími než zadaný klíč a na prvky ostatní. Na každém patře se uzel
+     * odpojí, sestoupí se do podstromu, ve kterém leží hranice, a uzel se s druhým podstromem a příslušnou
+     * částí rozděleného podstromu opět spojí
+     *
+     * @param uzel Odpojený kořen stromu
+     * @param klic Hranice rozdělení
+     *
+     * @return Oba výsledné stromy (s odpojenými kořeny)
+     */
+    private @NotNull Rozdeleni rozdel(Uzel uzel, @NotNull K klic) {
+        if (uzel == null)
+            return new Rozdeleni(null, null);
+        final Uzel vlevo = odpoj(uzel.vlevo);
+        final Uzel vpravo = odpoj(uzel.vpravo);
+        if (porovnej(klic, uzel.klic) <= NULTA_HODNOTA) {
+            final Rozdeleni rozdeleni = rozdel(vlevo, klic);
+            return new Rozdeleni(rozdeleni.mensi, spoj(rozdeleni.ostatni, uzel, vpravo));
+        }
+        final Rozdeleni rozdeleni = rozdel(vpravo, klic);
+        return new Rozdeleni(spoj(vlevo, uzel, rozdeleni.mensi), rozdeleni.ostatni);
+    }
+
+    /**
+     * Spojí dva stromy, kde všechny klíče levého stromu jsou menší než klíče pravého. Prostředním uzlem
+     * spojení se stane největší uzel levého stromu, který se z něj nejprve oddělí
+     *
+     * @return Odpojený kořen spojeného stromu
+     */
+    private Uzel spoj(Uzel vlevo, Uzel vpravo) {
+        if (vlevo == null)
+            return vpravo;
+        if (vpravo == null)
+            return vlevo;
+        final Rozdeleni rozdeleni = oddelMaximum(vlevo);
+        return spoj(rozdeleni.mensi, rozdeleni.ostatni, vpravo);
+    }
+
+    /**
+     * Oddělí ze stromu jeho největší uzel
+     *
+     * @param uzel Odpojený kořen neprázdného stromu
+     *
+     * @return Zbytek stromu a oddělený uzel (v {@link Rozdeleni#ostatni})
+     */
+    private @NotNull Rozdeleni oddelMaximum(@NotNull Uzel uzel) {
+        final Uzel vlevo = odpoj(uzel.vlevo);
+        if (uzel.vpravo == null)
+            return new Rozdeleni(vlevo, uzel);
+        final Rozdeleni rozdeleni = oddelMaximum(odpoj(uzel.vpravo));
+        return new Rozdeleni(spoj(vlevo, uzel, rozdeleni.mensi), rozdeleni.ostatni);
+    }
+
+    /**
+     * Spojí levý strom, prostřední uzel a pravý strom (klíče jsou v tomto pořadí vzestupné) do AVL stromu
+     *
+     * <p> Popis logiky:
+     * <ol>
+     * <li> Pokud se výšky stromů liší nejvýše o jedničku, stane se prostřední uzel kořenem s oběma stromy
+     * jako potomky
+     * <li> Pokud je levý strom vyšší, sestoupí po jeho pravé větvi k prvnímu uzlu s výškou nejvýše o jedničku
+     * větší než pravý strom, nahradí ho prostředním uzlem (s tímto uzlem vlevo a pravým stromem vpravo)
+     * a cestu zpět ke kořeni levého stromu vyváží jako po vložení
+     * <li> Symetricky, pokud je vyšší pravý strom
+     * </ol>
+     * Složitost je úměrná rozdílu výšek obou stromů
+     *
+     * @param vlevo Odpojený kořen levého stromu (může být {@code null})
+     * @param stred Uzel s klíčem mezi oběma stromy
+     * @param vpravo Odpojený kořen pravého stromu (může být {@code null})
+     *
+     * @return Odpojený kořen spojeného stromu
+     */
+    private @NotNull Uzel spoj(Uzel vlevo, @NotNull Uzel stred, Uzel vpravo) {
+        final int levaVyska = dejVyskuUzlu(vlevo);
+        final int pravaVyska = dejVyskuUzlu(vpravo);
+        if (levaVyska > pravaVyska + MAX_ROZDIL_VYSEK) {
+            Uzel rodic = vlevo;
+            while (dejVyskuUzlu(rodic.vpravo) > pravaVyska + MAX_ROZDIL_VYSEK)
+                rodic = rodic.vpravo;
+            pripoj(stred, rodic.vpravo, vpravo);
+            rodic.vpravo = stred;
+            stred.rodic = rodic;
+            return vyvazCestuKeKoreniPodstromu(rodic);
+        }
+        if (pravaVyska > levaVyska + MAX_ROZDIL_VYSEK) {
+            Uzel rodic = vpravo;
+            while (dejVyskuUzlu(rodic.vlevo) > levaVyska + MAX_ROZDIL_VYSEK)
+                rodic = rodic.vlevo;
+            pripoj(stred, vlevo, rodic.vlevo);
+            rodic.vlevo = stred;
+            stred.rodic = rodic;
+            return vyvazCestuKeKoreniPodstromu(rodic);
         }
+        pripoj(stred, vlevo, vpravo);
+        stred.rodic = null;
+        return stred;
+    }
+
+    /**
+     * Nastaví uzlu potomky (včetně jejich odkazů na rodiče) a přepočítá jeho mohutnost a výšku
+     */
+    private void pripoj(@NotNull Uzel uzel, Uzel vlevo, Uzel vpravo) {
+        uzel.vlevo = vlevo;
+        uzel.vpravo = vpravo;
+        if (vlevo != null)
+            vlevo.rodic = uzel;
+        if (vpravo != null)
+            vpravo.rodic = uzel;
+        prepocitejUzel(uzel);
+    }
+
+    /**
+     * Obdoba {@link AbstrTable#vyvazCestuKeKoreni(Uzel)} pro odpojený podstrom: vyváží cestu od zadaného uzlu
+     * ke kořeni podstromu a vrátí tento kořen. Rotace u kořene podstromu mohou dočasně přepsat kořen tabulky,
+     * který proto volající nastaví až po dokončení celé operace
+     */
+    private @NotNull Uzel vyvazCestuKeKoreniPodstromu(@NotNull Uzel uzel) {
+        Uzel vrchol = vyvazUzel(uzel);
+        while (vrchol.rodic != null)
+            vrchol = vyvazUzel(vrchol.rodic);
+        return vrchol;
+    }
+
+    /**
+     * Odpojí uzel od jeho rodiče (rodič si odkaz na uzel ponechá, volající ho přepíše)
+     *
+     * @return Zadaný uzel
+     */
+    private Uzel odpoj(Uzel uzel) {
+        if (uzel != null)
+            uzel.rodic = null;
+        return uzel;
     }
 // </editor-fold>
 
@@ -450,36 +971,193 @@ public final class AbstrTable<K extends Comparable<K>, V> implements IAbstrTable
     }
 // </editor-fold>
 
-// <editor-fold defaultstate="collapsed" desc="Pomocné metody změnu mohutnosti uzlů: zvys()/sniz()">
-    private void zvysMohutnost(@NotNull Uzel uzel) { uzel.mohutnost++; }
+// <editor-fold defaultstate="collapsed" desc="Vyvažování stromu (AVL)">
+    /**
+     * Prochází uzly od zadaného uzlu až ke kořeni stromu. U každého uzlu přepočítá jeho mohutnost a výšku
+     * z potomků a pokud je uzel nevyvážený, provede příslušnou rotaci
+     *
+     * <p> Jelikož se uzly zpracovávají zdola nahoru, mají potomci aktuálního uzlu vždy správnou mohutnost
+     * i výšku, a to i po rotacích provedených níže na cestě
+     *
+     * @param uzel Uzel, od kterého se začíná aktualizace (může být {@code null})
+     */
+    private void vyvazCestuKeKoreni(Uzel uzel) {
+        while (uzel != null) {
+            uzel = vyvazUzel(uzel);
+            uzel = uzel.rodic;
+        }
+    }
 
-    private void snizMohutnost(@NotNull Uzel uzel) { uzel.mohutnost--; }
-// </editor-fold>
+    /**
+     * Přepočítá mohutnost a výšku uzlu a v případě potřeby ho vyváží
+     *
+     * <p> Popis logiky:
+     * <ol>
+     * <li> <b>dejVyvazenost(uzel) > MAX_ROZDIL_VYSEK</b>: Levý podstrom je vyšší. Pokud je levý potomek
+     * "těžší" vpravo, provede se nejprve rotace vlevo nad levým potomkem (dvojitá rotace LR), poté rotace
+     * vpravo nad uzlem
+     * <li> <b>dejVyvazenost(uzel) < -MAX_ROZDIL_VYSEK</b>: Symetrický případ pro pravý podstrom (rotace
+     * vlevo, případně dvojitá rotace RL)
+     * </ol>
+     *
+     * @param uzel Uzel pro vyvážení
+     *
+     * @return Kořen podstromu, který je na místě původního uzlu po vyvážení
+     */
+    private @NotNull Uzel vyvazUzel(@NotNull Uzel uzel) {
+        prepocitejUzel(uzel);
+        final int vyvazenost = dejVyvazenost(uzel);
+        if (vyvazenost > MAX_ROZDIL_VYSEK) {
+            if (dejVyvazenost(uzel.vlevo) < NULTA_HODNOTA)
+                rotujVlevo(uzel.vlevo);
+            return rotujVpravo(uzel);
+        }
+        if (vyvazenost < -MAX_ROZDIL_VYSEK) {
+            if (dejVyvazenost(uzel.vpravo) > NULTA_HODNOTA)
+                rotujVpravo(uzel.vpravo);
+            return rotujVlevo(uzel);
+        }
+        return uzel;
+    }
 
-    @Override
-    public Iterator<V> vytvorIterator(ETypProhl typ) {
-        return switch (typ) {
-            case SIRKA -> new SirkaIterator();
-            case HLOUBKA -> new HloubkaIterator();
-        };
+    /**
+     * Provede rotaci vlevo kolem zadaného uzlu. Pravý potomek se stane kořenem podstromu a původní uzel jeho
+     * levým potomkem. Po rotaci se přepočítá mohutnost a výška obou dotčených uzlů
+     *
+     * <p> Přehled rotace:
+     * <pre>
+     *     x                y
+     *    / \              / \
+     *   a   y     =>     x   c
+     *      / \          / \
+     *     b   c        a   b
+     * </pre>
+     *
+     * @param x Uzel, kolem kterého se rotuje
+     *
+     * @return Nový kořen podstromu
+     */
+    private @NotNull Uzel rotujVlevo(@NotNull Uzel x) {
+        pocitadla.zapocitejVyvazeni();
+        final Uzel y = x.vpravo;
+        x.vpravo = y.vlevo;
+        if (y.vlevo != null)
+            y.vlevo.rodic = x;
+        nahradPotomka(x, y);
+        y.vlevo = x;
+        x.rodic = y;
+        prepocitejUzel(x);
+        prepocitejUzel(y);
+        return y;
     }
 
-// <editor-fold defaultstate="collapsed" desc="Iterátor do šířky">
     /**
-     * Iterátor pro průchod stromem do šířky
+     * Provede rotaci vpravo kolem zadaného uzlu (zrcadlově k {@link AbstrTable#rotujVlevo(Uzel)})
      *
-     * <p><b>Breadth-First Search (BFS)</b> je strategie pro prohledávání grafů nebo stromů, zaměřující se na
-     * prozkoumání všech uzlů v určitém "levelu" od počátečního uzlu nejprve, a teprve poté postupuje k uzlům
-     * v následujícím levelu. Tímto způsobem BFS postupuje "široce" v rámci jednoho levelu před tím, než se
-     * pohne na další level
+     * <p> Přehled rotace:
+     * <pre>
+     *       y            x
+     *      / \          / \
+     *     x   c   =>   a   y
+     *    / \              / \
+     *   a   b            b   c
+     * </pre>
+     *
+     * @param y Uzel, kolem kterého se rotuje
+     *
+     * @return Nový kořen podstromu
      */
-    private class SirkaIterator implements Iterator<V> {
+    private @NotNull Uzel rotujVpravo(@NotNull Uzel y) {
+        pocitadla.zapocitejVyvazeni();
+        final Uzel x = y.vlevo;
+        y.vlevo = x.vpravo;
+        if (x.vpravo != null)
+            x.vpravo.rodic = y;
+        nahradPotomka(y, x);
+        x.vpravo = y;
+        y.rodic = x;
+        prepocitejUzel(y);
+        prepocitejUzel(x);
+        return x;
+    }
 
-        private final IAbstrFifo<Uzel> fronta;
-        /**
+    /**
+     * Připojí uzel {@code novy} na místo uzlu {@code puvodni} u jeho rodiče (případně jako nový kořen stromu)
+     *
+     * @param puvodni Uzel, jehož místo se přebírá
+     * @param novy Uzel, který se připojí na místo původního uzlu
+     */
+    private void nahradPotomka(@NotNull Uzel puvodni, @NotNull Uzel novy) {
+        novy.rodic = puvodni.rodic;
+        if (jeKorenem(puvodni))
+            koren = novy;
+        else if (jeLevymPotomkem(puvodni))
+            puvodni.rodic.vlevo = novy;
+        else
+            puvodni.rodic.vpravo = novy;
+    }
+
+    /**
+     * Přepočítá mohutnost a výšku uzlu z jeho potomků
+     *
+     * @param uzel Uzel pro přepočet
+     */
+    private void prepocitejUzel(@NotNull Uzel uzel) {
+        uzel.mohutnost = MOHUTNOST_LISTU + dejMohutnostUzlu(uzel.vlevo) + dejMohutnostUzlu(uzel.vpravo);
+        uzel.vyska = VYSKA_LISTU + Math.max(dejVyskuUzlu(uzel.vlevo), dejVyskuUzlu(uzel.vpravo));
+        if (ukazatele != null)
+            uzel.soucty = ukazatele.spocitej(uzel.soucty, uzel.hodnota, dejSouctyUzlu(uzel.vlevo),
+                    dejSouctyUzlu(uzel.vpravo));
+    }
+
+    /**
+     * Vrací rozdíl výšky levého a pravého podstromu uzlu
+     *
+     * @return Kladné číslo, pokud je vyšší levý podstrom, záporné, pokud je vyšší pravý podstrom
+     */
+    private int dejVyvazenost(@NotNull Uzel uzel) {
+        return dejVyskuUzlu(uzel.vlevo) - dejVyskuUzlu(uzel.vpravo);
+    }
+
+    private int dejMohutnostUzlu(Uzel uzel) { return uzel == null ? NULTA_HODNOTA : uzel.mohutnost; }
+
+    private long[] dejSouctyUzlu(Uzel uzel) { return uzel == null ? null : uzel.soucty; }
+
+    private int dejVyskuUzlu(Uzel uzel) { return uzel == null ? NULTA_HODNOTA : uzel.vyska; }
+// </editor-fold>
+
+    @Override
+    public Iterator<V> vytvorIterator(ETypProhl typ) {
+        return switch (typ) {
+            case SIRKA -> new SirkaIterator();
+            case HLOUBKA -> new HloubkaIterator();
+        };
+    }
+
+// <editor-fold defaultstate="collapsed" desc="Iterátor do šířky">
+    /**
+     * Iterátor pro průchod stromem do šířky
+     *
+     * <p><b>Breadth-First Search (BFS)</b> je strategie pro prohledávání grafů nebo stromů, zaměřující se na
+     * prozkoumání všech uzlů v určitém "levelu" od počátečního uzlu nejprve, a teprve poté postupuje k uzlům
+     * v následujícím levelu. Tímto způsobem BFS postupuje "široce" v rámci jednoho levelu před tím, než se
+     * pohne na další level
+     */
+    private class SirkaIterator implements Iterator<V> {
+
+        private final IAbstrFifo<Uzel> fronta;
+        /**
          * Úroveň aktuálního uzlu
          */
         private int patro;
+        /**
+         * Počet uzlů aktuálního patra, které ještě nebyly vráceny
+         */
+        private int zbyvaVPatre;
+        /**
+         * Počet uzlů následujícího patra, které již byly vloženy do fronty
+         */
+        private int vDalsimPatre;
         /**
          * Konstanta reprezentuje první patro
          */
@@ -493,6 +1171,8 @@ public final class AbstrTable<K extends Comparable<K>, V> implements IAbstrTable
             if (koren != null)
                 fronta.vloz(koren);
             patro = VYCHOZI_HODNOTA_PATRA;
+            zbyvaVPatre = fronta.mohutnost();
+            vDalsimPatre = NULTA_HODNOTA;
         }
 
         /**
@@ -511,6 +1191,10 @@ public final class AbstrTable<K extends Comparable<K>, V> implements IAbstrTable
          * Následně, pokud má aktuální uzel levého/pravého potomka, přidá levého/pravého potomka do
          * fronty pro další průchod
          *
+         * <p> Patro se neurčuje procházením rodičů ke kořeni, ale průběžně: iterátor si pamatuje, kolik uzlů
+         * aktuálního patra ještě zbývá a kolik potomků již vložil do fronty pro další patro. Jakmile aktuální
+         * patro dojde, posune se na další patro. Průchod celým stromem tak stojí {@code O(n)}
+         *
          * @return Další prvek pro zpracování
          *
          * @throws NoSuchElementException Pokud není další prvek k dispozici
@@ -520,12 +1204,21 @@ public final class AbstrTable<K extends Comparable<K>, V> implements IAbstrTable
             if (!hasNext())
                 throw new NoSuchElementException();
             try {
+                if (zbyvaVPatre == NULTA_HODNOTA) {
+                    patro++;
+                    zbyvaVPatre = vDalsimPatre;
+                    vDalsimPatre = NULTA_HODNOTA;
+                }
                 final Uzel aktualniUzel = fronta.odeber();
-                if (aktualniUzel.vlevo != null)
+                zbyvaVPatre--;
+                if (aktualniUzel.vlevo != null) {
                     fronta.vloz(aktualniUzel.vlevo);
-                if (aktualniUzel.vpravo != null)
+                    vDalsimPatre++;
+                }
+                if (aktualniUzel.vpravo != null) {
                     fronta.vloz(aktualniUzel.vpravo);
-                patro = getPatro(aktualniUzel);
+                    vDalsimPatre++;
+                }
                 return aktualniUzel.hodnota;
             } catch (StrukturaException e) {
                 throw new NoSuchElementException(ChybovaZpravaStromu.PRAZDNA_FRONTA.getZprava());
@@ -538,22 +1231,90 @@ public final class AbstrTable<K extends Comparable<K>, V> implements IAbstrTable
          * @return Číslo patra aktuálního uzlu
          */
         public int patro() { return patro; }
+    }
+// </editor-fold>
 
-        /**
-         * Získání úrovně uzlu
-         *
-         * @param uzel Aktuální uzel
-         *
-         * @return Číslo patra uzlu uvedeného v argumentech metody
-         */
-        private int getPatro(@NotNull Uzel uzel) {
-            int patro = VYCHOZI_HODNOTA_PATRA;
-            while (uzel.rodic != null) {
-                uzel = uzel.rodic;
-                patro++;
+// <editor-fold defaultstate="collapsed" desc="Dotazy na patra stromu">
+    /**
+     * Konstanta reprezentuje číslo patra kořene
+     */
+    private final int PATRO_KORENE = 1;
+
+    /**
+     * Výška se udržuje v každém uzlu kvůli vyvažování, proto je dotaz konstantní
+     */
+    @Override
+    public int dejVysku() { return dejVyskuUzlu(koren); }
+
+    /**
+     * Projde strom do šířky jediným průchodem {@link SirkaIterator} a u každého prvku zvýší počet prvků
+     * jeho patra
+     */
+    @Override
+    public int[] dejSirkyPater() {
+        final int[] sirky = new int[dejVysku()];
+        final SirkaIterator iterator = new SirkaIterator();
+        while (iterator.hasNext()) {
+            iterator.next();
+            sirky[iterator.patro() - PATRO_KORENE]++;
+        }
+        return sirky;
+    }
+
+    /**
+     * Patro se sestaví po dávkách: z pole uzlů jednoho patra se vytvoří pole jejich potomků (zleva doprava),
+     * dokud se nedojde k požadovanému patru. Navštíví se tak pouze uzly na patrech nad požadovaným patrem
+     * (včetně), nikoliv celý strom
+     */
+    @Override
+    public Iterator<V> vytvorIteratorPatra(int patro) {
+        Object[] davka = koren == null || patro < PATRO_KORENE ? new Object[NULTA_HODNOTA] : new Object[]{koren};
+        for (int aktualni = PATRO_KORENE; aktualni < patro && davka.length > NULTA_HODNOTA; aktualni++)
+            davka = dejDalsiPatro(davka);
+        final Object[] uzlyPatra = davka;
+        return new Iterator<>() {
+            private int index = NULTA_HODNOTA;
+
+            @Override
+            public boolean hasNext() { return index < uzlyPatra.length; }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public V next() {
+                if (!hasNext())
+                    throw new NoSuchElementException(ChybovaZpravaStromu.KONEC_ITERACE.getZprava());
+                return ((Uzel) uzlyPatra[index++]).hodnota;
             }
-            return patro;
+        };
+    }
+
+    /**
+     * Vytvoří dávku potomků uzlů zadané dávky ve stejném pořadí (zleva doprava)
+     *
+     * @param davka Uzly jednoho patra
+     *
+     * @return Uzly následujícího patra
+     */
+    @SuppressWarnings("unchecked")
+    private Object @NotNull [] dejDalsiPatro(Object @NotNull [] davka) {
+        int pocet = NULTA_HODNOTA;
+        for (Object prvek : davka) {
+            final Uzel uzel = (Uzel) prvek;
+            if (uzel.vlevo != null)
+                pocet++;
+            if (uzel.vpravo != null)
+                pocet++;
+        }
+        final Object[] dalsi = new Object[pocet];
+        int index = NULTA_HODNOTA;
+        for (Object prvek : davka) {
+            final Uzel uzel = (Uzel) prvek;
+            if (uzel.vlevo != null)
+                dalsi[index++] = uzel.vlevo;
+            if (uzel.vpravo != null)
+                dalsi[index++] = uzel.vpravo;
         }
+        return dalsi;
     }
 // </editor-fold>
 
@@ -565,19 +1326,27 @@ public final class AbstrTable<K extends Comparable<K>, V> implements IAbstrTable
      * procházení do hloubky předtím, než se vrací zpět k dalším větvím
      *
      * <p> <b>In-order DFS</b> nejprve navštíví levý podstrom, poté kořenový uzel (prvek) a nakonec pravý podstrom
+     *
+     * <p> Iterátor si nevede zásobník navštívených uzlů, ale přechází od uzlu k jeho in-order následníkovi
+     * pomocí odkazů na potomky a rodiče ({@link AbstrTable#najdiNaslednika(Uzel)}). Potřebuje tak konstantní
+     * množství paměti a při procházení nealokuje žádné objekty. Průchod celým stromem stojí {@code O(n)}, protože
+     * každou hranou stromu projde nejvýše dvakrát
      */
     private class HloubkaIterator implements Iterator<V> {
 
-        private final IAbstrLifo<Uzel> zasobnik;
-        private Uzel aktUzel;
+        private Uzel dalsiUzel;
 
         /**
-         * Konstruktor vytvoří instanci iterátoru a inicializuje zásobník, pokud strom není prázdný
+         * Konstruktor vytvoří instanci iterátoru a nastaví ho na uzel s nejmenším klíčem
          */
-        public HloubkaIterator() {
-            zasobnik = new AbstrLifo<>();
-            aktUzel = koren;
-        }
+        public HloubkaIterator() { dalsiUzel = najdiMinimum(koren); }
+
+        /**
+         * Konstruktor vytvoří instanci iterátoru a nastaví ho na zadaný uzel
+         *
+         * @param prvniUzel Uzel prvního vraceného prvku, {@code null} znamená prázdný průchod
+         */
+        public HloubkaIterator(Uzel prvniUzel) { dalsiUzel = prvniUzel; }
 
         /**
          * Určuje, zda existuje další prvek pro zpracování
@@ -585,29 +1354,18 @@ public final class AbstrTable<K extends Comparable<K>, V> implements IAbstrTable
          * @return {@code true}, pokud existuje další prvek, jinak {@code false}
          */
         @Override
-        public boolean hasNext() { return !zasobnik.jePrazdny() || aktUzel != null; }
+        public boolean hasNext() { return dalsiUzel != null; }
 
         /**
          * Vrací další prvek v pořadí pro průchod stromem do hloubky (in-order)
          *
-         * <p> Provádí {@code in-order} procházení stromu tím, že nejprve přidává všechny uzly (prvky)
-         * levého podstromu do zásobníku, poté postupně odebírá uzly z vrcholu zásobníku a přidává uzly
-         * pravého podstromu, pokud existují. Tímto způsobem budou uzly (prvky) navštěvovány v pořadí
-         * od nejmenšího po největší klíč. Tímto způsobem jsou uzly (prvky) navštěvovány v pořadí podle
-         * jejich klíčů od nejmenšího po největší
-         *
          * <p> Popis logiký jednotlivých bloků kódu:
          * <ol>
-         * <li> <b>while (aktUzel != null)</b>: Prochází stromem do hloubky, dokud aktuální uzel není {@code null},
-         * tedy dokud má levého potomka, postupně přidává uzly na zásobník a posunuje se na levého potomka stromu,
-         * čímž vytváří cestu směrem k nejlevějšímu (nejmenšímu) uzlu stromu
-         * <li> Odebere uzel z vrcholu zásobníku (po přidání všech levých uzlů na zásobník), jímž prochází a vrátí
-         * jeho hodnotu. Poté přejde na pravého potomka tohoto uzlu a pokračuje v iteraci, čímž vlastně postupně
-         * prochází strom v {@code in-order} pořadí (zleva doprava)
+         * <li> Zapamatuje si hodnotu aktuálního uzlu pro návrat
+         * <li> Přesune se na in-order následníka: pokud má uzel pravý podstrom, je následníkem jeho nejlevější
+         * uzel, jinak první předek, do jehož levého podstromu aktuální uzel patří
          *     <ul>
-         *     <li> <b>aktUzel = zasobnik.odeber()</b>
-         *     <li> <b>final V hodnota = aktUzel.hodnota</b>
-         *     <li> <b>aktUzel = aktUzel.vpravo</b>
+         *     <li> <b>dalsiUzel = najdiNaslednika(dalsiUzel)</b>
          *     </ul>
          * </ol>
          *
@@ -617,98 +1375,584 @@ public final class AbstrTable<K extends Comparable<K>, V> implements IAbstrTable
          */
         @Override
         public V next() {
-            try {
-                while (aktUzel != null) {
-                    zasobnik.vloz(aktUzel);
-                    aktUzel = aktUzel.vlevo;
-                }
-                aktUzel = zasobnik.odeber();
-                final V hodnota = aktUzel.hodnota;
-                aktUzel = aktUzel.vpravo;
-                return hodnota;
-            } catch (StrukturaException e) {
-                throw new NoSuchElementException(ChybovaZpravaStromu.PRAZDNY_ZASOBNIK.getZprava());
+            if (!hasNext())
+                throw new NoSuchElementException(ChybovaZpravaStromu.KONEC_ITERACE.getZprava());
+            final V hodnota = dalsiUzel.hodnota;
+            dalsiUzel = najdiNaslednika(dalsiUzel);
+            return hodnota;
+        }
+    }
+// </editor-fold>
+
+    @Override
+    public Iterator<V> vytvorSestupnyIterator() { return new SestupnyIterator(); }
+
+    /**
+     * Iterátor se na první prvek nastaví jedním sestupem (viz {@link AbstrTable#dejKlicNejvyse(Comparable)})
+     */
+    @Override
+    public Iterator<V> vytvorSestupnyIterator(K od) {
+        return new SestupnyIterator(od == null ? najdiMaximum(koren) : najdiSouseda(od, false, true));
+    }
+
+// <editor-fold defaultstate="collapsed" desc="Sestupný iterátor do hloubky (reverse in-order)">
+    /**
+     * Iterátor pro průchod stromem od největšího klíče k nejmenšímu. Je zrcadlovým protějškem
+     * {@link HloubkaIterator}: začíná u nejpravějšího uzlu a přechází k in-order předchůdci, rovněž bez
+     * pomocné paměti
+     */
+    private class SestupnyIterator implements Iterator<V> {
+
+        private Uzel dalsiUzel;
+
+        /**
+         * Konstruktor vytvoří instanci iterátoru a nastaví ho na uzel s největším klíčem
+         */
+        public SestupnyIterator() { dalsiUzel = najdiMaximum(koren); }
+
+        /**
+         * Konstruktor vytvoří instanci iterátoru a nastaví ho na zadaný uzel
+         *
+         * @param prvniUzel Uzel prvního vraceného prvku ({@code null} pro prázdný iterátor)
+         */
+        public SestupnyIterator(Uzel prvniUzel) { dalsiUzel = prvniUzel; }
+
+        /**
+         * Určuje, zda existuje další prvek pro zpracování
+         *
+         * @return {@code true}, pokud existuje další prvek, jinak {@code false}
+         */
+        @Override
+        public boolean hasNext() { return dalsiUzel != null; }
+
+        /**
+         * Vrací další prvek v sestupném pořadí a přesune se na in-order předchůdce
+         *
+         * @return Další prvek pro zpracování
+         *
+         * @throws NoSuchElementException Pokud není další prvek k dispozici
+         */
+        @Override
+        public V next() {
+            if (!hasNext())
+                throw new NoSuchElementException(ChybovaZpravaStromu.KONEC_ITERACE.getZprava());
+            final V hodnota = dalsiUzel.hodnota;
+            dalsiUzel = najdiPredchudce(dalsiUzel);
+            return hodnota;
+        }
+    }
+
+    /**
+     * Najde in-order předchůdce uzlu (zrcadlově k {@link AbstrTable#najdiNaslednika(Uzel)}): nejpravější uzel
+     * levého podstromu, případně první předek, do jehož pravého podstromu uzel patří
+     *
+     * @param uzel Uzel, jehož předchůdce se hledá
+     *
+     * @return Předchůdce nebo {@code null}, pokud je uzel nejmenší
+     */
+    private Uzel najdiPredchudce(@NotNull Uzel uzel) {
+        if (jeLevyPotomek(uzel))
+            return najdiMaximum(uzel.vlevo);
+        Uzel rodic = uzel.rodic;
+        while (rodic != null && uzel == rodic.vlevo) {
+            uzel = rodic;
+            rodic = uzel.rodic;
+        }
+        return rodic;
+    }
+
+    /**
+     * Najde uzel s největším klíčem v podstromu
+     *
+     * @param uzel Kořen podstromu (může být {@code null})
+     *
+     * @return Nejpravější uzel podstromu nebo {@code null}, pokud je podstrom prázdný
+     */
+    private Uzel najdiMaximum(Uzel uzel) {
+        if (uzel == null)
+            return null;
+        while (uzel.vpravo != null)
+            uzel = uzel.vpravo;
+        return uzel;
+    }
+// </editor-fold>
+
+    @Override
+    public Iterator<V> vytvorIterator(K od, K po) { return new RozsahIterator(od, po); }
+
+// <editor-fold defaultstate="collapsed" desc="Iterátor rozsahu [od, po)">
+    /**
+     * Iterátor pro in-order průchod klíči z polouzavřeného intervalu {@code [od, po)}
+     *
+     * <p> Na začátku se jediným sestupem od kořene najde nejmenší uzel s klíčem větším nebo rovným dolní mezi.
+     * Další uzly se získávají metodou {@link AbstrTable#najdiNaslednika(Uzel)} a průchod končí u prvního klíče,
+     * který není menší než horní mez. Průchod {@code k} prvků tak stojí {@code O(log n + k)} a nevyžaduje
+     * procházení celé tabulky
+     */
+    private class RozsahIterator implements Iterator<V> {
+
+        private final K horniMez;
+        private Uzel dalsiUzel;
+
+        /**
+         * Konstruktor vyhledá první uzel intervalu
+         *
+         * @param od Dolní mez (včetně), {@code null} znamená začátek tabulky
+         * @param po Horní mez (vyloučena), {@code null} znamená konec tabulky
+         */
+        public RozsahIterator(K od, K po) {
+            horniMez = po;
+            dalsiUzel = omezHorniMezi(od == null ? najdiMinimum(koren) : najdiSouseda(od, true, true));
+        }
+
+        /**
+         * Určuje, zda existuje další prvek v intervalu
+         *
+         * @return {@code true}, pokud existuje další prvek, jinak {@code false}
+         */
+        @Override
+        public boolean hasNext() { return dalsiUzel != null; }
+
+        /**
+         * Vrací další prvek intervalu a posune se na jeho následníka
+         *
+         * @return Další prvek pro zpracování
+         *
+         * @throws NoSuchElementException Pokud není další prvek k dispozici
+         */
+        @Override
+        public V next() {
+            if (!hasNext())
+                throw new NoSuchElementException(ChybovaZpravaStromu.KONEC_ITERACE.getZprava());
+            final V hodnota = dalsiUzel.hodnota;
+            dalsiUzel = omezHorniMezi(najdiNaslednika(dalsiUzel));
+            return hodnota;
+        }
+
+        /**
+         * Vrací zadaný uzel, pokud je jeho klíč menší než horní mez, jinak {@code null}
+         */
+        private Uzel omezHorniMezi(Uzel uzel) {
+            if (uzel == null || horniMez == null)
+                return uzel;
+            return porovnej(uzel.klic, horniMez) < NULTA_HODNOTA ? uzel : null;
+        }
+    }
+
+    /**
+     * Najde nejbližší uzel k zadanému klíči v jednom směru (společný základ pro rozsahový iterátor
+     * a navigační dotazy {@link AbstrTable#dejKlicNejvyse(Comparable)}, ...)
+     *
+     * <p> Při sestupu si pamatuje posledního kandidáta, tj. uzel, jehož klíč leží v hledaném směru od
+     * zadaného klíče a od kterého se pokračovalo opačným směrem (k bližším klíčům)
+     *
+     * @param klic Hledaný klíč
+     * @param vetsi {@code true} pro hledání klíče nad zadaným klíčem, {@code false} pod ním
+     * @param vcetneRovnosti Zda se připouští uzel se stejným klíčem
+     *
+     * @return Nalezený uzel nebo {@code null}, pokud v daném směru žádný klíč neleží
+     */
+    private Uzel najdiSouseda(@NotNull K klic, boolean vetsi, boolean vcetneRovnosti) {
+        final long predpona = zakoduj(klic);
+        Uzel kandidat = null;
+        Uzel uzel = koren;
+        while (uzel != null) {
+            final int vysledek = porovnejSUzlem(klic, predpona, uzel);
+            if (vysledek == NULTA_HODNOTA && vcetneRovnosti)
+                return uzel;
+            if (vetsi ? vysledek < NULTA_HODNOTA : vysledek > NULTA_HODNOTA) {
+                kandidat = uzel;
+                uzel = vetsi ? uzel.vlevo : uzel.vpravo;
+            } else {
+                uzel = vetsi ? uzel.vpravo : uzel.vlevo;
             }
         }
+        return kandidat;
+    }
+
+    /**
+     * Najde uzel s nejmenším klíčem v podstromu
+     *
+     * @param uzel Kořen podstromu (může být {@code null})
+     *
+     * @return Nejlevější uzel podstromu nebo {@code null}, pokud je podstrom prázdný
+     */
+    private Uzel najdiMinimum(Uzel uzel) {
+        if (uzel == null)
+            return null;
+        while (uzel.vlevo != null)
+            uzel = uzel.vlevo;
+        return uzel;
     }
 // </editor-fold>
 
     @Override
     public int dejMohutnost(K klic) {
-        final Uzel hledanyUzel = najdiRekurzivne(koren, klic);
+        final Uzel hledanyUzel = najdiUzel(klic);
         if (hledanyUzel == null)
             return UKAZATEL_ABSENCE;
         return hledanyUzel.mohutnost;
     }
 
+// <editor-fold defaultstate="collapsed" desc="Pořadové dotazy (order statistics)">
+    @Override
+    public int dejMohutnost() { return dejMohutnostUzlu(koren); }
+
+    @Override
+    public V dejPrvekNaPoradi(int poradi) throws StromException {
+        return najdiUzelNaPoradi(poradi).hodnota;
+    }
+
+    @Override
+    public K dejKlicNaPoradi(int poradi) throws StromException {
+        return najdiUzelNaPoradi(poradi).klic;
+    }
+
+    /**
+     * Pomocná metoda pro {@link AbstrTable#dejPrvekNaPoradi(int)} a {@link AbstrTable#dejKlicNaPoradi(int)}
+     *
+     * <p> Popis logiky:
+     * <ol>
+     * <li> Ověří, že pořadí leží v rozsahu {@code 0..mohutnost-1}
+     * <li> Sestupuje od kořene. V každém uzlu porovná pořadí s mohutností levého podstromu:
+     *     <ul>
+     *     <li> <b>poradi < levaMohutnost</b>: Hledaný uzel je v levém podstromu
+     *     <li> <b>poradi == levaMohutnost</b>: Hledaným uzlem je aktuální uzel
+     *     <li> <b>else</b>: Hledaný uzel je v pravém podstromu, pořadí se sníží o levý podstrom a aktuální uzel
+     *     </ul>
+     * </ol>
+     *
+     * @param poradi Pořadí uzlu v in-order posloupnosti (od nuly)
+     *
+     * @return Uzel na zadaném pořadí
+     *
+     * @throws StromException Pokud je pořadí mimo rozsah tabulky
+     */
+    private @NotNull Uzel najdiUzelNaPoradi(int poradi) throws StromException {
+        if (poradi < NULTA_HODNOTA || poradi >= dejMohutnostUzlu(koren))
+            throw new StromException(ChybovaZpravaStromu.NEPLATNE_PORADI.getZprava());
+        return dejUzelNaPoradi(poradi);
+    }
+
+    /**
+     * Vrací uzel na zadaném pořadí bez kontroly rozsahu (pořadí musí být v rozsahu {@code 0..mohutnost-1})
+     */
+    private @NotNull Uzel dejUzelNaPoradi(int poradi) {
+        Uzel uzel = koren;
+        while (true) {
+            final int levaMohutnost = dejMohutnostUzlu(uzel.vlevo);
+            if (poradi < levaMohutnost) {
+                uzel = uzel.vlevo;
+            } else if (poradi == levaMohutnost) {
+                return uzel;
+            } else {
+                poradi -= levaMohutnost + MOHUTNOST_LISTU;
+                uzel = uzel.vpravo;
+            }
+        }
+    }
+
+    /**
+     * Sestupuje od kořene stejně jako při vyhledávání. Při každém kroku doprava přičte k výsledku mohutnost
+     * levého podstromu a aktuální uzel, protože všechny tyto klíče jsou menší než hledaný klíč
+     */
+    @Override
+    public int dejPoradi(K klic) {
+        if (klic == null)
+            return UKAZATEL_ABSENCE;
+
+        final long predpona = zakoduj(klic);
+        int poradi = NULTA_HODNOTA;
+        Uzel uzel = koren;
+        while (uzel != null) {
+            final int vysledek = porovnejSUzlem(klic, predpona, uzel);
+            if (vysledek == NULTA_HODNOTA)
+                return poradi + dejMohutnostUzlu(uzel.vlevo);
+            if (vysledek < NULTA_HODNOTA) {
+                uzel = uzel.vlevo;
+            } else {
+                poradi += dejMohutnostUzlu(uzel.vlevo) + MOHUTNOST_LISTU;
+                uzel = uzel.vpravo;
+            }
+        }
+        return UKAZATEL_ABSENCE;
+    }
+
+    @Override
+    public int dejPocetMensich(K klic) throws StromException {
+        pozadatNePrazdnyKlic(klic);
+
+        final long predpona = zakoduj(klic);
+        int pocet = NULTA_HODNOTA;
+        Uzel uzel = koren;
+        while (uzel != null) {
+            final int vysledek = porovnejSUzlem(klic, predpona, uzel);
+            if (vysledek <= NULTA_HODNOTA) {
+                if (vysledek == NULTA_HODNOTA)
+                    return pocet + dejMohutnostUzlu(uzel.vlevo);
+                uzel = uzel.vlevo;
+            } else {
+                pocet += dejMohutnostUzlu(uzel.vlevo) + MOHUTNOST_LISTU;
+                uzel = uzel.vpravo;
+            }
+        }
+        return pocet;
+    }
+
+    @Override
+    public int dejPocetVRozsahu(K od, K po) throws StromException {
+        pozadatNePrazdnyKlic(od);
+        pozadatNePrazdnyKlic(po);
+        if (porovnej(od, po) >= NULTA_HODNOTA)
+            return NULTA_HODNOTA;
+        return dejPocetMensich(po) - dejPocetMensich(od);
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Metoda: long[] dejSoucty(K od, K po)">
+    /**
+     * Vrací součty ukazatelů (viz {@link AbstrTable#AbstrTable(List)}) všech prvků, jejichž klíče leží
+     * v polouzavřeném intervalu {@code [od, po)}
+     *
+     * <p> Popis logiky:
+     * <ol>
+     * <li> Součet intervalu je rozdílem součtů prvků s klíči menšími než {@code po} a menšími než {@code od}
+     *     <ul>
+     *     <li> <b>dejSouctyMensich(klic)</b>
+     *     </ul>
+     * <li> Součty menších prvků se zjistí jedním sestupem od kořene: při odbočení doprava se přičtou součty
+     * levého podstromu a ukazatele aktuálního uzlu, protože všechny tyto klíče jsou menší než hledaný klíč
+     * </ol>
+     * Oba sestupy stojí {@code O(log n)}, prvky intervalu se neprocházejí
+     *
+     * @param od Dolní mez klíče (včetně), {@code null} znamená bez dolní meze
+     * @param po Horní mez klíče (vyloučena), {@code null} znamená bez horní meze
+     *
+     * @return Součty jednotlivých ukazatelů v pořadí zadaném konstruktorem (prázdné pole, pokud tabulka
+     * ukazatele nemá; nuly pro prázdný interval)
+     */
+    public long @NotNull [] dejSoucty(K od, K po) {
+        if (ukazatele == null)
+            return new long[NULTA_HODNOTA];
+        if (od != null && po != null && porovnej(od, po) >= NULTA_HODNOTA)
+            return new long[ukazatele.dejPocet()];
+
+        final long[] soucty = po == null ? new long[ukazatele.dejPocet()] : dejSouctyMensich(po);
+        if (po == null)
+            Ukazatele.pricti(soucty, dejSouctyUzlu(koren));
+        if (od != null)
+            Ukazatele.odecti(soucty, dejSouctyMensich(od));
+        return soucty;
+    }
+
+    private long @NotNull [] dejSouctyMensich(@NotNull K klic) {
+        final long[] soucty = new long[ukazatele.dejPocet()];
+        final long predpona = zakoduj(klic);
+        Uzel uzel = koren;
+        while (uzel != null) {
+            if (porovnejSUzlem(klic, predpona, uzel) > NULTA_HODNOTA) {
+                Ukazatele.pricti(soucty, dejSouctyUzlu(uzel.vlevo));
+                ukazatele.prictiHodnotu(soucty, uzel.hodnota);
+                uzel = uzel.vpravo;
+            } else {
+                uzel = uzel.vlevo;
+            }
+        }
+        return soucty;
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Navigační dotazy (floor, ceiling, lower, higher, první a poslední klíč)">
+    @Override
+    public K dejPrvniKlic() { return dejKlicUzlu(najdiMinimum(koren)); }
+
+    @Override
+    public K dejPosledniKlic() { return dejKlicUzlu(najdiMaximum(koren)); }
+
+    /**
+     * Jeden sestup od kořene, při kterém se pamatuje poslední uzel s menším klíčem
+     */
+    @Override
+    public K dejKlicNejvyse(K klic) throws StromException {
+        pozadatNePrazdnyKlic(klic);
+        return dejKlicUzlu(najdiSouseda(klic, false, true));
+    }
+
+    @Override
+    public K dejKlicNejmene(K klic) throws StromException {
+        pozadatNePrazdnyKlic(klic);
+        return dejKlicUzlu(najdiSouseda(klic, true, true));
+    }
+
+    @Override
+    public K dejPredchoziKlic(K klic) throws StromException {
+        pozadatNePrazdnyKlic(klic);
+        return dejKlicUzlu(najdiSouseda(klic, false, false));
+    }
+
+    @Override
+    public K dejNasledujiciKlic(K klic) throws StromException {
+        pozadatNePrazdnyKlic(klic);
+        return dejKlicUzlu(najdiSouseda(klic, true, false));
+    }
+
+    private K dejKlicUzlu(Uzel uzel) { return uzel == null ? null : uzel.klic; }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Spliterator pro paralelní proudy">
+    @Override
+    public Spliterator<V> vytvorSpliterator() { return new PoradovySpliterator(NULTA_HODNOTA, dejMohutnost()); }
+
+    /**
+     * Spliterator prvků s pořadím z polouzavřeného intervalu {@code [od, po)} in-order posloupnosti
+     *
+     * <p> Dělení nevyžaduje procházení prvků: interval se rozpůlí podle pořadí, takže obě části mají přesně
+     * známou velikost ({@link Spliterator#SIZED}, {@link Spliterator#SUBSIZED}) a liší se nejvýše o jeden
+     * prvek. První uzel části se najde až při prvním přístupu sestupem podle mohutnosti podstromů
+     * ({@code O(log n)}), další uzly se získávají přechodem k následníkovi. Každé vlákno tak prochází souvislý
+     * úsek stromu
+     */
+    private final class PoradovySpliterator implements Spliterator<V> {
+
+        /**
+         * Konstanta reprezentuje nejmenší počet prvků, který se ještě dělí
+         */
+        private final int MIN_VELIKOST_DELENI = 2;
+
+        private int od;
+        private final int po;
+        /**
+         * Uzel s pořadím {@code od}, {@code null}, dokud se nezačalo procházet
+         */
+        private Uzel dalsiUzel;
+
+        PoradovySpliterator(int od, int po) {
+            this.od = od;
+            this.po = po;
+            dalsiUzel = null;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super V> akce) {
+            if (od >= po)
+                return false;
+            if (dalsiUzel == null)
+                dalsiUzel = dejUzelNaPoradi(od);
+            final V hodnota = dalsiUzel.hodnota;
+            dalsiUzel = ++od < po ? najdiNaslednika(dalsiUzel) : null;
+            akce.accept(hodnota);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super V> akce) {
+            if (od >= po)
+                return;
+            Uzel uzel = dalsiUzel == null ? dejUzelNaPoradi(od) : dalsiUzel;
+            final int pocet = po - od;
+            od = po;
+            dalsiUzel = null;
+            for (int i = 0; i < pocet; i++, uzel = najdiNaslednika(uzel))
+                akce.accept(uzel.hodnota);
+        }
+
+        /**
+         * Oddělí první polovinu zbývajícího intervalu jako nový spliterator, tento pokračuje druhou polovinou
+         */
+        @Override
+        public Spliterator<V> trySplit() {
+            if (po - od < MIN_VELIKOST_DELENI)
+                return null;
+            final int stred = (od + po) >>> 1;
+            final PoradovySpliterator prvniPolovina = new PoradovySpliterator(od, stred);
+            prvniPolovina.dalsiUzel = dalsiUzel;
+            od = stred;
+            dalsiUzel = null;
+            return prvniPolovina;
+        }
+
+        @Override
+        public long estimateSize() { return po - od; }
+
+        @Override
+        public int characteristics() { return ORDERED | SIZED | SUBSIZED; }
+    }
+// </editor-fold>
+
 // <editor-fold defaultstate="collapsed" desc="Výpis stromu">
     private final String ODRADKOVANI = "\n";
     private final String PREDPIS_PATRO = "Patro ";
     private final String ODDELOVAC = ": ";
 
     @Override
-    public @NotNull String vypisStrom(ETypProhl typ) {
-        StringBuilder sb = new StringBuilder();
-        Iterator<V> iterator = switch (typ) {
-            case SIRKA -> new SirkaIterator();
-            case HLOUBKA -> new HloubkaIterator();
-        };
-
-        while (iterator.hasNext()) {
-            switch (typ) {
-                case SIRKA -> {
+    public void vypisStrom(ETypProhl typ, @NotNull Appendable cil, int od, int pocet) throws IOException {
+        NastrojeTabulek.overVyrezVypisu(od, pocet);
+        switch (typ) {
+            case SIRKA -> {
+                final SirkaIterator iterator = new SirkaIterator();
+                for (int i = NULTA_HODNOTA; i < od && iterator.hasNext(); i++)
+                    iterator.next();
+                for (int i = NULTA_HODNOTA; i < pocet && iterator.hasNext(); i++) {
                     final V hodnota = iterator.next();
-                    final int patro = ((SirkaIterator) iterator).patro();
-                    sb.append(PREDPIS_PATRO).append(patro).append(ODDELOVAC).append(hodnota).append(ODRADKOVANI);
+                    cil.append(PREDPIS_PATRO).append(String.valueOf(iterator.patro())).append(ODDELOVAC)
+                            .append(String.valueOf(hodnota)).append(ODRADKOVANI);
                 }
-                case HLOUBKA -> sb.append(iterator.next()).append(ODRADKOVANI);
+            }
+            case HLOUBKA -> {
+                final Iterator<V> iterator = new HloubkaIterator(od < dejMohutnost() ? dejUzelNaPoradi(od) : null);
+                for (int i = NULTA_HODNOTA; i < pocet && iterator.hasNext(); i++)
+                    cil.append(String.valueOf(iterator.next())).append(ODRADKOVANI);
             }
         }
-
-        return sb.toString();
     }
 // </editor-fold>
 
     @Override
     public boolean obsahuje(K klic) {
-        return najdiRekurzivne(koren, klic) != null;
+        return najdiUzel(klic) != null;
     }
 
-// <editor-fold defaultstate="collapsed" desc="Metody porovnávání klíčů">
+// <editor-fold defaultstate="collapsed" desc="Metoda porovnávání klíčů">
     /**
-     * Porovná výsledek metody compareTo s nulou
+     * Porovná dva klíče metodou {@link Comparable#compareTo(Object)}
      *
-     * <p>{@link Comparable#compareTo(Object)} vratí nulu pokud aktuální instance {@code this} je "rovná" druhé instanci {@code other}
+     * <p> Výsledek jednoho porovnání se na každém patře stromu uloží a použije pro všechna rozhodnutí na daném
+     * patře (shoda, levý nebo pravý podstrom), takže se {@code compareTo} volá nejvýše jednou na patro
      *
      * @param obj1 První objekt pro porovnání
      * @param obj2 Druhý objekt pro porovnání
      *
-     * @return {@code true}, pokud výsledek je roven nule, jinak {@code false}
+     * @return Nula, pokud jsou klíče ekvivalentní, záporné číslo, pokud je {@code obj1} menší, jinak kladné číslo
      */
-    private boolean jeNula(@NotNull K obj1, K obj2) { return obj1.compareTo(obj2) == NULTA_HODNOTA; }
+    private int porovnej(@NotNull K obj1, K obj2) {
+        pocitadla.zapocitejPorovnani();
+        return obj1.compareTo(obj2);
+    }
 
     /**
-     * Porovná výsledek metody compareTo s kladným číslem
-     *
-     * <p>{@link Comparable#compareTo(Object)} vratí kladné číslo pokud aktuální instance {@code this} je "větší" než druhá instance {@code other}
+     * Porovná hledaný klíč s klíčem uzlu. Liší-li se předpony, rozhodne jejich porovnání bez znaménka a úplné
+     * porovnání klíčů se neprovede (ani nezapočítá), jinak se klíče porovnají metodou {@link #porovnej}
      *
-     * @param obj1 První objekt pro porovnání
-     * @param obj2 Druhý objekt pro porovnání
+     * @param klic Hledaný klíč
+     * @param predpona Předpona hledaného klíče zakódovaná metodou {@link #zakoduj(Comparable)}
+     * @param uzel Uzel, s jehož klíčem se porovnává
      *
-     * @return {@code true}, pokud výsledek je kladný, jinak {@code false}
+     * @return Nula, pokud jsou klíče ekvivalentní, záporné číslo, pokud je {@code klic} menší, jinak kladné číslo
      */
-    private boolean jeKladne(@NotNull K obj1, K obj2) { return obj1.compareTo(obj2) > NULTA_HODNOTA; }
+    private int porovnejSUzlem(@NotNull K klic, long predpona, @NotNull Uzel uzel) {
+        if (predpona != uzel.predpona)
+            return Long.compareUnsigned(predpona, uzel.predpona);
+        return porovnej(klic, uzel.klic);
+    }
 
     /**
-     * Porovná výsledek metody compareTo s záporným číslem
+     * Zakóduje předponu klíče kodérem tabulky
      *
-     * <p>{@link Comparable#compareTo(Object)} vratí záporné číslo pokud aktuální instance {@code this} je "menší" než druhá instance {@code other}
+     * @param klic Klíč
      *
-     * @param obj1 První objekt pro porovnání
-     * @param obj2 Druhý objekt pro porovnání
-     * @return {@code true}, pokud výsledek je záporný, jinak {@code false}
+     * @return Předpona klíče, nebo {@link #ZADNA_PREDPONA}, pokud tabulka kodér nemá
      */
-    private boolean jeZaporne(@NotNull K obj1, K obj2) { return obj1.compareTo(obj2) < NULTA_HODNOTA; }
+    private long zakoduj(@NotNull K klic) { return kodovac == null ? ZADNA_PREDPONA : kodovac.zakoduj(klic); }
 // </editor-fold>
 
 // <editor-fold defaultstate="collapsed" desc="Metody ošetřování typu pozadat()">
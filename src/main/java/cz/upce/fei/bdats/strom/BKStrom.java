@@ -0,0 +1,336 @@
+package cz.upce.fei.bdats.strom;
+
+import cz.upce.fei.bdats.vyjimky.zpravy.ChybovaZpravaStromu;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Třída představuje <b>BK-strom</b> (Burkhard-Keller) řetězcových klíčů pro přibližné vyhledávání podle
+ * Levenshteinovy (editační) vzdálenosti, tj. nejmenšího počtu vložení, smazání a záměn znaků, kterými se
+ * jeden řetězec převede na druhý. Slouží např. k nalezení obce podle názvu zadaného s překlepem
+ * ("Frenstat pod Radhoste")
+ *
+ * <p> Potomek uzlu na indexu {@code d} obsahuje pouze klíče ve vzdálenosti přesně {@code d} od klíče uzlu.
+ * Díky trojúhelníkové nerovnosti stačí při hledání klíčů ve vzdálenosti nejvýše {@code k} od dotazu, který
+ * je od klíče uzlu vzdálen {@code d}, sestoupit jen do potomků {@code d - k} až {@code d + k}; ostatní
+ * podstromy se neprocházejí. Vzdálenost se navíc počítá se stropem, takže výpočet u vzdálených klíčů skončí
+ * dříve
+ *
+ * <p> Odebraný klíč se v uzlu pouze označí (uzel zůstane jako rozcestník). Jakmile označených uzlů přibude
+ * více než platných klíčů, strom se z platných klíčů znovu sestaví
+ *
+ * <p> Jako {@link PosluchacTabulky} se strom zaregistruje u {@link IndexovanaTable} a udržuje se tak v souladu
+ * s tabulkou. Souběh: zápisy se serializují výhradním zámkem {@link StampedLock}, dotazy běží pod zámkem pro
+ * čtení. Počítadlo porovnání ({@link BKStrom#dejPocitadla()}) počítá výpočty vzdálenosti
+ *
+ * @param <V> Typ hodnoty
+ */
+public final class BKStrom<V> implements PosluchacTabulky<String, V> {
+
+    /**
+     * Konstanta pro nulu
+     */
+    private final int NULTA_HODNOTA = 0;
+    /**
+     * Strop vzdálenosti při vkládání a odebírání (vzdálenost se počítá přesně)
+     */
+    private final int BEZ_STROPU = Integer.MAX_VALUE;
+
+    private Uzel<V> koren;
+    private int pocet;
+    private int pocetOznacenych;
+    private final StampedLock zamek;
+    private final PocitadlaStromu pocitadla = new PocitadlaStromu();
+
+    /**
+     * Privátní třída reprezentující uzel stromu. Každý uzel má klíč, hodnotu, příznak odebrání a potomky
+     * indexované vzdáleností jejich klíčů od klíče uzlu
+     */
+    private static final class Uzel<V> {
+        /**
+         * Sdílené prázdné pole potomků listu, při připojení prvního potomka se nahradí kopií
+         */
+        private static final Uzel<?>[] BEZ_POTOMKU = new Uzel<?>[0];
+
+        final String klic;
+        V hodnota;
+        boolean odebrany;
+        Uzel<V>[] potomci;
+
+        @SuppressWarnings("unchecked")
+        Uzel(@NotNull String klic, V hodnota) {
+            this.klic = klic;
+            this.hodnota = hodnota;
+            this.potomci = (Uzel<V>[]) BEZ_POTOMKU;
+        }
+    }
+
+    /**
+     * Záznam představuje jeden nalezený klíč a jeho vzdálenost od dotazu (pro seřazení výsledku)
+     */
+    private record Shoda<V>(int vzdalenost, String klic, V hodnota) {}
+
+    /**
+     * Konstruktor vytvoří prázdný strom
+     */
+    public BKStrom() {
+        this.koren = null;
+        this.zamek = new StampedLock();
+    }
+
+// <editor-fold defaultstate="collapsed" desc="Zápisy">
+    /**
+     * Popis logiky:
+     * <ol>
+     * <li> Od kořene spočítá vzdálenost {@code d} klíče od klíče uzlu a pokračuje do potomka {@code d}
+     * <li> Pokud potomek {@code d} neexistuje, připojí na jeho místo nový uzel
+     * <li> Nulová vzdálenost znamená stejný klíč: označený (odebraný) uzel se znovu oživí, jinak se nic nevloží
+     * </ol>
+     *
+     * @param klic Vkládaný klíč
+     * @param hodnota Hodnota klíče
+     *
+     * @return {@code true}, pokud se klíč vložil, {@code false}, pokud ho strom již obsahoval
+     */
+    public boolean vloz(@NotNull String klic, V hodnota) {
+        final long razitko = zamek.writeLock();
+        try {
+            return vlozBezZamku(klic, hodnota);
+        } finally {
+            zamek.unlockWrite(razitko);
+        }
+    }
+
+    /**
+     * Klíč se vyhledá stejným sestupem jako při vkládání. Nalezený uzel se pouze označí jako odebraný; pokud
+     * je označených uzlů více než platných klíčů, strom se znovu sestaví
+     *
+     * @param klic Odebíraný klíč
+     *
+     * @return {@code true}, pokud se klíč odebral, {@code false}, pokud ho strom neobsahoval
+     */
+    public boolean odeber(@NotNull String klic) {
+        final long razitko = zamek.writeLock();
+        try {
+            Uzel<V> uzel = koren;
+            while (uzel != null) {
+                final int vzdalenost = dejVzdalenost(klic, uzel.klic, BEZ_STROPU);
+                if (vzdalenost == NULTA_HODNOTA)
+                    break;
+                uzel = vzdalenost < uzel.potomci.length ? uzel.potomci[vzdalenost] : null;
+            }
+            if (uzel == null || uzel.odebrany)
+                return false;
+
+            uzel.odebrany = true;
+            uzel.hodnota = null;
+            pocet--;
+            pocetOznacenych++;
+            pocitadla.zapocitejOdebrani();
+            if (pocetOznacenych > pocet)
+                prestav();
+            return true;
+        } finally {
+            zamek.unlockWrite(razitko);
+        }
+    }
+
+    /**
+     * Odebere ze stromu všechny klíče
+     */
+    public void zrus() {
+        final long razitko = zamek.writeLock();
+        try {
+            koren = null;
+            pocet = NULTA_HODNOTA;
+            pocetOznacenych = NULTA_HODNOTA;
+        } finally {
+            zamek.unlockWrite(razitko);
+        }
+    }
+
+    @Override
+    public void priVlozeni(@NotNull String klic, V hodnota) { vloz(klic, hodnota); }
+
+    @Override
+    public void priOdebrani(@NotNull String klic, V hodnota) { odeber(klic); }
+
+    @Override
+    public void priZruseni() { zrus(); }
+
+    private boolean vlozBezZamku(@NotNull String klic, V hodnota) {
+        if (koren == null) {
+            koren = new Uzel<>(klic, hodnota);
+            pocet++;
+            pocitadla.zapocitejVlozeni();
+            return true;
+        }
+        Uzel<V> uzel = koren;
+        while (true) {
+            final int vzdalenost = dejVzdalenost(klic, uzel.klic, BEZ_STROPU);
+            if (vzdalenost == NULTA_HODNOTA) {
+                if (!uzel.odebrany)
+                    return false;
+                uzel.odebrany = false;
+                uzel.hodnota = hodnota;
+                pocetOznacenych--;
+                break;
+            }
+            if (vzdalenost >= uzel.potomci.length)
+                uzel.potomci = Arrays.copyOf(uzel.potomci, vzdalenost + 1);
+            if (uzel.potomci[vzdalenost] == null) {
+                uzel.potomci[vzdalenost] = new Uzel<>(klic, hodnota);
+                break;
+            }
+            uzel = uzel.potomci[vzdalenost];
+        }
+        pocet++;
+        pocitadla.zapocitejVlozeni();
+        return true;
+    }
+
+    /**
+     * Sestaví strom znovu pouze z platných (neoznačených) klíčů v pořadí průchodu původním stromem do hloubky
+     */
+    private void prestav() {
+        final List<Uzel<V>> platne = new ArrayList<>(pocet);
+        final List<Uzel<V>> zasobnik = new ArrayList<>();
+        if (koren != null)
+            zasobnik.add(koren);
+        while (!zasobnik.isEmpty()) {
+            final Uzel<V> uzel = zasobnik.remove(zasobnik.size() - 1);
+            if (!uzel.odebrany)
+                platne.add(uzel);
+            for (Uzel<V> potomek : uzel.potomci) {
+                if (potomek != null)
+                    zasobnik.add(potomek);
+            }
+        }
+
+        koren = null;
+        pocet = NULTA_HODNOTA;
+        pocetOznacenych = NULTA_HODNOTA;
+        for (Uzel<V> uzel : platne)
+            vlozBezZamku(uzel.klic, uzel.hodnota);
+        pocitadla.zapocitejVyvazeni();
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Dotazy">
+    /**
+     * Popis logiky:
+     * <ol>
+     * <li> Prochází strom od kořene pomocí zásobníku. U každého uzlu spočítá vzdálenost {@code d} dotazu od
+     * klíče uzlu se stropem, nad kterým už nemůže vyhovět ani uzel, ani žádný jeho potomek
+     * <li> Platný klíč ve vzdálenosti nejvýše {@code maxVzdalenost} přidá do výsledku
+     * <li> Do zásobníku vloží jen potomky {@code d - maxVzdalenost} až {@code d + maxVzdalenost}
+     * <li> Výsledek seřadí podle vzdálenosti a při shodě podle klíče
+     * </ol>
+     *
+     * @param dotaz Hledaný řetězec
+     * @param maxVzdalenost Nejvyšší připuštěná editační vzdálenost
+     *
+     * @return Hodnoty klíčů ve vzdálenosti nejvýše {@code maxVzdalenost} od dotazu, nejbližší jako první
+     *
+     * @throws IllegalArgumentException Pokud je {@code maxVzdalenost} záporná
+     */
+    public @NotNull List<V> najdiPodobne(@NotNull String dotaz, int maxVzdalenost) {
+        if (maxVzdalenost < NULTA_HODNOTA)
+            throw new IllegalArgumentException(ChybovaZpravaStromu.NEPLATNA_VZDALENOST.getZprava());
+
+        final List<Shoda<V>> shody = new ArrayList<>();
+        final long razitko = zamek.readLock();
+        try {
+            final List<Uzel<V>> zasobnik = new ArrayList<>();
+            if (koren != null)
+                zasobnik.add(koren);
+            while (!zasobnik.isEmpty()) {
+                final Uzel<V> uzel = zasobnik.remove(zasobnik.size() - 1);
+                final int strop = Math.max(uzel.potomci.length, 1) + maxVzdalenost;
+                final int vzdalenost = dejVzdalenost(dotaz, uzel.klic, strop);
+                if (vzdalenost <= maxVzdalenost && !uzel.odebrany)
+                    shody.add(new Shoda<>(vzdalenost, uzel.klic, uzel.hodnota));
+                final int po = Math.min(vzdalenost + maxVzdalenost, uzel.potomci.length - 1);
+                for (int i = Math.max(vzdalenost - maxVzdalenost, 1); i <= po; i++) {
+                    if (uzel.potomci[i] != null)
+                        zasobnik.add(uzel.potomci[i]);
+                }
+            }
+        } finally {
+            zamek.unlockRead(razitko);
+        }
+
+        shody.sort(Comparator.comparingInt((Shoda<V> shoda) -> shoda.vzdalenost()).thenComparing(Shoda::klic));
+        final List<V> hodnoty = new ArrayList<>(shody.size());
+        for (Shoda<V> shoda : shody)
+            hodnoty.add(shoda.hodnota());
+        return hodnoty;
+    }
+
+    /**
+     * Vrací počet platných klíčů ve stromu
+     *
+     * @return Počet klíčů
+     */
+    public int dejPocet() {
+        final long razitko = zamek.readLock();
+        try {
+            return pocet;
+        } finally {
+            zamek.unlockRead(razitko);
+        }
+    }
+
+    /**
+     * Počítadla stromu: porovnání odpovídají výpočtům editační vzdálenosti, vyvažovací kroky novým sestavením
+     * stromu po odebírání
+     *
+     * @return Počítadla stromu
+     */
+    public @NotNull PocitadlaStromu dejPocitadla() { return pocitadla; }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Levenshteinova vzdálenost">
+    /**
+     * Spočítá Levenshteinovu vzdálenost dvou řetězců dynamickým programováním po řádcích (paměť na dva řádky).
+     * Pokud už celý řádek dosáhne stropu, výpočet skončí, protože vzdálenost nemůže klesnout
+     *
+     * @param a První řetězec
+     * @param b Druhý řetězec
+     * @param strop Strop vzdálenosti
+     *
+     * @return Vzdálenost řetězců, nebo {@code strop}, pokud je vzdálenost alespoň {@code strop}
+     */
+    private int dejVzdalenost(@NotNull String a, @NotNull String b, int strop) {
+        pocitadla.zapocitejPorovnani();
+        if (Math.abs(a.length() - b.length()) >= strop)
+            return strop;
+
+        int[] predchozi = new int[b.length() + 1];
+        int[] aktualni = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++)
+            predchozi[j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            aktualni[0] = i;
+            int minimumRadku = aktualni[0];
+            final char znak = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                final int zamena = predchozi[j - 1] + (znak == b.charAt(j - 1) ? 0 : 1);
+                aktualni[j] = Math.min(zamena, Math.min(predchozi[j], aktualni[j - 1]) + 1);
+                minimumRadku = Math.min(minimumRadku, aktualni[j]);
+            }
+            if (minimumRadku >= strop)
+                return strop;
+            final int[] radek = predchozi;
+            predchozi = aktualni;
+            aktualni = radek;
+        }
+        return Math.min(predchozi[b.length()], strop);
+    }
+// </editor-fold>
+}
@@ -0,0 +1,1091 @@
+package cz.upce.fei.bdats.strom;
+
+import cz.upce.fei.bdats.struktury.AbstrFifo;
+import cz.upce.fei.bdats.struktury.IAbstrFifo;
+import cz.upce.fei.bdats.vyjimky.StromException;
+import cz.upce.fei.bdats.vyjimky.StrukturaException;
+import cz.upce.fei.bdats.vyjimky.zpravy.ChybovaZpravaStromu;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Třída představuje implementaci tabulky {@link IAbstrTable} nad <b>B-stromem</b>. Uzel B-stromu obsahuje
+ * seřazené pole až {@code 2t - 1} klíčů (a hodnot) a vnitřní uzel má o jednoho potomka více než klíčů, kde
+ * {@code t} je minimální stupeň stromu. Všechny listy leží ve stejné hloubce, takže výška stromu je
+ * {@code O(log_t n)}
+ *
+ * <p> Oproti binárnímu stromu {@link AbstrTable} se při sestupu přechází mezi uzly výrazně méně často (např. při
+ * {@code t = 32} a milionu prvků jsou čtyři patra místo přibližně dvaceti) a klíče jednoho uzlu leží v paměti
+ * vedle sebe. V uzlu se klíč hledá binárním vyhledáváním, takže celkový počet porovnání zůstává
+ * {@code O(log n)}
+ *
+ * <p> Každý vnitřní uzel si u každého potomka pamatuje mohutnost jeho podstromu, takže pořadové dotazy
+ * ({@link BStromTable#dejPrvekNaPoradi(int)}, {@link BStromTable#dejPocetMensich(Comparable)}, ...) mají
+ * složitost {@code O(t * log_t n)} bez procházení potomků
+ *
+ * <p> Vkládání i odebírání probíhá jediným sestupem od kořene: plný potomek se před sestupem rozdělí
+ * a potomek s minimálním počtem klíčů se před sestupem doplní (výpůjčkou od sourozence nebo sloučením).
+ * Mohutnosti na cestě se upraví až po úspěšném dokončení operace, takže při duplicitním nebo nenalezeném
+ * klíči zůstanou správné
+ *
+ * <p> Průchod do šířky vrací prvky po uzlech (patrem je hloubka uzlu), v rámci uzlu zleva doprava
+ *
+ * @param <K> Typ klíče prvků v tabulce, musí implementovat {@link Comparable}
+ * @param <V> Typ hodnoty
+ */
+public final class BStromTable<K extends Comparable<K>, V> implements IAbstrTable<K, V> {
+
+    /**
+     * Konstanta pro nulu
+     */
+    private final int NULTA_HODNOTA = 0;
+    /**
+     * Konstanta reprezentuje hodnotu mohutnosti nebo pořadí v případě, když není nalezen prvek v rámci stromu
+     */
+    private final int UKAZATEL_ABSENCE = -1;
+    /**
+     * Konstanta reprezentuje nejmenší povolený minimální stupeň stromu
+     */
+    private final int MIN_STUPEN = 2;
+    /**
+     * Konstanta reprezentuje nejmenší počet potomků kořene, který není listem
+     */
+    private final int MIN_POTOMKU_KORENE = 2;
+    /**
+     * Výchozí minimální stupeň (uzel má nejvýše 63 klíčů a 64 potomků)
+     */
+    public static final int VYCHOZI_STUPEN = 32;
+    /**
+     * Konstanta reprezentuje číslo patra kořene
+     */
+    private final int PATRO_KORENE = 1;
+
+    /**
+     * Minimální stupeň {@code t}: uzel kromě kořene má alespoň {@code t - 1} a nejvýše {@code 2t - 1} klíčů
+     */
+    private final int stupen;
+    private final int maxKlicu;
+
+    private Uzel<K, V> koren;
+    /**
+     * Počet pater stromu
+     */
+    private int vyska;
+    private int pocetPrvku;
+    private final PocitadlaStromu pocitadla = new PocitadlaStromu();
+
+    /**
+     * Uzel B-stromu. Pole mají pevnou kapacitu danou stupněm stromu, obsazeno je prvních {@code pocet}
+     * klíčů a hodnot a prvních {@code pocet + 1} potomků
+     */
+    private static final class Uzel<K, V> {
+        int pocet;
+        final K[] klice;
+        final V[] hodnoty;
+        /**
+         * Potomci a mohutnosti jejich podstromů, u listu {@code null}
+         */
+        final Uzel<K, V>[] potomci;
+        final int[] mohutnosti;
+
+        @SuppressWarnings("unchecked")
+        Uzel(int maxKlicu, boolean list) {
+            pocet = 0;
+            klice = (K[]) new Comparable<?>[maxKlicu];
+            hodnoty = (V[]) new Object[maxKlicu];
+            potomci = list ? null : (Uzel<K, V>[]) new Uzel<?, ?>[maxKlicu + 1];
+            mohutnosti = list ? null : new int[maxKlicu + 1];
+        }
+
+        boolean jeList() { return potomci == null; }
+    }
+
+    /**
+     * Konstruktor vytvoří prázdnou tabulku s výchozím minimálním stupněm {@link BStromTable#VYCHOZI_STUPEN}
+     */
+    public BStromTable() { this(VYCHOZI_STUPEN); }
+
+    /**
+     * Konstruktor vytvoří prázdnou tabulku se zadaným minimálním stupněm (větvení uzlu je {@code 2 * stupen})
+     *
+     * @param stupen Minimální stupeň stromu
+     *
+     * @throws IllegalArgumentException Pokud je stupeň menší než 2
+     */
+    public BStromTable(int stupen) {
+        if (stupen < MIN_STUPEN)
+            throw new IllegalArgumentException(ChybovaZpravaStromu.NEPLATNY_STUPEN.getZprava());
+        this.stupen = stupen;
+        this.maxKlicu = 2 * stupen - 1;
+        zrus();
+    }
+
+    @Override
+    public void zrus() {
+        koren = null;
+        vyska = NULTA_HODNOTA;
+        pocetPrvku = NULTA_HODNOTA;
+    }
+
+    @Override
+    public boolean jePrazdny() { return koren == null; }
+
+    @Override
+    public @NotNull PocitadlaStromu dejPocitadla() { return pocitadla; }
+
+// <editor-fold defaultstate="collapsed" desc="Vyhledávání">
+    @Override
+    public V najdi(K klic) throws StromException {
+        pozadatNePrazdnyKlic(klic);
+        if (koren == null)
+            throw new StromException(ChybovaZpravaStromu.PRAZDNY_KOREN.getZprava());
+
+        Uzel<K, V> uzel = koren;
+        while (true) {
+            final int pozice = hledejVUzlu(uzel, klic);
+            if (pozice >= NULTA_HODNOTA)
+                return uzel.hodnoty[pozice];
+            if (uzel.jeList())
+                throw new StromException(ChybovaZpravaStromu.PRVEK_NENALEZEN.getZprava());
+            uzel = uzel.potomci[dejVkladaciBod(pozice)];
+        }
+    }
+
+    @Override
+    public boolean obsahuje(K klic) {
+        if (klic == null)
+            return false;
+        Uzel<K, V> uzel = koren;
+        while (uzel != null) {
+            final int pozice = hledejVUzlu(uzel, klic);
+            if (pozice >= NULTA_HODNOTA)
+                return true;
+            uzel = uzel.jeList() ? null : uzel.potomci[dejVkladaciBod(pozice)];
+        }
+        return false;
+    }
+
+    /**
+     * Binárně vyhledá klíč mezi obsazenými klíči uzlu (stejná konvence jako
+     * {@link Arrays#binarySearch(Object[], Object)})
+     *
+     * @return Index klíče, pokud je nalezen, jinak {@code -(vkladaciBod) - 1}, kde vkládací bod je index
+     * prvního většího klíče (a zároveň index potomka, ve kterém klíč může ležet)
+     */
+    private int hledejVUzlu(@NotNull Uzel<K, V> uzel, @NotNull K klic) {
+        int od = NULTA_HODNOTA;
+        int po = uzel.pocet - 1;
+        while (od <= po) {
+            final int stred = (od + po) >>> 1;
+            final int vysledek = porovnej(klic, uzel.klice[stred]);
+            if (vysledek == NULTA_HODNOTA)
+                return stred;
+            if (vysledek < NULTA_HODNOTA)
+                po = stred - 1;
+            else
+                od = stred + 1;
+        }
+        return -(od + 1);
+    }
+
+    private int dejVkladaciBod(int pozice) { return -pozice - 1; }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Vkládání">
+    /**
+     * Popis logiky:
+     * <ol>
+     * <li> Prázdná tabulka: kořenem se stane nový list
+     * <li> Plný kořen se rozdělí a strom vyroste o jedno patro
+     * <li> Sestupuje od kořene; plný potomek se před sestupem rozdělí, takže list, do kterého se vkládá,
+     * má vždy volné místo. Cesta se zaznamenává
+     * <li> Duplicitní klíč vyhodí výjimku (rozdělení uzlů obsah ani mohutnosti nemění)
+     * <li> Po vložení do listu se zvýší mohutnosti potomků na zaznamenané cestě
+     * </ol>
+     */
+    @Override
+    public void vloz(K klic, V hodnota) throws StromException {
+        pozadatNePrazdnyKlic(klic);
+        if (koren == null) {
+            koren = new Uzel<>(maxKlicu, true);
+            vlozDoUzlu(koren, NULTA_HODNOTA, klic, hodnota);
+            vyska = PATRO_KORENE;
+            pocetPrvku = 1;
+            pocitadla.zapocitejVlozeni();
+            return;
+        }
+        if (koren.pocet == maxKlicu) {
+            final Uzel<K, V> novyKoren = new Uzel<>(maxKlicu, false);
+            novyKoren.potomci[0] = koren;
+            novyKoren.mohutnosti[0] = pocetPrvku;
+            koren = novyKoren;
+            vyska++;
+            rozdelPotomka(novyKoren, 0);
+        }
+
+        final Object[] cesta = new Object[vyska];
+        final int[] indexy = new int[vyska];
+        int delka = NULTA_HODNOTA;
+        Uzel<K, V> uzel = koren;
+        while (true) {
+            final int pozice = hledejVUzlu(uzel, klic);
+            if (pozice >= NULTA_HODNOTA)
+                throw new StromException(ChybovaZpravaStromu.EXISTUJICI_KLIC.getZprava());
+            int index = dejVkladaciBod(pozice);
+            if (uzel.jeList()) {
+                vlozDoUzlu(uzel, index, klic, hodnota);
+                break;
+            }
+            if (uzel.potomci[index].pocet == maxKlicu) {
+                rozdelPotomka(uzel, index);
+                final int vysledek = porovnej(klic, uzel.klice[index]);
+                if (vysledek == NULTA_HODNOTA)
+                    throw new StromException(ChybovaZpravaStromu.EXISTUJICI_KLIC.getZprava());
+                if (vysledek > NULTA_HODNOTA)
+                    index++;
+            }
+            cesta[delka] = uzel;
+            indexy[delka++] = index;
+            uzel = uzel.potomci[index];
+        }
+        upravMohutnostiNaCeste(cesta, indexy, delka, 1);
+        pocetPrvku++;
+        pocitadla.zapocitejVlozeni();
+    }
+
+    /**
+     * Vloží klíč a hodnotu do listu na zadanou pozici (následující klíče se posunou)
+     */
+    private void vlozDoUzlu(@NotNull Uzel<K, V> list, int index, K klic, V hodnota) {
+        final int posun = list.pocet - index;
+        System.arraycopy(list.klice, index, list.klice, index + 1, posun);
+        System.arraycopy(list.hodnoty, index, list.hodnoty, index + 1, posun);
+        list.klice[index] = klic;
+        list.hodnoty[index] = hodnota;
+        list.pocet++;
+    }
+
+    /**
+     * Rozdělí plného potomka {@code index} zadaného uzlu: prostřední klíč se přesune do rodiče, klíče za ním
+     * (a odpovídající potomci) do nového pravého sourozence. Mohutnosti obou polovin se nastaví v rodiči
+     *
+     * @param rodic Uzel, který není plný
+     * @param index Index plného potomka
+     */
+    @SuppressWarnings("unchecked")
+    private void rozdelPotomka(@NotNull Uzel<K, V> rodic, int index) {
+        pocitadla.zapocitejVyvazeni();
+        final Uzel<K, V> levy = rodic.potomci[index];
+        final Uzel<K, V> pravy = new Uzel<>(maxKlicu, levy.jeList());
+        final int stred = stupen - 1;
+        final int pocetVpravo = maxKlicu - stupen;
+
+        System.arraycopy(levy.klice, stupen, pravy.klice, NULTA_HODNOTA, pocetVpravo);
+        System.arraycopy(levy.hodnoty, stupen, pravy.hodnoty, NULTA_HODNOTA, pocetVpravo);
+        int mohutnostVpravo = pocetVpravo;
+        if (!levy.jeList()) {
+            System.arraycopy(levy.potomci, stupen, pravy.potomci, NULTA_HODNOTA, pocetVpravo + 1);
+            System.arraycopy(levy.mohutnosti, stupen, pravy.mohutnosti, NULTA_HODNOTA, pocetVpravo + 1);
+            for (int i = 0; i <= pocetVpravo; i++)
+                mohutnostVpravo += pravy.mohutnosti[i];
+            Arrays.fill(levy.potomci, stupen, maxKlicu + 1, null);
+        }
+        pravy.pocet = pocetVpravo;
+
+        final int posun = rodic.pocet - index;
+        System.arraycopy(rodic.klice, index, rodic.klice, index + 1, posun);
+        System.arraycopy(rodic.hodnoty, index, rodic.hodnoty, index + 1, posun);
+        System.arraycopy(rodic.potomci, index + 1, rodic.potomci, index + 2, posun);
+        System.arraycopy(rodic.mohutnosti, index + 1, rodic.mohutnosti, index + 2, posun);
+        rodic.klice[index] = levy.klice[stred];
+        rodic.hodnoty[index] = levy.hodnoty[stred];
+        rodic.potomci[index + 1] = pravy;
+        rodic.mohutnosti[index + 1] = mohutnostVpravo;
+        rodic.mohutnosti[index] -= mohutnostVpravo + 1;
+        rodic.pocet++;
+
+        Arrays.fill(levy.klice, stred, maxKlicu, null);
+        Arrays.fill(levy.hodnoty, stred, maxKlicu, null);
+        levy.pocet = stred;
+    }
+
+    /**
+     * Změní mohutnosti potomků, přes které vedla zaznamenaná cesta, o zadaný rozdíl
+     */
+    @SuppressWarnings("unchecked")
+    private void upravMohutnostiNaCeste(Object[] cesta, int[] indexy, int delka, int rozdil) {
+        for (int i = 0; i < delka; i++)
+            ((Uzel<K, V>) cesta[i]).mohutnosti[indexy[i]] += rozdil;
+    }
+
+    /**
+     * Popis logiky:
+     * <ol>
+     * <li> Ověří a zkopíruje vstupní pole, případně je seřadí a odhalí duplicity
+     *     <ul>
+     *     <li> <b>NastrojeTabulek.seradDavku(noveKlice, noveHodnoty, this::porovnej)</b>
+     *     </ul>
+     * <li> Pokud tabulka není prázdná, slije její in-order posloupnost s novými klíči (duplicity vůči tabulce
+     * vyhodí výjimku dřív, než se tabulka změní)
+     *     <ul>
+     *     <li> <b>slijSPodstromem(koren, ...)</b>
+     *     </ul>
+     * <li> Zvolí nejmenší počet pater, do kterého se výsledná posloupnost vejde, a postaví z ní nový B-strom
+     * v lineárním čase
+     *     <ul>
+     *     <li> <b>postavPodstrom(...)</b>
+     *     </ul>
+     * </ol>
+     * Na rozdíl od postupného vkládání se žádný klíč nehledá ani nevkládá samostatným sestupem od kořene
+     */
+    @Override
+    public void vlozVse(K[] klice, V[] hodnoty) throws StromException {
+        NastrojeTabulek.overDavku(klice, hodnoty);
+
+        K[] noveKlice = Arrays.copyOf(klice, klice.length);
+        V[] noveHodnoty = Arrays.copyOf(hodnoty, hodnoty.length);
+        NastrojeTabulek.seradDavku(noveKlice, noveHodnoty, this::porovnej);
+
+        if (koren != null) {
+            final int pocet = pocetPrvku + noveKlice.length;
+            final K[] vsechnyKlice = NastrojeTabulek.vytvorPoleKlicu(pocet);
+            final V[] vsechnyHodnoty = NastrojeTabulek.vytvorPoleHodnot(pocet);
+            final int[] pozice = new int[2];
+            slijSPodstromem(koren, noveKlice, noveHodnoty, vsechnyKlice, vsechnyHodnoty, pozice);
+            while (pozice[POZICE_NOVEHO] < noveKlice.length) {
+                vsechnyKlice[pozice[POZICE_VYSTUPU]] = noveKlice[pozice[POZICE_NOVEHO]];
+                vsechnyHodnoty[pozice[POZICE_VYSTUPU]++] = noveHodnoty[pozice[POZICE_NOVEHO]++];
+            }
+            noveKlice = vsechnyKlice;
+            noveHodnoty = vsechnyHodnoty;
+        }
+        if (noveKlice.length == NULTA_HODNOTA)
+            return;
+
+        final int maxPotomku = maxKlicu + 1;
+        int patra = PATRO_KORENE;
+        long kapacitaPotomka = 1;
+        while (kapacitaPotomka * maxPotomku - 1 < noveKlice.length) {
+            kapacitaPotomka *= maxPotomku;
+            patra++;
+        }
+        koren = postavPodstrom(noveKlice, noveHodnoty, NULTA_HODNOTA, noveKlice.length, kapacitaPotomka,
+                MIN_POTOMKU_KORENE);
+        vyska = patra;
+        pocetPrvku = noveKlice.length;
+        pocitadla.zapocitejVlozeni(klice.length);
+    }
+
+    /**
+     * Indexy do pole pozic slévání (viz {@link BStromTable#slijSPodstromem})
+     */
+    private final int POZICE_NOVEHO = 0;
+    private final int POZICE_VYSTUPU = 1;
+
+    /**
+     * Slije in-order posloupnost podstromu se seřazenými novými klíči do výstupních polí (hloubka rekurze je
+     * rovna výšce stromu)
+     *
+     * @param pozice Pozice dalšího nového prvku ({@code [POZICE_NOVEHO]}) a dalšího místa ve výstupních polích
+     *               ({@code [POZICE_VYSTUPU]}), průběžně se posouvají
+     *
+     * @throws StromException Pokud se některý nový klíč již v tabulce nachází
+     */
+    private void slijSPodstromem(@NotNull Uzel<K, V> uzel, K[] noveKlice, V[] noveHodnoty, K[] klice, V[] hodnoty,
+                                 int[] pozice) throws StromException {
+        for (int i = NULTA_HODNOTA; i < uzel.pocet; i++) {
+            if (!uzel.jeList())
+                slijSPodstromem(uzel.potomci[i], noveKlice, noveHodnoty, klice, hodnoty, pozice);
+            while (pozice[POZICE_NOVEHO] < noveKlice.length) {
+                final int vysledek = porovnej(noveKlice[pozice[POZICE_NOVEHO]], uzel.klice[i]);
+                if (vysledek == NULTA_HODNOTA)
+                    throw new StromException(ChybovaZpravaStromu.EXISTUJICI_KLIC.getZprava());
+                if (vysledek > NULTA_HODNOTA)
+                    break;
+                klice[pozice[POZICE_VYSTUPU]] = noveKlice[pozice[POZICE_NOVEHO]];
+                hodnoty[pozice[POZICE_VYSTUPU]++] = noveHodnoty[pozice[POZICE_NOVEHO]++];
+            }
+            klice[pozice[POZICE_VYSTUPU]] = uzel.klice[i];
+            hodnoty[pozice[POZICE_VYSTUPU]++] = uzel.hodnoty[i];
+        }
+        if (!uzel.jeList())
+            slijSPodstromem(uzel.potomci[uzel.pocet], noveKlice, noveHodnoty, klice, hodnoty, pozice);
+    }
+
+    /**
+     * Postaví podstrom ze seřazeného úseku {@code [od, od + pocet)}. Kapacita potomka je {@code (2t)^(h - 1)},
+     * tj. o jedna zvětšený nejvyšší počet prvků podstromu o patro nižšího, kde {@code h} je výška stavěného
+     * podstromu; kapacita {@code 1} znamená list
+     *
+     * <p> Uzel dostane nejmenší počet potomků, do kterého se prvky vejdou (nejméně {@code minPotomku}),
+     * a prvky se mezi potomky rozdělí rovnoměrně. Každý potomek pak má alespoň {@code t^(h - 1) - 1} prvků,
+     * takže všechny uzly splňují podmínky B-stromu a všechny listy leží ve stejné hloubce
+     *
+     * @param minPotomku Nejmenší počet potomků vnitřního uzlu (2 pro kořen, {@code t} pro ostatní uzly)
+     *
+     * @return Kořen podstromu
+     */
+    private Uzel<K, V> postavPodstrom(K[] klice, V[] hodnoty, int od, int pocet, long kapacitaPotomka,
+                                      int minPotomku) {
+        final boolean list = kapacitaPotomka == 1;
+        final Uzel<K, V> uzel = new Uzel<>(maxKlicu, list);
+        if (list) {
+            System.arraycopy(klice, od, uzel.klice, NULTA_HODNOTA, pocet);
+            System.arraycopy(hodnoty, od, uzel.hodnoty, NULTA_HODNOTA, pocet);
+            uzel.pocet = pocet;
+            return uzel;
+        }
+
+        final int pocetPotomku = Math.max(minPotomku, (int) ((pocet + kapacitaPotomka) / kapacitaPotomka));
+        final int podil = (pocet + 1) / pocetPotomku;
+        final int zbytek = (pocet + 1) % pocetPotomku;
+        final long kapacitaVnuka = kapacitaPotomka / (maxKlicu + 1);
+        int zacatek = od;
+        for (int i = NULTA_HODNOTA; i < pocetPotomku; i++) {
+            final int mohutnost = podil - 1 + (i < zbytek ? 1 : NULTA_HODNOTA);
+            uzel.potomci[i] = postavPodstrom(klice, hodnoty, zacatek, mohutnost, kapacitaVnuka, stupen);
+            uzel.mohutnosti[i] = mohutnost;
+            zacatek += mohutnost;
+            if (i < pocetPotomku - 1) {
+                uzel.klice[i] = klice[zacatek];
+                uzel.hodnoty[i] = hodnoty[zacatek++];
+            }
+        }
+        uzel.pocet = pocetPotomku - 1;
+        return uzel;
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Odebírání">
+    /**
+     * Popis logiky:
+     * <ol>
+     * <li> Sestupuje od kořene. Před sestupem do potomka s minimálním počtem klíčů ({@code t - 1}) ho doplní
+     * výpůjčkou klíče od sourozence přes rodiče, případně ho se sourozencem sloučí
+     * <li> Klíč nalezený v listu se z listu odebere
+     * <li> Klíč nalezený ve vnitřním uzlu se nahradí svým předchůdcem (nebo následníkem), pokud má příslušný
+     * potomek alespoň {@code t} klíčů, a dál se odebírá předchůdce (následník) z tohoto potomka. Jinak se
+     * oba sousední potomci i s klíčem sloučí a pokračuje se ve sloučeném uzlu
+     * <li> Vyprázdněný kořen se nahradí svým jediným potomkem (strom se sníží o patro)
+     * <li> Po odebrání se sníží mohutnosti potomků na zaznamenané cestě. Pokud klíč nalezen není, žádná
+     * mohutnost se nezmění (úpravy uzlů při sestupu obsah stromu nemění)
+     * </ol>
+     */
+    @Override
+    public V odeber(K klic) throws StromException {
+        pozadatNePrazdnyKlic(klic);
+        if (koren == null)
+            throw new StromException(ChybovaZpravaStromu.PRAZDNY_KOREN.getZprava());
+
+        final Object[] cesta = new Object[vyska];
+        final int[] indexy = new int[vyska];
+        int delka = NULTA_HODNOTA;
+        V odebranaHodnota = null;
+        boolean nalezeno = false;
+        K hledanyKlic = klic;
+        Uzel<K, V> uzel = koren;
+        while (true) {
+            final int pozice = hledejVUzlu(uzel, hledanyKlic);
+            if (pozice >= NULTA_HODNOTA && !nalezeno) {
+                odebranaHodnota = uzel.hodnoty[pozice];
+                nalezeno = true;
+            }
+            if (uzel.jeList()) {
+                if (pozice < NULTA_HODNOTA)
+                    throw new StromException(ChybovaZpravaStromu.PRVEK_NENALEZEN.getZprava());
+                odeberZListu(uzel, pozice);
+                break;
+            }
+
+            int index;
+            if (pozice >= NULTA_HODNOTA) {
+                if (uzel.potomci[pozice].pocet >= stupen) {
+                    final Uzel<K, V> predchudce = najdiNejpravejsiList(uzel.potomci[pozice]);
+                    hledanyKlic = predchudce.klice[predchudce.pocet - 1];
+                    uzel.klice[pozice] = hledanyKlic;
+                    uzel.hodnoty[pozice] = predchudce.hodnoty[predchudce.pocet - 1];
+                    index = pozice;
+                } else if (uzel.potomci[pozice + 1].pocet >= stupen) {
+                    final Uzel<K, V> naslednik = najdiNejlevejsiList(uzel.potomci[pozice + 1]);
+                    hledanyKlic = naslednik.klice[NULTA_HODNOTA];
+                    uzel.klice[pozice] = hledanyKlic;
+                    uzel.hodnoty[pozice] = naslednik.hodnoty[NULTA_HODNOTA];
+                    index = pozice + 1;
+                } else {
+                    sloucPotomky(uzel, pozice);
+                    index = pozice;
+                }
+            } else {
+                index = doplnPotomka(uzel, dejVkladaciBod(pozice));
+            }
+
+            if (uzel == koren && uzel.pocet == NULTA_HODNOTA) {
+                koren = uzel.potomci[index];
+                vyska--;
+            } else {
+                cesta[delka] = uzel;
+                indexy[delka++] = index;
+            }
+            uzel = uzel.potomci[index];
+        }
+
+        upravMohutnostiNaCeste(cesta, indexy, delka, -1);
+        if (--pocetPrvku == NULTA_HODNOTA)
+            zrus();
+        pocitadla.zapocitejOdebrani();
+        return odebranaHodnota;
+    }
+
+    private void odeberZListu(@NotNull Uzel<K, V> list, int index) {
+        final int posun = list.pocet - index - 1;
+        System.arraycopy(list.klice, index + 1, list.klice, index, posun);
+        System.arraycopy(list.hodnoty, index + 1, list.hodnoty, index, posun);
+        list.pocet--;
+        list.klice[list.pocet] = null;
+        list.hodnoty[list.pocet] = null;
+    }
+
+    /**
+     * Zajistí, že potomek {@code index} má alespoň {@code t} klíčů: vypůjčí si klíč od levého nebo pravého
+     * sourozence (přes rodiče), případně se se sourozencem sloučí
+     *
+     * @return Index potomka, ve kterém se pokračuje (po sloučení s levým sourozencem se sníží o jedna)
+     */
+    private int doplnPotomka(@NotNull Uzel<K, V> rodic, int index) {
+        if (rodic.potomci[index].pocet >= stupen)
+            return index;
+        if (index > NULTA_HODNOTA && rodic.potomci[index - 1].pocet >= stupen) {
+            vypujcZleva(rodic, index);
+            return index;
+        }
+        if (index < rodic.pocet && rodic.potomci[index + 1].pocet >= stupen) {
+            vypujcZprava(rodic, index);
+            return index;
+        }
+        if (index < rodic.pocet) {
+            sloucPotomky(rodic, index);
+            return index;
+        }
+        sloucPotomky(rodic, index - 1);
+        return index - 1;
+    }
+
+    /**
+     * Klíč rodiče se přesune na začátek potomka, poslední klíč levého sourozence do rodiče a poslední potomek
+     * sourozence se stane prvním potomkem potomka
+     */
+    private void vypujcZleva(@NotNull Uzel<K, V> rodic, int index) {
+        pocitadla.zapocitejVyvazeni();
+        final Uzel<K, V> potomek = rodic.potomci[index];
+        final Uzel<K, V> sourozenec = rodic.potomci[index - 1];
+
+        System.arraycopy(potomek.klice, NULTA_HODNOTA, potomek.klice, 1, potomek.pocet);
+        System.arraycopy(potomek.hodnoty, NULTA_HODNOTA, potomek.hodnoty, 1, potomek.pocet);
+        potomek.klice[NULTA_HODNOTA] = rodic.klice[index - 1];
+        potomek.hodnoty[NULTA_HODNOTA] = rodic.hodnoty[index - 1];
+        int presunuto = 1;
+        if (!potomek.jeList()) {
+            System.arraycopy(potomek.potomci, NULTA_HODNOTA, potomek.potomci, 1, potomek.pocet + 1);
+            System.arraycopy(potomek.mohutnosti, NULTA_HODNOTA, potomek.mohutnosti, 1, potomek.pocet + 1);
+            potomek.potomci[NULTA_HODNOTA] = sourozenec.potomci[sourozenec.pocet];
+            potomek.mohutnosti[NULTA_HODNOTA] = sourozenec.mohutnosti[sourozenec.pocet];
+            presunuto += sourozenec.mohutnosti[sourozenec.pocet];
+            sourozenec.potomci[sourozenec.pocet] = null;
+        }
+        potomek.pocet++;
+
+        rodic.klice[index - 1] = sourozenec.klice[sourozenec.pocet - 1];
+        rodic.hodnoty[index - 1] = sourozenec.hodnoty[sourozenec.pocet - 1];
+        sourozenec.pocet--;
+        sourozenec.klice[sourozenec.pocet] = null;
+        sourozenec.hodnoty[sourozenec.pocet] = null;
+
+        rodic.mohutnosti[index] += presunuto;
+        rodic.mohutnosti[index - 1] -= presunuto;
+    }
+
+    /**
+     * Zrcadlově k {@link BStromTable#vypujcZleva(Uzel, int)}: klíč rodiče se přesune na konec potomka, první
+     * klíč pravého sourozence do rodiče a první potomek sourozence se stane posledním potomkem potomka
+     */
+    private void vypujcZprava(@NotNull Uzel<K, V> rodic, int index) {
+        pocitadla.zapocitejVyvazeni();
+        final Uzel<K, V> potomek = rodic.potomci[index];
+        final Uzel<K, V> sourozenec = rodic.potomci[index + 1];
+
+        potomek.klice[potomek.pocet] = rodic.klice[index];
+        potomek.hodnoty[potomek.pocet] = rodic.hodnoty[index];
+        int presunuto = 1;
+        if (!potomek.jeList()) {
+            potomek.potomci[potomek.pocet + 1] = sourozenec.potomci[NULTA_HODNOTA];
+            potomek.mohutnosti[potomek.pocet + 1] = sourozenec.mohutnosti[NULTA_HODNOTA];
+            presunuto += sourozenec.mohutnosti[NULTA_HODNOTA];
+            System.arraycopy(sourozenec.potomci, 1, sourozenec.potomci, NULTA_HODNOTA, sourozenec.pocet);
+            System.arraycopy(sourozenec.mohutnosti, 1, sourozenec.mohutnosti, NULTA_HODNOTA, sourozenec.pocet);
+            sourozenec.potomci[sourozenec.pocet] = null;
+        }
+        potomek.pocet++;
+
+        rodic.klice[index] = sourozenec.klice[NULTA_HODNOTA];
+        rodic.hodnoty[index] = sourozenec.hodnoty[NULTA_HODNOTA];
+        odeberZListu(sourozenec, NULTA_HODNOTA);
+
+        rodic.mohutnosti[index] += presunuto;
+        rodic.mohutnosti[index + 1] -= presunuto;
+    }
+
+    /**
+     * Sloučí potomka {@code index}, klíč rodiče {@code index} a potomka {@code index + 1} do potomka
+     * {@code index}. Oba potomci musí mít {@code t - 1} klíčů
+     */
+    private void sloucPotomky(@NotNull Uzel<K, V> rodic, int index) {
+        pocitadla.zapocitejVyvazeni();
+        final Uzel<K, V> levy = rodic.potomci[index];
+        final Uzel<K, V> pravy = rodic.potomci[index + 1];
+
+        levy.klice[levy.pocet] = rodic.klice[index];
+        levy.hodnoty[levy.pocet] = rodic.hodnoty[index];
+        System.arraycopy(pravy.klice, NULTA_HODNOTA, levy.klice, levy.pocet + 1, pravy.pocet);
+        System.arraycopy(pravy.hodnoty, NULTA_HODNOTA, levy.hodnoty, levy.pocet + 1, pravy.pocet);
+        if (!levy.jeList()) {
+            System.arraycopy(pravy.potomci, NULTA_HODNOTA, levy.potomci, levy.pocet + 1, pravy.pocet + 1);
+            System.arraycopy(pravy.mohutnosti, NULTA_HODNOTA, levy.mohutnosti, levy.pocet + 1, pravy.pocet + 1);
+        }
+        levy.pocet += pravy.pocet + 1;
+
+        final int posun = rodic.pocet - index - 1;
+        System.arraycopy(rodic.klice, index + 1, rodic.klice, index, posun);
+        System.arraycopy(rodic.hodnoty, index + 1, rodic.hodnoty, index, posun);
+        System.arraycopy(rodic.potomci, index + 2, rodic.potomci, index + 1, posun);
+        rodic.mohutnosti[index] += rodic.mohutnosti[index + 1] + 1;
+        System.arraycopy(rodic.mohutnosti, index + 2, rodic.mohutnosti, index + 1, posun);
+        rodic.pocet--;
+        rodic.klice[rodic.pocet] = null;
+        rodic.hodnoty[rodic.pocet] = null;
+        rodic.potomci[rodic.pocet + 1] = null;
+    }
+
+    private @NotNull Uzel<K, V> najdiNejlevejsiList(@NotNull Uzel<K, V> uzel) {
+        while (!uzel.jeList())
+            uzel = uzel.potomci[NULTA_HODNOTA];
+        return uzel;
+    }
+
+    private @NotNull Uzel<K, V> najdiNejpravejsiList(@NotNull Uzel<K, V> uzel) {
+        while (!uzel.jeList())
+            uzel = uzel.potomci[uzel.pocet];
+        return uzel;
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Iterátory do hloubky">
+    @Override
+    public Iterator<V> vytvorIterator(ETypProhl typ) {
+        return switch (typ) {
+            case SIRKA -> new SirkaIterator();
+            case HLOUBKA -> new HloubkaIterator(null, null);
+        };
+    }
+
+    @Override
+    public Iterator<V> vytvorIterator(K od, K po) { return new HloubkaIterator(od, po); }
+
+    @Override
+    public Iterator<V> vytvorSestupnyIterator() { return new SestupnyIterator(); }
+
+    /**
+     * Iterátor pro in-order průchod (případně omezený na interval {@code [od, po)})
+     *
+     * <p> Cesta od kořene k aktuálnímu prvku se drží ve dvou polích o délce výšky stromu: uzly a v každém uzlu
+     * index dalšího vraceného klíče. Po vrácení klíče vnitřního uzlu se sestoupí do nejlevějšího listu
+     * následujícího potomka; vyčerpané uzly se z cesty odeberou. Při procházení se nic nealokuje
+     */
+    private final class HloubkaIterator implements Iterator<V> {
+
+        private final Object[] cesta;
+        private final int[] indexy;
+        private int hloubka;
+        private final K horniMez;
+
+        /**
+         * @param od Dolní mez (včetně), {@code null} znamená začátek tabulky
+         * @param po Horní mez (vyloučena), {@code null} znamená konec tabulky
+         */
+        HloubkaIterator(K od, K po) {
+            cesta = new Object[vyska];
+            indexy = new int[vyska];
+            hloubka = NULTA_HODNOTA;
+            horniMez = po;
+            Uzel<K, V> uzel = koren;
+            while (uzel != null) {
+                int index = NULTA_HODNOTA;
+                boolean nalezeno = false;
+                if (od != null) {
+                    final int pozice = hledejVUzlu(uzel, od);
+                    nalezeno = pozice >= NULTA_HODNOTA;
+                    index = nalezeno ? pozice : dejVkladaciBod(pozice);
+                }
+                cesta[hloubka] = uzel;
+                indexy[hloubka++] = index;
+                uzel = nalezeno || uzel.jeList() ? null : uzel.potomci[index];
+            }
+            vyradVycerpane();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean hasNext() {
+            if (hloubka == NULTA_HODNOTA)
+                return false;
+            final Uzel<K, V> uzel = (Uzel<K, V>) cesta[hloubka - 1];
+            return horniMez == null || porovnej(uzel.klice[indexy[hloubka - 1]], horniMez) < NULTA_HODNOTA;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V next() {
+            if (!hasNext())
+                throw new NoSuchElementException(ChybovaZpravaStromu.KONEC_ITERACE.getZprava());
+            final Uzel<K, V> uzel = (Uzel<K, V>) cesta[hloubka - 1];
+            final int index = indexy[hloubka - 1]++;
+            final V hodnota = uzel.hodnoty[index];
+            if (!uzel.jeList()) {
+                for (Uzel<K, V> potomek = uzel.potomci[index + 1]; potomek != null;
+                     potomek = potomek.jeList() ? null : potomek.potomci[NULTA_HODNOTA]) {
+                    cesta[hloubka] = potomek;
+                    indexy[hloubka++] = NULTA_HODNOTA;
+                }
+            }
+            vyradVycerpane();
+            return hodnota;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void vyradVycerpane() {
+            while (hloubka > NULTA_HODNOTA && indexy[hloubka - 1] >= ((Uzel<K, V>) cesta[hloubka - 1]).pocet)
+                hloubka--;
+        }
+    }
+
+    /**
+     * Iterátor pro průchod od největšího klíče k nejmenšímu (zrcadlově k {@link HloubkaIterator}). Index
+     * v uzlu udává počet klíčů uzlu, které ještě nebyly vráceny
+     */
+    private final class SestupnyIterator implements Iterator<V> {
+
+        private final Object[] cesta;
+        private final int[] indexy;
+        private int hloubka;
+
+        SestupnyIterator() {
+            cesta = new Object[vyska];
+            indexy = new int[vyska];
+            hloubka = NULTA_HODNOTA;
+            sestupVpravo(koren);
+        }
+
+        @Override
+        public boolean hasNext() { return hloubka > NULTA_HODNOTA; }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V next() {
+            if (!hasNext())
+                throw new NoSuchElementException(ChybovaZpravaStromu.KONEC_ITERACE.getZprava());
+            final Uzel<K, V> uzel = (Uzel<K, V>) cesta[hloubka - 1];
+            final int index = --indexy[hloubka - 1];
+            final V hodnota = uzel.hodnoty[index];
+            if (!uzel.jeList())
+                sestupVpravo(uzel.potomci[index]);
+            while (hloubka > NULTA_HODNOTA && indexy[hloubka - 1] == NULTA_HODNOTA)
+                hloubka--;
+            return hodnota;
+        }
+
+        private void sestupVpravo(Uzel<K, V> uzel) {
+            while (uzel != null) {
+                cesta[hloubka] = uzel;
+                indexy[hloubka++] = uzel.pocet;
+                uzel = uzel.jeList() ? null : uzel.potomci[uzel.pocet];
+            }
+        }
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Iterátor do šířky a dotazy na patra">
+    /**
+     * Iterátor pro průchod do šířky. Fronta obsahuje uzly, prvky aktuálního uzlu se vrací zleva doprava.
+     * Patro se určuje průběžně z počtu zbývajících uzlů aktuálního patra
+     */
+    private final class SirkaIterator implements Iterator<V> {
+
+        private final IAbstrFifo<Uzel<K, V>> fronta;
+        private Uzel<K, V> aktualniUzel;
+        private int index;
+        private int patro;
+        private int zbyvaVPatre;
+        private int vDalsimPatre;
+
+        SirkaIterator() {
+            fronta = new AbstrFifo<>();
+            aktualniUzel = null;
+            index = NULTA_HODNOTA;
+            patro = PATRO_KORENE - 1;
+            zbyvaVPatre = NULTA_HODNOTA;
+            vDalsimPatre = NULTA_HODNOTA;
+            if (koren != null) {
+                fronta.vloz(koren);
+                vDalsimPatre = 1;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return (aktualniUzel != null && index < aktualniUzel.pocet) || !fronta.jePrazdna();
+        }
+
+        @Override
+        public V next() {
+            if (!hasNext())
+                throw new NoSuchElementException(ChybovaZpravaStromu.KONEC_ITERACE.getZprava());
+            if (aktualniUzel == null || index == aktualniUzel.pocet) {
+                try {
+                    if (zbyvaVPatre == NULTA_HODNOTA) {
+                        patro++;
+                        zbyvaVPatre = vDalsimPatre;
+                        vDalsimPatre = NULTA_HODNOTA;
+                    }
+                    aktualniUzel = fronta.odeber();
+                    zbyvaVPatre--;
+                    index = NULTA_HODNOTA;
+                    if (!aktualniUzel.jeList()) {
+                        for (int i = 0; i <= aktualniUzel.pocet; i++)
+                            fronta.vloz(aktualniUzel.potomci[i]);
+                        vDalsimPatre += aktualniUzel.pocet + 1;
+                    }
+                } catch (StrukturaException e) {
+                    throw new NoSuchElementException(ChybovaZpravaStromu.PRAZDNA_FRONTA.getZprava());
+                }
+            }
+            return aktualniUzel.hodnoty[index++];
+        }
+
+        /**
+         * Getter
+         *
+         * @return Číslo patra uzlu aktuálního prvku
+         */
+        int patro() { return patro; }
+    }
+
+    @Override
+    public int dejVysku() { return vyska; }
+
+    @Override
+    public int[] dejSirkyPater() {
+        final int[] sirky = new int[vyska];
+        final SirkaIterator iterator = new SirkaIterator();
+        while (iterator.hasNext()) {
+            iterator.next();
+            sirky[iterator.patro() - PATRO_KORENE]++;
+        }
+        return sirky;
+    }
+
+    @Override
+    public Iterator<V> vytvorIteratorPatra(int patro) {
+        final IAbstrFifo<V> prvkyPatra = new AbstrFifo<>();
+        final SirkaIterator iterator = new SirkaIterator();
+        while (iterator.hasNext()) {
+            final V hodnota = iterator.next();
+            if (iterator.patro() > patro)
+                break;
+            if (iterator.patro() == patro)
+                prvkyPatra.vloz(hodnota);
+        }
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() { return !prvkyPatra.jePrazdna(); }
+
+            @Override
+            public V next() {
+                try {
+                    return prvkyPatra.odeber();
+                } catch (StrukturaException e) {
+                    throw new NoSuchElementException(ChybovaZpravaStromu.KONEC_ITERACE.getZprava());
+                }
+            }
+        };
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Pořadové dotazy (order statistics)">
+    /**
+     * Mohutností klíče se u B-stromu rozumí počet prvků podstromu uzlu, ve kterém klíč leží
+     */
+    @Override
+    public int dejMohutnost(K klic) {
+        if (klic == null)
+            return UKAZATEL_ABSENCE;
+        Uzel<K, V> uzel = koren;
+        int mohutnostUzlu = pocetPrvku;
+        while (uzel != null) {
+            final int pozice = hledejVUzlu(uzel, klic);
+            if (pozice >= NULTA_HODNOTA)
+                return mohutnostUzlu;
+            if (uzel.jeList())
+                return UKAZATEL_ABSENCE;
+            final int index = dejVkladaciBod(pozice);
+            mohutnostUzlu = uzel.mohutnosti[index];
+            uzel = uzel.potomci[index];
+        }
+        return UKAZATEL_ABSENCE;
+    }
+
+    @Override
+    public int dejMohutnost() { return pocetPrvku; }
+
+    @Override
+    public V dejPrvekNaPoradi(int poradi) throws StromException {
+        final Pozice<K, V> pozice = najdiPoziciNaPoradi(poradi);
+        return pozice.uzel().hodnoty[pozice.index()];
+    }
+
+    @Override
+    public K dejKlicNaPoradi(int poradi) throws StromException {
+        final Pozice<K, V> pozice = najdiPoziciNaPoradi(poradi);
+        return pozice.uzel().klice[pozice.index()];
+    }
+
+    /**
+     * Pozice klíče ve stromu: uzel a index klíče v uzlu
+     */
+    private record Pozice<K, V>(Uzel<K, V> uzel, int index) {}
+
+    /**
+     * Sestupuje od kořene. V každém uzlu prochází potomky zleva a odečítá jejich mohutnosti (a klíče mezi
+     * nimi), dokud pořadí nepadne do některého potomka nebo na klíč uzlu
+     *
+     * @throws StromException Pokud je pořadí mimo rozsah tabulky
+     */
+    private @NotNull Pozice<K, V> najdiPoziciNaPoradi(int poradi) throws StromException {
+        if (poradi < NULTA_HODNOTA || poradi >= pocetPrvku)
+            throw new StromException(ChybovaZpravaStromu.NEPLATNE_PORADI.getZprava());
+        return dejPoziciNaPoradi(poradi);
+    }
+
+    /**
+     * Vrací pozici klíče na zadaném pořadí bez kontroly rozsahu (pořadí musí být v rozsahu
+     * {@code 0..mohutnost-1})
+     */
+    private @NotNull Pozice<K, V> dejPoziciNaPoradi(int poradi) {
+        Uzel<K, V> uzel = koren;
+        while (!uzel.jeList()) {
+            int index = NULTA_HODNOTA;
+            while (poradi > uzel.mohutnosti[index]) {
+                poradi -= uzel.mohutnosti[index] + 1;
+                index++;
+            }
+            if (poradi == uzel.mohutnosti[index])
+                return new Pozice<>(uzel, index);
+            uzel = uzel.potomci[index];
+        }
+        return new Pozice<>(uzel, poradi);
+    }
+
+    @Override
+    public int dejPoradi(K klic) {
+        if (!obsahuje(klic))
+            return UKAZATEL_ABSENCE;
+        return spocitejMensi(klic);
+    }
+
+    @Override
+    public int dejPocetMensich(K klic) throws StromException {
+        pozadatNePrazdnyKlic(klic);
+        return spocitejMensi(klic);
+    }
+
+    @Override
+    public int dejPocetVRozsahu(K od, K po) throws StromException {
+        pozadatNePrazdnyKlic(od);
+        pozadatNePrazdnyKlic(po);
+        if (porovnej(od, po) >= NULTA_HODNOTA)
+            return NULTA_HODNOTA;
+        return spocitejMensi(po) - spocitejMensi(od);
+    }
+
+    /**
+     * V každém uzlu na cestě přičte klíče menší než zadaný klíč a mohutnosti potomků nalevo od nich
+     */
+    private int spocitejMensi(@NotNull K klic) {
+        int pocet = NULTA_HODNOTA;
+        Uzel<K, V> uzel = koren;
+        while (uzel != null) {
+            final int pozice = hledejVUzlu(uzel, klic);
+            final int index = pozice >= NULTA_HODNOTA ? pozice : dejVkladaciBod(pozice);
+            pocet += index;
+            if (uzel.jeList())
+                return pocet;
+            for (int i = 0; i < index; i++)
+                pocet += uzel.mohutnosti[i];
+            if (pozice >= NULTA_HODNOTA)
+                return pocet + uzel.mohutnosti[index];
+            uzel = uzel.potomci[index];
+        }
+        return pocet;
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Výpis stromu">
+    private final String ODRADKOVANI = "\n";
+    private final String PREDPIS_PATRO = "Patro ";
+    private final String ODDELOVAC = ": ";
+
+    @Override
+    public void vypisStrom(ETypProhl typ, @NotNull Appendable cil, int od, int pocet) throws IOException {
+        NastrojeTabulek.overVyrezVypisu(od, pocet);
+        switch (typ) {
+            case SIRKA -> {
+                final SirkaIterator iterator = new SirkaIterator();
+                for (int i = NULTA_HODNOTA; i < od && iterator.hasNext(); i++)
+                    iterator.next();
+                for (int i = NULTA_HODNOTA; i < pocet && iterator.hasNext(); i++) {
+                    final V hodnota = iterator.next();
+                    cil.append(PREDPIS_PATRO).append(String.valueOf(iterator.patro())).append(ODDELOVAC)
+                            .append(String.valueOf(hodnota)).append(ODRADKOVANI);
+                }
+            }
+            case HLOUBKA -> {
+                if (od >= pocetPrvku)
+                    return;
+                final Pozice<K, V> pozice = dejPoziciNaPoradi(od);
+                final Iterator<V> iterator = new HloubkaIterator(pozice.uzel().klice[pozice.index()], null);
+                for (int i = NULTA_HODNOTA; i < pocet && iterator.hasNext(); i++)
+                    cil.append(String.valueOf(iterator.next())).append(ODRADKOVANI);
+            }
+        }
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Porovnávání a ošetřování klíčů">
+    private int porovnej(@NotNull K obj1, K obj2) {
+        pocitadla.zapocitejPorovnani();
+        return obj1.compareTo(obj2);
+    }
+
+    /**
+     * Ověřuje, zda zadaný klíč není prázdný {@code null}
+     *
+     * @throws StromException Pokud je klíč prázdný
+     */
+    private void pozadatNePrazdnyKlic(K klic) throws StromException {
+        if (klic == null)
+            throw new StromException(ChybovaZpravaStromu.NULL_KLIC.getZprava());
+    }
+// </editor-fold>
+}
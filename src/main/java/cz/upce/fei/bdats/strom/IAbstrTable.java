@@ -1,8 +1,18 @@
 package cz.upce.fei.bdats.strom;
 
 import cz.upce.fei.bdats.vyjimky.StromException;
+import cz.upce.fei.bdats.vyjimky.zpravy.ChybovaZpravaStromu;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Strom - je graf, kde mezi každými dvěma vrcholy existuje cesta a kde existuje jeden kořen ({@code root}),
@@ -60,6 +70,53 @@ public interface IAbstrTable<K extends Comparable<K>, V> {
      */
     void vloz(K klic, V hodnota) throws StromException;
 
+    /**
+     * Hromadně vloží prvky do tabulky. Pokud jsou klíče vzestupně seřazené (např. soubor uložený v in-order
+     * pořadí), postaví se z nich dokonale vyvážený strom v lineárním čase; neseřazené klíče se nejprve seřadí.
+     * Pokud tabulka již obsahuje prvky, slijí se s novými prvky a strom se postaví znovu
+     *
+     * <p> Operace je atomická: při chybě (prázdný klíč, duplicitní klíč ve vstupu nebo vůči tabulce) se
+     * tabulka nezmění
+     *
+     * @param klice Klíče vkládaných prvků
+     * @param hodnoty Hodnoty vkládaných prvků, {@code hodnoty[i]} patří ke klíči {@code klice[i]}
+     *
+     * @throws StromException Pokud pole nemají stejnou délku, některý klíč je prázdný nebo duplicitní
+     */
+    void vlozVse(K[] klice, V[] hodnoty) throws StromException;
+
+    /**
+     * Vloží dávku prvků do tabulky, která již může obsahovat prvky. Na rozdíl od
+     * {@link IAbstrTable#vlozVse(Comparable[], Object[])} dávku nepřeruší duplicitní klíč: prvek s klíčem, který
+     * tabulka již obsahuje (nebo který se v dávce opakuje), se přeskočí a jeho klíč se vrátí ve výsledku. Zůstane
+     * vložen první z opakujících se prvků dávky
+     *
+     * <p> Výchozí implementace prvky vkládá jednotlivě. {@link AbstrTable} dávku seřadí a se stromem ji slije
+     * jediným in-order sestupem, přičemž podstromy, do kterých nepatří žádný nový klíč, převezme beze změny
+     *
+     * @param klice Klíče vkládaných prvků
+     * @param hodnoty Hodnoty vkládaných prvků, {@code hodnoty[i]} patří ke klíči {@code klice[i]}
+     *
+     * @return Počet vložených prvků a odmítnuté klíče (pořadí odmítnutých klíčů závisí na implementaci)
+     *
+     * @throws StromException Pokud pole nemají stejnou délku nebo je některý klíč prázdný; v tom případě se
+     *                        tabulka nezmění
+     */
+    default VysledekDavky<K> vlozDavku(K[] klice, V[] hodnoty) throws StromException {
+        NastrojeTabulek.overDavku(klice, hodnoty);
+        final List<K> odmitnute = new ArrayList<>();
+        int pocet = 0;
+        for (int i = 0; i < klice.length; i++) {
+            if (obsahuje(klice[i])) {
+                odmitnute.add(klice[i]);
+            } else {
+                vloz(klice[i], hodnoty[i]);
+                pocet++;
+            }
+        }
+        return new VysledekDavky<>(pocet, odmitnute);
+    }
+
     /**
      * Odebere prvek dle klíče z tabulky
      *
@@ -71,6 +128,54 @@ public interface IAbstrTable<K extends Comparable<K>, V> {
      */
     V odeber(K klic) throws StromException;
 
+    /**
+     * Odebere všechny prvky s klíči z polouzavřeného intervalu {@code [od, po)}. Meze mají stejný význam jako
+     * u {@link IAbstrTable#vytvorIterator(Comparable, Comparable)}
+     *
+     * <p> Výchozí implementace najde hranice intervalu pořadovými dotazy a prvky odebírá jednotlivě, tj.
+     * {@code O(k log n)} pro {@code k} odebraných prvků. Implementace stromu ji nahrazují rozdělením stromu
+     * podle mezí a spojením zbývajících částí
+     *
+     * @param od Dolní mez (včetně), {@code null} znamená bez dolní meze
+     * @param po Horní mez (vyloučena), {@code null} znamená bez horní meze
+     *
+     * @return Počet odebraných prvků
+     *
+     * @throws StromException Pokud operaci nelze provést
+     */
+    default int odeberRozsah(K od, K po) throws StromException {
+        final int zacatek = od == null ? 0 : dejPocetMensich(od);
+        final int konec = po == null ? dejMohutnost() : dejPocetMensich(po);
+        for (int i = zacatek; i < konec; i++)
+            odeber(dejKlicNaPoradi(zacatek));
+        return Math.max(konec - zacatek, 0);
+    }
+
+    /**
+     * Odebere prvky se zadanými klíči. Klíče, které tabulka neobsahuje, se přeskočí. Pokud je některý klíč
+     * prázdný, vyhodí výjimku dříve, než se cokoliv odebere
+     *
+     * <p> Výchozí implementace klíče odebírá jednotlivě; implementace stromu klíče seřadí a strom projdou
+     * jednou, přičemž podstromy bez odebíraných klíčů převezmou beze změny
+     *
+     * @param klice Klíče odebíraných prvků
+     *
+     * @return Počet odebraných prvků
+     *
+     * @throws StromException Pokud je kolekce klíčů nebo některý klíč prázdný
+     */
+    default int odeberVse(Iterable<K> klice) throws StromException {
+        final List<K> odebirane = NastrojeTabulek.dejNePrazdneKlice(klice);
+        int pocet = 0;
+        for (K klic : odebirane) {
+            if (obsahuje(klic)) {
+                odeber(klic);
+                pocet++;
+            }
+        }
+        return pocet;
+    }
+
     /**
      * Vytvoří iterátor, který umožňuje  procházení stromu do šířky/hloubky (in-order)
      *
@@ -81,6 +186,132 @@ public interface IAbstrTable<K extends Comparable<K>, V> {
      */
     Iterator<V> vytvorIterator(ETypProhl typ);
 
+    /**
+     * Vytvoří iterátor, který prochází in-order prvky s klíči z polouzavřeného intervalu {@code [od, po)}.
+     * Iterátor se na dolní mez nastaví v čase úměrném výšce stromu a skončí u horní meze, takže neprochází
+     * celou tabulku
+     *
+     * @param od Dolní mez (včetně), {@code null} znamená bez dolní meze
+     * @param po Horní mez (vyloučena), {@code null} znamená bez horní meze
+     *
+     * @return {@link Iterator} prvků v intervalu seřazených podle klíče
+     */
+    Iterator<V> vytvorIterator(K od, K po);
+
+    /**
+     * Vytvoří iterátor, který prochází prvky tabulky od největšího klíče k nejmenšímu (obrácený in-order)
+     *
+     * @return {@link Iterator} prvků seřazených sestupně podle klíče
+     */
+    Iterator<V> vytvorSestupnyIterator();
+
+    /**
+     * Vytvoří iterátor, který prochází prvky sestupně počínaje největším klíčem menším nebo rovným zadanému
+     * klíči (např. pro stránkování pozpátku od naposledy zobrazené obce)
+     *
+     * <p> Výchozí implementace prochází prvky podle pořadí ({@code O(log n)} na prvek); implementace stromu
+     * ho nahrazují iterátorem, který se na začátek nastaví jedním sestupem
+     *
+     * @param od Horní mez (včetně), {@code null} znamená od největšího klíče
+     *
+     * @return {@link Iterator} prvků s klíči nejvýše {@code od} seřazených sestupně
+     */
+    default Iterator<V> vytvorSestupnyIterator(K od) {
+        final int zacatek;
+        try {
+            zacatek = od == null ? dejMohutnost() : dejPocetMensich(od) + (obsahuje(od) ? 1 : 0);
+        } catch (StromException ex) {
+            throw new IllegalArgumentException(ex.getMessage(), ex);
+        }
+        return new Iterator<>() {
+            private int poradi = zacatek;
+
+            @Override
+            public boolean hasNext() { return poradi > 0; }
+
+            @Override
+            public V next() {
+                if (!hasNext())
+                    throw new NoSuchElementException(ChybovaZpravaStromu.KONEC_ITERACE.getZprava());
+                try {
+                    return dejPrvekNaPoradi(--poradi);
+                } catch (StromException ex) {
+                    throw new NoSuchElementException(ex.getMessage());
+                }
+            }
+        };
+    }
+
+    /**
+     * Vytvoří {@link Spliterator} prvků tabulky v in-order pořadí, který lze dělit pro paralelní zpracování.
+     * Výchozí implementace obalí in-order iterátor, takže se dělí pouze po dávkách; implementace stromu ho
+     * nahrazují spliteratorem, který se dělí na poloviny podle mohutnosti podstromů
+     *
+     * <p> Tabulka se během průchodu nesmí měnit
+     *
+     * @return {@link Spliterator} s vlastnostmi {@link Spliterator#ORDERED} a {@link Spliterator#SIZED}
+     */
+    default Spliterator<V> vytvorSpliterator() {
+        return Spliterators.spliterator(vytvorIterator(ETypProhl.HLOUBKA), dejMohutnost(),
+                Spliterator.ORDERED | Spliterator.SIZED);
+    }
+
+    /**
+     * Vytvoří sekvenční proud ({@link Stream}) prvků tabulky v in-order pořadí
+     *
+     * @return Sekvenční proud prvků
+     */
+    default Stream<V> stream() { return StreamSupport.stream(vytvorSpliterator(), false); }
+
+    /**
+     * Vytvoří paralelní proud ({@link Stream}) prvků tabulky. Agregace (např. součty obyvatel) se rozdělí
+     * mezi vlákna fork-join poolu podle {@link IAbstrTable#vytvorSpliterator()}
+     *
+     * @return Paralelní proud prvků
+     */
+    default Stream<V> parallelStream() { return StreamSupport.stream(vytvorSpliterator(), true); }
+
+    /**
+     * Vrací výšku stromu, tj. počet pater (prázdný strom má výšku {@code 0}, strom s jediným prvkem {@code 1})
+     *
+     * @return Výška stromu
+     */
+    int dejVysku();
+
+    /**
+     * Vrací počty prvků na jednotlivých patrech stromu. Patra jsou číslována od kořene (patro {@code 1}), na
+     * indexu {@code i} pole je šířka patra {@code i + 1}. Celková složitost je {@code O(n)}
+     *
+     * @return Pole šířek pater o délce rovné výšce stromu
+     */
+    int[] dejSirkyPater();
+
+    /**
+     * Vytvoří iterátor prvků jednoho patra stromu zleva doprava
+     *
+     * @param patro Číslo patra (kořen je na patře {@code 1})
+     *
+     * @return {@link Iterator} prvků daného patra, prázdný, pokud patro ve stromu neexistuje
+     */
+    Iterator<V> vytvorIteratorPatra(int patro);
+
+    /**
+     * Vrací okamžitý tvar stromu: počet prvků, výšku, průměrnou hloubku prvku a počty prvků v jednotlivých
+     * hloubkách. Metriky se spočítají z šířek pater ({@link IAbstrTable#dejSirkyPater()}), tj. jedním
+     * průchodem v čase {@code O(n)}
+     *
+     * @return Metriky stromu
+     */
+    default MetrikyStromu dejMetriky() { return MetrikyStromu.zeSirekPater(dejSirkyPater()); }
+
+    /**
+     * Vrací průběžná počítadla porovnání klíčů, vložení, odebrání a vyvažovacích kroků této tabulky. Počítadla
+     * jsou ve výchozím stavu vypnutá (viz {@link PocitadlaStromu#zapni()})
+     *
+     * @return Počítadla tabulky (stále stejná instance)
+     */
+    PocitadlaStromu dejPocitadla();
+
     /**
      * Vrací mohutnost uzlu (počet jeho potomků včetně něj samotného) se zadaným klíčem
      *
@@ -90,6 +321,159 @@ public interface IAbstrTable<K extends Comparable<K>, V> {
      */
     int dejMohutnost(K klic);
 
+    /**
+     * Vrací počet všech prvků v tabulce, tj. mohutnost kořene
+     *
+     * @return Počet prvků nebo {@code 0}, pokud je tabulka prázdná
+     */
+    int dejMohutnost();
+
+    /**
+     * Vrací prvek, který je na zadaném pořadí v in-order posloupnosti (k-tý nejmenší klíč). Složitost je
+     * úměrná výšce stromu, protože se využívá mohutnost podstromů
+     *
+     * @param poradi Pořadí prvku počítané od nuly
+     *
+     * @return Hodnota prvku na zadaném pořadí
+     *
+     * @throws StromException Pokud je pořadí záporné nebo není menší než počet prvků tabulky
+     */
+    V dejPrvekNaPoradi(int poradi) throws StromException;
+
+    /**
+     * Vrací klíč, který je na zadaném pořadí v in-order posloupnosti (k-tý nejmenší klíč)
+     *
+     * @param poradi Pořadí klíče počítané od nuly
+     *
+     * @return Klíč na zadaném pořadí
+     *
+     * @throws StromException Pokud je pořadí záporné nebo není menší než počet prvků tabulky
+     */
+    K dejKlicNaPoradi(int poradi) throws StromException;
+
+    /**
+     * Vrací pořadí (od nuly) zadaného klíče v in-order posloupnosti
+     *
+     * @param klic Klíč, jehož pořadí se má zjistit
+     *
+     * @return Pořadí klíče nebo {@code -1}, pokud klíč v tabulce není
+     */
+    int dejPoradi(K klic);
+
+    /**
+     * Vrací počet klíčů, které jsou ostře menší než zadaný klíč. Klíč sám v tabulce být nemusí
+     *
+     * @param klic Horní mez (vyloučena)
+     *
+     * @return Počet klíčů menších než {@code klic}
+     *
+     * @throws StromException Pokud je klíč prázdný
+     */
+    int dejPocetMensich(K klic) throws StromException;
+
+    /**
+     * Vrací počet klíčů v polouzavřeném intervalu {@code [od, po)}
+     *
+     * @param od Dolní mez (včetně)
+     * @param po Horní mez (vyloučena)
+     *
+     * @return Počet klíčů v intervalu, {@code 0} pokud {@code od} není menší než {@code po}
+     *
+     * @throws StromException Pokud je některá z mezí prázdná
+     */
+    int dejPocetVRozsahu(K od, K po) throws StromException;
+
+    /**
+     * Vrací nejmenší klíč tabulky
+     *
+     * @return Nejmenší klíč nebo {@code null}, pokud je tabulka prázdná
+     */
+    default K dejPrvniKlic() {
+        try {
+            return jePrazdny() ? null : dejKlicNaPoradi(0);
+        } catch (StromException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Vrací největší klíč tabulky
+     *
+     * @return Největší klíč nebo {@code null}, pokud je tabulka prázdná
+     */
+    default K dejPosledniKlic() {
+        try {
+            return jePrazdny() ? null : dejKlicNaPoradi(dejMohutnost() - 1);
+        } catch (StromException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Vrací největší klíč tabulky, který je menší nebo roven zadanému klíči (obdoba
+     * {@link java.util.NavigableMap#floorKey(Object)}). Hodí se např. pro nabídku nejbližšího názvu obce,
+     * když obec se zadaným názvem neexistuje
+     *
+     * <p> Výchozí implementace používá pořadové dotazy; implementace stromu ho najdou jedním sestupem
+     * od kořene, tj. v čase {@code O(výška stromu)}
+     *
+     * @param klic Vstupní klíč, nemusí být v tabulce
+     *
+     * @return Nalezený klíč nebo {@code null}, pokud jsou všechny klíče větší
+     *
+     * @throws StromException Pokud je klíč prázdný
+     */
+    default K dejKlicNejvyse(K klic) throws StromException {
+        final int pocet = dejPocetMensich(klic) + (obsahuje(klic) ? 1 : 0);
+        return pocet == 0 ? null : dejKlicNaPoradi(pocet - 1);
+    }
+
+    /**
+     * Vrací nejmenší klíč tabulky, který je větší nebo roven zadanému klíči (obdoba
+     * {@link java.util.NavigableMap#ceilingKey(Object)})
+     *
+     * @param klic Vstupní klíč, nemusí být v tabulce
+     *
+     * @return Nalezený klíč nebo {@code null}, pokud jsou všechny klíče menší
+     *
+     * @throws StromException Pokud je klíč prázdný
+     */
+    default K dejKlicNejmene(K klic) throws StromException {
+        final int pocet = dejPocetMensich(klic);
+        return pocet == dejMohutnost() ? null : dejKlicNaPoradi(pocet);
+    }
+
+    /**
+     * Vrací největší klíč tabulky, který je ostře menší než zadaný klíč (obdoba
+     * {@link java.util.NavigableMap#lowerKey(Object)})
+     *
+     * @param klic Vstupní klíč, nemusí být v tabulce
+     *
+     * @return Nalezený klíč nebo {@code null}, pokud žádný menší klíč neexistuje
+     *
+     * @throws StromException Pokud je klíč prázdný
+     */
+    default K dejPredchoziKlic(K klic) throws StromException {
+        final int pocet = dejPocetMensich(klic);
+        return pocet == 0 ? null : dejKlicNaPoradi(pocet - 1);
+    }
+
+    /**
+     * Vrací nejmenší klíč tabulky, který je ostře větší než zadaný klíč (obdoba
+     * {@link java.util.NavigableMap#higherKey(Object)}). Hodí se např. pro pokračování stránkovaného
+     * průchodu za naposledy zobrazeným klíčem
+     *
+     * @param klic Vstupní klíč, nemusí být v tabulce
+     *
+     * @return Nalezený klíč nebo {@code null}, pokud žádný větší klíč neexistuje
+     *
+     * @throws StromException Pokud je klíč prázdný
+     */
+    default K dejNasledujiciKlic(K klic) throws StromException {
+        final int pocet = dejPocetMensich(klic) + (obsahuje(klic) ? 1 : 0);
+        return pocet == dejMohutnost() ? null : dejKlicNaPoradi(pocet);
+    }
+
     /**
      * Vratí textový řetězec s celým stromem, kde, v případě vyhledávání do šířky, je uvedeno, na jakém patře se
      * uzel nachází.
@@ -120,7 +504,44 @@ public interface IAbstrTable<K extends Comparable<K>, V> {
      *
      * @return Řetězec s informacemi o rodiči a potomcích
      */
-    String vypisStrom(ETypProhl typ);
+    default String vypisStrom(ETypProhl typ) {
+        final StringBuilder sb = new StringBuilder();
+        try {
+            vypisStrom(typ, sb, 0, Integer.MAX_VALUE);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Zapíše celý výpis stromu (viz {@link IAbstrTable#vypisStrom(ETypProhl)}) přímo do zadaného cíle
+     *
+     * @param typ Typ prohlížení
+     * @param cil Cíl výpisu, např. {@link java.io.Writer} souboru
+     *
+     * @throws IOException Pokud selže zápis do cíle
+     */
+    default void vypisStrom(ETypProhl typ, Appendable cil) throws IOException {
+        vypisStrom(typ, cil, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Zapíše výřez výpisu stromu (viz {@link IAbstrTable#vypisStrom(ETypProhl)}) přímo do zadaného cíle
+     *
+     * <p> Výpis vzniká během jediného průchodu stromem a každý řádek se hned zapíše do cíle, takže se celý výpis
+     * nikdy nedrží v paměti. Řádky před počátkem se přeskočí bez sestavování textu, u průchodu do hloubky
+     * se na počátek navíc sestoupí přímo podle pořadí
+     *
+     * @param typ Typ prohlížení
+     * @param cil Cíl výpisu, např. {@link java.io.Writer} souboru nebo {@link StringBuilder} stránky
+     * @param od Pořadí prvního vypsaného řádku (od nuly)
+     * @param pocet Nejvyšší počet vypsaných řádků
+     *
+     * @throws IOException Pokud selže zápis do cíle
+     * @throws IllegalArgumentException Pokud je počátek nebo počet záporný
+     */
+    void vypisStrom(ETypProhl typ, Appendable cil, int od, int pocet) throws IOException;
 
     /**
      * Zjištění, zda strom obsahuje zadaný klíč
@@ -0,0 +1,452 @@
+package cz.upce.fei.bdats.strom;
+
+import cz.upce.fei.bdats.vyjimky.StromException;
+import cz.upce.fei.bdats.vyjimky.zpravy.ChybovaZpravaStromu;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Třída obaluje libovolnou implementaci {@link IAbstrTable} a doplňuje k ní <b>hašovací index</b> klíčů
+ * s otevřenou adresací. Vyhledání ({@link IndexovanaTable#najdi(Comparable)}) a test přítomnosti klíče
+ * ({@link IndexovanaTable#obsahuje(Comparable)}) se řeší v indexu v očekávaném konstantním čase, obalená
+ * tabulka (strom) obsluhuje pouze operace, které potřebují uspořádání (iterátory, pořadové a rozsahové
+ * dotazy, výpis)
+ *
+ * <p> Index se udržuje v souladu se stromem při každém zápisu ({@code vloz}, {@code vlozVse}, {@code odeber},
+ * {@code odeberRozsah}, {@code odeberVse}, {@code zrus}): nejprve se provede zápis do stromu a teprve když
+ * uspěje, upraví se index. Klíče proto musí mít {@link Object#equals(Object)} a {@link Object#hashCode()}
+ * konzistentní s {@link Comparable#compareTo(Object)} (např. {@link String} nebo {@link Integer})
+ *
+ * <p> Stejným způsobem se udržují i doplňkové indexy registrované metodou
+ * {@link IndexovanaTable#pridejPosluchace(PosluchacTabulky)} (např. předponový strom názvů
+ * {@link RadixovyStrom}): každá změna hašovacího indexu se pod zámkem pro zápis oznámí i všem posluchačům
+ *
+ * <p> Index je jediné pole, ve kterém se střídají klíč a hodnota (klíč na sudém indexu, hodnota hned za ním),
+ * takže se při vyhledávání prochází souvislá paměť. Kolize se řeší lineárním zkoušením, zaplnění je nejvýše
+ * poloviční a při odebírání se následující prvky posouvají zpět (nepoužívají se náhrobky)
+ *
+ * <p> Souběh: zápisy se serializují výhradním zámkem {@link StampedLock}. Vyhledání v indexu probíhá
+ * optimisticky bez zámku; pokud během něj proběhl zápis, zopakuje se pod zámkem pro čtení. Ostatní operace
+ * se předávají obalené tabulce přímo, jejich vlákenná bezpečnost je tedy daná obalenou tabulkou (např.
+ * {@link PerzistentniTable})
+ *
+ * @param <K> Typ klíče prvků v tabulce, musí implementovat {@link Comparable}
+ * @param <V> Typ hodnoty
+ */
+public final class IndexovanaTable<K extends Comparable<K>, V> implements IAbstrTable<K, V> {
+
+    /**
+     * Konstanta pro nulu
+     */
+    private final int NULTA_HODNOTA = 0;
+    /**
+     * Konstanta reprezentuje pozici v indexu v případě, když klíč v indexu není
+     */
+    private final int UKAZATEL_ABSENCE = -1;
+    /**
+     * Počáteční (a nejmenší) počet slotů indexu, musí být mocninou dvou
+     */
+    private final int MIN_KAPACITA = 16;
+    /**
+     * Počet položek pole indexu na jeden slot (klíč a hodnota)
+     */
+    private final int POLOZEK_NA_SLOT = 2;
+
+    private final IAbstrTable<K, V> tabulka;
+    private final StampedLock zamek;
+
+    /**
+     * Sloty indexu: klíč slotu {@code i} leží na indexu {@code 2i}, jeho hodnota na indexu {@code 2i + 1}.
+     * Při zvětšení se vytvoří nové pole, takže optimistický čtenář vždy pracuje s celým (starým nebo novým)
+     * polem
+     */
+    private volatile Object[] sloty;
+    private int pocet;
+    /**
+     * Doplňkové indexy, kterým se oznamují změny indexu (čtou se i mění pouze pod zámkem pro zápis)
+     */
+    private final List<PosluchacTabulky<? super K, ? super V>> posluchaci;
+
+    /**
+     * Konstruktor obalí zadanou tabulku a zaindexuje její obsah. K obalené tabulce by se dále nemělo zapisovat
+     * jinak než přes tuto instanci, jinak by se index se stromem rozešel
+     *
+     * @param tabulka Tabulka, ke které se index vytváří
+     */
+    public IndexovanaTable(@NotNull IAbstrTable<K, V> tabulka) {
+        this.tabulka = tabulka;
+        this.zamek = new StampedLock();
+        this.sloty = new Object[MIN_KAPACITA * POLOZEK_NA_SLOT];
+        this.pocet = NULTA_HODNOTA;
+        this.posluchaci = new ArrayList<>();
+        try {
+            for (int poradi = 0; poradi < tabulka.dejMohutnost(); poradi++)
+                pridejDoIndexu(tabulka.dejKlicNaPoradi(poradi), tabulka.dejPrvekNaPoradi(poradi));
+        } catch (StromException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+// <editor-fold defaultstate="collapsed" desc="Zápisy (strom a index)">
+    @Override
+    public void zrus() {
+        final long razitko = zamek.writeLock();
+        try {
+            tabulka.zrus();
+            sloty = new Object[MIN_KAPACITA * POLOZEK_NA_SLOT];
+            pocet = NULTA_HODNOTA;
+            for (PosluchacTabulky<? super K, ? super V> posluchac : posluchaci)
+                posluchac.priZruseni();
+        } finally {
+            zamek.unlockWrite(razitko);
+        }
+    }
+
+    @Override
+    public void vloz(K klic, V hodnota) throws StromException {
+        final long razitko = zamek.writeLock();
+        try {
+            tabulka.vloz(klic, hodnota);
+            pridejDoIndexu(klic, hodnota);
+        } finally {
+            zamek.unlockWrite(razitko);
+        }
+    }
+
+    /**
+     * Hromadné vložení je atomické díky obalené tabulce; index se doplní až po jeho úspěchu
+     */
+    @Override
+    public void vlozVse(K[] klice, V[] hodnoty) throws StromException {
+        final long razitko = zamek.writeLock();
+        try {
+            tabulka.vlozVse(klice, hodnoty);
+            for (int i = 0; i < klice.length; i++)
+                pridejDoIndexu(klice[i], hodnoty[i]);
+        } finally {
+            zamek.unlockWrite(razitko);
+        }
+    }
+
+    @Override
+    public V odeber(K klic) throws StromException {
+        final long razitko = zamek.writeLock();
+        try {
+            final V hodnota = tabulka.odeber(klic);
+            odeberZIndexu(klic);
+            return hodnota;
+        } finally {
+            zamek.unlockWrite(razitko);
+        }
+    }
+
+    /**
+     * Klíče z intervalu se před odebráním ze stromu zjistí pořadovými dotazy, aby je bylo možné odebrat
+     * i z indexu
+     */
+    @Override
+    public int odeberRozsah(K od, K po) throws StromException {
+        final long razitko = zamek.writeLock();
+        try {
+            final int zacatek = od == null ? NULTA_HODNOTA : tabulka.dejPocetMensich(od);
+            final int konec = po == null ? tabulka.dejMohutnost() : tabulka.dejPocetMensich(po);
+            final List<K> odebirane = new ArrayList<>();
+            for (int poradi = zacatek; poradi < konec; poradi++)
+                odebirane.add(tabulka.dejKlicNaPoradi(poradi));
+
+            final int pocetOdebranych = tabulka.odeberRozsah(od, po);
+            for (K klic : odebirane)
+                odeberZIndexu(klic);
+            return pocetOdebranych;
+        } finally {
+            zamek.unlockWrite(razitko);
+        }
+    }
+
+    @Override
+    public int odeberVse(Iterable<K> klice) throws StromException {
+        final long razitko = zamek.writeLock();
+        try {
+            final List<K> odebirane = NastrojeTabulek.dejNePrazdneKlice(klice);
+            final int pocetOdebranych = tabulka.odeberVse(odebirane);
+            for (K klic : odebirane)
+                odeberZIndexu(klic);
+            return pocetOdebranych;
+        } finally {
+            zamek.unlockWrite(razitko);
+        }
+    }
+
+    /**
+     * Zaregistruje doplňkový index, kterému se budou oznamovat všechna další vložení, odebrání a zrušení.
+     * Prvky, které tabulka již obsahuje, se posluchači nejprve oznámí jako vložené (v pořadí slotů indexu)
+     *
+     * @param posluchac Doplňkový index
+     */
+    @SuppressWarnings("unchecked")
+    public void pridejPosluchace(@NotNull PosluchacTabulky<? super K, ? super V> posluchac) {
+        final long razitko = zamek.writeLock();
+        try {
+            for (int i = 0; i < sloty.length; i += POLOZEK_NA_SLOT) {
+                if (sloty[i] != null)
+                    posluchac.priVlozeni((K) sloty[i], (V) sloty[i + 1]);
+            }
+            posluchaci.add(posluchac);
+        } finally {
+            zamek.unlockWrite(razitko);
+        }
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Vyhledávání v indexu">
+    /**
+     * Popis logiky:
+     * <ol>
+     * <li> Prázdný klíč nebo prázdná tabulka vyhodí stejnou výjimku jako strom
+     * <li> Optimisticky (bez zámku) najde slot klíče a přečte jeho hodnotu
+     * <li> Pokud mezitím proběhl zápis, vyhledání se zopakuje pod zámkem pro čtení
+     * </ol>
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V najdi(K klic) throws StromException {
+        if (klic == null)
+            throw new StromException(ChybovaZpravaStromu.NULL_KLIC.getZprava());
+
+        long razitko = zamek.tryOptimisticRead();
+        Object[] aktualniSloty = sloty;
+        int slot = najdiSlot(aktualniSloty, klic);
+        Object hodnota = slot == UKAZATEL_ABSENCE ? null : aktualniSloty[slot * POLOZEK_NA_SLOT + 1];
+        if (!zamek.validate(razitko)) {
+            razitko = zamek.readLock();
+            try {
+                aktualniSloty = sloty;
+                slot = najdiSlot(aktualniSloty, klic);
+                hodnota = slot == UKAZATEL_ABSENCE ? null : aktualniSloty[slot * POLOZEK_NA_SLOT + 1];
+            } finally {
+                zamek.unlockRead(razitko);
+            }
+        }
+        if (slot == UKAZATEL_ABSENCE)
+            throw new StromException(jePrazdny()
+                    ? ChybovaZpravaStromu.PRAZDNY_KOREN.getZprava()
+                    : ChybovaZpravaStromu.PRVEK_NENALEZEN.getZprava());
+        return (V) hodnota;
+    }
+
+    @Override
+    public boolean obsahuje(K klic) {
+        if (klic == null)
+            return false;
+        final long razitko = zamek.tryOptimisticRead();
+        final boolean nalezen = najdiSlot(sloty, klic) != UKAZATEL_ABSENCE;
+        if (zamek.validate(razitko))
+            return nalezen;
+
+        final long razitkoCteni = zamek.readLock();
+        try {
+            return najdiSlot(sloty, klic) != UKAZATEL_ABSENCE;
+        } finally {
+            zamek.unlockRead(razitkoCteni);
+        }
+    }
+
+    /**
+     * Lineárně zkouší sloty od domovského slotu klíče, dokud klíč nenajde nebo nenarazí na prázdný slot.
+     * Počet pokusů je omezen počtem slotů, aby optimistický čtenář při souběžném zápisu nemohl zacyklit
+     *
+     * @param sloty Pole indexu, ve kterém se hledá
+     *
+     * @return Číslo slotu s klíčem nebo {@link IndexovanaTable#UKAZATEL_ABSENCE}
+     */
+    private int najdiSlot(@NotNull Object[] sloty, @NotNull K klic) {
+        final int maska = sloty.length / POLOZEK_NA_SLOT - 1;
+        int slot = dejHash(klic) & maska;
+        for (int pokus = 0; pokus <= maska; pokus++) {
+            final Object klicSlotu = sloty[slot * POLOZEK_NA_SLOT];
+            if (klicSlotu == null)
+                return UKAZATEL_ABSENCE;
+            if (klicSlotu.equals(klic))
+                return slot;
+            slot = (slot + 1) & maska;
+        }
+        return UKAZATEL_ABSENCE;
+    }
+
+    /**
+     * Promíchá vyšší bity hašovacího kódu do nižších, protože slot se určuje maskou nejnižších bitů
+     */
+    private int dejHash(@NotNull Object klic) {
+        final int hash = klic.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Úpravy indexu (pod zámkem pro zápis)">
+    /**
+     * Vloží klíč do prvního volného slotu od jeho domovského slotu. Pokud by zaplnění překročilo polovinu,
+     * index se nejprve zdvojnásobí
+     */
+    private void pridejDoIndexu(@NotNull K klic, V hodnota) {
+        if ((pocet + 1) * POLOZEK_NA_SLOT > sloty.length / POLOZEK_NA_SLOT)
+            zvetsiIndex();
+        vlozDoSlotu(sloty, klic, hodnota);
+        pocet++;
+        for (PosluchacTabulky<? super K, ? super V> posluchac : posluchaci)
+            posluchac.priVlozeni(klic, hodnota);
+    }
+
+    private void vlozDoSlotu(@NotNull Object[] cil, @NotNull Object klic, Object hodnota) {
+        final int maska = cil.length / POLOZEK_NA_SLOT - 1;
+        int slot = dejHash(klic) & maska;
+        while (cil[slot * POLOZEK_NA_SLOT] != null)
+            slot = (slot + 1) & maska;
+        cil[slot * POLOZEK_NA_SLOT] = klic;
+        cil[slot * POLOZEK_NA_SLOT + 1] = hodnota;
+    }
+
+    /**
+     * Přehešuje všechny klíče do nového pole s dvojnásobným počtem slotů a teprve potom ho zveřejní
+     */
+    private void zvetsiIndex() {
+        final Object[] stareSloty = sloty;
+        final Object[] noveSloty = new Object[stareSloty.length * 2];
+        for (int i = 0; i < stareSloty.length; i += POLOZEK_NA_SLOT) {
+            if (stareSloty[i] != null)
+                vlozDoSlotu(noveSloty, stareSloty[i], stareSloty[i + 1]);
+        }
+        sloty = noveSloty;
+    }
+
+    /**
+     * Popis logiky (odebírání bez náhrobků):
+     * <ol>
+     * <li> Uvolní slot odebíraného klíče
+     * <li> Prochází následující obsazené sloty až k prvnímu prázdnému. Klíč, jehož domovský slot neleží
+     * cyklicky mezi uvolněným slotem a jeho aktuálním slotem, se přesune do uvolněného slotu a uvolní se jeho
+     * původní slot
+     * </ol>
+     * Tím zůstane zachována podmínka, že mezi domovským slotem klíče a jeho slotem není žádný prázdný slot.
+     * Nakonec se odebrání oznámí posluchačům
+     */
+    @SuppressWarnings("unchecked")
+    private void odeberZIndexu(@NotNull K klic) {
+        final Object[] aktualniSloty = sloty;
+        int volny = najdiSlot(aktualniSloty, klic);
+        if (volny == UKAZATEL_ABSENCE)
+            return;
+        final V hodnota = (V) aktualniSloty[volny * POLOZEK_NA_SLOT + 1];
+        final int maska = aktualniSloty.length / POLOZEK_NA_SLOT - 1;
+        aktualniSloty[volny * POLOZEK_NA_SLOT] = null;
+        aktualniSloty[volny * POLOZEK_NA_SLOT + 1] = null;
+        pocet--;
+
+        int slot = (volny + 1) & maska;
+        while (aktualniSloty[slot * POLOZEK_NA_SLOT] != null) {
+            final int domovsky = dejHash(aktualniSloty[slot * POLOZEK_NA_SLOT]) & maska;
+            if (((slot - domovsky) & maska) >= ((slot - volny) & maska)) {
+                aktualniSloty[volny * POLOZEK_NA_SLOT] = aktualniSloty[slot * POLOZEK_NA_SLOT];
+                aktualniSloty[volny * POLOZEK_NA_SLOT + 1] = aktualniSloty[slot * POLOZEK_NA_SLOT + 1];
+                aktualniSloty[slot * POLOZEK_NA_SLOT] = null;
+                aktualniSloty[slot * POLOZEK_NA_SLOT + 1] = null;
+                volny = slot;
+            }
+            slot = (slot + 1) & maska;
+        }
+        for (PosluchacTabulky<? super K, ? super V> posluchac : posluchaci)
+            posluchac.priOdebrani(klic, hodnota);
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Uspořádané operace (předávají se obalené tabulce)">
+    @Override
+    public boolean jePrazdny() { return tabulka.jePrazdny(); }
+
+    @Override
+    public int dejMohutnost() { return tabulka.dejMohutnost(); }
+
+    @Override
+    public int dejMohutnost(K klic) { return tabulka.dejMohutnost(klic); }
+
+    @Override
+    public int dejVysku() { return tabulka.dejVysku(); }
+
+    @Override
+    public int[] dejSirkyPater() { return tabulka.dejSirkyPater(); }
+
+    @Override
+    public MetrikyStromu dejMetriky() { return tabulka.dejMetriky(); }
+
+    /**
+     * Počítadla obalené tabulky. Vyhledání přes hašovací index klíče stromem neporovnává, takže se do počtu
+     * porovnání nepromítne
+     */
+    @Override
+    public PocitadlaStromu dejPocitadla() { return tabulka.dejPocitadla(); }
+
+    @Override
+    public V dejPrvekNaPoradi(int poradi) throws StromException { return tabulka.dejPrvekNaPoradi(poradi); }
+
+    @Override
+    public K dejKlicNaPoradi(int poradi) throws StromException { return tabulka.dejKlicNaPoradi(poradi); }
+
+    @Override
+    public int dejPoradi(K klic) { return tabulka.dejPoradi(klic); }
+
+    @Override
+    public int dejPocetMensich(K klic) throws StromException { return tabulka.dejPocetMensich(klic); }
+
+    @Override
+    public int dejPocetVRozsahu(K od, K po) throws StromException { return tabulka.dejPocetVRozsahu(od, po); }
+
+    @Override
+    public K dejPrvniKlic() { return tabulka.dejPrvniKlic(); }
+
+    @Override
+    public K dejPosledniKlic() { return tabulka.dejPosledniKlic(); }
+
+    @Override
+    public K dejKlicNejvyse(K klic) throws StromException { return tabulka.dejKlicNejvyse(klic); }
+
+    @Override
+    public K dejKlicNejmene(K klic) throws StromException { return tabulka.dejKlicNejmene(klic); }
+
+    @Override
+    public K dejPredchoziKlic(K klic) throws StromException { return tabulka.dejPredchoziKlic(klic); }
+
+    @Override
+    public K dejNasledujiciKlic(K klic) throws StromException { return tabulka.dejNasledujiciKlic(klic); }
+
+    @Override
+    public Iterator<V> vytvorIterator(ETypProhl typ) { return tabulka.vytvorIterator(typ); }
+
+    @Override
+    public Iterator<V> vytvorIterator(K od, K po) { return tabulka.vytvorIterator(od, po); }
+
+    @Override
+    public Iterator<V> vytvorSestupnyIterator() { return tabulka.vytvorSestupnyIterator(); }
+
+    @Override
+    public Iterator<V> vytvorSestupnyIterator(K od) { return tabulka.vytvorSestupnyIterator(od); }
+
+    @Override
+    public Iterator<V> vytvorIteratorPatra(int patro) { return tabulka.vytvorIteratorPatra(patro); }
+
+    @Override
+    public Spliterator<V> vytvorSpliterator() { return tabulka.vytvorSpliterator(); }
+
+    @Override
+    public @NotNull String vypisStrom(ETypProhl typ) { return tabulka.vypisStrom(typ); }
+
+    @Override
+    public void vypisStrom(ETypProhl typ, Appendable cil, int od, int pocet) throws IOException {
+        tabulka.vypisStrom(typ, cil, od, pocet);
+    }
+// </editor-fold>
+}
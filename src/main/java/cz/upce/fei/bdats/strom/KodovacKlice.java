@@ -0,0 +1,32 @@
+package cz.upce.fei.bdats.strom;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Rozhraní představuje kodér, který klíč zakóduje do čísla {@code long} (zhuštěné předpony klíče) tak, aby
+ * porovnání čísel bez znaménka ({@link Long#compareUnsigned(long, long)}) zachovávalo pořadí klíčů:
+ * <ul>
+ * <li> pokud je kód klíče {@code a} menší než kód klíče {@code b}, je {@code a.compareTo(b) < 0}
+ * <li> stejné klíče mají stejný kód
+ * </ul>
+ * Různé klíče mohou mít stejný kód (např. klíče se stejnou předponou); o jejich pořadí pak rozhodne až úplné
+ * porovnání {@link Comparable#compareTo(Object)}
+ *
+ * <p> Tabulka ({@link AbstrTable#AbstrTable(KodovacKlice)}) si kód uloží do každého uzlu a při sestupu
+ * stromem nejprve porovná kódy. Úplné porovnání klíčů (u řetězců virtuální volání, které prochází znaky) tak
+ * stojí jen ty kroky, ve kterých se kódy shodují
+ *
+ * @param <K> Typ klíče
+ */
+@FunctionalInterface
+public interface KodovacKlice<K> {
+
+    /**
+     * Zakóduje klíč do čísla, jehož pořadí bez znaménka odpovídá pořadí klíčů
+     *
+     * @param klic Neprázdný klíč
+     *
+     * @return Kód klíče
+     */
+    long zakoduj(@NotNull K klic);
+}
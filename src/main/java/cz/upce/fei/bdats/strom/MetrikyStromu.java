@@ -0,0 +1,59 @@
+package cz.upce.fei.bdats.strom;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Záznam představuje okamžitý tvar tabulky (viz {@link IAbstrTable#dejMetriky()}). Hloubka prvku odpovídá
+ * číslu patra ve výpisu stromu, tj. prvky v kořeni mají hloubku {@code 1}
+ *
+ * @param pocetPrvku Počet prvků tabulky
+ * @param vyska Výška stromu, tj. největší hloubka prvku
+ * @param prumernaHloubka Průměrná hloubka prvku, tj. průměrný počet uzlů na cestě při úspěšném vyhledání
+ * @param histogramHloubek Počty prvků v jednotlivých hloubkách (index {@code 0} odpovídá hloubce {@code 1})
+ */
+public record MetrikyStromu(int pocetPrvku, int vyska, double prumernaHloubka, int @NotNull [] histogramHloubek) {
+
+    /**
+     * Sestaví metriky z počtu prvků v jednotlivých patrech stromu (viz {@link IAbstrTable#dejSirkyPater()})
+     *
+     * @param sirkyPater Počty prvků v patrech od kořene
+     *
+     * @return Metriky stromu
+     */
+    public static @NotNull MetrikyStromu zeSirekPater(int @NotNull [] sirkyPater) {
+        int pocet = 0;
+        long soucetHloubek = 0;
+        for (int patro = 0; patro < sirkyPater.length; patro++) {
+            pocet += sirkyPater[patro];
+            soucetHloubek += (long) (patro + 1) * sirkyPater[patro];
+        }
+        return new MetrikyStromu(pocet, sirkyPater.length, pocet == 0 ? 0 : (double) soucetHloubek / pocet,
+                sirkyPater);
+    }
+
+    /**
+     * Vrací poměr výšky stromu k výšce dokonale vyváženého binárního stromu se stejným počtem prvků. U AVL
+     * stromu je poměr nejvýše přibližně {@code 1.44}, výrazně vyšší hodnota značí degenerovaný strom. U B-stromu
+     * je poměr menší než jedna, protože uzel obsahuje více klíčů
+     *
+     * @return Poměr výšek, u prázdné tabulky {@code 1}
+     */
+    public double dejPomerKOptimu() {
+        if (pocetPrvku == 0)
+            return 1;
+        final int optimalniVyska = 32 - Integer.numberOfLeadingZeros(pocetPrvku);
+        return (double) vyska / optimalniVyska;
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return "MetrikyStromu{" +
+                "pocetPrvku=" + pocetPrvku +
+                ", vyska=" + vyska +
+                ", prumernaHloubka=" + String.format("%.2f", prumernaHloubka) +
+                ", histogramHloubek=" + Arrays.toString(histogramHloubek) +
+                '}';
+    }
+}
@@ -0,0 +1,137 @@
+package cz.upce.fei.bdats.strom;
+
+import cz.upce.fei.bdats.vyjimky.StromException;
+import cz.upce.fei.bdats.vyjimky.zpravy.ChybovaZpravaStromu;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Třída obsahuje pomocné metody sdílené implementacemi {@link IAbstrTable} v tomto balíčku (ověření klíčů,
+ * ověření a řazení dávek, vytváření polí klíčů a hodnot a ověření výřezu výpisu). Metody nejsou součástí
+ * veřejného rozhraní tabulky
+ */
+final class NastrojeTabulek {
+
+    private NastrojeTabulek() {
+    }
+
+    /**
+     * Zkopíruje klíče do seznamu a ověří, že žádný z nich není prázdný
+     *
+     * @param klice Kolekce klíčů
+     *
+     * @return Seznam klíčů v pořadí kolekce
+     *
+     * @throws StromException Pokud je kolekce nebo některý klíč prázdný
+     */
+    static <K> List<K> dejNePrazdneKlice(Iterable<K> klice) throws StromException {
+        if (klice == null)
+            throw new StromException(ChybovaZpravaStromu.NULL_KLIC.getZprava());
+        final List<K> seznam = new ArrayList<>();
+        for (K klic : klice) {
+            if (klic == null)
+                throw new StromException(ChybovaZpravaStromu.NULL_KLIC.getZprava());
+            seznam.add(klic);
+        }
+        return seznam;
+    }
+
+    /**
+     * Ověří, že pole klíčů a hodnot dávky existují, mají stejnou délku a žádný klíč není prázdný
+     *
+     * @throws StromException Pokud dávka není platná
+     */
+    static <K, V> void overDavku(K[] klice, V[] hodnoty) throws StromException {
+        if (klice == null || hodnoty == null || klice.length != hodnoty.length)
+            throw new StromException(ChybovaZpravaStromu.RUZNA_DELKA_POLI.getZprava());
+        for (K klic : klice) {
+            if (klic == null)
+                throw new StromException(ChybovaZpravaStromu.NULL_KLIC.getZprava());
+        }
+    }
+
+    /**
+     * Seřadí (již ověřenou a zkopírovanou) dávku podle klíčů a odhalí opakující se klíče. Seřazená dávka se
+     * pozná jediným průchodem a neřadí se; po seřazení jsou opakující se klíče vždy sousední, takže je odhalí
+     * opakovaná kontrola
+     *
+     * @param klice Kopie klíčů dávky, seřadí se na místě
+     * @param hodnoty Kopie hodnot dávky, přeuspořádají se stejně jako klíče
+     * @param porovnani Porovnání klíčů tabulky (např. s počítadlem porovnání)
+     *
+     * @throws StromException Pokud se některý klíč v dávce opakuje
+     */
+    static <K, V> void seradDavku(K[] klice, V[] hodnoty, Comparator<? super K> porovnani) throws StromException {
+        if (!jsouVzestupne(klice, porovnani)) {
+            seradPodleKlicu(klice, hodnoty, porovnani);
+            jsouVzestupne(klice, porovnani);
+        }
+    }
+
+    /**
+     * Zjistí, zda jsou klíče ostře vzestupně seřazené. Průchod se ukončí u prvního klíče, který je menší
+     * než jeho předchůdce
+     *
+     * @return {@code true}, pokud jsou klíče ostře vzestupně seřazené, {@code false}, pokud jsou neseřazené
+     *
+     * @throws StromException Pokud se ve vzestupném úseku vyskytnou dva stejné sousední klíče
+     */
+    static <K> boolean jsouVzestupne(K[] klice, Comparator<? super K> porovnani) throws StromException {
+        for (int i = 1; i < klice.length; i++) {
+            final int vysledek = porovnani.compare(klice[i - 1], klice[i]);
+            if (vysledek == 0)
+                throw new StromException(ChybovaZpravaStromu.EXISTUJICI_KLIC.getZprava());
+            if (vysledek > 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Zjistí, zda jsou klíče neklesající (na rozdíl od {@link NastrojeTabulek#jsouVzestupne(Object[], Comparator)}
+     * připouští stejné sousední klíče)
+     */
+    static <K> boolean jsouNeklesajici(K[] klice, Comparator<? super K> porovnani) {
+        for (int i = 1; i < klice.length; i++) {
+            if (porovnani.compare(klice[i - 1], klice[i]) > 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Stabilně seřadí klíče vzestupně a hodnoty přeuspořádá stejně jako jejich klíče (z opakujících se klíčů
+     * zůstane první ten, který byl v poli dříve)
+     */
+    static <K, V> void seradPodleKlicu(K[] klice, V[] hodnoty, Comparator<? super K> porovnani) {
+        final Integer[] indexy = new Integer[klice.length];
+        for (int i = 0; i < indexy.length; i++)
+            indexy[i] = i;
+        final K[] puvodniKlice = Arrays.copyOf(klice, klice.length);
+        final V[] puvodniHodnoty = Arrays.copyOf(hodnoty, hodnoty.length);
+        Arrays.sort(indexy, (a, b) -> porovnani.compare(puvodniKlice[a], puvodniKlice[b]));
+        for (int i = 0; i < indexy.length; i++) {
+            klice[i] = puvodniKlice[indexy[i]];
+            hodnoty[i] = puvodniHodnoty[indexy[i]];
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K extends Comparable<K>> K[] vytvorPoleKlicu(int velikost) { return (K[]) new Comparable<?>[velikost]; }
+
+    @SuppressWarnings("unchecked")
+    static <V> V[] vytvorPoleHodnot(int velikost) { return (V[]) new Object[velikost]; }
+
+    /**
+     * Ověří parametry výřezu výpisu pro {@link IAbstrTable#vypisStrom(ETypProhl, Appendable, int, int)}
+     *
+     * @throws IllegalArgumentException Pokud je počátek nebo počet záporný
+     */
+    static void overVyrezVypisu(int od, int pocet) {
+        if (od < 0 || pocet < 0)
+            throw new IllegalArgumentException(ChybovaZpravaStromu.NEPLATNY_VYREZ.getZprava());
+    }
+}
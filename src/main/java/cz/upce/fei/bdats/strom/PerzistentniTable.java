@@ -0,0 +1,1257 @@
+package cz.upce.fei.bdats.strom;
+
+import cz.upce.fei.bdats.struktury.*;
+import cz.upce.fei.bdats.vyjimky.StromException;
+import cz.upce.fei.bdats.vyjimky.StrukturaException;
+import cz.upce.fei.bdats.vyjimky.zpravy.ChybovaZpravaStromu;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Třída představuje perzistentní (copy-on-write) variantu tabulky {@link AbstrTable}. Strom je rovněž AVL
+ * stromem s mohutností a výškou v každém uzlu, uzly jsou však <b>neměnné</b>: zápis uzly nepřepisuje, ale
+ * zkopíruje pouze uzly na cestě od kořene ke změněnému místu (path copying) a ostatní podstromy sdílí
+ * s předchozí verzí stromu. Jeden zápis tak vytvoří {@code O(log n)} nových uzlů
+ *
+ * <p> Díky tomu stojí pořízení snímku tabulky ({@link PerzistentniTable#snimek()}) konstantní čas: snímek
+ * pouze převezme aktuální kořen. Pozdější zápisy do tabulky snímek nezmění a snímek zůstává čitelný
+ *
+ * <p> Pravidla souběhu:
+ * <ul>
+ * <li> <b>Zápisy</b> jsou synchronizované, takže se serializují. Nový kořen se zveřejní jediným zápisem do
+ * {@code volatile} proměnné až po dokončení celé operace
+ * <li> <b>Čtení</b> a <b>iterátory</b> neberou žádný zámek: přečtou kořen jednou a dál pracují s neměnnou
+ * verzí stromu, takže je zápis nezablokuje ani neovlivní. Iterátor vrací stav tabulky v okamžiku svého
+ * vytvoření
+ * </ul>
+ *
+ * <p> Uzly nemají odkaz na rodiče (ten by znemožnil sdílení podstromů mezi verzemi), proto iterátory do
+ * hloubky používají zásobník o velikosti výšky stromu
+ *
+ * <p> Stejně jako {@link AbstrTable} může tabulka v každém uzlu udržovat součty číselných ukazatelů hodnot
+ * za podstrom ({@link PerzistentniTable#PerzistentniTable(List)}); součty jsou součástí neměnného uzlu, takže
+ * je sdílí i snímky
+ *
+ * @param <K> Typ klíče prvků v tabulce, musí implementovat {@link Comparable}
+ * @param <V> Typ hodnoty
+ */
+public final class PerzistentniTable<K extends Comparable<K>, V> implements IAbstrTable<K, V> {
+
+    private volatile Uzel<K, V> koren;
+    private final PocitadlaStromu pocitadla = new PocitadlaStromu();
+    /**
+     * Ukazatele hodnot sčítané za podstromy, {@code null} pokud tabulka součty neudržuje
+     */
+    private final Ukazatele<V> ukazatele;
+
+    /**
+     * Konstanta pro nulu
+     */
+    private final int NULTA_HODNOTA = 0;
+    /**
+     * Konstanta reprezentuje hodnotu mohutnosti nebo pořadí v případě, když není nalezen prvek v rámci stromu
+     */
+    private final int UKAZATEL_ABSENCE = -1;
+    /**
+     * Konstanty reprezentují mohutnost a výšku listu, tj. uzlu bez potomků
+     */
+    private final int MOHUTNOST_LISTU = 1;
+    private final int VYSKA_LISTU = 1;
+    /**
+     * Konstanta pro maximální povolený rozdíl výšek levého a pravého podstromu v AVL stromu
+     */
+    private final int MAX_ROZDIL_VYSEK = 1;
+    /**
+     * Konstanta reprezentuje číslo patra kořene
+     */
+    private final int PATRO_KORENE = 1;
+
+    /**
+     * Neměnný uzel stromu. Třída je statická, aby uzly sdílené snímky nedržely odkaz na tabulku, ve které
+     * vznikly
+     */
+    private static final class Uzel<K, V> {
+        final K klic;
+        final V hodnota;
+        final Uzel<K, V> vlevo;
+        final Uzel<K, V> vpravo;
+        final int mohutnost;
+        final int vyska;
+        final long[] soucty;
+
+        Uzel(K klic, V hodnota, Uzel<K, V> vlevo, Uzel<K, V> vpravo, int mohutnost, int vyska, long[] soucty) {
+            this.klic = klic;
+            this.hodnota = hodnota;
+            this.vlevo = vlevo;
+            this.vpravo = vpravo;
+            this.mohutnost = mohutnost;
+            this.vyska = vyska;
+            this.soucty = soucty;
+        }
+    }
+
+    /**
+     * Konstruktor vytvoří prázdnou tabulku
+     */
+    public PerzistentniTable() { this(null, null); }
+
+    /**
+     * Konstruktor vytvoří prázdnou tabulku, která v každém uzlu udržuje součty zadaných ukazatelů hodnot za
+     * celý podstrom (viz {@link PerzistentniTable#dejSoucty(Comparable, Comparable)})
+     *
+     * @param ukazatele Funkce, které z hodnoty spočítají jednotlivé ukazatele (např. {@code Obec::getCelkem})
+     */
+    public PerzistentniTable(@NotNull List<ToLongFunction<? super V>> ukazatele) {
+        this(null, new Ukazatele<>(ukazatele));
+    }
+
+    private PerzistentniTable(Uzel<K, V> koren, Ukazatele<V> ukazatele) {
+        this.koren = koren;
+        this.ukazatele = ukazatele;
+    }
+
+    /**
+     * Vytvoří snímek tabulky v konstantním čase. Snímek sdílí všechny uzly s tabulkou; zápisy do tabulky
+     * se ve snímku neprojeví a naopak
+     *
+     * @return Nová tabulka se stejným obsahem
+     */
+    public @NotNull PerzistentniTable<K, V> snimek() { return new PerzistentniTable<>(koren, ukazatele); }
+
+    @Override
+    public synchronized void zrus() { koren = null; }
+
+    @Override
+    public boolean jePrazdny() { return koren == null; }
+
+    @Override
+    public @NotNull PocitadlaStromu dejPocitadla() { return pocitadla; }
+
+// <editor-fold defaultstate="collapsed" desc="Metoda: V najdi(K klic)">
+    @Override
+    public V najdi(K klic) throws StromException {
+        pozadatNePrazdnyKlic(klic);
+        final Uzel<K, V> aktualniKoren = koren;
+        if (aktualniKoren == null)
+            throw new StromException(ChybovaZpravaStromu.PRAZDNY_KOREN.getZprava());
+
+        final Uzel<K, V> uzel = najdiUzel(aktualniKoren, klic);
+        if (uzel == null)
+            throw new StromException(ChybovaZpravaStromu.PRVEK_NENALEZEN.getZprava());
+        return uzel.hodnota;
+    }
+
+    /**
+     * Iterativně vyhledá uzel podle klíče v zadané verzi stromu (jedno porovnání na patro)
+     *
+     * @return Nalezený uzel nebo {@code null}
+     */
+    private Uzel<K, V> najdiUzel(Uzel<K, V> uzel, K klic) {
+        if (klic == null)
+            return null;
+        while (uzel != null) {
+            final int vysledek = porovnej(klic, uzel.klic);
+            if (vysledek == NULTA_HODNOTA)
+                return uzel;
+            uzel = vysledek < NULTA_HODNOTA ? uzel.vlevo : uzel.vpravo;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean obsahuje(K klic) { return najdiUzel(koren, klic) != null; }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Metoda: void vloz(K klic, V hodnota)">
+    /**
+     * Popis logiky:
+     * <ol>
+     * <li> Zkontroluje, zda klíč není prázdný
+     * <li> Rekurzivně sestoupí k místu vložení a na zpáteční cestě vytvoří kopie uzlů na cestě (každou již
+     * vyváženou), ostatní podstromy se převezmou beze změny
+     *     <ul>
+     *     <li> <b>vlozDoPodstromu(koren, klic, hodnota)</b>
+     *     </ul>
+     * <li> Nový kořen zveřejní až po úspěšném vložení; při duplicitním klíči se tabulka nezmění
+     * </ol>
+     */
+    @Override
+    public synchronized void vloz(K klic, V hodnota) throws StromException {
+        pozadatNePrazdnyKlic(klic);
+        koren = vlozDoPodstromu(koren, klic, hodnota);
+        pocitadla.zapocitejVlozeni();
+    }
+
+    /**
+     * Vrací novou verzi podstromu s vloženým prvkem. Hloubka rekurze je rovna výšce stromu
+     *
+     * @throws StromException Pokud podstrom již klíč obsahuje
+     */
+    private @NotNull Uzel<K, V> vlozDoPodstromu(Uzel<K, V> uzel, K klic, V hodnota) throws StromException {
+        if (uzel == null)
+            return vytvorUzel(klic, hodnota, null, null);
+
+        final int vysledek = porovnej(klic, uzel.klic);
+        if (vysledek == NULTA_HODNOTA)
+            throw new StromException(ChybovaZpravaStromu.EXISTUJICI_KLIC.getZprava());
+        if (vysledek < NULTA_HODNOTA)
+            return vyvaz(uzel.klic, uzel.hodnota, vlozDoPodstromu(uzel.vlevo, klic, hodnota), uzel.vpravo);
+        return vyvaz(uzel.klic, uzel.hodnota, uzel.vlevo, vlozDoPodstromu(uzel.vpravo, klic, hodnota));
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Metoda: void vlozVse(K[] klice, V[] hodnoty)">
+    /**
+     * Popis logiky:
+     * <ol>
+     * <li> Ověří vstupní pole a zkopíruje je (vstupní pole volajícího se nemění)
+     * <li> Jedním průchodem zjistí, zda jsou klíče vzestupně seřazené, a zároveň odhalí sousední duplicity.
+     * Pokud seřazené nejsou, seřadí se (spolu s hodnotami) a kontrola duplicit se provede znovu
+     *     <ul>
+     *     <li> <b>NastrojeTabulek.seradDavku(noveKlice, noveHodnoty, this::porovnej)</b>
+     *     </ul>
+     * <li> Pokud tabulka není prázdná, slije její in-order posloupnost s novými klíči (a odhalí duplicity
+     * vůči tabulce)
+     *     <ul>
+     *     <li> <b>slijSPodstromem(koren, ...)</b>
+     *     </ul>
+     * <li> Z výsledné seřazené posloupnosti postaví dokonale vyvážený strom v lineárním čase a zveřejní ho
+     * jediným zápisem kořene. Při chybě (duplicitní klíč) se kořen nezmění, takže tabulka zůstane v původním
+     * stavu, aniž by bylo nutné cokoliv vracet
+     * </ol>
+     * Na rozdíl od postupného vkládání ({@code O(m log(n + m))} a {@code O(log n)} zahozených uzlů na každý
+     * klíč) vznikne právě jeden nový uzel na každý prvek výsledného stromu. Předchozí verze stromu zůstane
+     * beze změny pro snímky
+     */
+    @Override
+    public synchronized void vlozVse(K[] klice, V[] hodnoty) throws StromException {
+        NastrojeTabulek.overDavku(klice, hodnoty);
+
+        K[] noveKlice = Arrays.copyOf(klice, klice.length);
+        V[] noveHodnoty = Arrays.copyOf(hodnoty, hodnoty.length);
+        NastrojeTabulek.seradDavku(noveKlice, noveHodnoty, this::porovnej);
+
+        final Uzel<K, V> puvodniKoren = koren;
+        if (puvodniKoren != null) {
+            final int pocet = puvodniKoren.mohutnost + noveKlice.length;
+            final K[] vsechnyKlice = NastrojeTabulek.vytvorPoleKlicu(pocet);
+            final V[] vsechnyHodnoty = NastrojeTabulek.vytvorPoleHodnot(pocet);
+            final int[] pozice = new int[2];
+            slijSPodstromem(puvodniKoren, noveKlice, noveHodnoty, vsechnyKlice, vsechnyHodnoty, pozice);
+            while (pozice[POZICE_NOVEHO] < noveKlice.length) {
+                vsechnyKlice[pozice[POZICE_VYSTUPU]] = noveKlice[pozice[POZICE_NOVEHO]];
+                vsechnyHodnoty[pozice[POZICE_VYSTUPU]++] = noveHodnoty[pozice[POZICE_NOVEHO]++];
+            }
+            noveKlice = vsechnyKlice;
+            noveHodnoty = vsechnyHodnoty;
+        }
+        koren = postavPodstrom(noveKlice, noveHodnoty, NULTA_HODNOTA, noveKlice.length);
+        pocitadla.zapocitejVlozeni(klice.length);
+    }
+
+    /**
+     * Indexy do pole pozic slévání (viz {@link PerzistentniTable#slijSPodstromem})
+     */
+    private final int POZICE_NOVEHO = 0;
+    private final int POZICE_VYSTUPU = 1;
+
+    /**
+     * Slije in-order posloupnost podstromu se seřazenými novými klíči do výstupních polí. Uzly nemají odkaz na
+     * rodiče, proto se podstrom prochází rekurzivně (hloubka rekurze je rovna výšce stromu)
+     *
+     * @param pozice Pozice dalšího nového prvku ({@code [POZICE_NOVEHO]}) a dalšího místa ve výstupních polích
+     *               ({@code [POZICE_VYSTUPU]}), průběžně se posouvají
+     *
+     * @throws StromException Pokud se některý nový klíč již v tabulce nachází
+     */
+    private void slijSPodstromem(Uzel<K, V> uzel, K[] noveKlice, V[] noveHodnoty, K[] klice, V[] hodnoty,
+                                 int[] pozice) throws StromException {
+        if (uzel == null)
+            return;
+        slijSPodstromem(uzel.vlevo, noveKlice, noveHodnoty, klice, hodnoty, pozice);
+        while (pozice[POZICE_NOVEHO] < noveKlice.length) {
+            final int vysledek = porovnej(noveKlice[pozice[POZICE_NOVEHO]], uzel.klic);
+            if (vysledek == NULTA_HODNOTA)
+                throw new StromException(ChybovaZpravaStromu.EXISTUJICI_KLIC.getZprava());
+            if (vysledek > NULTA_HODNOTA)
+                break;
+            klice[pozice[POZICE_VYSTUPU]] = noveKlice[pozice[POZICE_NOVEHO]];
+            hodnoty[pozice[POZICE_VYSTUPU]++] = noveHodnoty[pozice[POZICE_NOVEHO]++];
+        }
+        klice[pozice[POZICE_VYSTUPU]] = uzel.klic;
+        hodnoty[pozice[POZICE_VYSTUPU]++] = uzel.hodnota;
+        slijSPodstromem(uzel.vpravo, noveKlice, noveHodnoty, klice, hodnoty, pozice);
+    }
+
+    /**
+     * Postaví dokonale vyvážený podstrom ze seřazeného úseku {@code [od, po)} (prostřední prvek je kořenem)
+     */
+    private Uzel<K, V> postavPodstrom(K[] klice, V[] hodnoty, int od, int po) {
+        if (od >= po)
+            return null;
+        final int stred = (od + po) >>> 1;
+        return vytvorUzel(klice[stred], hodnoty[stred],
+                postavPodstrom(klice, hodnoty, od, stred),
+                postavPodstrom(klice, hodnoty, stred + 1, po));
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Metoda: V odeber(K klic)">
+    /**
+     * Popis logiky:
+     * <ol>
+     * <li> Ověří klíč a vyhledá odebíraný uzel v aktuální verzi stromu
+     * <li> Rekurzivně vytvoří novou verzi stromu bez uzlu. Uzel se dvěma potomky se nahradí kopií svého
+     * in-order následníka, který se odebere z pravého podstromu
+     *     <ul>
+     *     <li> <b>odeberZPodstromu(koren, klic)</b>
+     *     </ul>
+     * </ol>
+     */
+    @Override
+    public synchronized V odeber(K klic) throws StromException {
+        pozadatNePrazdnyKlic(klic);
+        if (koren == null)
+            throw new StromException(ChybovaZpravaStromu.PRAZDNY_KOREN.getZprava());
+
+        final Uzel<K, V> uzel = najdiUzel(koren, klic);
+        if (uzel == null)
+            throw new StromException(ChybovaZpravaStromu.PRVEK_NENALEZEN.getZprava());
+        koren = odeberZPodstromu(koren, klic);
+        pocitadla.zapocitejOdebrani();
+        return uzel.hodnota;
+    }
+
+    /**
+     * Vrací novou verzi podstromu bez uzlu se zadaným klíčem, který v podstromu musí existovat
+     */
+    private Uzel<K, V> odeberZPodstromu(@NotNull Uzel<K, V> uzel, K klic) {
+        final int vysledek = porovnej(klic, uzel.klic);
+        if (vysledek < NULTA_HODNOTA)
+            return vyvaz(uzel.klic, uzel.hodnota, odeberZPodstromu(uzel.vlevo, klic), uzel.vpravo);
+        if (vysledek > NULTA_HODNOTA)
+            return vyvaz(uzel.klic, uzel.hodnota, uzel.vlevo, odeberZPodstromu(uzel.vpravo, klic));
+
+        if (uzel.vlevo == null)
+            return uzel.vpravo;
+        if (uzel.vpravo == null)
+            return uzel.vlevo;
+        final Uzel<K, V> naslednik = najdiMinimum(uzel.vpravo);
+        return vyvaz(naslednik.klic, naslednik.hodnota, uzel.vlevo, odeberMinimum(uzel.vpravo));
+    }
+
+    /**
+     * Vrací novou verzi neprázdného podstromu bez jeho nejlevějšího uzlu
+     */
+    private Uzel<K, V> odeberMinimum(@NotNull Uzel<K, V> uzel) {
+        if (uzel.vlevo == null)
+            return uzel.vpravo;
+        return vyvaz(uzel.klic, uzel.hodnota, odeberMinimum(uzel.vlevo), uzel.vpravo);
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Metody: rozdel(K klic) a spoj(IAbstrTable jina)">
+    /**
+     * Rozdělí tabulku podle zadaného klíče. V této tabulce zůstanou prvky s klíči menšími než zadaný klíč
+     * a prvky ostatní se přesunou do nové tabulky
+     *
+     * <p> Vznikne {@code O(log n)} nových uzlů na cestě k hranici, ostatní podstromy obě tabulky sdílejí
+     * s předchozí verzí stromu (a tedy i se snímky pořízenými před rozdělením)
+     *
+     * @param klic Hranice rozdělení (prvek s tímto klíčem připadne nové tabulce)
+     *
+     * @return Nová tabulka s prvky, jejichž klíče jsou větší nebo rovny zadanému klíči
+     *
+     * @throws StromException Pokud je klíč prázdný
+     */
+    public synchronized @NotNull PerzistentniTable<K, V> rozdel(K klic) throws StromException {
+        pozadatNePrazdnyKlic(klic);
+
+        final Rozdeleni<K, V> rozdeleni = rozdel(koren, klic);
+        koren = rozdeleni.mensi();
+        pocitadla.zapocitejOdebrani(dejMohutnostUzlu(rozdeleni.ostatni()));
+        return new PerzistentniTable<>(rozdeleni.ostatni(), ukazatele);
+    }
+
+    /**
+     * Přesune do této tabulky všechny prvky zadané tabulky, která tím zůstane prázdná. Tabulky nesmí mít
+     * společný klíč
+     *
+     * <p> Pokud je druhá tabulka také {@link PerzistentniTable} se stejnými ukazateli (např. vzniklá
+     * rozdělením této tabulky) a všechny její klíče leží před nebo za klíči této tabulky, obě verze stromu se
+     * spojí v čase {@code O(log n)} a spojený strom sdílí uzly s oběma původními verzemi. Jinak se prvky druhé
+     * tabulky vkládají do lokální verze stromu, která se zveřejní až na konci, takže při společném klíči
+     * zůstanou obě tabulky beze změny
+     *
+     * <p> Je-li druhá tabulka {@link PerzistentniTable}, drží se po celou dobu spojení zámky obou tabulek,
+     * vždy ve stejném pořadí (viz {@link PerzistentniTable#spojPodZamky(PerzistentniTable)}),
+     * takže souběžné {@code a.spoj(b)} a {@code b.spoj(a)} se nezablokují a souběžný zápis do druhé tabulky
+     * proběhne celý před spojením, nebo po něm. Synchronizaci jiné implementace druhé tabulky zajišťuje volající
+     *
+     * @param jina Tabulka, jejíž prvky se přesunou
+     *
+     * @throws StromException Pokud mají tabulky společný klíč
+     */
+    public void spoj(@NotNull IAbstrTable<K, V> jina) throws StromException {
+        if (jina == this)
+            throw new StromException(ChybovaZpravaStromu.EXISTUJICI_KLIC.getZprava());
+        if (jina instanceof PerzistentniTable<K, V> druha) {
+            spojPodZamky(druha);
+        } else {
+            synchronized (this) {
+                spojBezZamku(jina);
+            }
+        }
+    }
+
+    /**
+     * Zámek pro dvojici tabulek se shodným {@link System#identityHashCode(Object)}, u které nelze pořadí
+     * zamykání odvodit z hašovacích kódů
+     */
+    private static final Object ZAMEK_SHODNYCH_KODU = new Object();
+
+    /**
+     * Zamkne obě tabulky v globálně pevném pořadí (podle {@link System#identityHashCode(Object)}, při shodě
+     * kódů nejprve společným zámkem {@link PerzistentniTable#ZAMEK_SHODNYCH_KODU}) a provede spojení
+     */
+    private void spojPodZamky(@NotNull PerzistentniTable<K, V> druha) throws StromException {
+        final int kodTeto = System.identityHashCode(this);
+        final int kodDruhe = System.identityHashCode(druha);
+        if (kodTeto == kodDruhe) {
+            synchronized (ZAMEK_SHODNYCH_KODU) {
+                synchronized (this) {
+                    synchronized (druha) {
+                        spojBezZamku(druha);
+                    }
+                }
+            }
+            return;
+        }
+        final Object prvni = kodTeto < kodDruhe ? this : druha;
+        final Object druhy = kodTeto < kodDruhe ? druha : this;
+        synchronized (prvni) {
+            synchronized (druhy) {
+                spojBezZamku(druha);
+            }
+        }
+    }
+
+    /**
+     * Popis logiky:
+     * <ol>
+     * <li> Pokud je druhá tabulka {@link PerzistentniTable} se stejnými ukazateli a její klíče leží celé před
+     * nebo za klíči této tabulky, spojí se obě verze stromu a kořen druhé tabulky se vynuluje
+     * <li> Jinak se prvky druhé tabulky postupně vloží do lokální verze stromu, ta se zveřejní a druhá tabulka
+     * se zruší
+     * </ol>
+     * Volající drží zámek této tabulky (a zámek druhé tabulky, je-li {@link PerzistentniTable})
+     */
+    private void spojBezZamku(@NotNull IAbstrTable<K, V> jina) throws StromException {
+        if (jina.jePrazdny())
+            return;
+
+        if (jina instanceof PerzistentniTable<K, V> druha && druha.ukazatele == ukazatele) {
+            final Uzel<K, V> druhyKoren = druha.koren;
+            if (koren == null || porovnej(najdiMaximum(koren).klic, najdiMinimum(druhyKoren).klic) < NULTA_HODNOTA) {
+                koren = spoj(koren, druhyKoren);
+                pocitadla.zapocitejVlozeni(dejMohutnostUzlu(druhyKoren));
+                druha.koren = null;
+                return;
+            }
+            if (porovnej(najdiMaximum(druhyKoren).klic, najdiMinimum(koren).klic) < NULTA_HODNOTA) {
+                koren = spoj(druhyKoren, koren);
+                pocitadla.zapocitejVlozeni(dejMohutnostUzlu(druhyKoren));
+                druha.koren = null;
+                return;
+            }
+        }
+
+        Uzel<K, V> novyKoren = koren;
+        final int pocet = jina.dejMohutnost();
+        for (int poradi = NULTA_HODNOTA; poradi < pocet; poradi++)
+            novyKoren = vlozDoPodstromu(novyKoren, jina.dejKlicNaPoradi(poradi), jina.dejPrvekNaPoradi(poradi));
+        koren = novyKoren;
+        pocitadla.zapocitejVlozeni(pocet);
+        jina.zrus();
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Hromadné odebírání: odeberRozsah a odeberVse (rozdělení a spojení stromu)">
+    /**
+     * Rozdělí aktuální verzi stromu podle obou mezí a spojí části mimo interval. Vznikne {@code O(log n)}
+     * nových uzlů bez ohledu na počet odebraných prvků, část s prvky z intervalu se jen přestane odkazovat
+     * (snímky ji mohou dál sdílet)
+     */
+    @Override
+    public synchronized int odeberRozsah(K od, K po) {
+        if (koren == null || (od != null && po != null && porovnej(od, po) >= NULTA_HODNOTA))
+            return NULTA_HODNOTA;
+
+        Uzel<K, V> mensi = null;
+        Uzel<K, V> ostatni = koren;
+        if (od != null) {
+            final Rozdeleni<K, V> rozdeleni = rozdel(ostatni, od);
+            mensi = rozdeleni.mensi();
+            ostatni = rozdeleni.ostatni();
+        }
+        Uzel<K, V> vetsi = null;
+        if (po != null) {
+            final Rozdeleni<K, V> rozdeleni = rozdel(ostatni, po);
+            ostatni = rozdeleni.mensi();
+            vetsi = rozdeleni.ostatni();
+        }
+        koren = spoj(mensi, vetsi);
+        pocitadla.zapocitejOdebrani(dejMohutnostUzlu(ostatni));
+        return dejMohutnostUzlu(ostatni);
+    }
+
+    /**
+     * Klíče se seřadí a strom se projde jednou (viz {@link PerzistentniTable#odeberSerazene}). Podstromy bez
+     * odebíraných klíčů se převezmou beze změny, takže je nová verze stromu sdílí s předchozí
+     */
+    @Override
+    public synchronized int odeberVse(Iterable<K> klice) throws StromException {
+        final List<K> seznam = NastrojeTabulek.dejNePrazdneKlice(klice);
+        if (koren == null || seznam.isEmpty())
+            return NULTA_HODNOTA;
+
+        seznam.sort(this::porovnej);
+        final K[] serazene = NastrojeTabulek.vytvorPoleKlicu(seznam.size());
+        int pocet = NULTA_HODNOTA;
+        for (K klic : seznam) {
+            if (pocet == NULTA_HODNOTA || porovnej(serazene[pocet - 1], klic) != NULTA_HODNOTA)
+                serazene[pocet++] = klic;
+        }
+        final Uzel<K, V> puvodniKoren = koren;
+        koren = odeberSerazene(puvodniKoren, serazene, NULTA_HODNOTA, pocet);
+        final int pocetOdebranych = dejMohutnostUzlu(puvodniKoren) - dejMohutnostUzlu(koren);
+        pocitadla.zapocitejOdebrani(pocetOdebranych);
+        return pocetOdebranych;
+    }
+
+    /**
+     * Vrací novou verzi podstromu bez klíčů ze seřazeného úseku {@code [od, po)} pole klíčů. Pokud se žádný
+     * z potomků nezměnil a uzel se neodebírá, vrátí původní uzel
+     */
+    private Uzel<K, V> odeberSerazene(Uzel<K, V> uzel, K[] klice, int od, int po) {
+        if (uzel == null || od >= po)
+            return uzel;
+        final int pozice = Arrays.binarySearch(klice, od, po, uzel.klic, this::porovnej);
+        final boolean odebrat = pozice >= NULTA_HODNOTA;
+        final int hranice = odebrat ? pozice : -pozice - 1;
+
+        final Uzel<K, V> vlevo = odeberSerazene(uzel.vlevo, klice, od, hranice);
+        final Uzel<K, V> vpravo = odeberSerazene(uzel.vpravo, klice, odebrat ? hranice + 1 : hranice, po);
+        if (odebrat)
+            return spoj(vlevo, vpravo);
+        if (vlevo == uzel.vlevo && vpravo == uzel.vpravo)
+            return uzel;
+        return spoj(vlevo, uzel.klic, uzel.hodnota, vpravo);
+    }
+
+    /**
+     * Výsledek rozdělení stromu: strom s klíči menšími než hranice a strom s ostatními klíči
+     */
+    private record Rozdeleni<K, V>(Uzel<K, V> mensi, Uzel<K, V> ostatni) {}
+
+    /**
+     * Rozdělí verzi stromu na prvky s klíči menšími než zadaný klíč a na prvky ostatní. Podstromy, které
+     * hranici neobsahují, se převezmou beze změny
+     */
+    private @NotNull Rozdeleni<K, V> rozdel(Uzel<K, V> uzel, @NotNull K klic) {
+        if (uzel == null)
+            return new Rozdeleni<>(null, null);
+        if (porovnej(klic, uzel.klic) <= NULTA_HODNOTA) {
+            final Rozdeleni<K, V> rozdeleni = rozdel(uzel.vlevo, klic);
+            return new Rozdeleni<>(rozdeleni.mensi(),
+                    spoj(rozdeleni.ostatni(), uzel.klic, uzel.hodnota, uzel.vpravo));
+        }
+        final Rozdeleni<K, V> rozdeleni = rozdel(uzel.vpravo, klic);
+        return new Rozdeleni<>(spoj(uzel.vlevo, uzel.klic, uzel.hodnota, rozdeleni.mensi()),
+                rozdeleni.ostatni());
+    }
+
+    /**
+     * Spojí dva stromy, kde všechny klíče levého stromu jsou menší než klíče pravého. Prostředním prvkem
+     * spojení se stane nejmenší prvek pravého stromu
+     */
+    private Uzel<K, V> spoj(Uzel<K, V> vlevo, Uzel<K, V> vpravo) {
+        if (vlevo == null)
+            return vpravo;
+        if (vpravo == null)
+            return vlevo;
+        final Uzel<K, V> minimum = najdiMinimum(vpravo);
+        return spoj(vlevo, minimum.klic, minimum.hodnota, odeberMinimum(vpravo));
+    }
+
+    /**
+     * Spojí levý strom, prostřední prvek a pravý strom (klíče jsou v tomto pořadí vzestupné). Pokud je jeden
+     * strom vyšší o více než jedno patro, sestoupí se po jeho vnitřní větvi až k podstromu s podobnou výškou
+     * a na zpáteční cestě se kopie uzlů vyvažují metodou {@link PerzistentniTable#vyvaz}. Složitost je úměrná
+     * rozdílu výšek obou stromů
+     */
+    private @NotNull Uzel<K, V> spoj(Uzel<K, V> vlevo, K klic, V hodnota, Uzel<K, V> vpravo) {
+        final int levaVyska = dejVyskuUzlu(vlevo);
+        final int pravaVyska = dejVyskuUzlu(vpravo);
+        if (levaVyska > pravaVyska + MAX_ROZDIL_VYSEK)
+            return vyvaz(vlevo.klic, vlevo.hodnota, vlevo.vlevo, spoj(vlevo.vpravo, klic, hodnota, vpravo));
+        if (pravaVyska > levaVyska + MAX_ROZDIL_VYSEK)
+            return vyvaz(vpravo.klic, vpravo.hodnota, spoj(vlevo, klic, hodnota, vpravo.vlevo), vpravo.vpravo);
+        return vytvorUzel(klic, hodnota, vlevo, vpravo);
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Vyvažování stromu (AVL)">
+    /**
+     * Vytvoří nový uzel s prvkem a zadanými podstromy a zajistí jeho vyváženost. Podstromy musí být samy
+     * vyvážené a jejich výšky se smí lišit nejvýše o dvě, což po jednom vložení nebo odebrání platí
+     *
+     * <p> Popis logiky:
+     * <ol>
+     * <li> <b>levaVyska > pravaVyska + MAX_ROZDIL_VYSEK</b>: Levý podstrom je vyšší. Pokud je jeho levá větev
+     * alespoň tak vysoká jako pravá, stačí jednoduchá rotace vpravo, jinak se provede dvojitá rotace LR
+     * <li> <b>pravaVyska > levaVyska + MAX_ROZDIL_VYSEK</b>: Symetrický případ (rotace vlevo, případně RL)
+     * </ol>
+     *
+     * <p> Rotace se neprovádí přepisem odkazů, ale vytvořením nových uzlů, takže původní verze stromu zůstane
+     * nedotčena
+     *
+     * @return Kořen nové vyvážené verze podstromu
+     */
+    private @NotNull Uzel<K, V> vyvaz(K klic, V hodnota, Uzel<K, V> vlevo, Uzel<K, V> vpravo) {
+        final int levaVyska = dejVyskuUzlu(vlevo);
+        final int pravaVyska = dejVyskuUzlu(vpravo);
+        if (levaVyska > pravaVyska + MAX_ROZDIL_VYSEK) {
+            pocitadla.zapocitejVyvazeni();
+            if (dejVyskuUzlu(vlevo.vlevo) >= dejVyskuUzlu(vlevo.vpravo))
+                return vytvorUzel(vlevo.klic, vlevo.hodnota, vlevo.vlevo,
+                        vytvorUzel(klic, hodnota, vlevo.vpravo, vpravo));
+            pocitadla.zapocitejVyvazeni();
+            final Uzel<K, V> stred = vlevo.vpravo;
+            return vytvorUzel(stred.klic, stred.hodnota,
+                    vytvorUzel(vlevo.klic, vlevo.hodnota, vlevo.vlevo, stred.vlevo),
+                    vytvorUzel(klic, hodnota, stred.vpravo, vpravo));
+        }
+        if (pravaVyska > levaVyska + MAX_ROZDIL_VYSEK) {
+            pocitadla.zapocitejVyvazeni();
+            if (dejVyskuUzlu(vpravo.vpravo) >= dejVyskuUzlu(vpravo.vlevo))
+                return vytvorUzel(vpravo.klic, vpravo.hodnota,
+                        vytvorUzel(klic, hodnota, vlevo, vpravo.vlevo), vpravo.vpravo);
+            pocitadla.zapocitejVyvazeni();
+            final Uzel<K, V> stred = vpravo.vlevo;
+            return vytvorUzel(stred.klic, stred.hodnota,
+                    vytvorUzel(klic, hodnota, vlevo, stred.vlevo),
+                    vytvorUzel(vpravo.klic, vpravo.hodnota, stred.vpravo, vpravo.vpravo));
+        }
+        return vytvorUzel(klic, hodnota, vlevo, vpravo);
+    }
+
+    /**
+     * Vytvoří uzel a spočítá jeho mohutnost, výšku a součty ukazatelů z potomků
+     */
+    private @NotNull Uzel<K, V> vytvorUzel(K klic, V hodnota, Uzel<K, V> vlevo, Uzel<K, V> vpravo) {
+        return new Uzel<>(klic, hodnota, vlevo, vpravo,
+                MOHUTNOST_LISTU + dejMohutnostUzlu(vlevo) + dejMohutnostUzlu(vpravo),
+                VYSKA_LISTU + Math.max(dejVyskuUzlu(vlevo), dejVyskuUzlu(vpravo)),
+                ukazatele == null ? null
+                        : ukazatele.spocitej(null, hodnota, dejSouctyUzlu(vlevo), dejSouctyUzlu(vpravo)));
+    }
+
+    private int dejMohutnostUzlu(Uzel<K, V> uzel) { return uzel == null ? NULTA_HODNOTA : uzel.mohutnost; }
+
+    private int dejVyskuUzlu(Uzel<K, V> uzel) { return uzel == null ? NULTA_HODNOTA : uzel.vyska; }
+
+    private long[] dejSouctyUzlu(Uzel<K, V> uzel) { return uzel == null ? null : uzel.soucty; }
+
+    private Uzel<K, V> najdiMinimum(Uzel<K, V> uzel) {
+        if (uzel == null)
+            return null;
+        while (uzel.vlevo != null)
+            uzel = uzel.vlevo;
+        return uzel;
+    }
+
+    private Uzel<K, V> najdiMaximum(Uzel<K, V> uzel) {
+        if (uzel == null)
+            return null;
+        while (uzel.vpravo != null)
+            uzel = uzel.vpravo;
+        return uzel;
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Iterátory">
+    @Override
+    public Iterator<V> vytvorIterator(ETypProhl typ) {
+        return switch (typ) {
+            case SIRKA -> new SirkaIterator(koren);
+            case HLOUBKA -> new HloubkaIterator(koren, null, null);
+        };
+    }
+
+    @Override
+    public Iterator<V> vytvorIterator(K od, K po) { return new HloubkaIterator(koren, od, po); }
+
+    @Override
+    public Iterator<V> vytvorSestupnyIterator() { return new SestupnyIterator(koren, null); }
+
+    @Override
+    public Iterator<V> vytvorSestupnyIterator(K od) { return new SestupnyIterator(koren, od); }
+
+    /**
+     * Zásobník uzlů pro iterátory do hloubky. Pole má délku výšky verze stromu (tu nese neměnný kořen), takže
+     * se alokuje jednou při vytvoření iterátoru a při procházení se nic nealokuje
+     */
+    private static final class ZasobnikUzlu<K, V> {
+
+        private final Object[] uzly;
+        private int velikost;
+
+        ZasobnikUzlu(Uzel<K, V> koren) { uzly = new Object[koren == null ? 0 : koren.vyska]; }
+
+        void vloz(Uzel<K, V> uzel) { uzly[velikost++] = uzel; }
+
+        boolean jePrazdny() { return velikost == 0; }
+
+        @SuppressWarnings("unchecked")
+        Uzel<K, V> vrchol() { return (Uzel<K, V>) uzly[velikost - 1]; }
+
+        @SuppressWarnings("unchecked")
+        Uzel<K, V> odeber() {
+            final Uzel<K, V> uzel = (Uzel<K, V>) uzly[--velikost];
+            uzly[velikost] = null;
+            return uzel;
+        }
+    }
+
+    /**
+     * Iterátor pro in-order průchod (případně omezený na interval {@code [od, po)}) nad jednou verzí stromu
+     *
+     * <p> Zásobník obsahuje uzly, jejichž levý podstrom již byl zpracován (případně leží pod dolní mezí)
+     * a které teprve mají být vráceny. Na začátku se do něj uloží cesta od kořene k prvnímu uzlu intervalu,
+     * po vrácení uzlu se do něj vloží levá větev jeho pravého podstromu. Zásobník má nejvýše tolik prvků,
+     * kolik je výška stromu
+     */
+    private final class HloubkaIterator implements Iterator<V> {
+
+        private final ZasobnikUzlu<K, V> zasobnik;
+        private final K horniMez;
+
+        /**
+         * @param koren Verze stromu, nad kterou se iteruje
+         * @param od Dolní mez (včetně), {@code null} znamená začátek tabulky
+         * @param po Horní mez (vyloučena), {@code null} znamená konec tabulky
+         */
+        HloubkaIterator(Uzel<K, V> koren, K od, K po) {
+            zasobnik = new ZasobnikUzlu<>(koren);
+            horniMez = po;
+            Uzel<K, V> uzel = koren;
+            while (uzel != null) {
+                if (od == null || porovnej(od, uzel.klic) <= NULTA_HODNOTA) {
+                    zasobnik.vloz(uzel);
+                    uzel = uzel.vlevo;
+                } else {
+                    uzel = uzel.vpravo;
+                }
+            }
+        }
+
+        /**
+         * Nastaví iterátor na uzel se zadaným pořadím (sestupem podle mohutnosti levých podstromů)
+         *
+         * @param koren Verze stromu, nad kterou se iteruje
+         * @param poradi Pořadí prvního vraceného prvku
+         */
+        HloubkaIterator(Uzel<K, V> koren, int poradi) {
+            zasobnik = new ZasobnikUzlu<>(koren);
+            horniMez = null;
+            Uzel<K, V> uzel = koren;
+            while (uzel != null) {
+                final int levaMohutnost = dejMohutnostUzlu(uzel.vlevo);
+                if (poradi <= levaMohutnost) {
+                    zasobnik.vloz(uzel);
+                    if (poradi == levaMohutnost)
+                        break;
+                    uzel = uzel.vlevo;
+                } else {
+                    poradi -= levaMohutnost + MOHUTNOST_LISTU;
+                    uzel = uzel.vpravo;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !zasobnik.jePrazdny()
+                    && (horniMez == null || porovnej(zasobnik.vrchol().klic, horniMez) < NULTA_HODNOTA);
+        }
+
+        @Override
+        public V next() {
+            if (!hasNext())
+                throw new NoSuchElementException(ChybovaZpravaStromu.KONEC_ITERACE.getZprava());
+            final Uzel<K, V> aktualniUzel = zasobnik.odeber();
+            for (Uzel<K, V> uzel = aktualniUzel.vpravo; uzel != null; uzel = uzel.vlevo)
+                zasobnik.vloz(uzel);
+            return aktualniUzel.hodnota;
+        }
+    }
+
+    /**
+     * Iterátor pro průchod od největšího klíče k nejmenšímu (zrcadlově k {@link HloubkaIterator})
+     */
+    private final class SestupnyIterator implements Iterator<V> {
+
+        private final ZasobnikUzlu<K, V> zasobnik;
+
+        /**
+         * @param koren Verze stromu, nad kterou se iteruje
+         * @param od Horní mez (včetně), {@code null} znamená konec tabulky
+         */
+        SestupnyIterator(Uzel<K, V> koren, K od) {
+            zasobnik = new ZasobnikUzlu<>(koren);
+            Uzel<K, V> uzel = koren;
+            while (uzel != null) {
+                if (od == null || porovnej(od, uzel.klic) >= NULTA_HODNOTA) {
+                    zasobnik.vloz(uzel);
+                    uzel = uzel.vpravo;
+                } else {
+                    uzel = uzel.vlevo;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() { return !zasobnik.jePrazdny(); }
+
+        @Override
+        public V next() {
+            if (!hasNext())
+                throw new NoSuchElementException(ChybovaZpravaStromu.KONEC_ITERACE.getZprava());
+            final Uzel<K, V> aktualniUzel = zasobnik.odeber();
+            for (Uzel<K, V> uzel = aktualniUzel.vlevo; uzel != null; uzel = uzel.vpravo)
+                zasobnik.vloz(uzel);
+            return aktualniUzel.hodnota;
+        }
+    }
+
+    /**
+     * Iterátor pro průchod do šířky nad jednou verzí stromu. Patro aktuálního uzlu se určuje průběžně
+     * z počtu zbývajících uzlů aktuálního patra (stejně jako v {@link AbstrTable})
+     *
+     * <p> Fronta je pole o délce mohutnosti verze stromu (tu nese neměnný kořen). Každý uzel se do fronty
+     * vloží právě jednou, takže stačí dva rostoucí indexy bez zalamování a při procházení se nic nealokuje
+     */
+    private final class SirkaIterator implements Iterator<V> {
+
+        private final Object[] fronta;
+        private int zacatek;
+        private int konec;
+        private int patro;
+        private int zbyvaVPatre;
+        private int vDalsimPatre;
+
+        SirkaIterator(Uzel<K, V> koren) {
+            fronta = new Object[dejMohutnostUzlu(koren)];
+            if (koren != null)
+                fronta[konec++] = koren;
+            patro = PATRO_KORENE;
+            zbyvaVPatre = konec;
+            vDalsimPatre = NULTA_HODNOTA;
+        }
+
+        @Override
+        public boolean hasNext() { return zacatek < konec; }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V next() {
+            if (!hasNext())
+                throw new NoSuchElementException(ChybovaZpravaStromu.KONEC_ITERACE.getZprava());
+            if (zbyvaVPatre == NULTA_HODNOTA) {
+                patro++;
+                zbyvaVPatre = vDalsimPatre;
+                vDalsimPatre = NULTA_HODNOTA;
+            }
+            final Uzel<K, V> aktualniUzel = (Uzel<K, V>) fronta[zacatek];
+            fronta[zacatek++] = null;
+            zbyvaVPatre--;
+            if (aktualniUzel.vlevo != null) {
+                fronta[konec++] = aktualniUzel.vlevo;
+                vDalsimPatre++;
+            }
+            if (aktualniUzel.vpravo != null) {
+                fronta[konec++] = aktualniUzel.vpravo;
+                vDalsimPatre++;
+            }
+            return aktualniUzel.hodnota;
+        }
+
+        /**
+         * Getter
+         *
+         * @return Číslo patra aktuálního uzlu
+         */
+        int patro() { return patro; }
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Dotazy na patra stromu">
+    @Override
+    public int dejVysku() { return dejVyskuUzlu(koren); }
+
+    @Override
+    public int[] dejSirkyPater() {
+        final Uzel<K, V> aktualniKoren = koren;
+        final int[] sirky = new int[dejVyskuUzlu(aktualniKoren)];
+        final SirkaIterator iterator = new SirkaIterator(aktualniKoren);
+        while (iterator.hasNext()) {
+            iterator.next();
+            sirky[iterator.patro() - PATRO_KORENE]++;
+        }
+        return sirky;
+    }
+
+    /**
+     * Iterátor vrátí prvky zadaného patra, které se při jeho vytvoření odebraly ze {@link SirkaIterator}.
+     * Průchod skončí u prvního prvku pod požadovaným patrem
+     */
+    @Override
+    public Iterator<V> vytvorIteratorPatra(int patro) {
+        final IAbstrFifo<V> prvkyPatra = new AbstrFifo<>();
+        final SirkaIterator iterator = new SirkaIterator(koren);
+        while (iterator.hasNext()) {
+            final V hodnota = iterator.next();
+            if (iterator.patro() > patro)
+                break;
+            if (iterator.patro() == patro)
+                prvkyPatra.vloz(hodnota);
+        }
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() { return !prvkyPatra.jePrazdna(); }
+
+            @Override
+            public V next() {
+                try {
+                    return prvkyPatra.odeber();
+                } catch (StrukturaException e) {
+                    throw new NoSuchElementException(ChybovaZpravaStromu.KONEC_ITERACE.getZprava());
+                }
+            }
+        };
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Pořadové dotazy (order statistics)">
+    @Override
+    public int dejMohutnost(K klic) {
+        final Uzel<K, V> uzel = najdiUzel(koren, klic);
+        return uzel == null ? UKAZATEL_ABSENCE : uzel.mohutnost;
+    }
+
+    @Override
+    public int dejMohutnost() { return dejMohutnostUzlu(koren); }
+
+    @Override
+    public V dejPrvekNaPoradi(int poradi) throws StromException { return najdiUzelNaPoradi(poradi).hodnota; }
+
+    @Override
+    public K dejKlicNaPoradi(int poradi) throws StromException { return najdiUzelNaPoradi(poradi).klic; }
+
+    /**
+     * Sestupuje od kořene podle mohutnosti levých podstromů (viz {@link AbstrTable#dejPrvekNaPoradi(int)})
+     *
+     * @throws StromException Pokud je pořadí mimo rozsah tabulky
+     */
+    private @NotNull Uzel<K, V> najdiUzelNaPoradi(int poradi) throws StromException {
+        Uzel<K, V> uzel = koren;
+        if (poradi < NULTA_HODNOTA || poradi >= dejMohutnostUzlu(uzel))
+            throw new StromException(ChybovaZpravaStromu.NEPLATNE_PORADI.getZprava());
+
+        while (true) {
+            final int levaMohutnost = dejMohutnostUzlu(uzel.vlevo);
+            if (poradi < levaMohutnost) {
+                uzel = uzel.vlevo;
+            } else if (poradi == levaMohutnost) {
+                return uzel;
+            } else {
+                poradi -= levaMohutnost + MOHUTNOST_LISTU;
+                uzel = uzel.vpravo;
+            }
+        }
+    }
+
+    @Override
+    public int dejPoradi(K klic) {
+        if (klic == null)
+            return UKAZATEL_ABSENCE;
+
+        final Uzel<K, V> aktualniKoren = koren;
+        return najdiUzel(aktualniKoren, klic) == null ? UKAZATEL_ABSENCE : dejPocetMensich(aktualniKoren, klic);
+    }
+
+    @Override
+    public int dejPocetMensich(K klic) throws StromException {
+        pozadatNePrazdnyKlic(klic);
+        return dejPocetMensich(koren, klic);
+    }
+
+    /**
+     * Oba počty se zjišťují nad stejnou verzí stromu, takže souběžný zápis výsledek nezkreslí
+     */
+    @Override
+    public int dejPocetVRozsahu(K od, K po) throws StromException {
+        pozadatNePrazdnyKlic(od);
+        pozadatNePrazdnyKlic(po);
+        if (porovnej(od, po) >= NULTA_HODNOTA)
+            return NULTA_HODNOTA;
+        final Uzel<K, V> aktualniKoren = koren;
+        return dejPocetMensich(aktualniKoren, po) - dejPocetMensich(aktualniKoren, od);
+    }
+
+    /**
+     * Vrací počet klíčů ostře menších než zadaný klíč v zadané verzi stromu
+     */
+    private int dejPocetMensich(Uzel<K, V> uzel, @NotNull K klic) {
+        int pocet = NULTA_HODNOTA;
+        while (uzel != null) {
+            final int vysledek = porovnej(klic, uzel.klic);
+            if (vysledek == NULTA_HODNOTA)
+                return pocet + dejMohutnostUzlu(uzel.vlevo);
+            if (vysledek < NULTA_HODNOTA) {
+                uzel = uzel.vlevo;
+            } else {
+                pocet += dejMohutnostUzlu(uzel.vlevo) + MOHUTNOST_LISTU;
+                uzel = uzel.vpravo;
+            }
+        }
+        return pocet;
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Metoda: long[] dejSoucty(K od, K po)">
+    /**
+     * Vrací součty ukazatelů všech prvků, jejichž klíče leží v polouzavřeném intervalu {@code [od, po)}, dvěma
+     * sestupy od kořene v čase {@code O(log n)} (viz {@link AbstrTable#dejSoucty(Comparable, Comparable)}).
+     * Oba sestupy pracují se stejnou verzí stromu, takže souběžný zápis výsledek nezkreslí
+     *
+     * @param od Dolní mez klíče (včetně), {@code null} znamená bez dolní meze
+     * @param po Horní mez klíče (vyloučena), {@code null} znamená bez horní meze
+     *
+     * @return Součty jednotlivých ukazatelů v pořadí zadaném konstruktorem (prázdné pole, pokud tabulka
+     * ukazatele nemá; nuly pro prázdný interval)
+     */
+    public long @NotNull [] dejSoucty(K od, K po) {
+        if (ukazatele == null)
+            return new long[NULTA_HODNOTA];
+        if (od != null && po != null && porovnej(od, po) >= NULTA_HODNOTA)
+            return new long[ukazatele.dejPocet()];
+
+        final Uzel<K, V> aktualniKoren = koren;
+        final long[] soucty = po == null ? new long[ukazatele.dejPocet()] : dejSouctyMensich(aktualniKoren, po);
+        if (po == null)
+            Ukazatele.pricti(soucty, dejSouctyUzlu(aktualniKoren));
+        if (od != null)
+            Ukazatele.odecti(soucty, dejSouctyMensich(aktualniKoren, od));
+        return soucty;
+    }
+
+    private long @NotNull [] dejSouctyMensich(Uzel<K, V> uzel, @NotNull K klic) {
+        final long[] soucty = new long[ukazatele.dejPocet()];
+        while (uzel != null) {
+            if (porovnej(klic, uzel.klic) > NULTA_HODNOTA) {
+                Ukazatele.pricti(soucty, dejSouctyUzlu(uzel.vlevo));
+                ukazatele.prictiHodnotu(soucty, uzel.hodnota);
+                uzel = uzel.vpravo;
+            } else {
+                uzel = uzel.vlevo;
+            }
+        }
+        return soucty;
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Navigační dotazy (floor, ceiling, lower, higher, první a poslední klíč)">
+    @Override
+    public K dejPrvniKlic() { return dejKlicUzlu(najdiMinimum(koren)); }
+
+    @Override
+    public K dejPosledniKlic() { return dejKlicUzlu(najdiMaximum(koren)); }
+
+    @Override
+    public K dejKlicNejvyse(K klic) throws StromException {
+        pozadatNePrazdnyKlic(klic);
+        return dejKlicUzlu(najdiSouseda(koren, klic, false, true));
+    }
+
+    @Override
+    public K dejKlicNejmene(K klic) throws StromException {
+        pozadatNePrazdnyKlic(klic);
+        return dejKlicUzlu(najdiSouseda(koren, klic, true, true));
+    }
+
+    @Override
+    public K dejPredchoziKlic(K klic) throws StromException {
+        pozadatNePrazdnyKlic(klic);
+        return dejKlicUzlu(najdiSouseda(koren, klic, false, false));
+    }
+
+    @Override
+    public K dejNasledujiciKlic(K klic) throws StromException {
+        pozadatNePrazdnyKlic(klic);
+        return dejKlicUzlu(najdiSouseda(koren, klic, true, false));
+    }
+
+    /**
+     * Najde v zadané verzi stromu nejbližší uzel k zadanému klíči v jednom směru (viz
+     * {@link AbstrTable#dejKlicNejvyse(Comparable)})
+     *
+     * @param vetsi {@code true} pro hledání klíče nad zadaným klíčem, {@code false} pod ním
+     * @param vcetneRovnosti Zda se připouští uzel se stejným klíčem
+     *
+     * @return Nalezený uzel nebo {@code null}, pokud v daném směru žádný klíč neleží
+     */
+    private Uzel<K, V> najdiSouseda(Uzel<K, V> uzel, @NotNull K klic, boolean vetsi, boolean vcetneRovnosti) {
+        Uzel<K, V> kandidat = null;
+        while (uzel != null) {
+            final int vysledek = porovnej(klic, uzel.klic);
+            if (vysledek == NULTA_HODNOTA && vcetneRovnosti)
+                return uzel;
+            if (vetsi ? vysledek < NULTA_HODNOTA : vysledek > NULTA_HODNOTA) {
+                kandidat = uzel;
+                uzel = vetsi ? uzel.vlevo : uzel.vpravo;
+            } else {
+                uzel = vetsi ? uzel.vpravo : uzel.vlevo;
+            }
+        }
+        return kandidat;
+    }
+
+    private K dejKlicUzlu(Uzel<K, V> uzel) { return uzel == null ? null : uzel.klic; }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Spliterator pro paralelní proudy">
+    /**
+     * Spliterator pracuje nad verzí stromu platnou při svém vytvoření, takže souběžné zápisy paralelní
+     * zpracování nenaruší
+     */
+    @Override
+    public Spliterator<V> vytvorSpliterator() {
+        final Uzel<K, V> aktualniKoren = koren;
+        return new PoradovySpliterator(aktualniKoren, NULTA_HODNOTA, dejMohutnostUzlu(aktualniKoren));
+    }
+
+    /**
+     * Spliterator prvků s pořadím z intervalu {@code [od, po)}, který se dělí na poloviny podle pořadí
+     * (viz {@link AbstrTable#vytvorSpliterator()}). Procházení zajišťuje {@link HloubkaIterator} nastavený
+     * na první pořadí části
+     */
+    private final class PoradovySpliterator implements Spliterator<V> {
+
+        private final int MIN_VELIKOST_DELENI = 2;
+
+        private final Uzel<K, V> koren;
+        private int od;
+        private final int po;
+        /**
+         * Iterátor nastavený na pořadí {@code od}, {@code null}, dokud se nezačalo procházet
+         */
+        private HloubkaIterator kurzor;
+
+        PoradovySpliterator(Uzel<K, V> koren, int od, int po) {
+            this.koren = koren;
+            this.od = od;
+            this.po = po;
+            kurzor = null;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super V> akce) {
+            if (od >= po)
+                return false;
+            if (kurzor == null)
+                kurzor = new HloubkaIterator(koren, od);
+            od++;
+            akce.accept(kurzor.next());
+            return true;
+        }
+
+        @Override
+        public Spliterator<V> trySplit() {
+            if (po - od < MIN_VELIKOST_DELENI)
+                return null;
+            final int stred = (od + po) >>> 1;
+            final PoradovySpliterator prvniPolovina = new PoradovySpliterator(koren, od, stred);
+            prvniPolovina.kurzor = kurzor;
+            od = stred;
+            kurzor = null;
+            return prvniPolovina;
+        }
+
+        @Override
+        public long estimateSize() { return po - od; }
+
+        @Override
+        public int characteristics() { return ORDERED | SIZED | SUBSIZED | IMMUTABLE; }
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Výpis stromu">
+    private final String ODRADKOVANI = "\n";
+    private final String PREDPIS_PATRO = "Patro ";
+    private final String ODDELOVAC = ": ";
+
+    /**
+     * Výpis prochází jednu verzi stromu, takže souběžné zápisy do tabulky během zápisu do pomalého cíle
+     * (např. souboru) výpis neovlivní ani neblokují
+     */
+    @Override
+    public void vypisStrom(ETypProhl typ, @NotNull Appendable cil, int od, int pocet) throws IOException {
+        NastrojeTabulek.overVyrezVypisu(od, pocet);
+        final Uzel<K, V> aktualniKoren = koren;
+        switch (typ) {
+            case SIRKA -> {
+                final SirkaIterator iterator = new SirkaIterator(aktualniKoren);
+                for (int i = NULTA_HODNOTA; i < od && iterator.hasNext(); i++)
+                    iterator.next();
+                for (int i = NULTA_HODNOTA; i < pocet && iterator.hasNext(); i++) {
+                    final V hodnota = iterator.next();
+                    cil.append(PREDPIS_PATRO).append(String.valueOf(iterator.patro())).append(ODDELOVAC)
+                            .append(String.valueOf(hodnota)).append(ODRADKOVANI);
+                }
+            }
+            case HLOUBKA -> {
+                final Iterator<V> iterator = new HloubkaIterator(aktualniKoren, od);
+                for (int i = NULTA_HODNOTA; i < pocet && iterator.hasNext(); i++)
+                    cil.append(String.valueOf(iterator.next())).append(ODRADKOVANI);
+            }
+        }
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Porovnávání a ošetřování klíčů">
+    private int porovnej(@NotNull K obj1, K obj2) {
+        pocitadla.zapocitejPorovnani();
+        return obj1.compareTo(obj2);
+    }
+
+    /**
+     * Ověřuje, zda zadaný klíč není prázdný {@code null}
+     *
+     * @throws StromException Pokud je klíč prázdný
+     */
+    private void pozadatNePrazdnyKlic(K klic) throws StromException {
+        if (klic == null)
+            throw new StromException(ChybovaZpravaStromu.NULL_KLIC.getZprava());
+    }
+// </editor-fold>
+}
@@ -0,0 +1,88 @@
+package cz.upce.fei.bdats.strom;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Třída představuje průběžná počítadla práce tabulky: počet porovnání klíčů, počet vložených a odebraných
+ * prvků a počet vyvažovacích kroků (rotací u AVL stromů, dělení, výpůjček a slučování uzlů u B-stromu)
+ *
+ * <p> Každá tabulka vlastní jednu instanci (viz {@link IAbstrTable#dejPocitadla()}), kterou při své práci
+ * zvyšuje. Počítadla jsou ve výchozím stavu vypnutá a vypnutá stojí při každé operaci jen jedno čtení
+ * příznaku. Po zapnutí se zvyšují obyčejné (nesynchronizované) proměnné, takže při souběžném čtení
+ * tabulky z více vláken jsou hodnoty pouze přibližné a vlákna si navíc sdílenou proměnnou přetahují mezi
+ * jádry procesoru. Pro měření výkonu paralelního čtení je proto vhodné počítadla vypnout
+ */
+public final class PocitadlaStromu {
+
+    private volatile boolean zapnuto;
+    private long pocetPorovnani;
+    private long pocetVlozeni;
+    private long pocetOdebrani;
+    private long pocetVyvazeni;
+
+    /**
+     * Začne počítat operace tabulky (dosavadní hodnoty se ponechají)
+     */
+    public void zapni() { zapnuto = true; }
+
+    /**
+     * Přestane počítat operace tabulky (dosavadní hodnoty se ponechají)
+     */
+    public void vypni() { zapnuto = false; }
+
+    public boolean jeZapnuto() { return zapnuto; }
+
+    /**
+     * Vynuluje všechna počítadla
+     */
+    public void vynuluj() {
+        pocetPorovnani = 0;
+        pocetVlozeni = 0;
+        pocetOdebrani = 0;
+        pocetVyvazeni = 0;
+    }
+
+    public long dejPocetPorovnani() { return pocetPorovnani; }
+
+    public long dejPocetVlozeni() { return pocetVlozeni; }
+
+    public long dejPocetOdebrani() { return pocetOdebrani; }
+
+    public long dejPocetVyvazeni() { return pocetVyvazeni; }
+
+// <editor-fold defaultstate="collapsed" desc="Zvyšování počítadel (volají jednotlivé tabulky)">
+    void zapocitejPorovnani() {
+        if (zapnuto)
+            pocetPorovnani++;
+    }
+
+    void zapocitejVlozeni() { zapocitejVlozeni(1); }
+
+    void zapocitejVlozeni(int pocet) {
+        if (zapnuto)
+            pocetVlozeni += pocet;
+    }
+
+    void zapocitejOdebrani() { zapocitejOdebrani(1); }
+
+    void zapocitejOdebrani(int pocet) {
+        if (zapnuto)
+            pocetOdebrani += pocet;
+    }
+
+    void zapocitejVyvazeni() {
+        if (zapnuto)
+            pocetVyvazeni++;
+    }
+// </editor-fold>
+
+    @Override
+    public @NotNull String toString() {
+        return "PocitadlaStromu{" +
+                "porovnani=" + pocetPorovnani +
+                ", vlozeni=" + pocetVlozeni +
+                ", odebrani=" + pocetOdebrani +
+                ", vyvazeni=" + pocetVyvazeni +
+                '}';
+    }
+}
@@ -0,0 +1,868 @@
+package cz.upce.fei.bdats.strom;
+
+import cz.upce.fei.bdats.vyjimky.StromException;
+import cz.upce.fei.bdats.vyjimky.zpravy.ChybovaZpravaStromu;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Třída představuje AVL tabulku se stejným chováním jako {@link AbstrTable}, která však uzly neukládá jako
+ * samostatné objekty, ale do paralelních polí (struct-of-arrays). Uzel je určen indexem (slotem) a jeho
+ * klíč, hodnota, potomci, rodič, mohutnost a výška leží ve stejném indexu jednotlivých polí
+ *
+ * <p> Oproti objektu {@code Uzel} (hlavička objektu, pět referencí a dvě čísla) tak odpadá hlavička objektu
+ * a odkazy mezi uzly jsou čtyřbajtová čísla; výška se ukládá jako {@code byte}, protože výška AVL stromu
+ * nepřesáhne {@code 1.44 * log2(n)}. Sestup při vyhledávání čte pouze pole klíčů a potomků, takže
+ * procesor načítá méně paměti
+ *
+ * <p> Uvolněné sloty po odebrání tvoří seznam volných slotů (free list) zřetězený přes pole pravých potomků
+ * a nové uzly je přednostně znovu využijí. Pole se při zaplnění zdvojnásobí
+ *
+ * @param <K> Typ klíče prvků v tabulce, musí implementovat {@link Comparable}
+ * @param <V> Typ hodnoty
+ */
+public final class PoleTable<K extends Comparable<K>, V> implements IAbstrTable<K, V> {
+
+    /**
+     * Konstanta pro nulu
+     */
+    private final int NULTA_HODNOTA = 0;
+    /**
+     * Konstanta reprezentuje neexistující uzel (obdoba {@code null} u odkazů)
+     */
+    private final int ZADNY_UZEL = -1;
+    /**
+     * Konstanta reprezentuje hodnotu mohutnosti nebo pořadí v případě, když není nalezen prvek v rámci stromu
+     */
+    private final int UKAZATEL_ABSENCE = -1;
+    /**
+     * Konstanty reprezentují mohutnost a výšku listu
+     */
+    private final int MOHUTNOST_LISTU = 1;
+    private final int VYSKA_LISTU = 1;
+    /**
+     * Konstanta pro maximální povolený rozdíl výšek levého a pravého podstromu v AVL stromu
+     */
+    private final int MAX_ROZDIL_VYSEK = 1;
+    /**
+     * Konstanta reprezentuje počáteční počet slotů
+     */
+    private final int VYCHOZI_KAPACITA = 16;
+    /**
+     * Konstanta reprezentuje číslo patra kořene
+     */
+    private final int PATRO_KORENE = 1;
+
+    private K[] klice;
+    private V[] hodnoty;
+    private int[] vlevo;
+    private int[] vpravo;
+    private int[] rodic;
+    private int[] mohutnost;
+    private byte[] vyska;
+
+    private int koren;
+    private final PocitadlaStromu pocitadla = new PocitadlaStromu();
+    /**
+     * Začátek seznamu volných slotů
+     */
+    private int volnySlot;
+    /**
+     * Počet slotů, které již byly alespoň jednou použity (sloty za touto hranicí jsou nepoužité)
+     */
+    private int pouzitychSlotu;
+
+    /**
+     * Konstruktor vytvoří prázdnou tabulku s výchozí kapacitou
+     */
+    public PoleTable() { zrus(); }
+
+    /**
+     * Zruší tabulku a uvolní pole (nahradí je poli výchozí kapacity)
+     */
+    @Override
+    public void zrus() { alokuj(VYCHOZI_KAPACITA); }
+
+    @Override
+    public boolean jePrazdny() { return koren == ZADNY_UZEL; }
+
+    @Override
+    public @NotNull PocitadlaStromu dejPocitadla() { return pocitadla; }
+
+// <editor-fold defaultstate="collapsed" desc="Správa slotů">
+    /**
+     * Vytvoří prázdná pole zadané kapacity
+     */
+    private void alokuj(int kapacita) {
+        klice = NastrojeTabulek.vytvorPoleKlicu(kapacita);
+        hodnoty = NastrojeTabulek.vytvorPoleHodnot(kapacita);
+        vlevo = new int[kapacita];
+        vpravo = new int[kapacita];
+        rodic = new int[kapacita];
+        mohutnost = new int[kapacita];
+        vyska = new byte[kapacita];
+        koren = ZADNY_UZEL;
+        volnySlot = ZADNY_UZEL;
+        pouzitychSlotu = NULTA_HODNOTA;
+    }
+
+    /**
+     * Obsadí slot pro nový list. Přednostně použije slot ze seznamu volných slotů, jinak první nepoužitý
+     * slot; pokud není žádný k dispozici, pole zdvojnásobí
+     *
+     * @return Index obsazeného slotu
+     */
+    private int vytvorUzel(K klic, V hodnota, int rodicUzlu) {
+        final int slot;
+        if (volnySlot != ZADNY_UZEL) {
+            slot = volnySlot;
+            volnySlot = vpravo[slot];
+        } else {
+            if (pouzitychSlotu == klice.length)
+                zvetsi();
+            slot = pouzitychSlotu++;
+        }
+        klice[slot] = klic;
+        hodnoty[slot] = hodnota;
+        vlevo[slot] = ZADNY_UZEL;
+        vpravo[slot] = ZADNY_UZEL;
+        rodic[slot] = rodicUzlu;
+        mohutnost[slot] = MOHUTNOST_LISTU;
+        vyska[slot] = VYSKA_LISTU;
+        return slot;
+    }
+
+    /**
+     * Vrátí slot do seznamu volných slotů. Klíč a hodnota se vynulují, aby je mohl uvolnit garbage collector
+     */
+    private void uvolniUzel(int slot) {
+        klice[slot] = null;
+        hodnoty[slot] = null;
+        vpravo[slot] = volnySlot;
+        volnySlot = slot;
+    }
+
+    private void zvetsi() {
+        final int kapacita = klice.length * 2;
+        klice = Arrays.copyOf(klice, kapacita);
+        hodnoty = Arrays.copyOf(hodnoty, kapacita);
+        vlevo = Arrays.copyOf(vlevo, kapacita);
+        vpravo = Arrays.copyOf(vpravo, kapacita);
+        rodic = Arrays.copyOf(rodic, kapacita);
+        mohutnost = Arrays.copyOf(mohutnost, kapacita);
+        vyska = Arrays.copyOf(vyska, kapacita);
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Vyhledávání">
+    @Override
+    public V najdi(K klic) throws StromException {
+        pozadatNePrazdnyKlic(klic);
+        if (koren == ZADNY_UZEL)
+            throw new StromException(ChybovaZpravaStromu.PRAZDNY_KOREN.getZprava());
+
+        final int uzel = najdiUzel(klic);
+        if (uzel == ZADNY_UZEL)
+            throw new StromException(ChybovaZpravaStromu.PRVEK_NENALEZEN.getZprava());
+        return hodnoty[uzel];
+    }
+
+    /**
+     * Iterativně vyhledá slot uzlu se zadaným klíčem (jedno porovnání na patro)
+     *
+     * @return Slot nalezeného uzlu nebo {@link PoleTable#ZADNY_UZEL}
+     */
+    private int najdiUzel(K klic) {
+        if (klic == null)
+            return ZADNY_UZEL;
+        int uzel = koren;
+        while (uzel != ZADNY_UZEL) {
+            final int vysledek = porovnej(klic, klice[uzel]);
+            if (vysledek == NULTA_HODNOTA)
+                return uzel;
+            uzel = vysledek < NULTA_HODNOTA ? vlevo[uzel] : vpravo[uzel];
+        }
+        return ZADNY_UZEL;
+    }
+
+    @Override
+    public boolean obsahuje(K klic) { return najdiUzel(klic) != ZADNY_UZEL; }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Vkládání">
+    /**
+     * Jediným sestupem najde místo pro nový list (duplicitní klíč vyhodí výjimku), připojí ho a na cestě ke
+     * kořeni přepočítá mohutnost a výšku a vyváží strom (stejně jako {@link AbstrTable#vloz(Comparable, Object)})
+     */
+    @Override
+    public void vloz(K klic, V hodnota) throws StromException {
+        pozadatNePrazdnyKlic(klic);
+        if (koren == ZADNY_UZEL) {
+            koren = vytvorUzel(klic, hodnota, ZADNY_UZEL);
+            pocitadla.zapocitejVlozeni();
+            return;
+        }
+
+        int rodicUzlu;
+        int uzel = koren;
+        int vysledek;
+        do {
+            rodicUzlu = uzel;
+            vysledek = porovnej(klic, klice[uzel]);
+            if (vysledek == NULTA_HODNOTA)
+                throw new StromException(ChybovaZpravaStromu.EXISTUJICI_KLIC.getZprava());
+            uzel = vysledek < NULTA_HODNOTA ? vlevo[uzel] : vpravo[uzel];
+        } while (uzel != ZADNY_UZEL);
+
+        final int novyUzel = vytvorUzel(klic, hodnota, rodicUzlu);
+        if (vysledek < NULTA_HODNOTA)
+            vlevo[rodicUzlu] = novyUzel;
+        else
+            vpravo[rodicUzlu] = novyUzel;
+        vyvazCestuKeKoreni(rodicUzlu);
+        pocitadla.zapocitejVlozeni();
+    }
+
+    /**
+     * Popis logiky:
+     * <ol>
+     * <li> Ověří a zkopíruje vstupní pole, případně je seřadí a odhalí duplicity
+     * <li> Slije je s in-order posloupností tabulky (duplicity vůči tabulce vyhodí výjimku dřív, než se
+     * tabulka změní)
+     * <li> Alokuje pole přesně pro výsledný počet prvků a postaví z nich dokonale vyvážený strom, takže
+     * sloty uzlů leží v polích souvisle a bez děr
+     * </ol>
+     */
+    @Override
+    public void vlozVse(K[] noveKlice, V[] noveHodnoty) throws StromException {
+        NastrojeTabulek.overDavku(noveKlice, noveHodnoty);
+
+        K[] serazeneKlice = Arrays.copyOf(noveKlice, noveKlice.length);
+        V[] serazeneHodnoty = Arrays.copyOf(noveHodnoty, noveHodnoty.length);
+        NastrojeTabulek.seradDavku(serazeneKlice, serazeneHodnoty, this::porovnej);
+
+        if (koren != ZADNY_UZEL) {
+            final int pocet = mohutnost[koren] + serazeneKlice.length;
+            final K[] vsechnyKlice = NastrojeTabulek.vytvorPoleKlicu(pocet);
+            final V[] vsechnyHodnoty = NastrojeTabulek.vytvorPoleHodnot(pocet);
+            slijSTabulkou(serazeneKlice, serazeneHodnoty, vsechnyKlice, vsechnyHodnoty);
+            serazeneKlice = vsechnyKlice;
+            serazeneHodnoty = vsechnyHodnoty;
+        }
+        alokuj(Math.max(VYCHOZI_KAPACITA, serazeneKlice.length));
+        koren = postavPodstrom(serazeneKlice, serazeneHodnoty, NULTA_HODNOTA, serazeneKlice.length, ZADNY_UZEL);
+        pocitadla.zapocitejVlozeni(noveKlice.length);
+    }
+
+    /**
+     * Slije in-order posloupnost tabulky se seřazenými novými klíči do výstupních polí
+     *
+     * @throws StromException Pokud se některý nový klíč již v tabulce nachází
+     */
+    private void slijSTabulkou(K[] noveKlice, V[] noveHodnoty, K[] vystupKlice, V[] vystupHodnoty)
+            throws StromException {
+        int iNovy = NULTA_HODNOTA;
+        int iVystup = NULTA_HODNOTA;
+        for (int uzel = najdiMinimum(koren); uzel != ZADNY_UZEL; uzel = najdiNaslednika(uzel)) {
+            while (iNovy < noveKlice.length) {
+                final int vysledek = porovnej(noveKlice[iNovy], klice[uzel]);
+                if (vysledek == NULTA_HODNOTA)
+                    throw new StromException(ChybovaZpravaStromu.EXISTUJICI_KLIC.getZprava());
+                if (vysledek > NULTA_HODNOTA)
+                    break;
+                vystupKlice[iVystup] = noveKlice[iNovy];
+                vystupHodnoty[iVystup++] = noveHodnoty[iNovy++];
+            }
+            vystupKlice[iVystup] = klice[uzel];
+            vystupHodnoty[iVystup++] = hodnoty[uzel];
+        }
+        while (iNovy < noveKlice.length) {
+            vystupKlice[iVystup] = noveKlice[iNovy];
+            vystupHodnoty[iVystup++] = noveHodnoty[iNovy++];
+        }
+    }
+
+    /**
+     * Postaví dokonale vyvážený podstrom ze seřazeného úseku {@code [od, po)} (prostřední prvek je kořenem)
+     *
+     * @return Slot kořene podstromu nebo {@link PoleTable#ZADNY_UZEL} pro prázdný úsek
+     */
+    private int postavPodstrom(K[] zdrojKlice, V[] zdrojHodnoty, int od, int po, int rodicUzlu) {
+        if (od >= po)
+            return ZADNY_UZEL;
+        final int stred = (od + po) >>> 1;
+        final int uzel = vytvorUzel(zdrojKlice[stred], zdrojHodnoty[stred], rodicUzlu);
+        vlevo[uzel] = postavPodstrom(zdrojKlice, zdrojHodnoty, od, stred, uzel);
+        vpravo[uzel] = postavPodstrom(zdrojKlice, zdrojHodnoty, stred + 1, po, uzel);
+        prepocitejUzel(uzel);
+        return uzel;
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Odebírání">
+    /**
+     * Uzel se dvěma potomky převezme klíč a hodnotu svého in-order následníka a odebere se následník. Odebíraný
+     * uzel (nejvýše s jedním potomkem) se nahradí svým potomkem, jeho slot se vrátí do seznamu volných slotů
+     * a strom se vyváží na cestě od jeho rodiče ke kořeni
+     */
+    @Override
+    public V odeber(K klic) throws StromException {
+        pozadatNePrazdnyKlic(klic);
+        if (koren == ZADNY_UZEL)
+            throw new StromException(ChybovaZpravaStromu.PRAZDNY_KOREN.getZprava());
+
+        int uzel = najdiUzel(klic);
+        if (uzel == ZADNY_UZEL)
+            throw new StromException(ChybovaZpravaStromu.PRVEK_NENALEZEN.getZprava());
+
+        final V odebranaHodnota = hodnoty[uzel];
+        if (vlevo[uzel] != ZADNY_UZEL && vpravo[uzel] != ZADNY_UZEL) {
+            final int naslednik = najdiNaslednika(uzel);
+            klice[uzel] = klice[naslednik];
+            hodnoty[uzel] = hodnoty[naslednik];
+            uzel = naslednik;
+        }
+
+        final int potomek = vlevo[uzel] != ZADNY_UZEL ? vlevo[uzel] : vpravo[uzel];
+        final int rodicUzlu = rodic[uzel];
+        if (potomek != ZADNY_UZEL)
+            nahradPotomka(uzel, potomek);
+        else if (rodicUzlu == ZADNY_UZEL)
+            koren = ZADNY_UZEL;
+        else if (vlevo[rodicUzlu] == uzel)
+            vlevo[rodicUzlu] = ZADNY_UZEL;
+        else
+            vpravo[rodicUzlu] = ZADNY_UZEL;
+
+        uvolniUzel(uzel);
+        vyvazCestuKeKoreni(rodicUzlu);
+        pocitadla.zapocitejOdebrani();
+        return odebranaHodnota;
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Vyvažování stromu (AVL)">
+    private void vyvazCestuKeKoreni(int uzel) {
+        while (uzel != ZADNY_UZEL) {
+            uzel = vyvazUzel(uzel);
+            uzel = rodic[uzel];
+        }
+    }
+
+    /**
+     * Přepočítá mohutnost a výšku uzlu a v případě potřeby ho vyváží jednoduchou nebo dvojitou rotací
+     * (viz {@link AbstrTable})
+     *
+     * @return Slot kořene podstromu, který je na místě původního uzlu po vyvážení
+     */
+    private int vyvazUzel(int uzel) {
+        prepocitejUzel(uzel);
+        final int vyvazenost = dejVyvazenost(uzel);
+        if (vyvazenost > MAX_ROZDIL_VYSEK) {
+            if (dejVyvazenost(vlevo[uzel]) < NULTA_HODNOTA)
+                rotujVlevo(vlevo[uzel]);
+            return rotujVpravo(uzel);
+        }
+        if (vyvazenost < -MAX_ROZDIL_VYSEK) {
+            if (dejVyvazenost(vpravo[uzel]) > NULTA_HODNOTA)
+                rotujVpravo(vpravo[uzel]);
+            return rotujVlevo(uzel);
+        }
+        return uzel;
+    }
+
+    private int rotujVlevo(int x) {
+        pocitadla.zapocitejVyvazeni();
+        final int y = vpravo[x];
+        vpravo[x] = vlevo[y];
+        if (vlevo[y] != ZADNY_UZEL)
+            rodic[vlevo[y]] = x;
+        nahradPotomka(x, y);
+        vlevo[y] = x;
+        rodic[x] = y;
+        prepocitejUzel(x);
+        prepocitejUzel(y);
+        return y;
+    }
+
+    private int rotujVpravo(int y) {
+        pocitadla.zapocitejVyvazeni();
+        final int x = vlevo[y];
+        vlevo[y] = vpravo[x];
+        if (vpravo[x] != ZADNY_UZEL)
+            rodic[vpravo[x]] = y;
+        nahradPotomka(y, x);
+        vpravo[x] = y;
+        rodic[y] = x;
+        prepocitejUzel(y);
+        prepocitejUzel(x);
+        return x;
+    }
+
+    /**
+     * Připojí uzel {@code novy} na místo uzlu {@code puvodni} u jeho rodiče (případně jako nový kořen)
+     */
+    private void nahradPotomka(int puvodni, int novy) {
+        final int rodicUzlu = rodic[puvodni];
+        rodic[novy] = rodicUzlu;
+        if (rodicUzlu == ZADNY_UZEL)
+            koren = novy;
+        else if (vlevo[rodicUzlu] == puvodni)
+            vlevo[rodicUzlu] = novy;
+        else
+            vpravo[rodicUzlu] = novy;
+    }
+
+    private void prepocitejUzel(int uzel) {
+        mohutnost[uzel] = MOHUTNOST_LISTU + dejMohutnostUzlu(vlevo[uzel]) + dejMohutnostUzlu(vpravo[uzel]);
+        vyska[uzel] = (byte) (VYSKA_LISTU + Math.max(dejVyskuUzlu(vlevo[uzel]), dejVyskuUzlu(vpravo[uzel])));
+    }
+
+    private int dejVyvazenost(int uzel) { return dejVyskuUzlu(vlevo[uzel]) - dejVyskuUzlu(vpravo[uzel]); }
+
+    private int dejMohutnostUzlu(int uzel) { return uzel == ZADNY_UZEL ? NULTA_HODNOTA : mohutnost[uzel]; }
+
+    private int dejVyskuUzlu(int uzel) { return uzel == ZADNY_UZEL ? NULTA_HODNOTA : vyska[uzel]; }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Navigace mezi uzly">
+    private int najdiMinimum(int uzel) {
+        if (uzel == ZADNY_UZEL)
+            return ZADNY_UZEL;
+        while (vlevo[uzel] != ZADNY_UZEL)
+            uzel = vlevo[uzel];
+        return uzel;
+    }
+
+    private int najdiMaximum(int uzel) {
+        if (uzel == ZADNY_UZEL)
+            return ZADNY_UZEL;
+        while (vpravo[uzel] != ZADNY_UZEL)
+            uzel = vpravo[uzel];
+        return uzel;
+    }
+
+    private int najdiNaslednika(int uzel) {
+        if (vpravo[uzel] != ZADNY_UZEL)
+            return najdiMinimum(vpravo[uzel]);
+        int rodicUzlu = rodic[uzel];
+        while (rodicUzlu != ZADNY_UZEL && uzel == vpravo[rodicUzlu]) {
+            uzel = rodicUzlu;
+            rodicUzlu = rodic[uzel];
+        }
+        return rodicUzlu;
+    }
+
+    private int najdiPredchudce(int uzel) {
+        if (vlevo[uzel] != ZADNY_UZEL)
+            return najdiMaximum(vlevo[uzel]);
+        int rodicUzlu = rodic[uzel];
+        while (rodicUzlu != ZADNY_UZEL && uzel == vlevo[rodicUzlu]) {
+            uzel = rodicUzlu;
+            rodicUzlu = rodic[uzel];
+        }
+        return rodicUzlu;
+    }
+
+    /**
+     * Najde uzel s nejmenším klíčem, který je větší nebo roven zadanému klíči
+     */
+    private int najdiUzelNeMensi(@NotNull K klic) {
+        int kandidat = ZADNY_UZEL;
+        int uzel = koren;
+        while (uzel != ZADNY_UZEL) {
+            final int vysledek = porovnej(klic, klice[uzel]);
+            if (vysledek == NULTA_HODNOTA)
+                return uzel;
+            if (vysledek < NULTA_HODNOTA) {
+                kandidat = uzel;
+                uzel = vlevo[uzel];
+            } else {
+                uzel = vpravo[uzel];
+            }
+        }
+        return kandidat;
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Iterátory">
+    @Override
+    public Iterator<V> vytvorIterator(ETypProhl typ) {
+        return switch (typ) {
+            case SIRKA -> new SirkaIterator();
+            case HLOUBKA -> new HloubkaIterator(najdiMinimum(koren), null);
+        };
+    }
+
+    @Override
+    public Iterator<V> vytvorIterator(K od, K po) {
+        return new HloubkaIterator(od == null ? najdiMinimum(koren) : najdiUzelNeMensi(od), po);
+    }
+
+    @Override
+    public Iterator<V> vytvorSestupnyIterator() {
+        return new Iterator<>() {
+            private int dalsiUzel = najdiMaximum(koren);
+
+            @Override
+            public boolean hasNext() { return dalsiUzel != ZADNY_UZEL; }
+
+            @Override
+            public V next() {
+                if (!hasNext())
+                    throw new NoSuchElementException(ChybovaZpravaStromu.KONEC_ITERACE.getZprava());
+                final V hodnota = hodnoty[dalsiUzel];
+                dalsiUzel = najdiPredchudce(dalsiUzel);
+                return hodnota;
+            }
+        };
+    }
+
+    /**
+     * Iterátor pro in-order průchod (případně omezený horní mezí), který přechází k následníkovi pomocí
+     * pole rodičů a nealokuje žádnou pomocnou paměť
+     */
+    private final class HloubkaIterator implements Iterator<V> {
+
+        private final K horniMez;
+        private int dalsiUzel;
+
+        /**
+         * @param prvniUzel Slot prvního vraceného uzlu
+         * @param po Horní mez (vyloučena), {@code null} znamená konec tabulky
+         */
+        HloubkaIterator(int prvniUzel, K po) {
+            horniMez = po;
+            dalsiUzel = omezHorniMezi(prvniUzel);
+        }
+
+        @Override
+        public boolean hasNext() { return dalsiUzel != ZADNY_UZEL; }
+
+        @Override
+        public V next() {
+            if (!hasNext())
+                throw new NoSuchElementException(ChybovaZpravaStromu.KONEC_ITERACE.getZprava());
+            final V hodnota = hodnoty[dalsiUzel];
+            dalsiUzel = omezHorniMezi(najdiNaslednika(dalsiUzel));
+            return hodnota;
+        }
+
+        private int omezHorniMezi(int uzel) {
+            if (uzel == ZADNY_UZEL || horniMez == null)
+                return uzel;
+            return porovnej(klice[uzel], horniMez) < NULTA_HODNOTA ? uzel : ZADNY_UZEL;
+        }
+    }
+
+    /**
+     * Iterátor pro průchod do šířky. Frontou je pole slotů o velikosti počtu prvků, protože se do ní každý
+     * uzel vloží právě jednou. Patro se určuje průběžně z počtu zbývajících uzlů aktuálního patra
+     */
+    private final class SirkaIterator implements Iterator<V> {
+
+        private final int[] fronta;
+        private int cteni;
+        private int zapis;
+        private int patro;
+        private int zbyvaVPatre;
+        private int vDalsimPatre;
+
+        SirkaIterator() {
+            fronta = new int[dejMohutnostUzlu(koren)];
+            cteni = zapis = NULTA_HODNOTA;
+            if (koren != ZADNY_UZEL)
+                fronta[zapis++] = koren;
+            patro = PATRO_KORENE;
+            zbyvaVPatre = zapis;
+            vDalsimPatre = NULTA_HODNOTA;
+        }
+
+        @Override
+        public boolean hasNext() { return cteni < zapis; }
+
+        @Override
+        public V next() {
+            if (!hasNext())
+                throw new NoSuchElementException(ChybovaZpravaStromu.KONEC_ITERACE.getZprava());
+            if (zbyvaVPatre == NULTA_HODNOTA) {
+                patro++;
+                zbyvaVPatre = vDalsimPatre;
+                vDalsimPatre = NULTA_HODNOTA;
+            }
+            final int uzel = fronta[cteni++];
+            zbyvaVPatre--;
+            if (vlevo[uzel] != ZADNY_UZEL) {
+                fronta[zapis++] = vlevo[uzel];
+                vDalsimPatre++;
+            }
+            if (vpravo[uzel] != ZADNY_UZEL) {
+                fronta[zapis++] = vpravo[uzel];
+                vDalsimPatre++;
+            }
+            return hodnoty[uzel];
+        }
+
+        /**
+         * Getter
+         *
+         * @return Číslo patra aktuálního uzlu
+         */
+        int patro() { return patro; }
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Dotazy na patra stromu">
+    @Override
+    public int dejVysku() { return dejVyskuUzlu(koren); }
+
+    @Override
+    public int[] dejSirkyPater() {
+        final int[] sirky = new int[dejVysku()];
+        final SirkaIterator iterator = new SirkaIterator();
+        while (iterator.hasNext()) {
+            iterator.next();
+            sirky[iterator.patro() - PATRO_KORENE]++;
+        }
+        return sirky;
+    }
+
+    /**
+     * Projde strom do šířky až po zadané patro a sloty jeho uzlů (ve frontě leží souvisle za sebou) vrátí
+     * jako iterátor
+     */
+    @Override
+    public Iterator<V> vytvorIteratorPatra(int patro) {
+        final int[] uzlyPatra = new int[dejMohutnostUzlu(koren)];
+        int pocet = NULTA_HODNOTA;
+        final SirkaIterator iterator = new SirkaIterator();
+        while (iterator.hasNext()) {
+            final int uzel = iterator.fronta[iterator.cteni];
+            iterator.next();
+            if (iterator.patro() > patro)
+                break;
+            if (iterator.patro() == patro)
+                uzlyPatra[pocet++] = uzel;
+        }
+        final int pocetUzlu = pocet;
+        return new Iterator<>() {
+            private int index = NULTA_HODNOTA;
+
+            @Override
+            public boolean hasNext() { return index < pocetUzlu; }
+
+            @Override
+            public V next() {
+                if (!hasNext())
+                    throw new NoSuchElementException(ChybovaZpravaStromu.KONEC_ITERACE.getZprava());
+                return hodnoty[uzlyPatra[index++]];
+            }
+        };
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Pořadové dotazy (order statistics)">
+    @Override
+    public int dejMohutnost(K klic) {
+        final int uzel = najdiUzel(klic);
+        return uzel == ZADNY_UZEL ? UKAZATEL_ABSENCE : mohutnost[uzel];
+    }
+
+    @Override
+    public int dejMohutnost() { return dejMohutnostUzlu(koren); }
+
+    @Override
+    public V dejPrvekNaPoradi(int poradi) throws StromException { return hodnoty[najdiUzelNaPoradi(poradi)]; }
+
+    @Override
+    public K dejKlicNaPoradi(int poradi) throws StromException { return klice[najdiUzelNaPoradi(poradi)]; }
+
+    /**
+     * Sestupuje od kořene podle mohutnosti levých podstromů (viz {@link AbstrTable#dejPrvekNaPoradi(int)})
+     *
+     * @throws StromException Pokud je pořadí mimo rozsah tabulky
+     */
+    private int najdiUzelNaPoradi(int poradi) throws StromException {
+        if (poradi < NULTA_HODNOTA || poradi >= dejMohutnostUzlu(koren))
+            throw new StromException(ChybovaZpravaStromu.NEPLATNE_PORADI.getZprava());
+        return dejUzelNaPoradi(poradi);
+    }
+
+    /**
+     * Vrací slot uzlu na zadaném pořadí bez kontroly rozsahu
+     */
+    private int dejUzelNaPoradi(int poradi) {
+        int uzel = koren;
+        while (true) {
+            final int levaMohutnost = dejMohutnostUzlu(vlevo[uzel]);
+            if (poradi < levaMohutnost) {
+                uzel = vlevo[uzel];
+            } else if (poradi == levaMohutnost) {
+                return uzel;
+            } else {
+                poradi -= levaMohutnost + MOHUTNOST_LISTU;
+                uzel = vpravo[uzel];
+            }
+        }
+    }
+
+    @Override
+    public int dejPoradi(K klic) {
+        if (klic == null || najdiUzel(klic) == ZADNY_UZEL)
+            return UKAZATEL_ABSENCE;
+        return spocitejMensi(klic);
+    }
+
+    @Override
+    public int dejPocetMensich(K klic) throws StromException {
+        pozadatNePrazdnyKlic(klic);
+        return spocitejMensi(klic);
+    }
+
+    @Override
+    public int dejPocetVRozsahu(K od, K po) throws StromException {
+        pozadatNePrazdnyKlic(od);
+        pozadatNePrazdnyKlic(po);
+        if (porovnej(od, po) >= NULTA_HODNOTA)
+            return NULTA_HODNOTA;
+        return spocitejMensi(po) - spocitejMensi(od);
+    }
+
+    /**
+     * Vrací počet klíčů ostře menších než zadaný klíč
+     */
+    private int spocitejMensi(@NotNull K klic) {
+        int pocet = NULTA_HODNOTA;
+        int uzel = koren;
+        while (uzel != ZADNY_UZEL) {
+            final int vysledek = porovnej(klic, klice[uzel]);
+            if (vysledek == NULTA_HODNOTA)
+                return pocet + dejMohutnostUzlu(vlevo[uzel]);
+            if (vysledek < NULTA_HODNOTA) {
+                uzel = vlevo[uzel];
+            } else {
+                pocet += dejMohutnostUzlu(vlevo[uzel]) + MOHUTNOST_LISTU;
+                uzel = vpravo[uzel];
+            }
+        }
+        return pocet;
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Spliterator pro paralelní proudy">
+    @Override
+    public Spliterator<V> vytvorSpliterator() { return new PoradovySpliterator(NULTA_HODNOTA, dejMohutnost()); }
+
+    /**
+     * Spliterator prvků s pořadím z intervalu {@code [od, po)}, který se dělí na poloviny podle pořadí
+     * (viz {@link AbstrTable#vytvorSpliterator()})
+     */
+    private final class PoradovySpliterator implements Spliterator<V> {
+
+        private final int MIN_VELIKOST_DELENI = 2;
+
+        private int od;
+        private final int po;
+        private int dalsiUzel;
+
+        PoradovySpliterator(int od, int po) {
+            this.od = od;
+            this.po = po;
+            dalsiUzel = ZADNY_UZEL;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super V> akce) {
+            if (od >= po)
+                return false;
+            if (dalsiUzel == ZADNY_UZEL)
+                dalsiUzel = dejUzelNaPoradi(od);
+            final V hodnota = hodnoty[dalsiUzel];
+            dalsiUzel = ++od < po ? najdiNaslednika(dalsiUzel) : ZADNY_UZEL;
+            akce.accept(hodnota);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super V> akce) {
+            if (od >= po)
+                return;
+            int uzel = dalsiUzel == ZADNY_UZEL ? dejUzelNaPoradi(od) : dalsiUzel;
+            final int pocet = po - od;
+            od = po;
+            dalsiUzel = ZADNY_UZEL;
+            for (int i = 0; i < pocet; i++, uzel = najdiNaslednika(uzel))
+                akce.accept(hodnoty[uzel]);
+        }
+
+        @Override
+        public Spliterator<V> trySplit() {
+            if (po - od < MIN_VELIKOST_DELENI)
+                return null;
+            final int stred = (od + po) >>> 1;
+            final PoradovySpliterator prvniPolovina = new PoradovySpliterator(od, stred);
+            prvniPolovina.dalsiUzel = dalsiUzel;
+            od = stred;
+            dalsiUzel = ZADNY_UZEL;
+            return prvniPolovina;
+        }
+
+        @Override
+        public long estimateSize() { return po - od; }
+
+        @Override
+        public int characteristics() { return ORDERED | SIZED | SUBSIZED; }
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Výpis stromu">
+    private final String ODRADKOVANI = "\n";
+    private final String PREDPIS_PATRO = "Patro ";
+    private final String ODDELOVAC = ": ";
+
+    @Override
+    public void vypisStrom(ETypProhl typ, @NotNull Appendable cil, int od, int pocet) throws IOException {
+        NastrojeTabulek.overVyrezVypisu(od, pocet);
+        switch (typ) {
+            case SIRKA -> {
+                final SirkaIterator iterator = new SirkaIterator();
+                for (int i = NULTA_HODNOTA; i < od && iterator.hasNext(); i++)
+                    iterator.next();
+                for (int i = NULTA_HODNOTA; i < pocet && iterator.hasNext(); i++) {
+                    final V hodnota = iterator.next();
+                    cil.append(PREDPIS_PATRO).append(String.valueOf(iterator.patro())).append(ODDELOVAC)
+                            .append(String.valueOf(hodnota)).append(ODRADKOVANI);
+                }
+            }
+            case HLOUBKA -> {
+                int uzel = od < dejMohutnost() ? dejUzelNaPoradi(od) : ZADNY_UZEL;
+                for (int i = NULTA_HODNOTA; i < pocet && uzel != ZADNY_UZEL; i++, uzel = najdiNaslednika(uzel))
+                    cil.append(String.valueOf(hodnoty[uzel])).append(ODRADKOVANI);
+            }
+        }
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Porovnávání a ošetřování klíčů">
+    private int porovnej(@NotNull K obj1, K obj2) {
+        pocitadla.zapocitejPorovnani();
+        return obj1.compareTo(obj2);
+    }
+
+    /**
+     * Ověřuje, zda zadaný klíč není prázdný {@code null}
+     *
+     * @throws StromException Pokud je klíč prázdný
+     */
+    private void pozadatNePrazdnyKlic(K klic) throws StromException {
+        if (klic == null)
+            throw new StromException(ChybovaZpravaStromu.NULL_KLIC.getZprava());
+    }
+// </editor-fold>
+}
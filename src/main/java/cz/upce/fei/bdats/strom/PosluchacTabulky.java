@@ -0,0 +1,39 @@
+package cz.upce.fei.bdats.strom;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Rozhraní představuje doplňkový index, který se udržuje v souladu s tabulkou {@link IndexovanaTable}
+ * (viz {@link IndexovanaTable#pridejPosluchace(PosluchacTabulky)}). Tabulka volá metody posluchače pod svým
+ * zámkem pro zápis a teprve po úspěšném zápisu do stromu, takže posluchač vidí zápisy ve stejném pořadí jako
+ * strom a nikdy nedostane klíč, který se do stromu nevložil
+ *
+ * <p> Posluchač nesmí z těchto metod zapisovat zpět do tabulky a neměl by vyhazovat výjimky, jinak by se
+ * index se stromem rozešel
+ *
+ * @param <K> Typ klíče
+ * @param <V> Typ hodnoty
+ */
+public interface PosluchacTabulky<K, V> {
+
+    /**
+     * Volá se po vložení prvku do tabulky
+     *
+     * @param klic Klíč vloženého prvku
+     * @param hodnota Hodnota vloženého prvku
+     */
+    void priVlozeni(@NotNull K klic, V hodnota);
+
+    /**
+     * Volá se po odebrání prvku z tabulky
+     *
+     * @param klic Klíč odebraného prvku
+     * @param hodnota Hodnota odebraného prvku
+     */
+    void priOdebrani(@NotNull K klic, V hodnota);
+
+    /**
+     * Volá se po zrušení celé tabulky
+     */
+    void priZruseni();
+}
@@ -0,0 +1,388 @@
+package cz.upce.fei.bdats.strom;
+
+import cz.upce.fei.bdats.vyjimky.zpravy.ChybovaZpravaStromu;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Třída představuje <b>komprimovaný předponový strom</b> (radix trie) řetězcových klíčů, např. názvů obcí.
+ * Hrana stromu nese celý úsek řetězce (ne jediný znak) a každý vnitřní uzel kromě kořene je buď koncem
+ * klíče, nebo se větví alespoň na dva potomky, takže strom má nejvýše dvakrát tolik uzlů, kolik obsahuje
+ * klíčů. Potomci uzlu jsou seřazení podle prvního znaku hrany a každý uzel zná počet klíčů ve svém podstromu
+ *
+ * <p> Strom slouží jako doplňkový index pro vyhledávání při psaní (autocomplete):
+ * <ul>
+ * <li> {@link RadixovyStrom#dejPocetSPredponou(String)} vrátí počet klíčů se zadanou předponou v čase
+ * {@code O(|predpona|)}
+ * <li> {@link RadixovyStrom#dejDoplneni(String, int)} vrátí prvních {@code N} klíčů se zadanou předponou
+ * (v pořadí {@link String#compareTo(String)}) v čase {@code O(|predpona| + N·d)}, kde {@code d} je délka
+ * doplnění; zbytek podstromu se neprochází
+ * </ul>
+ * Jako {@link PosluchacTabulky} se strom zaregistruje u {@link IndexovanaTable}, která mu oznamuje všechna
+ * vložení, odebrání a zrušení, a udržuje se tak v souladu s tabulkou
+ *
+ * <p> Souběh: zápisy se serializují výhradním zámkem {@link StampedLock}, dotazy běží pod zámkem pro čtení
+ */
+public final class RadixovyStrom implements PosluchacTabulky<String, Object> {
+
+    /**
+     * Konstanta pro nulu
+     */
+    private final int NULTA_HODNOTA = 0;
+    /**
+     * Hrana kořene (kořen reprezentuje prázdný řetězec)
+     */
+    private final String PRAZDNA_HRANA = "";
+
+    private Uzel koren;
+    private final StampedLock zamek;
+
+    /**
+     * Privátní třída reprezentující uzel stromu. Každý uzel má hranu (úsek řetězce od rodiče), příznak konce
+     * klíče, počet klíčů v podstromu a potomky seřazené podle prvního znaku hrany
+     */
+    private static final class Uzel {
+        String hrana;
+        boolean koncovy;
+        int pocet;
+        Uzel[] potomci;
+
+        Uzel(@NotNull String hrana, boolean koncovy, int pocet) {
+            this.hrana = hrana;
+            this.koncovy = koncovy;
+            this.pocet = pocet;
+            this.potomci = new Uzel[0];
+        }
+    }
+
+    /**
+     * Konstruktor vytvoří prázdný strom
+     */
+    public RadixovyStrom() {
+        this.koren = new Uzel(PRAZDNA_HRANA, false, NULTA_HODNOTA);
+        this.zamek = new StampedLock();
+    }
+
+// <editor-fold defaultstate="collapsed" desc="Zápisy">
+    /**
+     * Popis logiky:
+     * <ol>
+     * <li> Sestupuje od kořene po hranách, jejichž úsek se shoduje s dalšími znaky klíče, a zvyšuje počet klíčů
+     * v procházených uzlech
+     * <li> Pokud se hrana shoduje jen částečně, rozdělí se na společnou část (nový vnitřní uzel) a zbytek
+     * <li> Zbytek klíče, pro který neexistuje hrana, se připojí jako nový list; klíč končící v existujícím
+     * uzlu tento uzel pouze označí jako koncový
+     * </ol>
+     *
+     * @param klic Vkládaný klíč
+     *
+     * @return {@code true}, pokud se klíč vložil, {@code false}, pokud ho strom již obsahoval
+     */
+    public boolean vloz(@NotNull String klic) {
+        final long razitko = zamek.writeLock();
+        try {
+            final StringBuilder cesta = new StringBuilder();
+            final Uzel misto = najdiMisto(klic, cesta);
+            if (misto != null && misto.koncovy && cesta.length() == klic.length())
+                return false;
+
+            Uzel uzel = koren;
+            int pozice = NULTA_HODNOTA;
+            while (true) {
+                uzel.pocet++;
+                if (pozice == klic.length()) {
+                    uzel.koncovy = true;
+                    return true;
+                }
+                final int index = najdiPotomka(uzel, klic.charAt(pozice));
+                if (index < NULTA_HODNOTA) {
+                    vlozPotomka(uzel, -index - 1, new Uzel(klic.substring(pozice), true, 1));
+                    return true;
+                }
+                Uzel potomek = uzel.potomci[index];
+                final int shoda = dejDelkuShody(potomek.hrana, klic, pozice);
+                if (shoda < potomek.hrana.length()) {
+                    final Uzel spolecny = new Uzel(potomek.hrana.substring(0, shoda), false, potomek.pocet);
+                    potomek.hrana = potomek.hrana.substring(shoda);
+                    spolecny.potomci = new Uzel[]{potomek};
+                    uzel.potomci[index] = spolecny;
+                    potomek = spolecny;
+                }
+                uzel = potomek;
+                pozice += shoda;
+            }
+        } finally {
+            zamek.unlockWrite(razitko);
+        }
+    }
+
+    /**
+     * Popis logiky:
+     * <ol>
+     * <li> Najde uzel klíče a zapamatuje si cestu k němu; pokud klíč ve stromu není, nic nemění
+     * <li> Zruší příznak konce klíče a sníží počet klíčů ve všech uzlech na cestě
+     * <li> Uzel bez potomků se odpojí od rodiče. Vnitřní uzel (kromě kořene), který pak není koncový a má
+     * jediného potomka, se s tímto potomkem sloučí do jedné hrany
+     * </ol>
+     *
+     * @param klic Odebíraný klíč
+     *
+     * @return {@code true}, pokud se klíč odebral, {@code false}, pokud ho strom neobsahoval
+     */
+    public boolean odeber(@NotNull String klic) {
+        final long razitko = zamek.writeLock();
+        try {
+            final List<Uzel> cesta = new ArrayList<>();
+            Uzel uzel = koren;
+            int pozice = NULTA_HODNOTA;
+            cesta.add(uzel);
+            while (pozice < klic.length()) {
+                final int index = najdiPotomka(uzel, klic.charAt(pozice));
+                if (index < NULTA_HODNOTA)
+                    return false;
+                uzel = uzel.potomci[index];
+                if (!klic.startsWith(uzel.hrana, pozice))
+                    return false;
+                pozice += uzel.hrana.length();
+                cesta.add(uzel);
+            }
+            if (!uzel.koncovy)
+                return false;
+
+            uzel.koncovy = false;
+            for (Uzel naCeste : cesta)
+                naCeste.pocet--;
+            if (uzel == koren)
+                return true;
+            if (uzel.potomci.length == NULTA_HODNOTA) {
+                final Uzel rodic = cesta.get(cesta.size() - 2);
+                odeberPotomka(rodic, uzel);
+                if (rodic != koren && !rodic.koncovy && rodic.potomci.length == 1)
+                    sloucSPotomkem(rodic);
+            } else if (uzel.potomci.length == 1) {
+                sloucSPotomkem(uzel);
+            }
+            return true;
+        } finally {
+            zamek.unlockWrite(razitko);
+        }
+    }
+
+    /**
+     * Odebere ze stromu všechny klíče
+     */
+    public void zrus() {
+        final long razitko = zamek.writeLock();
+        try {
+            koren = new Uzel(PRAZDNA_HRANA, false, NULTA_HODNOTA);
+        } finally {
+            zamek.unlockWrite(razitko);
+        }
+    }
+
+    @Override
+    public void priVlozeni(@NotNull String klic, Object hodnota) { vloz(klic); }
+
+    @Override
+    public void priOdebrani(@NotNull String klic, Object hodnota) { odeber(klic); }
+
+    @Override
+    public void priZruseni() { zrus(); }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Dotazy">
+    /**
+     * Ověří, zda strom obsahuje zadaný klíč
+     *
+     * @param klic Klíč
+     *
+     * @return {@code true}, pokud strom klíč obsahuje, jinak {@code false}
+     */
+    public boolean obsahuje(@NotNull String klic) {
+        final long razitko = zamek.readLock();
+        try {
+            final StringBuilder cesta = new StringBuilder();
+            final Uzel misto = najdiMisto(klic, cesta);
+            return misto != null && misto.koncovy && cesta.length() == klic.length();
+        } finally {
+            zamek.unlockRead(razitko);
+        }
+    }
+
+    /**
+     * Vrací počet všech klíčů ve stromu
+     *
+     * @return Počet klíčů
+     */
+    public int dejPocet() {
+        final long razitko = zamek.readLock();
+        try {
+            return koren.pocet;
+        } finally {
+            zamek.unlockRead(razitko);
+        }
+    }
+
+    /**
+     * Vrací počet klíčů, které začínají zadanou předponou (prázdná předpona vrátí počet všech klíčů)
+     *
+     * @param predpona Předpona klíče
+     *
+     * @return Počet klíčů se zadanou předponou
+     */
+    public int dejPocetSPredponou(@NotNull String predpona) {
+        final long razitko = zamek.readLock();
+        try {
+            final Uzel misto = najdiMisto(predpona, new StringBuilder());
+            return misto == null ? NULTA_HODNOTA : misto.pocet;
+        } finally {
+            zamek.unlockRead(razitko);
+        }
+    }
+
+    /**
+     * Popis logiky:
+     * <ol>
+     * <li> Najde uzel, ve kterém (nebo na jehož hraně) předpona končí
+     * <li> Prochází jeho podstrom do hloubky; koncový uzel se vypíše před svými potomky a potomci se procházejí
+     * podle prvního znaku hrany, takže klíče vznikají v pořadí {@link String#compareTo(String)}
+     * <li> Průchod skončí, jakmile je doplnění dost
+     * </ol>
+     *
+     * @param predpona Předpona klíče
+     * @param pocet Nejvyšší počet vrácených klíčů
+     *
+     * @return Nejvýše {@code pocet} nejmenších klíčů se zadanou předponou, seřazených vzestupně
+     *
+     * @throws IllegalArgumentException Pokud je {@code pocet} záporný
+     */
+    public @NotNull List<String> dejDoplneni(@NotNull String predpona, int pocet) {
+        if (pocet < NULTA_HODNOTA)
+            throw new IllegalArgumentException(ChybovaZpravaStromu.NEPLATNY_POCET_DOPLNENI.getZprava());
+
+        final long razitko = zamek.readLock();
+        try {
+            final List<String> doplneni = new ArrayList<>(Math.min(pocet, koren.pocet));
+            final StringBuilder cesta = new StringBuilder();
+            final Uzel misto = najdiMisto(predpona, cesta);
+            if (misto != null && pocet > NULTA_HODNOTA)
+                sbirejDoplneni(misto, cesta, pocet, doplneni);
+            return doplneni;
+        } finally {
+            zamek.unlockRead(razitko);
+        }
+    }
+
+    /**
+     * Rekurzivně přidá klíče z podstromu uzlu do seznamu doplnění. Hloubka rekurze je omezena délkou klíče
+     *
+     * @param uzel Kořen procházeného podstromu
+     * @param cesta Řetězec odpovídající cestě od kořene stromu k uzlu (po návratu je nezměněn)
+     * @param pocet Nejvyšší počet doplnění
+     * @param doplneni Seznam doplnění
+     */
+    private void sbirejDoplneni(@NotNull Uzel uzel, @NotNull StringBuilder cesta, int pocet,
+                                @NotNull List<String> doplneni) {
+        if (uzel.koncovy)
+            doplneni.add(cesta.toString());
+        for (Uzel potomek : uzel.potomci) {
+            if (doplneni.size() >= pocet)
+                return;
+            final int delka = cesta.length();
+            cesta.append(potomek.hrana);
+            sbirejDoplneni(potomek, cesta, pocet, doplneni);
+            cesta.setLength(delka);
+        }
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Privátní pomocné metody">
+    /**
+     * Najde nejvyšší uzel, jehož cesta od kořene začíná zadaným řetězcem. Řetězec může skončit i uprostřed
+     * hrany vedoucí do nalezeného uzlu
+     *
+     * @param retezec Hledaný řetězec (klíč nebo předpona)
+     * @param cesta Prázdný {@link StringBuilder}, do kterého se zapíše celá cesta k nalezenému uzlu
+     *
+     * @return Nalezený uzel nebo {@code null}, pokud žádný klíč zadaným řetězcem nezačíná
+     */
+    private Uzel najdiMisto(@NotNull String retezec, @NotNull StringBuilder cesta) {
+        Uzel uzel = koren;
+        int pozice = NULTA_HODNOTA;
+        while (pozice < retezec.length()) {
+            final int index = najdiPotomka(uzel, retezec.charAt(pozice));
+            if (index < NULTA_HODNOTA)
+                return null;
+            uzel = uzel.potomci[index];
+            final int shoda = dejDelkuShody(uzel.hrana, retezec, pozice);
+            if (shoda < uzel.hrana.length() && pozice + shoda < retezec.length())
+                return null;
+            cesta.append(uzel.hrana);
+            pozice += shoda;
+        }
+        return uzel;
+    }
+
+    /**
+     * Binárně vyhledá potomka, jehož hrana začíná zadaným znakem
+     *
+     * @return Index potomka, nebo {@code -(bod vložení) - 1}, pokud takový potomek neexistuje
+     */
+    private int najdiPotomka(@NotNull Uzel uzel, char znak) {
+        int od = NULTA_HODNOTA;
+        int po = uzel.potomci.length - 1;
+        while (od <= po) {
+            final int stred = (od + po) >>> 1;
+            final char znakStredu = uzel.potomci[stred].hrana.charAt(0);
+            if (znakStredu < znak)
+                od = stred + 1;
+            else if (znakStredu > znak)
+                po = stred - 1;
+            else
+                return stred;
+        }
+        return -od - 1;
+    }
+
+    /**
+     * Vrací délku společného začátku hrany a řetězce od zadané pozice
+     */
+    private int dejDelkuShody(@NotNull String hrana, @NotNull String retezec, int pozice) {
+        final int max = Math.min(hrana.length(), retezec.length() - pozice);
+        int shoda = NULTA_HODNOTA;
+        while (shoda < max && hrana.charAt(shoda) == retezec.charAt(pozice + shoda))
+            shoda++;
+        return shoda;
+    }
+
+    private void vlozPotomka(@NotNull Uzel uzel, int index, @NotNull Uzel potomek) {
+        final Uzel[] potomci = Arrays.copyOf(uzel.potomci, uzel.potomci.length + 1);
+        System.arraycopy(potomci, index, potomci, index + 1, uzel.potomci.length - index);
+        potomci[index] = potomek;
+        uzel.potomci = potomci;
+    }
+
+    private void odeberPotomka(@NotNull Uzel uzel, @NotNull Uzel potomek) {
+        final int index = najdiPotomka(uzel, potomek.hrana.charAt(0));
+        final Uzel[] potomci = new Uzel[uzel.potomci.length - 1];
+        System.arraycopy(uzel.potomci, 0, potomci, 0, index);
+        System.arraycopy(uzel.potomci, index + 1, potomci, index, potomci.length - index);
+        uzel.potomci = potomci;
+    }
+
+    /**
+     * Připojí hranu jediného potomka k hraně uzlu a převezme jeho příznak konce a potomky. Uzel zůstane na
+     * svém místě u rodiče (první znak hrany se nezmění)
+     */
+    private void sloucSPotomkem(@NotNull Uzel uzel) {
+        final Uzel potomek = uzel.potomci[0];
+        uzel.hrana = uzel.hrana + potomek.hrana;
+        uzel.koncovy = potomek.koncovy;
+        uzel.potomci = potomek.potomci;
+    }
+// </editor-fold>
+}
@@ -0,0 +1,56 @@
+package cz.upce.fei.bdats.strom;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Třída představuje kodér řetězcových klíčů (např. názvů obcí), který do čísla {@code long} uloží prvních
+ * osm bajtů zakódované předpony řetězce
+ *
+ * <p> Znak se kóduje s proměnnou délkou tak, aby bajtové (lexikografické) pořadí kódů odpovídalo pořadí
+ * {@link String#compareTo(String)}, které porovnává hodnoty znaků UTF-16:
+ * <ul>
+ * <li> znak s hodnotou menší než {@code 0xFE} (ASCII a znaky Latin-1, tj. i {@code á, é, í, ó, ú, ý}) zabere
+ * jeden bajt s hodnotou znaku zvětšenou o jedničku
+ * <li> ostatní znaky (např. {@code č, ě, ř, š, ž, ů}) zaberou tři bajty: značku {@code 0xFF} a dva bajty
+ * hodnoty znaku
+ * <li> nevyužité bajty kratšího řetězce jsou nulové, takže řetězec je menší než každé své prodloužení
+ * </ul>
+ * Většina názvů obcí tak do kódu uloží šest až osm znaků. Řetězce se stejnou předponou mají stejný kód
+ * a rozliší je až úplné porovnání
+ */
+public final class RetezcovyKodovac implements KodovacKlice<String> {
+
+    /**
+     * Konstanta reprezentuje počet bajtů kódu
+     */
+    private final int POCET_BAJTU = Long.BYTES;
+    private final int BITU_V_BAJTU = Byte.SIZE;
+    /**
+     * Konstanta reprezentuje první hodnotu znaku, která se kóduje třemi bajty, a značku takového znaku
+     */
+    private final int PRVNI_SIROKY_ZNAK = 0xFE;
+    private final int ZNACKA_SIROKEHO_ZNAKU = 0xFF;
+    private final int MASKA_BAJTU = 0xFF;
+
+    @Override
+    public long zakoduj(@NotNull String klic) {
+        long kod = 0;
+        int bajtu = 0;
+        for (int i = 0; i < klic.length() && bajtu < POCET_BAJTU; i++) {
+            final char znak = klic.charAt(i);
+            final int kodZnaku;
+            final int delkaZnaku;
+            if (znak < PRVNI_SIROKY_ZNAK) {
+                kodZnaku = znak + 1;
+                delkaZnaku = 1;
+            } else {
+                kodZnaku = ZNACKA_SIROKEHO_ZNAKU << Character.SIZE | znak;
+                delkaZnaku = 3;
+            }
+            for (int j = delkaZnaku - 1; j >= 0 && bajtu < POCET_BAJTU; j--, bajtu++)
+                kod = kod << BITU_V_BAJTU | (kodZnaku >>> BITU_V_BAJTU * j & MASKA_BAJTU);
+        }
+        // doplní nevyužité bajty nulami zprava
+        return bajtu == 0 ? kod : kod << BITU_V_BAJTU * (POCET_BAJTU - bajtu);
+    }
+}
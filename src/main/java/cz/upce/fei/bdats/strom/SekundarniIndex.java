@@ -0,0 +1,209 @@
+package cz.upce.fei.bdats.strom;
+
+import cz.upce.fei.bdats.vyjimky.StromException;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+
+/**
+ * Třída představuje <b>sekundární index</b> tabulky podle zvoleného atributu hodnoty (např. PSČ, čísla kraje
+ * nebo počtu obyvatel obce). Index je uspořádaný strom {@link AbstrTable} klíčovaný hodnotou atributu, jehož
+ * prvky jsou skupiny prvků se stejnou hodnotou atributu. Atribut nemusí být unikátní, proto je každá skupina
+ * sama stromem {@link AbstrTable} klíčovaným klíčem tabulky (např. názvem obce)
+ *
+ * <p> Index odpovídá na dotazy, které by jinak vyžadovaly průchod celou tabulkou:
+ * <ul>
+ * <li> {@link SekundarniIndex#najdi(Comparable)} vrátí prvky se zadanou hodnotou atributu v čase
+ * {@code O(log g + m)}, kde {@code g} je počet různých hodnot atributu a {@code m} počet vrácených prvků
+ * <li> {@link SekundarniIndex#najdiRozsah(Comparable, Comparable)} vrátí prvky s hodnotou atributu
+ * z polouzavřeného intervalu {@code [od, po)} v čase {@code O(log g + m)}
+ * </ul>
+ * Výsledky jsou seřazené podle hodnoty atributu a v rámci stejné hodnoty podle klíče tabulky. Jako
+ * {@link PosluchacTabulky} se index zaregistruje u {@link IndexovanaTable}, která mu oznamuje všechna
+ * vložení, odebrání a zrušení, a udržuje se tak v souladu s tabulkou
+ *
+ * <p> Prvky, jejichž atribut je {@code null}, se do indexu nezařadí. Atribut se čte z hodnoty při vložení
+ * i při odebrání, proto se hodnota uložená v tabulce nesmí měnit (např. {@link cz.upce.fei.bdats.data.Obec}
+ * je neměnná)
+ *
+ * <p> Souběh: zápisy se serializují výhradním zámkem {@link StampedLock}, dotazy běží pod zámkem pro čtení
+ *
+ * @param <A> Typ hodnoty atributu
+ * @param <K> Typ klíče tabulky
+ * @param <V> Typ hodnoty tabulky
+ */
+public final class SekundarniIndex<A extends Comparable<A>, K extends Comparable<K>, V>
+        implements PosluchacTabulky<K, V> {
+
+    private final Function<? super V, ? extends A> atribut;
+    private final AbstrTable<A, AbstrTable<K, V>> skupiny;
+    private final StampedLock zamek;
+    private int pocet;
+
+    /**
+     * Konstruktor vytvoří prázdný index
+     *
+     * @param atribut Funkce, která z hodnoty tabulky vrací hodnotu indexovaného atributu
+     */
+    public SekundarniIndex(@NotNull Function<? super V, ? extends A> atribut) {
+        this.atribut = atribut;
+        this.skupiny = new AbstrTable<>();
+        this.zamek = new StampedLock();
+    }
+
+// <editor-fold defaultstate="collapsed" desc="Zápisy">
+    /**
+     * Popis logiky:
+     * <ol>
+     * <li> Z hodnoty se přečte atribut, prvek s atributem {@code null} se nezařadí
+     * <li> Vyhledá se skupina s touto hodnotou atributu, pokud neexistuje, vloží se nová prázdná skupina
+     * <li> Do skupiny se vloží prvek pod klíčem tabulky
+     * </ol>
+     */
+    @Override
+    public void priVlozeni(@NotNull K klic, V hodnota) {
+        final A hodnotaAtributu = atribut.apply(hodnota);
+        if (hodnotaAtributu == null)
+            return;
+        final long razitko = zamek.writeLock();
+        try {
+            AbstrTable<K, V> skupina = dejSkupinu(hodnotaAtributu);
+            if (skupina == null) {
+                skupina = new AbstrTable<>();
+                skupiny.vloz(hodnotaAtributu, skupina);
+            }
+            skupina.vloz(klic, hodnota);
+            pocet++;
+        } catch (StromException ex) {
+            throw new IllegalStateException(ex);
+        } finally {
+            zamek.unlockWrite(razitko);
+        }
+    }
+
+    /**
+     * Prvek se odebere ze skupiny podle své hodnoty atributu a skupina, která tím zůstane prázdná, se odebere
+     * z indexu
+     */
+    @Override
+    public void priOdebrani(@NotNull K klic, V hodnota) {
+        final A hodnotaAtributu = atribut.apply(hodnota);
+        if (hodnotaAtributu == null)
+            return;
+        final long razitko = zamek.writeLock();
+        try {
+            final AbstrTable<K, V> skupina = dejSkupinu(hodnotaAtributu);
+            if (skupina == null || !skupina.obsahuje(klic))
+                return;
+            skupina.odeber(klic);
+            pocet--;
+            if (skupina.jePrazdny())
+                skupiny.odeber(hodnotaAtributu);
+        } catch (StromException ex) {
+            throw new IllegalStateException(ex);
+        } finally {
+            zamek.unlockWrite(razitko);
+        }
+    }
+
+    @Override
+    public void priZruseni() {
+        final long razitko = zamek.writeLock();
+        try {
+            skupiny.zrus();
+            pocet = 0;
+        } finally {
+            zamek.unlockWrite(razitko);
+        }
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Dotazy">
+    /**
+     * Vyhledá prvky se zadanou hodnotou atributu
+     *
+     * @param hodnotaAtributu Hledaná hodnota atributu
+     *
+     * @return Prvky se zadanou hodnotou atributu seřazené podle klíče tabulky, prázdný seznam, pokud žádný
+     * prvek hodnotu nemá
+     */
+    public @NotNull List<V> najdi(@NotNull A hodnotaAtributu) {
+        final long razitko = zamek.readLock();
+        try {
+            final List<V> vysledek = new ArrayList<>();
+            final AbstrTable<K, V> skupina = dejSkupinu(hodnotaAtributu);
+            if (skupina != null)
+                pridejSkupinu(vysledek, skupina);
+            return vysledek;
+        } finally {
+            zamek.unlockRead(razitko);
+        }
+    }
+
+    /**
+     * Vyhledá prvky s hodnotou atributu z polouzavřeného intervalu {@code [od, po)}. Prochází se pouze
+     * skupiny v intervalu (viz {@link IAbstrTable#vytvorIterator(Comparable, Comparable)})
+     *
+     * @param od Dolní mez (včetně), {@code null} znamená bez dolní meze
+     * @param po Horní mez (vyloučena), {@code null} znamená bez horní meze
+     *
+     * @return Prvky seřazené podle hodnoty atributu, potom podle klíče tabulky
+     */
+    public @NotNull List<V> najdiRozsah(A od, A po) {
+        final long razitko = zamek.readLock();
+        try {
+            final List<V> vysledek = new ArrayList<>();
+            final Iterator<AbstrTable<K, V>> iterator = skupiny.vytvorIterator(od, po);
+            while (iterator.hasNext())
+                pridejSkupinu(vysledek, iterator.next());
+            return vysledek;
+        } finally {
+            zamek.unlockRead(razitko);
+        }
+    }
+
+    /**
+     * @return Počet prvků zařazených v indexu
+     */
+    public int dejPocet() {
+        final long razitko = zamek.readLock();
+        try {
+            return pocet;
+        } finally {
+            zamek.unlockRead(razitko);
+        }
+    }
+
+    /**
+     * @return Počet různých hodnot atributu v indexu
+     */
+    public int dejPocetHodnot() {
+        final long razitko = zamek.readLock();
+        try {
+            return skupiny.dejMohutnost();
+        } finally {
+            zamek.unlockRead(razitko);
+        }
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Privátní pomocné metody">
+    /**
+     * Chybějící skupina je při vkládání běžný případ (např. téměř unikátní počet obyvatel), proto se hledá
+     * bez výjimky
+     *
+     * @return Skupina se zadanou hodnotou atributu, nebo {@code null}, pokud v indexu není
+     */
+    private AbstrTable<K, V> dejSkupinu(@NotNull A hodnotaAtributu) { return skupiny.dejHodnotu(hodnotaAtributu); }
+
+    private void pridejSkupinu(@NotNull List<V> vysledek, @NotNull AbstrTable<K, V> skupina) {
+        final Iterator<V> iterator = skupina.vytvorIterator(null, null);
+        while (iterator.hasNext())
+            vysledek.add(iterator.next());
+    }
+// </editor-fold>
+}
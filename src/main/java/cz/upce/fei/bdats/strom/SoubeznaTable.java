@@ -0,0 +1,318 @@
+package cz.upce.fei.bdats.strom;
+
+import cz.upce.fei.bdats.vyjimky.StromException;
+import cz.upce.fei.bdats.vyjimky.zpravy.ChybovaZpravaStromu;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * Třída představuje vlákenně bezpečnou (thread-safe) tabulku, která obaluje implementaci {@link IAbstrTable}
+ * (typicky {@link AbstrTable}) a řídí k ní přístup zámkem {@link StampedLock}
+ *
+ * <p> Obalená tabulka nesmí měnit strom při čtení, protože čtenáři pod sdíleným zámkem pracují paralelně.
+ * Výjimkou je proto {@link SplayTable}, která vyhledáváním a pořadovými dotazy strom rotuje; konstruktor ji
+ * odmítne
+ *
+ * <p> Pravidla souběhu:
+ * <ul>
+ * <li> <b>Čtení</b> ({@code najdi}, {@code obsahuje}, pořadové dotazy, výpis, ...) probíhá pod sdíleným
+ * zámkem pro čtení, takže libovolný počet čtenářů pracuje paralelně
+ * <li> <b>Optimistické čtení</b> se používá u dotazů s konstantní složitostí ({@link SoubeznaTable#jePrazdny()},
+ * {@link SoubeznaTable#dejMohutnost()}, {@link SoubeznaTable#dejVysku()}), které čtou pouze kořen tabulky.
+ * Pokud během nich proběhl zápis, dotaz se zopakuje pod zámkem pro čtení. Procházení stromu optimisticky
+ * neprobíhá: rotace při souběžném zápisu by mohly čtenáři ukázat nekonzistentní odkazy mezi uzly (a tím
+ * i zacyklení), proto se pro ně vždy bere sdílený zámek
+ * <li> <b>Zápisy</b> ({@code vloz}, {@code vlozVse}, {@code odeber}, {@code odeberRozsah}, {@code odeberVse},
+ * {@code zrus}) se serializují výhradním zámkem pro zápis
+ * <li> <b>Iterátory</b> pracují se snímkem: při vytvoření se pod zámkem pro čtení zkopírují prvky, které
+ * iterátor vrátí, a iterátor pak již zámek nedrží. Vrací tedy stav tabulky v okamžiku svého vytvoření
+ * a následné zápisy neovlivní (ani nezablokuje). Vytvoření iterátoru stojí tolik, kolik prvků vrátí
+ * </ul>
+ *
+ * @param <K> Typ klíče prvků v tabulce, musí implementovat {@link Comparable}
+ * @param <V> Typ hodnoty
+ */
+public final class SoubeznaTable<K extends Comparable<K>, V> implements IAbstrTable<K, V> {
+
+    private final IAbstrTable<K, V> tabulka;
+    private final StampedLock zamek;
+
+    /**
+     * Funkční rozhraní pro operaci nad obalenou tabulkou, která může vyhodit {@link StromException}
+     *
+     * @param <T> Typ výsledku operace
+     */
+    @FunctionalInterface
+    private interface Operace<T> {
+        T proved() throws StromException;
+    }
+
+    /**
+     * Konstruktor obalí zadanou tabulku. K obalené tabulce by se dále nemělo přistupovat jinak než přes
+     * tuto instanci
+     *
+     * @param tabulka Tabulka, ke které se řídí souběžný přístup
+     *
+     * @throws IllegalArgumentException Pokud je tabulka {@link SplayTable}, kterou mění i čtení
+     */
+    public SoubeznaTable(@NotNull IAbstrTable<K, V> tabulka) {
+        if (tabulka instanceof SplayTable)
+            throw new IllegalArgumentException(ChybovaZpravaStromu.CTENI_MENI_STROM.getZprava());
+        this.tabulka = tabulka;
+        this.zamek = new StampedLock();
+    }
+
+// <editor-fold defaultstate="collapsed" desc="Zápisy (výhradní zámek)">
+    @Override
+    public void zrus() {
+        final long razitko = zamek.writeLock();
+        try {
+            tabulka.zrus();
+        } finally {
+            zamek.unlockWrite(razitko);
+        }
+    }
+
+    @Override
+    public void vloz(K klic, V hodnota) throws StromException {
+        zapis(() -> {
+            tabulka.vloz(klic, hodnota);
+            return null;
+        });
+    }
+
+    @Override
+    public void vlozVse(K[] klice, V[] hodnoty) throws StromException {
+        zapis(() -> {
+            tabulka.vlozVse(klice, hodnoty);
+            return null;
+        });
+    }
+
+    @Override
+    public VysledekDavky<K> vlozDavku(K[] klice, V[] hodnoty) throws StromException {
+        return zapis(() -> tabulka.vlozDavku(klice, hodnoty));
+    }
+
+    @Override
+    public V odeber(K klic) throws StromException { return zapis(() -> tabulka.odeber(klic)); }
+
+    @Override
+    public int odeberRozsah(K od, K po) throws StromException { return zapis(() -> tabulka.odeberRozsah(od, po)); }
+
+    @Override
+    public int odeberVse(Iterable<K> klice) throws StromException { return zapis(() -> tabulka.odeberVse(klice)); }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Optimistická čtení">
+    @Override
+    public boolean jePrazdny() {
+        final long razitko = zamek.tryOptimisticRead();
+        final boolean prazdny = tabulka.jePrazdny();
+        if (zamek.validate(razitko))
+            return prazdny;
+        return cti(tabulka::jePrazdny);
+    }
+
+    @Override
+    public int dejMohutnost() {
+        final long razitko = zamek.tryOptimisticRead();
+        final int mohutnost = tabulka.dejMohutnost();
+        if (zamek.validate(razitko))
+            return mohutnost;
+        return cti(tabulka::dejMohutnost);
+    }
+
+    @Override
+    public int dejVysku() {
+        final long razitko = zamek.tryOptimisticRead();
+        final int vyska = tabulka.dejVysku();
+        if (zamek.validate(razitko))
+            return vyska;
+        return cti(tabulka::dejVysku);
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Čtení (sdílený zámek)">
+    @Override
+    public V najdi(K klic) throws StromException { return ctiSVyjimkou(() -> tabulka.najdi(klic)); }
+
+    @Override
+    public boolean obsahuje(K klic) { return cti(() -> tabulka.obsahuje(klic)); }
+
+    @Override
+    public int dejMohutnost(K klic) { return cti(() -> tabulka.dejMohutnost(klic)); }
+
+    @Override
+    public V dejPrvekNaPoradi(int poradi) throws StromException {
+        return ctiSVyjimkou(() -> tabulka.dejPrvekNaPoradi(poradi));
+    }
+
+    @Override
+    public K dejKlicNaPoradi(int poradi) throws StromException {
+        return ctiSVyjimkou(() -> tabulka.dejKlicNaPoradi(poradi));
+    }
+
+    @Override
+    public int dejPoradi(K klic) { return cti(() -> tabulka.dejPoradi(klic)); }
+
+    @Override
+    public int dejPocetMensich(K klic) throws StromException {
+        return ctiSVyjimkou(() -> tabulka.dejPocetMensich(klic));
+    }
+
+    @Override
+    public int dejPocetVRozsahu(K od, K po) throws StromException {
+        return ctiSVyjimkou(() -> tabulka.dejPocetVRozsahu(od, po));
+    }
+
+    @Override
+    public int[] dejSirkyPater() { return cti(tabulka::dejSirkyPater); }
+
+    @Override
+    public MetrikyStromu dejMetriky() { return cti(tabulka::dejMetriky); }
+
+    /**
+     * Počítadla obalené tabulky. Čtenáři pod sdíleným zámkem je zvyšují souběžně, takže jsou při paralelním
+     * čtení pouze přibližná
+     */
+    @Override
+    public PocitadlaStromu dejPocitadla() { return tabulka.dejPocitadla(); }
+
+    @Override
+    public K dejPrvniKlic() { return cti(tabulka::dejPrvniKlic); }
+
+    @Override
+    public K dejPosledniKlic() { return cti(tabulka::dejPosledniKlic); }
+
+    @Override
+    public K dejKlicNejvyse(K klic) throws StromException {
+        return ctiSVyjimkou(() -> tabulka.dejKlicNejvyse(klic));
+    }
+
+    @Override
+    public K dejKlicNejmene(K klic) throws StromException {
+        return ctiSVyjimkou(() -> tabulka.dejKlicNejmene(klic));
+    }
+
+    @Override
+    public K dejPredchoziKlic(K klic) throws StromException {
+        return ctiSVyjimkou(() -> tabulka.dejPredchoziKlic(klic));
+    }
+
+    @Override
+    public K dejNasledujiciKlic(K klic) throws StromException {
+        return ctiSVyjimkou(() -> tabulka.dejNasledujiciKlic(klic));
+    }
+
+    @Override
+    public @NotNull String vypisStrom(ETypProhl typ) { return cti(() -> tabulka.vypisStrom(typ)); }
+
+    /**
+     * Zámek pro čtení se drží po celou dobu zápisu do cíle, takže pomalý cíl (např. soubor) po tuto dobu
+     * blokuje zápisy do tabulky. Pro velké výpisy je proto vhodnější vypisovat po stránkách
+     */
+    @Override
+    public void vypisStrom(ETypProhl typ, Appendable cil, int od, int pocet) throws IOException {
+        final long razitko = zamek.readLock();
+        try {
+            tabulka.vypisStrom(typ, cil, od, pocet);
+        } finally {
+            zamek.unlockRead(razitko);
+        }
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Iterátory nad snímkem">
+    @Override
+    public Iterator<V> vytvorIterator(ETypProhl typ) { return cti(() -> dejSnimek(tabulka.vytvorIterator(typ))); }
+
+    @Override
+    public Iterator<V> vytvorIterator(K od, K po) { return cti(() -> dejSnimek(tabulka.vytvorIterator(od, po))); }
+
+    @Override
+    public Iterator<V> vytvorSestupnyIterator() { return cti(() -> dejSnimek(tabulka.vytvorSestupnyIterator())); }
+
+    @Override
+    public Iterator<V> vytvorSestupnyIterator(K od) {
+        return cti(() -> dejSnimek(tabulka.vytvorSestupnyIterator(od)));
+    }
+
+    @Override
+    public Iterator<V> vytvorIteratorPatra(int patro) {
+        return cti(() -> dejSnimek(tabulka.vytvorIteratorPatra(patro)));
+    }
+
+    /**
+     * Spliterator se vytvoří nad snímkem (seznamem), který se dělí po indexech
+     */
+    @Override
+    public Spliterator<V> vytvorSpliterator() {
+        return cti(() -> {
+            final List<V> snimek = new ArrayList<>(tabulka.dejMohutnost());
+            tabulka.vytvorSpliterator().forEachRemaining(snimek::add);
+            return Collections.unmodifiableList(snimek).spliterator();
+        });
+    }
+
+    /**
+     * Zkopíruje zbývající prvky iterátoru obalené tabulky. Volá se pod zámkem pro čtení
+     *
+     * @param iterator Iterátor obalené tabulky
+     *
+     * @return Iterátor nad kopií prvků, který nepodporuje odebírání
+     */
+    private @NotNull Iterator<V> dejSnimek(@NotNull Iterator<V> iterator) {
+        final List<V> snimek = new ArrayList<>();
+        while (iterator.hasNext())
+            snimek.add(iterator.next());
+        return Collections.unmodifiableList(snimek).iterator();
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Pomocné metody pro práci se zámkem">
+    /**
+     * Provede operaci pod zámkem pro zápis
+     */
+    private <T> T zapis(@NotNull Operace<T> operace) throws StromException {
+        final long razitko = zamek.writeLock();
+        try {
+            return operace.proved();
+        } finally {
+            zamek.unlockWrite(razitko);
+        }
+    }
+
+    /**
+     * Provede operaci, která může vyhodit {@link StromException}, pod zámkem pro čtení
+     */
+    private <T> T ctiSVyjimkou(@NotNull Operace<T> operace) throws StromException {
+        final long razitko = zamek.readLock();
+        try {
+            return operace.proved();
+        } finally {
+            zamek.unlockRead(razitko);
+        }
+    }
+
+    /**
+     * Provede operaci bez kontrolované výjimky pod zámkem pro čtení
+     */
+    private <T> T cti(@NotNull Supplier<T> operace) {
+        final long razitko = zamek.readLock();
+        try {
+            return operace.get();
+        } finally {
+            zamek.unlockRead(razitko);
+        }
+    }
+// </editor-fold>
+}
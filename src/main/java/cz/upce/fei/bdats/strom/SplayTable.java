@@ -0,0 +1,770 @@
+package cz.upce.fei.bdats.strom;
+
+import cz.upce.fei.bdats.vyjimky.StromException;
+import cz.upce.fei.bdats.vyjimky.zpravy.ChybovaZpravaStromu;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Třída představuje samoupravující se tabulku (<b>splay strom</b>). Strom se nevyvažuje podle výšek, ale
+ * přístup ke klíči (vložení, odebrání, pořadový dotaz a v průměru každé {@code perioda}-té vyhledání) přesune
+ * nalezený uzel rotacemi do kořene. Často vyhledávané klíče se tak drží u kořene a jejich opakované vyhledání
+ * stojí jen několik porovnání, zatímco klíče, na které se nepřistupuje, klesají hlouběji
+ *
+ * <p> Jednotlivá operace může stát až {@code O(n)} (např. strom po vložení seřazených klíčů je lineární),
+ * amortizovaná (u vyhledávání očekávaná) složitost posloupnosti operací je však {@code O(log n)} na operaci
+ * a pro nerovnoměrné rozložení dotazů (např. Zipfovo rozdělení, kdy většinu dotazů tvoří několik set velkých
+ * obcí) se blíží entropii rozložení. Všechny průchody stromem jsou proto iterativní, aby hloubka stromu
+ * neměla vliv na zásobník
+ *
+ * <p> Protože strom mění i vyhledávání, nelze tabulku číst z více vláken současně, a to ani přes
+ * {@link SoubeznaTable} (čtení pod sdíleným zámkem by strom měnilo souběžně, proto ji konstruktor
+ * {@link SoubeznaTable} odmítne). Iterátory, výpisy a dotazy na patra strom nemění; iterátor do hloubky
+ * zůstává platný i po vyhledávání, protože rotace nemění in-order pořadí uzlů
+ *
+ * @param <K> Typ klíče prvků v tabulce, musí implementovat {@link Comparable}
+ * @param <V> Typ hodnoty
+ */
+public final class SplayTable<K extends Comparable<K>, V> implements IAbstrTable<K, V> {
+
+    private Uzel koren;
+    private final PocitadlaStromu pocitadla = new PocitadlaStromu();
+    /**
+     * Vyhledání přesune nalezený uzel do kořene v průměru jednou za tento počet vyhledání
+     */
+    private final int perioda;
+
+    /**
+     * Konstanta pro nulu
+     */
+    private final int NULTA_HODNOTA = 0;
+    /**
+     * Konstanta reprezentuje hodnotu mohutnosti nebo pořadí v případě, když není nalezen prvek v rámci stromu
+     */
+    private final int UKAZATEL_ABSENCE = -1;
+    /**
+     * Konstanta reprezentuje mohutnost listu
+     */
+    private final int MOHUTNOST_LISTU = 1;
+    /**
+     * Konstanta reprezentuje číslo patra kořene
+     */
+    private final int PATRO_KORENE = 1;
+    /**
+     * Konstanta reprezentuje periodu klasického splay stromu, který přesouvá uzel při každém vyhledání
+     */
+    private final int KAZDE_VYHLEDANI = 1;
+    /**
+     * Výchozí perioda přesunu do kořene při vyhledávání (viz {@link SplayTable#SplayTable(int)})
+     */
+    public static final int VYCHOZI_PERIODA = 8;
+
+    /**
+     * Privátní třída reprezentující uzel stromu. Výška se v uzlu neudržuje, protože ji splay strom ke svému
+     * vyvažování nepotřebuje; mohutnost slouží pořadovým dotazům
+     */
+    private class Uzel {
+        K klic;
+        V hodnota;
+        Uzel rodic;
+        Uzel vlevo;
+        Uzel vpravo;
+        int mohutnost;
+
+        Uzel(K klic, V hodnota, Uzel rodic) {
+            this.klic = klic;
+            this.hodnota = hodnota;
+            this.rodic = rodic;
+            mohutnost = MOHUTNOST_LISTU;
+        }
+    }
+
+    /**
+     * Konstruktor vytvoří prázdnou tabulku s výchozí periodou přesunu do kořene při vyhledávání
+     */
+    public SplayTable() { this(VYCHOZI_PERIODA); }
+
+    /**
+     * Konstruktor vytvoří prázdnou tabulku, která při vyhledávání ({@link SplayTable#najdi(Comparable)},
+     * {@link SplayTable#obsahuje(Comparable)}) přesouvá nalezený uzel do kořene jen s pravděpodobností
+     * {@code 1 / perioda}. Vkládání, odebírání a pořadové dotazy přesouvají uzel do kořene vždy
+     *
+     * <p> Přesun do kořene stojí tolik rotací, kolik porovnání stál sestup, a každá rotace zapisuje do několika
+     * uzlů. U často vyhledávaných klíčů ale stačí přesun jen občas, protože se k nim vyhledávání stejně brzy
+     * vrátí: při periodě {@code 8} klesne počet rotací osmkrát, zatímco počet porovnání se téměř nezmění.
+     * Náhodný (nikoliv každý {@code k}-tý) výběr zachovává očekávanou amortizovanou složitost i pro posloupnost
+     * dotazů, která by se jinak periodě přizpůsobila
+     *
+     * @param perioda Průměrný počet vyhledání na jeden přesun do kořene, {@code 1} je klasický splay strom
+     *
+     * @throws IllegalArgumentException Pokud je perioda menší než 1
+     */
+    public SplayTable(int perioda) {
+        if (perioda < KAZDE_VYHLEDANI)
+            throw new IllegalArgumentException(ChybovaZpravaStromu.NEPLATNA_PERIODA.getZprava());
+        this.perioda = perioda;
+        koren = null;
+    }
+
+    @Override
+    public void zrus() { koren = null; }
+
+    @Override
+    public boolean jePrazdny() { return koren == null; }
+
+    @Override
+    public @NotNull PocitadlaStromu dejPocitadla() { return pocitadla; }
+
+// <editor-fold defaultstate="collapsed" desc="Přesun uzlu do kořene (splay)">
+    /**
+     * Přesune uzel rotacemi do kořene stromu. Podle polohy uzlu vůči rodiči a prarodiči provede:
+     * <ul>
+     * <li> <b>zig</b>: rodič je kořenem, uzel se otočí nad rodiče
+     * <li> <b>zig-zig</b>: uzel i rodič jsou na stejné straně, nejprve se otočí rodič nad prarodiče a poté
+     * uzel nad rodiče (díky tomu se cesta k uzlu přibližně zkrátí na polovinu)
+     * <li> <b>zig-zag</b>: uzel a rodič jsou na opačných stranách, uzel se otočí dvakrát
+     * </ul>
+     *
+     * @param uzel Uzel stromu
+     */
+    private void rozvin(@NotNull Uzel uzel) {
+        while (uzel.rodic != null) {
+            final Uzel rodic = uzel.rodic;
+            final Uzel prarodic = rodic.rodic;
+            if (prarodic != null)
+                rotuj((prarodic.vlevo == rodic) == (rodic.vlevo == uzel) ? rodic : uzel);
+            rotuj(uzel);
+        }
+    }
+
+    /**
+     * Otočí uzel nad jeho rodiče a přepočítá mohutnost obou uzlů. Mohutnost prarodiče se nemění, protože jeho
+     * podstrom obsahuje stále stejné uzly
+     */
+    private void rotuj(@NotNull Uzel uzel) {
+        final Uzel rodic = uzel.rodic;
+        final Uzel prarodic = rodic.rodic;
+        if (rodic.vlevo == uzel) {
+            rodic.vlevo = uzel.vpravo;
+            if (uzel.vpravo != null)
+                uzel.vpravo.rodic = rodic;
+            uzel.vpravo = rodic;
+        } else {
+            rodic.vpravo = uzel.vlevo;
+            if (uzel.vlevo != null)
+                uzel.vlevo.rodic = rodic;
+            uzel.vlevo = rodic;
+        }
+        rodic.rodic = uzel;
+        uzel.rodic = prarodic;
+        if (prarodic == null)
+            koren = uzel;
+        else if (prarodic.vlevo == rodic)
+            prarodic.vlevo = uzel;
+        else
+            prarodic.vpravo = uzel;
+        prepocitejUzel(rodic);
+        prepocitejUzel(uzel);
+        pocitadla.zapocitejVyvazeni();
+    }
+
+    private void prepocitejUzel(@NotNull Uzel uzel) {
+        uzel.mohutnost = dejMohutnostUzlu(uzel.vlevo) + dejMohutnostUzlu(uzel.vpravo) + MOHUTNOST_LISTU;
+    }
+
+    private int dejMohutnostUzlu(Uzel uzel) { return uzel == null ? NULTA_HODNOTA : uzel.mohutnost; }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Vyhledávání">
+    /**
+     * Vyhledá uzel a s pravděpodobností {@code 1 / perioda} ho přesune do kořene. Pokud klíč ve stromu není,
+     * přesune se do kořene poslední navštívený uzel, aby i neúspěšné vyhledání zaplatilo svůj sestup
+     */
+    @Override
+    public V najdi(K klic) throws StromException {
+        pozadatNePrazdnyKlic(klic);
+        if (koren == null)
+            throw new StromException(ChybovaZpravaStromu.PRAZDNY_KOREN.getZprava());
+
+        final Uzel uzel = najdiARozvin(klic, jeCasRozvinout());
+        if (uzel == null)
+            throw new StromException(ChybovaZpravaStromu.PRVEK_NENALEZEN.getZprava());
+        return uzel.hodnota;
+    }
+
+    @Override
+    public boolean obsahuje(K klic) { return klic != null && najdiARozvin(klic, jeCasRozvinout()) != null; }
+
+    /**
+     * Náhodně rozhodne, zda se má vyhledaný uzel přesunout do kořene (s pravděpodobností {@code 1 / perioda})
+     */
+    private boolean jeCasRozvinout() {
+        return perioda == KAZDE_VYHLEDANI || ThreadLocalRandom.current().nextInt(perioda) == NULTA_HODNOTA;
+    }
+
+    /**
+     * Iterativně vyhledá uzel se zadaným klíčem (jedno porovnání na patro) a poslední navštívený uzel přesune
+     * do kořene
+     *
+     * @param rozvinout {@code false}, pokud se má uzel pouze vyhledat
+     *
+     * @return Nalezený uzel (po přesunu kořen stromu) nebo {@code null}
+     */
+    private Uzel najdiARozvin(@NotNull K klic, boolean rozvinout) {
+        Uzel posledni = null;
+        Uzel uzel = koren;
+        while (uzel != null) {
+            posledni = uzel;
+            final int vysledek = porovnej(klic, uzel.klic);
+            if (vysledek == NULTA_HODNOTA)
+                break;
+            uzel = vysledek < NULTA_HODNOTA ? uzel.vlevo : uzel.vpravo;
+        }
+        if (posledni != null && rozvinout)
+            rozvin(posledni);
+        return uzel;
+    }
+
+    /**
+     * Vyhledá uzel bez přesunu do kořene (pro dotazy, které nemají měnit tvar stromu)
+     */
+    private Uzel najdiUzel(K klic) {
+        if (klic == null)
+            return null;
+        Uzel uzel = koren;
+        while (uzel != null) {
+            final int vysledek = porovnej(klic, uzel.klic);
+            if (vysledek == NULTA_HODNOTA)
+                return uzel;
+            uzel = vysledek < NULTA_HODNOTA ? uzel.vlevo : uzel.vpravo;
+        }
+        return null;
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Vkládání">
+    /**
+     * Jediným sestupem najde místo pro nový list, připojí ho a přesune do kořene. Mohutnosti předků se při
+     * sestupu nezvyšují, protože každý předek se během přesunu otočí a jeho mohutnost se přepočítá. Při
+     * duplicitním klíči se do kořene přesune existující uzel a vyhodí se výjimka
+     */
+    @Override
+    public void vloz(K klic, V hodnota) throws StromException {
+        pozadatNePrazdnyKlic(klic);
+        if (koren == null) {
+            koren = new Uzel(klic, hodnota, null);
+            pocitadla.zapocitejVlozeni();
+            return;
+        }
+
+        Uzel rodic;
+        Uzel uzel = koren;
+        int vysledek;
+        do {
+            rodic = uzel;
+            vysledek = porovnej(klic, uzel.klic);
+            if (vysledek == NULTA_HODNOTA) {
+                rozvin(uzel);
+                throw new StromException(ChybovaZpravaStromu.EXISTUJICI_KLIC.getZprava());
+            }
+            uzel = vysledek < NULTA_HODNOTA ? uzel.vlevo : uzel.vpravo;
+        } while (uzel != null);
+
+        final Uzel novyUzel = new Uzel(klic, hodnota, rodic);
+        if (vysledek < NULTA_HODNOTA)
+            rodic.vlevo = novyUzel;
+        else
+            rodic.vpravo = novyUzel;
+        rozvin(novyUzel);
+        pocitadla.zapocitejVlozeni();
+    }
+
+    /**
+     * Popis logiky:
+     * <ol>
+     * <li> Ověří a zkopíruje vstupní pole, případně je seřadí a odhalí duplicity
+     * <li> Slije je s in-order posloupností tabulky (duplicity vůči tabulce vyhodí výjimku dřív, než se
+     * tabulka změní)
+     * <li> Z výsledné posloupnosti postaví dokonale vyvážený strom (hloubka rekurze je {@code log2(n)}), takže
+     * se splay strom zároveň zbaví případných dlouhých cest
+     * </ol>
+     */
+    @Override
+    public void vlozVse(K[] klice, V[] hodnoty) throws StromException {
+        NastrojeTabulek.overDavku(klice, hodnoty);
+
+        K[] noveKlice = Arrays.copyOf(klice, klice.length);
+        V[] noveHodnoty = Arrays.copyOf(hodnoty, hodnoty.length);
+        NastrojeTabulek.seradDavku(noveKlice, noveHodnoty, this::porovnej);
+
+        if (koren != null) {
+            final int pocet = dejMohutnostUzlu(koren) + noveKlice.length;
+            final K[] vsechnyKlice = NastrojeTabulek.vytvorPoleKlicu(pocet);
+            final V[] vsechnyHodnoty = NastrojeTabulek.vytvorPoleHodnot(pocet);
+            slijSTabulkou(noveKlice, noveHodnoty, vsechnyKlice, vsechnyHodnoty);
+            noveKlice = vsechnyKlice;
+            noveHodnoty = vsechnyHodnoty;
+        }
+        koren = postavPodstrom(noveKlice, noveHodnoty, NULTA_HODNOTA, noveKlice.length, null);
+        pocitadla.zapocitejVlozeni(klice.length);
+    }
+
+    /**
+     * Slije in-order posloupnost tabulky se seřazenými novými klíči do výstupních polí
+     *
+     * @throws StromException Pokud se některý nový klíč již v tabulce nachází
+     */
+    private void slijSTabulkou(K[] noveKlice, V[] noveHodnoty, K[] klice, V[] hodnoty) throws StromException {
+        int iNovy = NULTA_HODNOTA;
+        int iVystup = NULTA_HODNOTA;
+        for (Uzel uzel = najdiMinimum(koren); uzel != null; uzel = najdiNaslednika(uzel)) {
+            while (iNovy < noveKlice.length) {
+                final int vysledek = porovnej(noveKlice[iNovy], uzel.klic);
+                if (vysledek == NULTA_HODNOTA)
+                    throw new StromException(ChybovaZpravaStromu.EXISTUJICI_KLIC.getZprava());
+                if (vysledek > NULTA_HODNOTA)
+                    break;
+                klice[iVystup] = noveKlice[iNovy];
+                hodnoty[iVystup++] = noveHodnoty[iNovy++];
+            }
+            klice[iVystup] = uzel.klic;
+            hodnoty[iVystup++] = uzel.hodnota;
+        }
+        while (iNovy < noveKlice.length) {
+            klice[iVystup] = noveKlice[iNovy];
+            hodnoty[iVystup++] = noveHodnoty[iNovy++];
+        }
+    }
+
+    /**
+     * Postaví dokonale vyvážený podstrom ze seřazeného úseku {@code [od, po)} (viz
+     * {@link AbstrTable#vlozVse(Comparable[], Object[])})
+     */
+    private Uzel postavPodstrom(K[] klice, V[] hodnoty, int od, int po, Uzel rodic) {
+        if (od >= po)
+            return null;
+        final int stred = (od + po) >>> 1;
+        final Uzel uzel = new Uzel(klice[stred], hodnoty[stred], rodic);
+        uzel.vlevo = postavPodstrom(klice, hodnoty, od, stred, uzel);
+        uzel.vpravo = postavPodstrom(klice, hodnoty, stred + 1, po, uzel);
+        prepocitejUzel(uzel);
+        return uzel;
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Odebírání">
+    /**
+     * Přesune odebíraný uzel do kořene a odpojí ho. Pokud má levý podstrom, přesune se do jeho kořene největší
+     * uzel (ten nemá pravého potomka) a pravý podstrom se k němu připojí jako pravý potomek
+     */
+    @Override
+    public V odeber(K klic) throws StromException {
+        pozadatNePrazdnyKlic(klic);
+        if (koren == null)
+            throw new StromException(ChybovaZpravaStromu.PRAZDNY_KOREN.getZprava());
+
+        final Uzel uzel = najdiARozvin(klic, true);
+        if (uzel == null)
+            throw new StromException(ChybovaZpravaStromu.PRVEK_NENALEZEN.getZprava());
+
+        final Uzel vlevo = uzel.vlevo;
+        final Uzel vpravo = uzel.vpravo;
+        if (vpravo != null)
+            vpravo.rodic = null;
+        if (vlevo == null) {
+            koren = vpravo;
+        } else {
+            vlevo.rodic = null;
+            koren = vlevo;
+            rozvin(najdiMaximum(vlevo));
+            koren.vpravo = vpravo;
+            if (vpravo != null)
+                vpravo.rodic = koren;
+            prepocitejUzel(koren);
+        }
+        pocitadla.zapocitejOdebrani();
+        return uzel.hodnota;
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Navigace mezi uzly">
+    private Uzel najdiMinimum(Uzel uzel) {
+        if (uzel == null)
+            return null;
+        while (uzel.vlevo != null)
+            uzel = uzel.vlevo;
+        return uzel;
+    }
+
+    private Uzel najdiMaximum(Uzel uzel) {
+        if (uzel == null)
+            return null;
+        while (uzel.vpravo != null)
+            uzel = uzel.vpravo;
+        return uzel;
+    }
+
+    private Uzel najdiNaslednika(@NotNull Uzel uzel) {
+        if (uzel.vpravo != null)
+            return najdiMinimum(uzel.vpravo);
+        Uzel rodic = uzel.rodic;
+        while (rodic != null && uzel == rodic.vpravo) {
+            uzel = rodic;
+            rodic = uzel.rodic;
+        }
+        return rodic;
+    }
+
+    private Uzel najdiPredchudce(@NotNull Uzel uzel) {
+        if (uzel.vlevo != null)
+            return najdiMaximum(uzel.vlevo);
+        Uzel rodic = uzel.rodic;
+        while (rodic != null && uzel == rodic.vlevo) {
+            uzel = rodic;
+            rodic = uzel.rodic;
+        }
+        return rodic;
+    }
+
+    /**
+     * Najde uzel s nejmenším klíčem, který je větší nebo roven zadanému klíči
+     */
+    private Uzel najdiUzelNeMensi(@NotNull K klic) {
+        Uzel kandidat = null;
+        Uzel uzel = koren;
+        while (uzel != null) {
+            final int vysledek = porovnej(klic, uzel.klic);
+            if (vysledek == NULTA_HODNOTA)
+                return uzel;
+            if (vysledek < NULTA_HODNOTA) {
+                kandidat = uzel;
+                uzel = uzel.vlevo;
+            } else {
+                uzel = uzel.vpravo;
+            }
+        }
+        return kandidat;
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Iterátory">
+    @Override
+    public Iterator<V> vytvorIterator(ETypProhl typ) {
+        return switch (typ) {
+            case SIRKA -> new SirkaIterator();
+            case HLOUBKA -> new HloubkaIterator(najdiMinimum(koren), null);
+        };
+    }
+
+    @Override
+    public Iterator<V> vytvorIterator(K od, K po) {
+        return new HloubkaIterator(od == null ? najdiMinimum(koren) : najdiUzelNeMensi(od), po);
+    }
+
+    @Override
+    public Iterator<V> vytvorSestupnyIterator() {
+        return new Iterator<>() {
+            private Uzel dalsiUzel = najdiMaximum(koren);
+
+            @Override
+            public boolean hasNext() { return dalsiUzel != null; }
+
+            @Override
+            public V next() {
+                if (!hasNext())
+                    throw new NoSuchElementException(ChybovaZpravaStromu.KONEC_ITERACE.getZprava());
+                final V hodnota = dalsiUzel.hodnota;
+                dalsiUzel = najdiPredchudce(dalsiUzel);
+                return hodnota;
+            }
+        };
+    }
+
+    /**
+     * Iterátor pro in-order průchod (případně omezený horní mezí), který přechází k následníkovi pomocí
+     * odkazů na rodiče
+     */
+    private final class HloubkaIterator implements Iterator<V> {
+
+        private final K horniMez;
+        private Uzel dalsiUzel;
+
+        /**
+         * @param prvniUzel První vracený uzel
+         * @param po Horní mez (vyloučena), {@code null} znamená konec tabulky
+         */
+        HloubkaIterator(Uzel prvniUzel, K po) {
+            horniMez = po;
+            dalsiUzel = omezHorniMezi(prvniUzel);
+        }
+
+        @Override
+        public boolean hasNext() { return dalsiUzel != null; }
+
+        @Override
+        public V next() {
+            if (!hasNext())
+                throw new NoSuchElementException(ChybovaZpravaStromu.KONEC_ITERACE.getZprava());
+            final V hodnota = dalsiUzel.hodnota;
+            dalsiUzel = omezHorniMezi(najdiNaslednika(dalsiUzel));
+            return hodnota;
+        }
+
+        private Uzel omezHorniMezi(Uzel uzel) {
+            if (uzel == null || horniMez == null)
+                return uzel;
+            return porovnej(uzel.klic, horniMez) < NULTA_HODNOTA ? uzel : null;
+        }
+    }
+
+    /**
+     * Iterátor pro průchod do šířky. Frontou je seznam uzlů, ze kterého se čte postupně od začátku, patro se
+     * určuje průběžně z počtu zbývajících uzlů aktuálního patra (viz {@link PoleTable})
+     */
+    private final class SirkaIterator implements Iterator<V> {
+
+        private final List<Uzel> fronta;
+        private int cteni;
+        private int patro;
+        private int zbyvaVPatre;
+        private int vDalsimPatre;
+
+        SirkaIterator() {
+            fronta = new ArrayList<>(dejMohutnostUzlu(koren));
+            cteni = NULTA_HODNOTA;
+            if (koren != null)
+                fronta.add(koren);
+            patro = PATRO_KORENE;
+            zbyvaVPatre = fronta.size();
+            vDalsimPatre = NULTA_HODNOTA;
+        }
+
+        @Override
+        public boolean hasNext() { return cteni < fronta.size(); }
+
+        @Override
+        public V next() { return dalsiUzel().hodnota; }
+
+        /**
+         * Vrací další uzel v pořadí průchodu do šířky
+         */
+        Uzel dalsiUzel() {
+            if (!hasNext())
+                throw new NoSuchElementException(ChybovaZpravaStromu.KONEC_ITERACE.getZprava());
+            if (zbyvaVPatre == NULTA_HODNOTA) {
+                patro++;
+                zbyvaVPatre = vDalsimPatre;
+                vDalsimPatre = NULTA_HODNOTA;
+            }
+            final Uzel uzel = fronta.get(cteni++);
+            zbyvaVPatre--;
+            if (uzel.vlevo != null) {
+                fronta.add(uzel.vlevo);
+                vDalsimPatre++;
+            }
+            if (uzel.vpravo != null) {
+                fronta.add(uzel.vpravo);
+                vDalsimPatre++;
+            }
+            return uzel;
+        }
+
+        /**
+         * Getter
+         *
+         * @return Číslo patra aktuálního uzlu
+         */
+        int patro() { return patro; }
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Dotazy na patra stromu">
+    /**
+     * Výška se v uzlech neudržuje, a proto se zjistí průchodem do šířky v čase {@code O(n)}
+     */
+    @Override
+    public int dejVysku() { return dejSirkyPater().length; }
+
+    @Override
+    public int[] dejSirkyPater() {
+        final List<Integer> sirky = new ArrayList<>();
+        final SirkaIterator iterator = new SirkaIterator();
+        while (iterator.hasNext()) {
+            iterator.next();
+            if (iterator.patro() > sirky.size())
+                sirky.add(NULTA_HODNOTA);
+            sirky.set(iterator.patro() - PATRO_KORENE, sirky.get(iterator.patro() - PATRO_KORENE) + 1);
+        }
+        return sirky.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    @Override
+    public Iterator<V> vytvorIteratorPatra(int patro) {
+        final List<V> hodnotyPatra = new ArrayList<>();
+        final SirkaIterator iterator = new SirkaIterator();
+        while (iterator.hasNext()) {
+            final Uzel uzel = iterator.dalsiUzel();
+            if (iterator.patro() > patro)
+                break;
+            if (iterator.patro() == patro)
+                hodnotyPatra.add(uzel.hodnota);
+        }
+        return hodnotyPatra.iterator();
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Pořadové dotazy (order statistics)">
+    /**
+     * Vrací mohutnost podstromu uzlu se zadaným klíčem. Uzel se do kořene nepřesouvá, jinak by výsledkem byla
+     * vždy mohutnost celé tabulky
+     */
+    @Override
+    public int dejMohutnost(K klic) {
+        final Uzel uzel = najdiUzel(klic);
+        return uzel == null ? UKAZATEL_ABSENCE : uzel.mohutnost;
+    }
+
+    @Override
+    public int dejMohutnost() { return dejMohutnostUzlu(koren); }
+
+    @Override
+    public V dejPrvekNaPoradi(int poradi) throws StromException { return najdiUzelNaPoradi(poradi).hodnota; }
+
+    @Override
+    public K dejKlicNaPoradi(int poradi) throws StromException { return najdiUzelNaPoradi(poradi).klic; }
+
+    /**
+     * Sestupuje od kořene podle mohutnosti levých podstromů a nalezený uzel přesune do kořene
+     *
+     * @throws StromException Pokud je pořadí mimo rozsah tabulky
+     */
+    private @NotNull Uzel najdiUzelNaPoradi(int poradi) throws StromException {
+        if (poradi < NULTA_HODNOTA || poradi >= dejMohutnostUzlu(koren))
+            throw new StromException(ChybovaZpravaStromu.NEPLATNE_PORADI.getZprava());
+        final Uzel uzel = dejUzelNaPoradi(poradi);
+        rozvin(uzel);
+        return uzel;
+    }
+
+    /**
+     * Vrací uzel na zadaném pořadí bez kontroly rozsahu a bez přesunu do kořene
+     */
+    private @NotNull Uzel dejUzelNaPoradi(int poradi) {
+        Uzel uzel = koren;
+        while (true) {
+            final int levaMohutnost = dejMohutnostUzlu(uzel.vlevo);
+            if (poradi < levaMohutnost) {
+                uzel = uzel.vlevo;
+            } else if (poradi == levaMohutnost) {
+                return uzel;
+            } else {
+                poradi -= levaMohutnost + MOHUTNOST_LISTU;
+                uzel = uzel.vpravo;
+            }
+        }
+    }
+
+    /**
+     * Po přesunu nalezeného uzlu do kořene je jeho pořadím mohutnost levého podstromu
+     */
+    @Override
+    public int dejPoradi(K klic) {
+        if (klic == null || najdiARozvin(klic, true) == null)
+            return UKAZATEL_ABSENCE;
+        return dejMohutnostUzlu(koren.vlevo);
+    }
+
+    @Override
+    public int dejPocetMensich(K klic) throws StromException {
+        pozadatNePrazdnyKlic(klic);
+        return spocitejMensi(klic);
+    }
+
+    @Override
+    public int dejPocetVRozsahu(K od, K po) throws StromException {
+        pozadatNePrazdnyKlic(od);
+        pozadatNePrazdnyKlic(po);
+        if (porovnej(od, po) >= NULTA_HODNOTA)
+            return NULTA_HODNOTA;
+        return spocitejMensi(po) - spocitejMensi(od);
+    }
+
+    /**
+     * Vrací počet klíčů ostře menších než zadaný klíč. Poslední navštívený uzel se přesune do kořene
+     */
+    private int spocitejMensi(@NotNull K klic) {
+        int pocet = NULTA_HODNOTA;
+        Uzel posledni = null;
+        Uzel uzel = koren;
+        while (uzel != null) {
+            posledni = uzel;
+            final int vysledek = porovnej(klic, uzel.klic);
+            if (vysledek == NULTA_HODNOTA) {
+                pocet += dejMohutnostUzlu(uzel.vlevo);
+                break;
+            }
+            if (vysledek < NULTA_HODNOTA) {
+                uzel = uzel.vlevo;
+            } else {
+                pocet += dejMohutnostUzlu(uzel.vlevo) + MOHUTNOST_LISTU;
+                uzel = uzel.vpravo;
+            }
+        }
+        if (posledni != null)
+            rozvin(posledni);
+        return pocet;
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Výpis stromu">
+    private final String ODRADKOVANI = "\n";
+    private final String PREDPIS_PATRO = "Patro ";
+    private final String ODDELOVAC = ": ";
+
+    @Override
+    public void vypisStrom(ETypProhl typ, @NotNull Appendable cil, int od, int pocet) throws IOException {
+        NastrojeTabulek.overVyrezVypisu(od, pocet);
+        switch (typ) {
+            case SIRKA -> {
+                final SirkaIterator iterator = new SirkaIterator();
+                for (int i = NULTA_HODNOTA; i < od && iterator.hasNext(); i++)
+                    iterator.next();
+                for (int i = NULTA_HODNOTA; i < pocet && iterator.hasNext(); i++) {
+                    final V hodnota = iterator.next();
+                    cil.append(PREDPIS_PATRO).append(String.valueOf(iterator.patro())).append(ODDELOVAC)
+                            .append(String.valueOf(hodnota)).append(ODRADKOVANI);
+                }
+            }
+            case HLOUBKA -> {
+                Uzel uzel = od < dejMohutnost() ? dejUzelNaPoradi(od) : null;
+                for (int i = NULTA_HODNOTA; i < pocet && uzel != null; i++, uzel = najdiNaslednika(uzel))
+                    cil.append(String.valueOf(uzel.hodnota)).append(ODRADKOVANI);
+            }
+        }
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Porovnávání a ošetřování klíčů">
+    private int porovnej(@NotNull K obj1, K obj2) {
+        pocitadla.zapocitejPorovnani();
+        return obj1.compareTo(obj2);
+    }
+
+    /**
+     * Ověřuje, zda zadaný klíč není prázdný {@code null}
+     *
+     * @throws StromException Pokud je klíč prázdný
+     */
+    private void pozadatNePrazdnyKlic(K klic) throws StromException {
+        if (klic == null)
+            throw new StromException(ChybovaZpravaStromu.NULL_KLIC.getZprava());
+    }
+// </editor-fold>
+}
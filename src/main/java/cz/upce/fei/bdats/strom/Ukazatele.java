@@ -0,0 +1,77 @@
+package cz.upce.fei.bdats.strom;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Třída představuje sadu číselných ukazatelů hodnot tabulky (např. počet mužů, žen a obyvatel obce), jejichž
+ * součty za celý podstrom si {@link AbstrTable} a {@link PerzistentniTable} udržují v každém uzlu vedle
+ * mohutnosti. Součet ukazatelů prvků v intervalu klíčů se pak zjistí jedním sestupem stromem, stejně jako
+ * pořadí klíče
+ *
+ * <p> Ukazatel se počítá z hodnoty při každém přepočtu uzlu, proto se hodnota uložená v tabulce nesmí měnit
+ * způsobem, který by změnil některý z ukazatelů (např. {@link cz.upce.fei.bdats.data.Obec} je neměnná)
+ *
+ * @param <V> Typ hodnoty
+ */
+final class Ukazatele<V> {
+
+    private final List<ToLongFunction<? super V>> funkce;
+
+    Ukazatele(@NotNull List<ToLongFunction<? super V>> funkce) { this.funkce = List.copyOf(funkce); }
+
+    int dejPocet() { return funkce.size(); }
+
+    /**
+     * Spočítá součty ukazatelů podstromu z hodnoty jeho kořene a součtů obou potomků
+     *
+     * @param cil Pole, do kterého se součty zapíší, nebo {@code null} pro nové pole
+     * @param hodnota Hodnota kořene podstromu
+     * @param vlevo Součty levého podstromu, {@code null} pro prázdný podstrom
+     * @param vpravo Součty pravého podstromu, {@code null} pro prázdný podstrom
+     *
+     * @return Pole se součty podstromu
+     */
+    long @NotNull [] spocitej(long[] cil, V hodnota, long[] vlevo, long[] vpravo) {
+        final long[] soucty = cil == null ? new long[funkce.size()] : cil;
+        for (int i = 0; i < soucty.length; i++) {
+            soucty[i] = funkce.get(i).applyAsLong(hodnota);
+            if (vlevo != null)
+                soucty[i] += vlevo[i];
+            if (vpravo != null)
+                soucty[i] += vpravo[i];
+        }
+        return soucty;
+    }
+
+    /**
+     * Přičte k součtům ukazatele jedné hodnoty
+     */
+    void prictiHodnotu(long @NotNull [] soucty, V hodnota) {
+        for (int i = 0; i < soucty.length; i++)
+            soucty[i] += funkce.get(i).applyAsLong(hodnota);
+    }
+
+    /**
+     * Přičte k součtům součty podstromu
+     *
+     * @param soucty Součty, ke kterým se přičítá
+     * @param podstrom Součty podstromu, {@code null} pro prázdný podstrom
+     */
+    static void pricti(long @NotNull [] soucty, long[] podstrom) {
+        if (podstrom == null)
+            return;
+        for (int i = 0; i < soucty.length; i++)
+            soucty[i] += podstrom[i];
+    }
+
+    /**
+     * Odečte od součtů jiné součty
+     */
+    static void odecti(long @NotNull [] soucty, long @NotNull [] odecitane) {
+        for (int i = 0; i < soucty.length; i++)
+            soucty[i] -= odecitane[i];
+    }
+}
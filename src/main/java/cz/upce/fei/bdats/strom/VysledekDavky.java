@@ -0,0 +1,39 @@
+package cz.upce.fei.bdats.strom;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Záznam představuje souhrnný výsledek vložení dávky prvků (viz
+ * {@link IAbstrTable#vlozDavku(Comparable[], Object[])}). Duplicitní klíče dávku nepřeruší, ale vrátí se
+ * v seznamu odmítnutých klíčů
+ *
+ * @param pocetVlozenych Počet prvků, které se do tabulky skutečně vložily
+ * @param odmitnuteKlice Klíče, které se nevložily, protože je tabulka již obsahovala nebo se v dávce opakovaly
+ * @param <K> Typ klíče
+ */
+public record VysledekDavky<K>(int pocetVlozenych, @NotNull List<K> odmitnuteKlice) {
+
+    /**
+     * Seznam odmítnutých klíčů se zkopíruje, aby výsledek nešlo dodatečně změnit
+     */
+    public VysledekDavky {
+        odmitnuteKlice = List.copyOf(odmitnuteKlice);
+    }
+
+    /**
+     * Zjistí, zda se vložily všechny prvky dávky
+     *
+     * @return {@code true}, pokud nebyl odmítnut žádný klíč
+     */
+    public boolean jeUplny() { return odmitnuteKlice.isEmpty(); }
+
+    @Override
+    public @NotNull String toString() {
+        return "VysledekDavky{" +
+                "pocetVlozenych=" + pocetVlozenych +
+                ", odmitnuteKlice=" + odmitnuteKlice +
+                '}';
+    }
+}
@@ -11,7 +11,15 @@ public enum ChybovaZpravaStromu {
     KONEC_ITERACE("Konec iterace."),
     PRAZDNY_ZASOBNIK("Chyba při provádění iterace: zásobník je prázdný a nelze odebrat prvek"),
     PRAZDNA_FRONTA("Chyba při provádění iterace: fronta je prázdná a nelze odebrat prvek"),
-    PRAZDNY_KOREN("Kořen nebyl nalezen.");
+    PRAZDNY_KOREN("Kořen nebyl nalezen."),
+    NEPLATNE_PORADI("Pořadí je mimo rozsah tabulky."),
+    RUZNA_DELKA_POLI("Pole klíčů a hodnot musí existovat a mít stejnou délku."),
+    NEPLATNY_STUPEN("Minimální stupeň B-stromu musí být alespoň 2."),
+    NEPLATNA_PERIODA("Perioda přesunu do kořene musí být alespoň 1."),
+    NEPLATNY_VYREZ("Počátek a počet řádků výpisu nesmí být záporné."),
+    NEPLATNY_POCET_DOPLNENI("Počet doplnění nesmí být záporný."),
+    NEPLATNA_VZDALENOST("Editační vzdálenost nesmí být záporná."),
+    CTENI_MENI_STROM("Tabulku, kterou mění i vyhledávání (splay strom), nelze číst z více vláken současně.");
 
     private final String zprava;
 
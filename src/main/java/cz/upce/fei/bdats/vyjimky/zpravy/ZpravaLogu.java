@@ -8,6 +8,7 @@ public enum ZpravaLogu {
     LOG_TVORENI_DUPLICITNI_KLIC("Název musí být unikátním v rámci stromu"),
     LOG_TVORENI_PRAZDNY_KLIC("Název nesmí být prázdný"),
     LOG_NALEZENI_NENI_PRVEK("Prvek nebyl nelezen"),
+    LOG_NALEZENI_PODOBNE("Prvek nebyl nelezen, podobné názvy: "),
     LOG_GENERATOR_SPATNY_POCET("Špatně zvolá hodnota: počet musí být kladné celé číslo"),
     LOG_GENERATOR_OBNOVENI("Chyba při vkládání prvků"),
     LOG_NACTENI_VZORU("Chyba při čtení dat ze vzorového .csv souboru: název obce musí být unikátní"),
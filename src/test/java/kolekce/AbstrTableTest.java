@@ -5,7 +5,16 @@ import cz.upce.fei.bdats.vyjimky.StromException;
 import cz.upce.fei.bdats.vyjimky.zpravy.ChybovaZpravaStromu;
 import org.junit.*;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.ToLongFunction;
 
 import static org.junit.Assert.*;
 
@@ -17,6 +26,29 @@ import static org.junit.Assert.*;
  * <li> <b>test_03_</b> Scénáře metody {@link AbstrTable#odeber(Comparable)}
  * <li> <b>test_04_</b> Scénáře metody {@code mohutnost}
  * <li> <b>test_05_</b> Scenáře metody {@link AbstrTable#vytvorIterator(ETypProhl)}
+ * <li> <b>test_06_</b> Scénáře vyvažování stromu (AVL)
+ * <li> <b>test_07_</b> Scénáře počtu porovnání klíčů u metod {@link AbstrTable#najdi(Comparable)} a
+ * {@link AbstrTable#vloz(Comparable, Object)}
+ * <li> <b>test_08_</b> Scénáře pořadových dotazů {@link AbstrTable#dejPrvekNaPoradi(int)},
+ * {@link AbstrTable#dejPoradi(Comparable)} a {@link AbstrTable#dejPocetVRozsahu(Comparable, Comparable)}
+ * <li> <b>test_09_</b> Scénáře metody {@link AbstrTable#vytvorIterator(Comparable, Comparable)}
+ * <li> <b>test_10_</b> Scénáře metody {@link AbstrTable#vlozVse(Comparable[], Object[])}
+ * <li> <b>test_11_</b> Scénáře průchodu do šířky po patrech ({@link AbstrTable#dejSirkyPater()},
+ * {@link AbstrTable#vytvorIteratorPatra(int)}, {@link AbstrTable#vypisStrom(ETypProhl)})
+ * <li> <b>test_12_</b> Scénáře metody {@link AbstrTable#vytvorSestupnyIterator()}
+ * <li> <b>test_13_</b> Scénáře metody {@link AbstrTable#vytvorSpliterator()} a paralelních proudů
+ * <li> <b>test_14_</b> Scénáře metod {@link AbstrTable#odeberRozsah(Comparable, Comparable)} a
+ * {@link AbstrTable#odeberVse(Iterable)}
+ * <li> <b>test_15_</b> Scénáře navigačních dotazů ({@link AbstrTable#dejKlicNejvyse(Comparable)},
+ * {@link AbstrTable#dejKlicNejmene(Comparable)}, ...) a metody
+ * {@link AbstrTable#vytvorSestupnyIterator(Comparable)}
+ * <li> <b>test_16_</b> Scénáře metody {@link AbstrTable#vypisStrom(ETypProhl, Appendable, int, int)}
+ * <li> <b>test_17_</b> Scénáře metod {@link AbstrTable#rozdel(Comparable)} a {@link AbstrTable#spoj(IAbstrTable)}
+ * <li> <b>test_18_</b> Scénáře metod {@link AbstrTable#dejMetriky()} a {@link AbstrTable#dejPocitadla()}
+ * <li> <b>test_19_</b> Scénáře metody {@link AbstrTable#vlozDavku(Comparable[], Object[])}
+ * <li> <b>test_20_</b> Scénáře kodéru předpon klíčů ({@link RetezcovyKodovac},
+ * {@link AbstrTable#AbstrTable(KodovacKlice)})
+ * <li> <b>test_21_</b> Scénáře metody {@link AbstrTable#dejSoucty(Comparable, Comparable)}
  * </ol>
  *
  * @author amirov 10/30/2023
@@ -642,4 +674,1082 @@ public class AbstrTableTest {
             fail();
         }
     }
+
+    /**
+     * Ověřuje, že vkládání seřazených klíčů nevytvoří lineární seznam. Po vložení klíčů {@code 1..7}
+     * vzestupně je strom dokonale vyvážený, tj. kořenem je klíč {@code 4} (jeho mohutnost je {@code 7})
+     * a oba jeho potomci mají mohutnost {@code 3}
+     *
+     * <p> Přehled stromu:
+     *           4
+     *         /   \
+     *        2     6
+     *       / \   / \
+     *      1   3 5   7
+     */
+    @Test
+    public void test_06_01_vyvazeni() {
+        try {
+            for (int klic = 1; klic <= 7; klic++)
+                strom.vloz(klic, String.valueOf(klic));
+
+            assertEquals(7, strom.dejMohutnost(4));
+            assertEquals(3, strom.dejMohutnost(2));
+            assertEquals(3, strom.dejMohutnost(6));
+            assertEquals(1, strom.dejMohutnost(7));
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje dvojitou rotaci (LR): po vložení {@code 5}, {@code 3} a {@code 4} se kořenem stane klíč {@code 4}
+     */
+    @Test
+    public void test_06_02_vyvazeni() {
+        try {
+            strom.vloz(KLIC_A, HODNOTA_A);
+            strom.vloz(KLIC_B, HODNOTA_B);
+            strom.vloz(KLIC_E, HODNOTA_E);
+
+            assertEquals(3, strom.dejMohutnost(KLIC_E));
+            assertEquals(1, strom.dejMohutnost(KLIC_A));
+            assertEquals(1, strom.dejMohutnost(KLIC_B));
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje, že strom zůstane vyvážený i po odebírání prvků a že mohutnost kořene odpovídá počtu prvků.
+     * Vloží {@code 1..15} vzestupně (dokonalý strom s kořenem {@code 8}), odebere celý levý podstrom kromě
+     * klíče {@code 7} a očekává, že se strom rotací vlevo kolem kořene přestaví tak, že novým kořenem
+     * bude klíč {@code 12}
+     *
+     * <p> Přehled stromu po odebírání:
+     *             12
+     *           /    \
+     *          8      14
+     *         / \    /  \
+     *        7  10  13   15
+     *           / \
+     *          9  11
+     */
+    @Test
+    public void test_06_03_vyvazeni() {
+        try {
+            for (int klic = 1; klic <= 15; klic++)
+                strom.vloz(klic, String.valueOf(klic));
+            for (int klic = 1; klic <= 6; klic++)
+                strom.odeber(klic);
+
+            assertEquals(9, strom.dejMohutnost(12));
+            assertEquals(5, strom.dejMohutnost(8));
+            assertEquals(3, strom.dejMohutnost(14));
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje, že vložení velkého počtu seřazených klíčů proběhne bez degenerace stromu: kořen (klíč
+     * {@code 2^16}) drží mohutnost celého stromu a iterátor vrací prvky vzestupně
+     */
+    @Test
+    public void test_06_04_vyvazeni() {
+        try {
+            final int pocet = (1 << 17) - 1;
+            for (int klic = 1; klic <= pocet; klic++)
+                strom.vloz(klic, String.valueOf(klic));
+
+            assertEquals(pocet, strom.dejMohutnost(1 << 16));
+
+            final Iterator<String> iterator = strom.vytvorIterator(ETypProhl.HLOUBKA);
+            while (iterator.hasNext()) {
+                assertEquals(String.valueOf(++index), iterator.next());
+            }
+            assertEquals(pocet, index);
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Klíč počítající volání metody {@link Comparable#compareTo(Object)}, používá se u testovacích případů
+     * <b>test_07_</b>
+     */
+    private static final class PocitanyKlic implements Comparable<PocitanyKlic> {
+        private static int pocetPorovnani;
+        private final int hodnota;
+
+        PocitanyKlic(int hodnota) { this.hodnota = hodnota; }
+
+        @Override
+        public int compareTo(PocitanyKlic other) {
+            pocetPorovnani++;
+            return Integer.compare(hodnota, other.hodnota);
+        }
+    }
+
+    /**
+     * Ověřuje, že vložení nového klíče do stromu s {@code 1023} prvky (výška {@code 10}) porovná klíče nejvýše
+     * jednou na každém patře, tj. existence klíče se nezjišťuje samostatným průchodem
+     */
+    @Test
+    public void test_07_01_porovnani() {
+        try {
+            final IAbstrTable<PocitanyKlic, Integer> pocitanyStrom = new AbstrTable<>();
+            for (int klic = 1; klic <= 1023; klic++)
+                pocitanyStrom.vloz(new PocitanyKlic(klic), klic);
+
+            PocitanyKlic.pocetPorovnani = 0;
+            pocitanyStrom.vloz(new PocitanyKlic(1024), 1024);
+            assertTrue(PocitanyKlic.pocetPorovnani <= 10);
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje, že vložení duplicitního klíče je odhaleno během jediného sestupu a že vyhledání porovná klíče
+     * nejvýše jednou na každém patře
+     */
+    @Test
+    public void test_07_02_porovnani() {
+        try {
+            final IAbstrTable<PocitanyKlic, Integer> pocitanyStrom = new AbstrTable<>();
+            for (int klic = 1; klic <= 1023; klic++)
+                pocitanyStrom.vloz(new PocitanyKlic(klic), klic);
+
+            PocitanyKlic.pocetPorovnani = 0;
+            assertThrows(StromException.class,
+                    () -> pocitanyStrom.vloz(new PocitanyKlic(1), 1));
+            assertTrue(PocitanyKlic.pocetPorovnani <= 10);
+
+            PocitanyKlic.pocetPorovnani = 0;
+            assertEquals(Integer.valueOf(1), pocitanyStrom.najdi(new PocitanyKlic(1)));
+            assertTrue(PocitanyKlic.pocetPorovnani <= 10);
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje, že prvek na k-tém pořadí odpovídá k-tému nejmenšímu klíči, a to i po odebrání prvku
+     * (klíče {@code 2..8}, po odebrání {@code 5} jsou to {@code 2, 3, 4, 6, 7, 8})
+     */
+    @Test
+    public void test_08_01_poradi() {
+        try {
+            strom.vloz(KLIC_A, HODNOTA_A);
+            strom.vloz(KLIC_B, HODNOTA_B);
+            strom.vloz(KLIC_C, HODNOTA_C);
+            strom.vloz(KLIC_D, HODNOTA_D);
+            strom.vloz(KLIC_E, HODNOTA_E);
+            strom.vloz(KLIC_F, HODNOTA_F);
+            strom.vloz(KLIC_G, HODNOTA_G);
+
+            assertEquals(7, strom.dejMohutnost());
+            assertEquals(HODNOTA_D, strom.dejPrvekNaPoradi(0));
+            assertEquals(HODNOTA_A, strom.dejPrvekNaPoradi(3));
+            assertEquals(Integer.valueOf(KLIC_G), strom.dejKlicNaPoradi(6));
+
+            strom.odeber(KLIC_A);
+            assertEquals(6, strom.dejMohutnost());
+            assertEquals(HODNOTA_F, strom.dejPrvekNaPoradi(3));
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje vyhození výjimky pro pořadí mimo rozsah tabulky
+     */
+    @Test
+    public void test_08_02_poradi() {
+        try {
+            strom.vloz(KLIC_A, HODNOTA_A);
+            strom.dejPrvekNaPoradi(1);
+            fail(NEOCEKAVANY_STROM_EXCEPTION);
+        } catch (StromException ex) {
+            assertEquals(ChybovaZpravaStromu.NEPLATNE_PORADI.getZprava(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Ověřuje pořadí existujícího a neexistujícího klíče a počet klíčů menších než zadaný klíč
+     */
+    @Test
+    public void test_08_03_poradi() {
+        try {
+            for (int klic = 10; klic <= 100; klic += 10)
+                strom.vloz(klic, String.valueOf(klic));
+
+            assertEquals(0, strom.dejPoradi(10));
+            assertEquals(4, strom.dejPoradi(50));
+            assertEquals(-1, strom.dejPoradi(55));
+            assertEquals(5, strom.dejPocetMensich(55));
+            assertEquals(0, strom.dejPocetMensich(5));
+            assertEquals(10, strom.dejPocetMensich(1000));
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje počet klíčů v polouzavřeném intervalu {@code [od, po)}
+     */
+    @Test
+    public void test_08_04_poradi() {
+        try {
+            for (int klic = 10; klic <= 100; klic += 10)
+                strom.vloz(klic, String.valueOf(klic));
+
+            assertEquals(3, strom.dejPocetVRozsahu(20, 50));
+            assertEquals(4, strom.dejPocetVRozsahu(15, 55));
+            assertEquals(10, strom.dejPocetVRozsahu(0, 1000));
+            assertEquals(0, strom.dejPocetVRozsahu(50, 20));
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje, že rozsahový iterátor vrací in-order pouze prvky s klíči z intervalu {@code [3, 7)}, tj.
+     * {@code {3: B}, {4: E}, {5: A}, {6: F}}
+     */
+    @Test
+    public void test_09_01_vytvorIteratorRozsahu() {
+        try {
+            strom.vloz(KLIC_A, HODNOTA_A);
+            strom.vloz(KLIC_B, HODNOTA_B);
+            strom.vloz(KLIC_C, HODNOTA_C);
+            strom.vloz(KLIC_D, HODNOTA_D);
+            strom.vloz(KLIC_E, HODNOTA_E);
+            strom.vloz(KLIC_F, HODNOTA_F);
+            strom.vloz(KLIC_G, HODNOTA_G);
+
+            String[] expected = {HODNOTA_B, HODNOTA_E, HODNOTA_A, HODNOTA_F};
+            Iterator<String> iterator = strom.vytvorIterator(KLIC_B, KLIC_C);
+            while (iterator.hasNext()) {
+                assertEquals(expected[index], iterator.next());
+                index++;
+            }
+            assertEquals(expected.length, index);
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje, že meze nemusí být klíči ve stromu a že {@code null} mez znamená neomezený interval
+     */
+    @Test
+    public void test_09_02_vytvorIteratorRozsahu() {
+        try {
+            IAbstrTable<String, Integer> novyStrom = new AbstrTable<>();
+            novyStrom.vloz("Nova Paka", 1);
+            novyStrom.vloz("Nove Mesto", 2);
+            novyStrom.vloz("Novy Jicin", 3);
+            novyStrom.vloz("Nymburk", 4);
+            novyStrom.vloz("Nachod", 5);
+
+            int[] expected = {1, 2, 3};
+            Iterator<Integer> iterator = novyStrom.vytvorIterator("Nov", "Now");
+            while (iterator.hasNext()) {
+                assertEquals(expected[index], (int) iterator.next());
+                index++;
+            }
+            assertEquals(expected.length, index);
+
+            Iterator<Integer> odZacatku = novyStrom.vytvorIterator(null, "Nov");
+            assertEquals(5, (int) odZacatku.next());
+            assertFalse(odZacatku.hasNext());
+
+            Iterator<Integer> doKonce = novyStrom.vytvorIterator("Nyx", null);
+            assertFalse(doKonce.hasNext());
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje, že hromadné vložení seřazených klíčů {@code 1..7} postaví dokonale vyvážený strom s kořenem
+     * {@code 4}
+     */
+    @Test
+    public void test_10_01_vlozVse() {
+        try {
+            Integer[] klice = {1, 2, 3, 4, 5, 6, 7};
+            String[] hodnoty = {"1", "2", "3", "4", "5", "6", "7"};
+            strom.vlozVse(klice, hodnoty);
+
+            assertEquals(7, strom.dejMohutnost(4));
+            assertEquals(3, strom.dejMohutnost(2));
+            assertEquals(3, strom.dejMohutnost(6));
+            assertEquals("5", strom.najdi(5));
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje, že neseřazené klíče se před stavbou stromu seřadí a hodnoty zůstanou u svých klíčů
+     */
+    @Test
+    public void test_10_02_vlozVse() {
+        try {
+            Integer[] klice = {KLIC_C, KLIC_A, KLIC_D, KLIC_G, KLIC_B};
+            String[] hodnoty = {HODNOTA_C, HODNOTA_A, HODNOTA_D, HODNOTA_G, HODNOTA_B};
+            strom.vlozVse(klice, hodnoty);
+
+            String[] expected = {HODNOTA_D, HODNOTA_B, HODNOTA_A, HODNOTA_C, HODNOTA_G};
+            Iterator<String> iterator = strom.vytvorIterator(ETypProhl.HLOUBKA);
+            while (iterator.hasNext()) {
+                assertEquals(expected[index], iterator.next());
+                index++;
+            }
+            assertEquals(expected.length, index);
+            assertEquals(5, strom.dejMohutnost(KLIC_A));
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje, že duplicitní klíč ve vstupu i vůči obsahu tabulky vyhodí výjimku a tabulka se nezmění
+     */
+    @Test
+    public void test_10_03_vlozVse() {
+        try {
+            strom.vloz(KLIC_A, HODNOTA_A);
+
+            assertThrows(StromException.class,
+                    () -> strom.vlozVse(new Integer[]{KLIC_C, KLIC_B, KLIC_C}, new String[]{"x", "y", "z"}));
+            assertThrows(StromException.class,
+                    () -> strom.vlozVse(new Integer[]{KLIC_B, KLIC_A}, new String[]{"x", "y"}));
+            assertThrows(StromException.class,
+                    () -> strom.vlozVse(new Integer[]{KLIC_B}, new String[]{}));
+            assertEquals(1, strom.dejMohutnost());
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje slití nových prvků s neprázdnou tabulkou: výsledkem je vyvážený strom se všemi prvky
+     */
+    @Test
+    public void test_10_04_vlozVse() {
+        try {
+            strom.vloz(KLIC_B, HODNOTA_B);
+            strom.vloz(KLIC_F, HODNOTA_F);
+            strom.vlozVse(new Integer[]{KLIC_D, KLIC_E, KLIC_A, KLIC_C, KLIC_G},
+                    new String[]{HODNOTA_D, HODNOTA_E, HODNOTA_A, HODNOTA_C, HODNOTA_G});
+
+            assertEquals(7, strom.dejMohutnost(KLIC_A));
+            assertEquals(HODNOTA_F, strom.najdi(KLIC_F));
+            assertEquals(HODNOTA_D, strom.dejPrvekNaPoradi(0));
+            assertEquals(HODNOTA_G, strom.dejPrvekNaPoradi(6));
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje výšku stromu, šířky jednotlivých pater a prvky zvoleného patra
+     *
+     * <p> Přehled stromu:
+     *           5(A)
+     *          /    \
+     *        3(B)   7(C)
+     *       /  \   /
+     *     2(D) 4(E) 6(F)
+     */
+    @Test
+    public void test_11_01_patra() {
+        try {
+            strom.vloz(KLIC_A, HODNOTA_A);
+            strom.vloz(KLIC_B, HODNOTA_B);
+            strom.vloz(KLIC_C, HODNOTA_C);
+            strom.vloz(KLIC_D, HODNOTA_D);
+            strom.vloz(KLIC_E, HODNOTA_E);
+            strom.vloz(KLIC_F, HODNOTA_F);
+
+            assertEquals(3, strom.dejVysku());
+            assertArrayEquals(new int[]{1, 2, 3}, strom.dejSirkyPater());
+
+            String[] expected = {HODNOTA_D, HODNOTA_E, HODNOTA_F};
+            Iterator<String> iterator = strom.vytvorIteratorPatra(3);
+            while (iterator.hasNext()) {
+                assertEquals(expected[index], iterator.next());
+                index++;
+            }
+            assertEquals(expected.length, index);
+            assertFalse(strom.vytvorIteratorPatra(4).hasNext());
+            assertFalse(strom.vytvorIteratorPatra(0).hasNext());
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje, že výpis stromu do šířky uvádí správné číslo patra u každého prvku
+     */
+    @Test
+    public void test_11_02_patra() {
+        try {
+            strom.vloz(KLIC_A, HODNOTA_A);
+            strom.vloz(KLIC_B, HODNOTA_B);
+            strom.vloz(KLIC_C, HODNOTA_C);
+            strom.vloz(KLIC_D, HODNOTA_D);
+
+            String expected = "Patro 1: A\nPatro 2: B\nPatro 2: C\nPatro 3: D\n";
+            assertEquals(expected, strom.vypisStrom(ETypProhl.SIRKA));
+            assertEquals(0, new AbstrTable<Integer, String>().dejSirkyPater().length);
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje, že sestupný iterátor vrací prvky od největšího klíče k nejmenšímu a že po posledním prvku
+     * vyhodí {@link java.util.NoSuchElementException}
+     */
+    @Test
+    public void test_12_01_vytvorSestupnyIterator() {
+        try {
+            strom.vloz(KLIC_C, HODNOTA_C);
+            strom.vloz(KLIC_A, HODNOTA_A);
+            strom.vloz(KLIC_B, HODNOTA_B);
+            strom.vloz(KLIC_G, HODNOTA_G);
+            strom.vloz(KLIC_D, HODNOTA_D);
+            strom.vloz(KLIC_F, HODNOTA_F);
+            strom.vloz(KLIC_E, HODNOTA_E);
+
+            String[] expected = {HODNOTA_G, HODNOTA_C, HODNOTA_F, HODNOTA_A, HODNOTA_E, HODNOTA_B, HODNOTA_D};
+            Iterator<String> iterator = strom.vytvorSestupnyIterator();
+            while (iterator.hasNext()) {
+                assertEquals(expected[index], iterator.next());
+                index++;
+            }
+            assertEquals(expected.length, index);
+            assertThrows(java.util.NoSuchElementException.class, iterator::next);
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje sestupný iterátor nad prázdným stromem
+     */
+    @Test
+    public void test_12_02_vytvorSestupnyIterator() {
+        assertFalse(strom.vytvorSestupnyIterator().hasNext());
+    }
+
+    /**
+     * Ověřuje, že se spliterator dělí na poloviny s přesně známou velikostí a že obě části dohromady
+     * vrátí prvky v in-order pořadí
+     */
+    @Test
+    public void test_13_01_vytvorSpliterator() {
+        try {
+            strom.vloz(KLIC_C, HODNOTA_C);
+            strom.vloz(KLIC_A, HODNOTA_A);
+            strom.vloz(KLIC_B, HODNOTA_B);
+            strom.vloz(KLIC_G, HODNOTA_G);
+            strom.vloz(KLIC_D, HODNOTA_D);
+            strom.vloz(KLIC_F, HODNOTA_F);
+            strom.vloz(KLIC_E, HODNOTA_E);
+
+            final Spliterator<String> druhaPolovina = strom.vytvorSpliterator();
+            final Spliterator<String> prvniPolovina = druhaPolovina.trySplit();
+            assertNotNull(prvniPolovina);
+            assertEquals(3, prvniPolovina.estimateSize());
+            assertEquals(4, druhaPolovina.estimateSize());
+            assertTrue(druhaPolovina.hasCharacteristics(Spliterator.SUBSIZED));
+
+            final StringBuilder sb = new StringBuilder();
+            prvniPolovina.forEachRemaining(sb::append);
+            assertTrue(druhaPolovina.tryAdvance(sb::append));
+            druhaPolovina.forEachRemaining(sb::append);
+            assertEquals(HODNOTA_D + HODNOTA_B + HODNOTA_E + HODNOTA_A + HODNOTA_F + HODNOTA_C + HODNOTA_G,
+                    sb.toString());
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje, že paralelní proud vrátí stejný výsledek agregace jako sekvenční průchod
+     */
+    @Test
+    public void test_13_02_parallelStream() {
+        final int pocet = 10_000;
+        try {
+            for (int klic = 0; klic < pocet; klic++)
+                strom.vloz(klic, String.valueOf(klic));
+
+            final long soucet = strom.parallelStream().mapToLong(Long::parseLong).sum();
+            assertEquals((long) pocet * (pocet - 1) / 2, soucet);
+            assertEquals(strom.stream().toList(), strom.parallelStream().toList());
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje odebrání intervalu uprostřed tabulky i intervalů bez jedné z mezí; po odebrání musí zbylé
+     * prvky, mohutnost a pořadové dotazy odpovídat a strom musí zůstat vyvážený
+     */
+    @Test
+    public void test_14_01_odeberRozsah() {
+        final int pocet = 1_000;
+        try {
+            for (int klic = 0; klic < pocet; klic++)
+                strom.vloz(klic, String.valueOf(klic));
+
+            assertEquals(400, strom.odeberRozsah(300, 700));
+            assertEquals(600, strom.dejMohutnost());
+            assertFalse(strom.obsahuje(300));
+            assertTrue(strom.obsahuje(700));
+            assertEquals(Integer.valueOf(700), strom.dejKlicNaPoradi(300));
+            assertEquals(0, strom.odeberRozsah(300, 700));
+            assertEquals(0, strom.odeberRozsah(800, 100));
+
+            assertEquals(100, strom.odeberRozsah(null, 100));
+            assertEquals(100, strom.odeberRozsah(900, null));
+            assertEquals(Integer.valueOf(100), strom.dejKlicNaPoradi(0));
+            assertEquals(400, strom.dejMohutnost());
+            assertTrue(strom.dejVysku() <= dejMaxVyskuAvl(strom.dejMohutnost()));
+            assertEquals(strom.dejMohutnost(), Arrays.stream(strom.dejSirkyPater()).sum());
+
+            assertEquals(400, strom.odeberRozsah(null, null));
+            assertTrue(strom.jePrazdny());
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje, že náhodně zvolené intervaly a sady klíčů se odeberou stejně jako jednotlivým odebíráním
+     * a že se po každé operaci zachová vyváženost a správné mohutnosti
+     */
+    @Test
+    public void test_14_02_odeberRozsahNahodne() {
+        final int pocet = 2_000;
+        final Random random = new Random(3);
+        final IAbstrTable<Integer, String> vzor = new AbstrTable<>();
+        try {
+            for (int klic = 0; klic < pocet; klic++) {
+                strom.vloz(klic, String.valueOf(klic));
+                vzor.vloz(klic, String.valueOf(klic));
+            }
+            for (int kolo = 0; kolo < 50; kolo++) {
+                final List<Integer> klice = new ArrayList<>();
+                if (kolo % 2 == 0) {
+                    final int od = random.nextInt(pocet);
+                    final int po = od + random.nextInt(60);
+                    for (int klic = od; klic < po; klic++)
+                        klice.add(klic);
+                    int odebrano = 0;
+                    for (int klic : klice) {
+                        if (vzor.obsahuje(klic)) {
+                            vzor.odeber(klic);
+                            odebrano++;
+                        }
+                    }
+                    assertEquals(odebrano, strom.odeberRozsah(od, po));
+                } else {
+                    for (int i = 0; i < 40; i++)
+                        klice.add(random.nextInt(pocet));
+                    int odebrano = 0;
+                    for (int klic : klice) {
+                        if (vzor.obsahuje(klic)) {
+                            vzor.odeber(klic);
+                            odebrano++;
+                        }
+                    }
+                    assertEquals(odebrano, strom.odeberVse(klice));
+                }
+                assertEquals(vzor.vypisStrom(ETypProhl.HLOUBKA), strom.vypisStrom(ETypProhl.HLOUBKA));
+                assertEquals(vzor.dejMohutnost(), Arrays.stream(strom.dejSirkyPater()).sum());
+                assertTrue(strom.dejVysku() <= dejMaxVyskuAvl(strom.dejMohutnost()));
+            }
+            assertEquals(vzor.dejKlicNaPoradi(500), strom.dejKlicNaPoradi(500));
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje, že hromadné odebrání přeskočí chybějící a duplicitní klíče a že při prázdném klíči tabulku
+     * nezmění
+     */
+    @Test
+    public void test_14_03_odeberVse() {
+        try {
+            strom.vloz(KLIC_A, HODNOTA_A);
+            strom.vloz(KLIC_B, HODNOTA_B);
+            strom.vloz(KLIC_C, HODNOTA_C);
+
+            assertThrows(StromException.class, () -> strom.odeberVse(Arrays.asList(KLIC_A, null)));
+            assertEquals(3, strom.dejMohutnost());
+            assertEquals(2, strom.odeberVse(List.of(KLIC_A, KLIC_C, KLIC_A, KLIC_G)));
+            assertEquals(HODNOTA_B, strom.najdi(KLIC_B));
+            assertEquals(1, strom.dejMohutnost());
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Vrací horní mez výšky AVL stromu s {@code n} prvky ({@code 1.44 * log2(n + 2)})
+     */
+    private int dejMaxVyskuAvl(int n) {
+        return (int) (1.44 * Math.log(n + 2) / Math.log(2));
+    }
+
+    /**
+     * Ověřuje navigační dotazy nad stromem s klíči 2 až 8 bez klíče 5 a na hranicích tabulky
+     */
+    @Test
+    public void test_15_01_navigace() {
+        try {
+            strom.vloz(KLIC_B, HODNOTA_B);
+            strom.vloz(KLIC_C, HODNOTA_C);
+            strom.vloz(KLIC_D, HODNOTA_D);
+            strom.vloz(KLIC_E, HODNOTA_E);
+            strom.vloz(KLIC_F, HODNOTA_F);
+            strom.vloz(KLIC_G, HODNOTA_G);
+
+            assertEquals(Integer.valueOf(KLIC_E), strom.dejKlicNejvyse(KLIC_A));
+            assertEquals(Integer.valueOf(KLIC_F), strom.dejKlicNejmene(KLIC_A));
+            assertEquals(Integer.valueOf(KLIC_F), strom.dejKlicNejvyse(KLIC_F));
+            assertEquals(Integer.valueOf(KLIC_E), strom.dejPredchoziKlic(KLIC_F));
+            assertEquals(Integer.valueOf(KLIC_C), strom.dejNasledujiciKlic(KLIC_F));
+            assertNull(strom.dejPredchoziKlic(KLIC_D));
+            assertNull(strom.dejNasledujiciKlic(KLIC_G));
+            assertNull(strom.dejKlicNejvyse(1));
+            assertEquals(Integer.valueOf(KLIC_D), strom.dejPrvniKlic());
+            assertEquals(Integer.valueOf(KLIC_G), strom.dejPosledniKlic());
+            assertThrows(StromException.class, () -> strom.dejKlicNejmene(null));
+            assertNull(new AbstrTable<Integer, String>().dejPrvniKlic());
+
+            final StringBuilder sb = new StringBuilder();
+            strom.vytvorSestupnyIterator(KLIC_A).forEachRemaining(sb::append);
+            assertEquals(HODNOTA_E + HODNOTA_B + HODNOTA_D, sb.toString());
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje navigační dotazy a sestupný iterátor od klíče proti {@link TreeSet} pro všechny klíče
+     * z rozsahu (obsažené i chybějící)
+     */
+    @Test
+    public void test_15_02_navigaceNahodne() {
+        final int rozsah = 2_000;
+        final Random random = new Random(5);
+        final TreeSet<Integer> vzor = new TreeSet<>();
+        try {
+            for (int i = 0; i < rozsah / 2; i++) {
+                final int klic = random.nextInt(rozsah);
+                if (vzor.add(klic))
+                    strom.vloz(klic, String.valueOf(klic));
+            }
+            for (int klic = -1; klic <= rozsah; klic++) {
+                assertEquals(vzor.floor(klic), strom.dejKlicNejvyse(klic));
+                assertEquals(vzor.ceiling(klic), strom.dejKlicNejmene(klic));
+                assertEquals(vzor.lower(klic), strom.dejPredchoziKlic(klic));
+                assertEquals(vzor.higher(klic), strom.dejNasledujiciKlic(klic));
+            }
+            final Iterator<String> iterator = strom.vytvorSestupnyIterator(rozsah / 2);
+            for (int klic : vzor.headSet(rozsah / 2, true).descendingSet())
+                assertEquals(String.valueOf(klic), iterator.next());
+            assertFalse(iterator.hasNext());
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje, že výřez výpisu zapsaný do cíle odpovídá příslušným řádkům úplného výpisu pro oba typy průchodu
+     */
+    @Test
+    public void test_16_01_vypisDoCile() {
+        try {
+            for (int klic = 0; klic < 100; klic++)
+                strom.vloz((klic * 37) % 100, String.valueOf(klic));
+            for (ETypProhl typ : ETypProhl.values()) {
+                final String[] radky = strom.vypisStrom(typ).split("\n");
+                final StringBuilder cil = new StringBuilder();
+                strom.vypisStrom(typ, cil);
+                assertEquals(strom.vypisStrom(typ), cil.toString());
+
+                cil.setLength(0);
+                strom.vypisStrom(typ, cil, 10, 25);
+                assertEquals(String.join("\n", Arrays.copyOfRange(radky, 10, 35)) + "\n", cil.toString());
+                cil.setLength(0);
+                strom.vypisStrom(typ, cil, 95, 25);
+                assertEquals(String.join("\n", Arrays.copyOfRange(radky, 95, 100)) + "\n", cil.toString());
+                cil.setLength(0);
+                strom.vypisStrom(typ, cil, 100, 5);
+                assertEquals("", cil.toString());
+                assertThrows(IllegalArgumentException.class, () -> strom.vypisStrom(typ, cil, -1, 5));
+            }
+        } catch (StromException | IOException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje, že rozdělení a opětovné spojení tabulky zachová prvky, pořadové dotazy i vyváženost obou částí
+     */
+    @Test
+    public void test_17_01_rozdelASpoj() {
+        final int pocet = 1_000;
+        final AbstrTable<Integer, String> tabulka = new AbstrTable<>();
+        try {
+            for (int klic = 0; klic < pocet; klic++)
+                tabulka.vloz((klic * 37) % pocet, String.valueOf((klic * 37) % pocet));
+            final String vypis = tabulka.vypisStrom(ETypProhl.HLOUBKA);
+
+            final AbstrTable<Integer, String> vetsi = tabulka.rozdel(300);
+            assertEquals(300, tabulka.dejMohutnost());
+            assertEquals(700, vetsi.dejMohutnost());
+            assertEquals(Integer.valueOf(299), tabulka.dejPosledniKlic());
+            assertEquals(Integer.valueOf(300), vetsi.dejKlicNaPoradi(0));
+            assertEquals(700, vetsi.dejMohutnost(Integer.parseInt(vetsi.vytvorIteratorPatra(1).next())));
+            assertTrue(tabulka.dejVysku() <= dejMaxVyskuAvl(tabulka.dejMohutnost()));
+            assertTrue(vetsi.dejVysku() <= dejMaxVyskuAvl(vetsi.dejMohutnost()));
+            assertTrue(tabulka.rozdel(pocet).jePrazdny());
+            assertEquals(300, tabulka.dejMohutnost());
+
+            final AbstrTable<Integer, String> mensi = new AbstrTable<>();
+            for (int klic = 0; klic < 300; klic++)
+                mensi.vloz(klic, String.valueOf(klic));
+            vetsi.spoj(mensi);
+            assertTrue(mensi.jePrazdny());
+            assertEquals(vypis, vetsi.vypisStrom(ETypProhl.HLOUBKA));
+            assertTrue(vetsi.dejVysku() <= dejMaxVyskuAvl(pocet));
+            assertThrows(StromException.class, () -> tabulka.rozdel(null));
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje spojení tabulek s prolínajícími se klíči a s jinou implementací a odmítnutí společného klíče
+     */
+    @Test
+    public void test_17_02_spojProlinajici() {
+        final AbstrTable<Integer, String> sude = new AbstrTable<>();
+        final IAbstrTable<Integer, String> liche = new PerzistentniTable<>();
+        try {
+            for (int klic = 0; klic < 200; klic += 2) {
+                sude.vloz(klic, String.valueOf(klic));
+                liche.vloz(klic + 1, String.valueOf(klic + 1));
+            }
+            final AbstrTable<Integer, String> duplicitni = new AbstrTable<>();
+            duplicitni.vloz(1, "X");
+            duplicitni.vloz(4, "Y");
+            assertThrows(StromException.class, () -> sude.spoj(duplicitni));
+            assertEquals(2, duplicitni.dejMohutnost());
+            assertEquals(100, sude.dejMohutnost());
+
+            sude.spoj(liche);
+            assertTrue(liche.jePrazdny());
+            assertEquals(200, sude.dejMohutnost());
+            for (int poradi = 0; poradi < 200; poradi++)
+                assertEquals(Integer.valueOf(poradi), sude.dejKlicNaPoradi(poradi));
+            assertThrows(StromException.class, () -> sude.spoj(sude));
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje metriky dokonale vyváženého stromu se sedmi prvky (vloženými vzestupně, takže se strom vyvažuje
+     * rotacemi) a prázdného stromu
+     */
+    @Test
+    public void test_18_01_metriky() {
+        try {
+            assertEquals(0, strom.dejMetriky().pocetPrvku());
+            assertEquals(0.0, strom.dejMetriky().prumernaHloubka(), 0.0);
+            for (int klic = 1; klic <= 7; klic++)
+                strom.vloz(klic, String.valueOf(klic));
+
+            final MetrikyStromu metriky = strom.dejMetriky();
+            assertEquals(7, metriky.pocetPrvku());
+            assertEquals(3, metriky.vyska());
+            assertArrayEquals(new int[]{1, 2, 4}, metriky.histogramHloubek());
+            assertEquals(17.0 / 7, metriky.prumernaHloubka(), 1e-9);
+            assertEquals(1.0, metriky.dejPomerKOptimu(), 1e-9);
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje, že vypnutá počítadla nic nepočítají a zapnutá počítají vložení, odebrání, porovnání klíčů
+     * a rotace
+     */
+    @Test
+    public void test_18_02_pocitadla() {
+        try {
+            final PocitadlaStromu pocitadla = strom.dejPocitadla();
+            strom.vloz(KLIC_A, HODNOTA_A);
+            assertFalse(pocitadla.jeZapnuto());
+            assertEquals(0, pocitadla.dejPocetVlozeni());
+
+            pocitadla.zapni();
+            strom.vloz(KLIC_C, HODNOTA_C);
+            assertEquals(1, pocitadla.dejPocetPorovnani());
+            strom.vloz(KLIC_G, HODNOTA_G);
+            assertEquals(3, pocitadla.dejPocetPorovnani());
+            assertEquals(1, pocitadla.dejPocetVyvazeni());
+            assertThrows(StromException.class, () -> strom.vloz(KLIC_A, HODNOTA_A));
+            assertEquals(2, pocitadla.dejPocetVlozeni());
+
+            strom.vlozVse(new Integer[]{KLIC_B, KLIC_D}, new String[]{HODNOTA_B, HODNOTA_D});
+            assertEquals(4, pocitadla.dejPocetVlozeni());
+            strom.odeber(KLIC_A);
+            assertEquals(2, strom.odeberRozsah(KLIC_D, KLIC_A));
+            assertEquals(3, pocitadla.dejPocetOdebrani());
+
+            pocitadla.vynuluj();
+            assertEquals(0, pocitadla.dejPocetPorovnani());
+            pocitadla.vypni();
+            strom.najdi(KLIC_C);
+            assertEquals(0, pocitadla.dejPocetPorovnani());
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje, že dávka s klíči opakujícími se v dávce i vůči tabulce se vloží bez výjimky, ponechá první
+     * z opakujících se prvků a vrátí seřazené odmítnuté klíče, zatímco neplatná dávka tabulku nezmění
+     */
+    @Test
+    public void test_19_01_vlozDavku() {
+        try {
+            strom.vlozVse(new Integer[]{KLIC_B, KLIC_A}, new String[]{HODNOTA_B, HODNOTA_A});
+            final VysledekDavky<Integer> vysledek = strom.vlozDavku(
+                    new Integer[]{KLIC_G, KLIC_A, KLIC_D, KLIC_G, KLIC_B, KLIC_C},
+                    new String[]{HODNOTA_G, "X", HODNOTA_D, "Y", "Z", HODNOTA_C});
+            assertEquals(3, vysledek.pocetVlozenych());
+            assertEquals(List.of(KLIC_B, KLIC_A, KLIC_G), vysledek.odmitnuteKlice());
+            assertFalse(vysledek.jeUplny());
+            assertEquals(HODNOTA_A, strom.najdi(KLIC_A));
+            assertEquals(HODNOTA_B, strom.najdi(KLIC_B));
+            assertEquals(HODNOTA_G, strom.najdi(KLIC_G));
+            assertEquals(Integer.valueOf(KLIC_D), strom.dejPrvniKlic());
+
+            assertTrue(strom.vlozDavku(new Integer[0], new String[0]).jeUplny());
+            assertThrows(StromException.class, () -> strom.vlozDavku(new Integer[]{1, null}, new String[]{"1", "2"}));
+            assertThrows(StromException.class, () -> strom.vlozDavku(new Integer[]{1}, new String[0]));
+            assertEquals(5, strom.dejMohutnost());
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje, že po sérii náhodných dávek různé velikosti (menších i větších než tabulka) odpovídá obsah
+     * tabulky vzoru, pořadové dotazy a výška stromu zůstanou správné a výchozí implementace rozhraní
+     * ({@link BStromTable}) odmítne stejné klíče
+     */
+    @Test
+    public void test_19_02_vlozDavkuNahodne() {
+        final int rozsah = 5_000;
+        final Random random = new Random(19);
+        final TreeSet<Integer> vzor = new TreeSet<>();
+        final IAbstrTable<Integer, String> bStrom = new BStromTable<>(2);
+        try {
+            for (int velikost : new int[]{1, 10, 3_000, 50, 2, 1_000}) {
+                final Integer[] klice = new Integer[velikost];
+                final String[] hodnoty = new String[velikost];
+                int ocekavanyPocet = 0;
+                for (int i = 0; i < velikost; i++) {
+                    klice[i] = random.nextInt(rozsah);
+                    hodnoty[i] = String.valueOf(klice[i]);
+                    if (vzor.add(klice[i]))
+                        ocekavanyPocet++;
+                }
+                final VysledekDavky<Integer> vysledek = strom.vlozDavku(klice, hodnoty);
+                final VysledekDavky<Integer> vysledekBStromu = bStrom.vlozDavku(klice, hodnoty);
+                assertEquals(ocekavanyPocet, vysledek.pocetVlozenych());
+                assertEquals(velikost - ocekavanyPocet, vysledek.odmitnuteKlice().size());
+                assertEquals(ocekavanyPocet, vysledekBStromu.pocetVlozenych());
+                final List<Integer> odmitnuteBStromem = new ArrayList<>(vysledekBStromu.odmitnuteKlice());
+                odmitnuteBStromem.sort(null);
+                assertEquals(odmitnuteBStromem, vysledek.odmitnuteKlice());
+                assertTrue(strom.dejVysku() <= dejMaxVyskuAvl(strom.dejMohutnost()));
+            }
+
+            assertEquals(vzor.size(), strom.dejMohutnost());
+            int poradi = 0;
+            for (int klic : vzor) {
+                assertEquals(Integer.valueOf(klic), strom.dejKlicNaPoradi(poradi));
+                assertEquals(poradi++, strom.dejPoradi(klic));
+            }
+            assertEquals(bStrom.vypisStrom(ETypProhl.HLOUBKA), strom.vypisStrom(ETypProhl.HLOUBKA));
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje, že pořadí kódů bez znaménka nikdy neodporuje pořadí {@link String#compareTo(String)} a že
+     * stejné řetězce mají stejný kód (řetězce se společnými předponami, diakritikou i znaky mimo Latin-1)
+     */
+    @Test
+    public void test_20_01_poradiKodu() {
+        final KodovacKlice<String> kodovac = new RetezcovyKodovac();
+        final String[] slova = dejNazvyObci(2_000, new Random(20));
+        for (String a : slova) {
+            final long kodA = kodovac.zakoduj(a);
+            assertEquals(kodA, kodovac.zakoduj(new String(a.toCharArray())));
+            for (int i = 0; i < slova.length; i += 13) {
+                final int poradiKodu = Long.compareUnsigned(kodA, kodovac.zakoduj(slova[i]));
+                if (poradiKodu != 0)
+                    assertEquals(Integer.signum(poradiKodu), Integer.signum(a.compareTo(slova[i])));
+            }
+        }
+        assertEquals(0L, kodovac.zakoduj(""));
+        assertTrue(Long.compareUnsigned(kodovac.zakoduj("Nové"), kodovac.zakoduj("Nové Město")) < 0);
+        assertTrue(Long.compareUnsigned(kodovac.zakoduj("Nový"), kodovac.zakoduj("Nová")) > 0);
+        assertTrue(Long.compareUnsigned(kodovac.zakoduj("Čáslav"), kodovac.zakoduj("Zlín")) > 0);
+    }
+
+    /**
+     * Ověřuje, že tabulka s kodérem předpon vrací po stejných operacích stejné výsledky jako tabulka bez
+     * kodéru a že při vyhledávání provede méně úplných porovnání klíčů
+     */
+    @Test
+    public void test_20_02_tabulkaSKodovacem() {
+        final IAbstrTable<String, Integer> bezKodovace = new AbstrTable<>();
+        final IAbstrTable<String, Integer> sKodovacem = new AbstrTable<>(new RetezcovyKodovac());
+        final Random random = new Random(21);
+        final String[] nazvy = dejNazvyObci(3_000, random);
+        try {
+            for (int i = 0; i < nazvy.length; i++) {
+                if (bezKodovace.obsahuje(nazvy[i])) {
+                    assertTrue(sKodovacem.obsahuje(nazvy[i]));
+                    if (random.nextBoolean())
+                        assertEquals(bezKodovace.odeber(nazvy[i]), sKodovacem.odeber(nazvy[i]));
+                } else {
+                    bezKodovace.vloz(nazvy[i], i);
+                    sKodovacem.vloz(nazvy[i], i);
+                }
+            }
+            assertEquals(bezKodovace.vypisStrom(ETypProhl.HLOUBKA), sKodovacem.vypisStrom(ETypProhl.HLOUBKA));
+            for (String nazev : nazvy) {
+                assertEquals(bezKodovace.dejPoradi(nazev), sKodovacem.dejPoradi(nazev));
+                assertEquals(bezKodovace.dejKlicNejvyse(nazev + "a"), sKodovacem.dejKlicNejvyse(nazev + "a"));
+                assertEquals(bezKodovace.dejPocetMensich(nazev), sKodovacem.dejPocetMensich(nazev));
+            }
+
+            bezKodovace.dejPocitadla().zapni();
+            sKodovacem.dejPocitadla().zapni();
+            for (String nazev : nazvy)
+                assertEquals(bezKodovace.obsahuje(nazev), sKodovacem.obsahuje(nazev));
+            assertTrue(sKodovacem.dejPocitadla().dejPocetPorovnani()
+                    < bezKodovace.dejPocitadla().dejPocetPorovnani() / 2);
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    private String[] dejNazvyObci(int pocet, Random random) {
+        final String[] predpony = {"", "Nové ", "Nová ", "Nový ", "Horní ", "Dolní ", "Velké ", "Malé "};
+        final String[] koreny = {"Město", "Ves", "Lhota", "Čáslav", "Žďár", "Ústí", "Ostrov", "Zlín", "Ōtaru"};
+        final String[] nazvy = new String[pocet];
+        for (int i = 0; i < pocet; i++) {
+            nazvy[i] = predpony[random.nextInt(predpony.length)] + koreny[random.nextInt(koreny.length)];
+            if (random.nextInt(3) > 0)
+                nazvy[i] += " " + random.nextInt(pocet / 4);
+        }
+        return nazvy;
+    }
+
+    /**
+     * Ověřuje, že tabulka rozdělená a znovu spojená se stejným kodérem předpon dál nachází všechny klíče
+     * (nová tabulka z rozdělení převezme kodér)
+     */
+    @Test
+    public void test_20_03_rozdelSKodovacem() {
+        final AbstrTable<String, Integer> tabulka = new AbstrTable<>(new RetezcovyKodovac());
+        final String[] nazvy = dejNazvyObci(500, new Random(22));
+        try {
+            for (int i = 0; i < nazvy.length; i++) {
+                if (!tabulka.obsahuje(nazvy[i]))
+                    tabulka.vloz(nazvy[i], i);
+            }
+            final int pocet = tabulka.dejMohutnost();
+            final AbstrTable<String, Integer> vetsi = tabulka.rozdel("Horní");
+            for (String nazev : nazvy)
+                assertTrue(nazev.compareTo("Horní") < 0 ? tabulka.obsahuje(nazev) : vetsi.obsahuje(nazev));
+            tabulka.spoj(vetsi);
+            assertEquals(pocet, tabulka.dejMohutnost());
+            for (String nazev : nazvy)
+                assertTrue(tabulka.obsahuje(nazev));
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje, že součty ukazatelů v náhodných intervalech odpovídají součtům spočítaným průchodem všech prvků
+     * po náhodném vkládání, odebírání, hromadném vložení, odebrání rozsahu a rozdělení a spojení tabulky
+     */
+    @Test
+    public void test_21_01_soucty() {
+        final List<ToLongFunction<? super String>> ukazatele = List.of(String::length, hodnota -> 1);
+        final AbstrTable<Integer, String> tabulka = new AbstrTable<>(ukazatele);
+        final TreeMap<Integer, String> vzor = new TreeMap<>();
+        final Random random = new Random(21);
+        try {
+            for (int i = 0; i < 3_000; i++) {
+                final int klic = random.nextInt(1_000);
+                if (vzor.containsKey(klic)) {
+                    assertEquals(vzor.remove(klic), tabulka.odeber(klic));
+                } else {
+                    final String hodnota = "x".repeat(random.nextInt(20));
+                    vzor.put(klic, hodnota);
+                    tabulka.vloz(klic, hodnota);
+                }
+            }
+            final Integer[] klice = {2_000, 1_500, 1_700};
+            final String[] hodnoty = {"abc", "a", "abcdefgh"};
+            tabulka.vlozDavku(klice, hodnoty);
+            for (int i = 0; i < klice.length; i++)
+                vzor.put(klice[i], hodnoty[i]);
+            tabulka.odeberRozsah(100, 200);
+            vzor.subMap(100, 200).clear();
+            tabulka.spoj(tabulka.rozdel(500));
+
+            for (int i = 0; i < 500; i++) {
+                final Integer od = random.nextInt(10) == 0 ? null : random.nextInt(2_100);
+                final Integer po = random.nextInt(10) == 0 ? null : random.nextInt(2_100);
+                long delka = 0;
+                long pocet = 0;
+                for (var prvek : vzor.entrySet()) {
+                    if ((od == null || prvek.getKey() >= od) && (po == null || prvek.getKey() < po)) {
+                        delka += prvek.getValue().length();
+                        pocet++;
+                    }
+                }
+                assertArrayEquals(new long[]{delka, pocet}, tabulka.dejSoucty(od, po));
+            }
+            assertEquals(0, new AbstrTable<Integer, String>().dejSoucty(null, null).length);
+        } catch (StromException ex) {
+            fail();
+        }
+    }
 }
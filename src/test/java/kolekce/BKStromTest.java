@@ -0,0 +1,145 @@
+package kolekce;
+
+import cz.upce.fei.bdats.strom.BKStrom;
+import cz.upce.fei.bdats.strom.PocitadlaStromu;
+import org.junit.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testovací případy pro:
+ * <ol>
+ * <li> <b>test_01_</b> Scénáře shody s úplným průchodem všech klíčů při náhodném vkládání a odebírání
+ * (označené uzly a nové sestavení stromu)
+ * <li> <b>test_02_</b> Scénáře pořadí výsledků, opětovného vložení odebraného klíče a počtu výpočtů
+ * vzdálenosti
+ * </ol>
+ */
+public class BKStromTest {
+
+    private final int POCET_OPERACI = 6_000;
+    private final int POCET_DOTAZU = 300;
+    private final int MAX_VZDALENOST = 3;
+    private final long SEMINKO = 23L;
+    private final String ABECEDA = "abcdeěšíoný ";
+
+    /**
+     * Instance datové struktury
+     */
+    private BKStrom<String> strom;
+
+    @Before
+    public void setUp() {
+        strom = new BKStrom<>();
+    }
+
+    @After
+    public void tearDown() {
+        strom = null;
+    }
+
+    /**
+     * Ověřuje, že po náhodných vloženích a odebráních vrací přibližné vyhledání pro všechny vzdálenosti
+     * 0 až {@link BKStromTest#MAX_VZDALENOST} stejné klíče ve stejném pořadí jako porovnání dotazu se všemi
+     * klíči
+     */
+    @Test
+    public void test_01_01_shodaSUplnymPruchodem() {
+        final TreeSet<String> vzor = new TreeSet<>();
+        final Random random = new Random(SEMINKO);
+        for (int i = 0; i < POCET_OPERACI; i++) {
+            final String klic = dejNahodnyRetezec(random);
+            if (vzor.contains(klic) || (random.nextInt(3) == 0 && !vzor.isEmpty())) {
+                final String odebirany = vzor.contains(klic) ? klic : vzor.first();
+                vzor.remove(odebirany);
+                assertTrue(strom.odeber(odebirany));
+            } else {
+                vzor.add(klic);
+                assertTrue(strom.vloz(klic, klic));
+            }
+        }
+
+        assertEquals(vzor.size(), strom.dejPocet());
+        for (int i = 0; i < POCET_DOTAZU; i++) {
+            final String dotaz = dejNahodnyRetezec(random);
+            for (int k = 0; k <= MAX_VZDALENOST; k++)
+                assertEquals(dejPodobne(vzor, dotaz, k), strom.najdiPodobne(dotaz, k));
+        }
+        assertThrows(IllegalArgumentException.class, () -> strom.najdiPodobne("a", -1));
+    }
+
+    /**
+     * Ověřuje pořadí výsledků (vzdálenost, potom klíč), opětovné vložení odebraného klíče, zrušení stromu
+     * a to, že dotaz s malou vzdáleností nepočítá vzdálenost ke všem klíčům
+     */
+    @Test
+    public void test_02_01_poradiAPocetVypoctu() {
+        strom.vloz("Frenštát pod Radhoštěm", "F");
+        strom.vloz("Frýdek-Místek", "M");
+        strom.vloz("Frýdlant", "D");
+        strom.vloz("Frýdlant nad Ostravicí", "O");
+        assertFalse(strom.vloz("Frýdlant", "X"));
+        assertEquals(List.of("F"), strom.najdiPodobne("Frenstat pod Radhostem", 4));
+        assertEquals(List.of("D"), strom.najdiPodobne("Frydlant", 1));
+        assertTrue(strom.odeber("Frýdlant"));
+        assertFalse(strom.odeber("Frýdlant"));
+        assertTrue(strom.najdiPodobne("Frydlant", 1).isEmpty());
+        assertTrue(strom.vloz("Frýdlant", "D2"));
+        assertEquals(List.of("D2"), strom.najdiPodobne("Frýdlant", 0));
+
+        strom.zrus();
+        assertEquals(0, strom.dejPocet());
+        final Random random = new Random(SEMINKO);
+        final List<String> klice = new ArrayList<>();
+        for (int i = 0; i < POCET_OPERACI; i++) {
+            final String klic = "Obec " + random.nextInt(1_000_000);
+            if (strom.vloz(klic, klic))
+                klice.add(klic);
+        }
+        final PocitadlaStromu pocitadla = strom.dejPocitadla();
+        pocitadla.zapni();
+        for (int i = 0; i < POCET_DOTAZU; i++)
+            assertTrue(strom.najdiPodobne(klice.get(i), 1).contains(klice.get(i)));
+        assertTrue(pocitadla.dejPocetPorovnani() < (long) POCET_DOTAZU * klice.size() / 2);
+    }
+
+    private String dejNahodnyRetezec(Random random) {
+        final StringBuilder sb = new StringBuilder();
+        final int delka = 1 + random.nextInt(7);
+        for (int i = 0; i < delka; i++)
+            sb.append(ABECEDA.charAt(random.nextInt(ABECEDA.length())));
+        return sb.toString();
+    }
+
+    private List<String> dejPodobne(TreeSet<String> klice, String dotaz, int maxVzdalenost) {
+        final List<String> podobne = new ArrayList<>();
+        for (String klic : klice) {
+            if (dejVzdalenost(dotaz, klic) <= maxVzdalenost)
+                podobne.add(klic);
+        }
+        podobne.sort(Comparator.comparingInt((String klic) -> dejVzdalenost(dotaz, klic))
+                .thenComparing(Comparator.naturalOrder()));
+        return podobne;
+    }
+
+    private int dejVzdalenost(String a, String b) {
+        final int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++)
+            d[i][0] = i;
+        for (int j = 0; j <= b.length(); j++)
+            d[0][j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            for (int j = 1; j <= b.length(); j++) {
+                final int zamena = d[i - 1][j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                d[i][j] = Math.min(zamena, Math.min(d[i - 1][j], d[i][j - 1]) + 1);
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+}
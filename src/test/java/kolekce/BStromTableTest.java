@@ -0,0 +1,164 @@
+package kolekce;
+
+import cz.upce.fei.bdats.strom.BStromTable;
+import cz.upce.fei.bdats.strom.ETypProhl;
+import cz.upce.fei.bdats.strom.IAbstrTable;
+import cz.upce.fei.bdats.vyjimky.StromException;
+import org.junit.*;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testovací případy pro:
+ * <ol>
+ * <li> <b>test_01_</b> Scénáře odebrání všech prvků a opětovného naplnění
+ * <li> <b>test_02_</b> Scénáře průchodu do šířky a dotazů na patra
+ * <li> <b>test_03_</b> Scénáře metody {@link BStromTable#vlozVse(Comparable[], Object[])} a stavby stromu ze
+ * seřazené posloupnosti
+ * </ol>
+ */
+public class BStromTableTest {
+
+    private final int ROZSAH_KLICU = 2_000;
+    /**
+     * Nejmenší stupeň, aby docházelo k co nejčastějšímu dělení, výpůjčkám a slučování uzlů
+     */
+    private final int STUPEN = 2;
+
+    /**
+     * Instance datové struktury
+     */
+    private IAbstrTable<Integer, String> strom;
+
+    @Before
+    public void setUp() {
+        strom = new BStromTable<>(STUPEN);
+    }
+
+    @After
+    public void tearDown() {
+        strom = null;
+    }
+
+    /**
+     * Ověřuje, že po odebrání všech prvků je tabulka prázdná a lze ji znovu naplnit
+     */
+    @Test
+    public void test_01_01_odebraniVsech() {
+        try {
+            for (int kolo = 0; kolo < 2; kolo++) {
+                for (int klic = 0; klic < ROZSAH_KLICU; klic++)
+                    strom.vloz(klic, String.valueOf(klic));
+                for (int klic = ROZSAH_KLICU - 1; klic >= 0; klic -= 2)
+                    assertEquals(String.valueOf(klic), strom.odeber(klic));
+                for (int klic = 0; klic < ROZSAH_KLICU; klic += 2)
+                    assertEquals(String.valueOf(klic), strom.odeber(klic));
+                assertTrue(strom.jePrazdny());
+                assertEquals(0, strom.dejVysku());
+            }
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje, že průchod do šířky vrátí všechny prvky, součet šířek pater odpovídá mohutnosti, výška je
+     * logaritmická a iterátory pater dohromady pokryjí celou tabulku
+     */
+    @Test
+    public void test_02_01_patra() {
+        try {
+            for (int klic = 0; klic < ROZSAH_KLICU; klic++)
+                strom.vloz(klic, String.valueOf(klic));
+
+            final int[] sirky = strom.dejSirkyPater();
+            assertEquals(strom.dejVysku(), sirky.length);
+            assertEquals(ROZSAH_KLICU, Arrays.stream(sirky).sum());
+            assertTrue(strom.dejVysku() <= 11);
+            final int klicKorene = Integer.parseInt(strom.vytvorIteratorPatra(1).next());
+            assertEquals(ROZSAH_KLICU, strom.dejMohutnost(klicKorene));
+
+            int pocet = 0;
+            for (Iterator<String> iterator = strom.vytvorIterator(ETypProhl.SIRKA); iterator.hasNext(); iterator.next())
+                pocet++;
+            assertEquals(ROZSAH_KLICU, pocet);
+            for (int patro = 1; patro <= strom.dejVysku(); patro++) {
+                int vPatre = 0;
+                for (Iterator<String> iterator = strom.vytvorIteratorPatra(patro); iterator.hasNext(); iterator.next())
+                    vPatre++;
+                assertEquals(sirky[patro - 1], vPatre);
+            }
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje hromadné vložení do neprázdné tabulky a jeho atomičnost při duplicitě
+     */
+    @Test
+    public void test_03_01_vlozVse() {
+        try {
+            strom.vloz(2, "B");
+            strom.vlozVse(new Integer[]{3, 1, 4}, new String[]{"C", "A", "D"});
+            assertEquals("A, B, C, D, ", dejObsah(strom.vytvorIterator(ETypProhl.HLOUBKA)));
+            assertThrows(StromException.class, () -> strom.vlozVse(new Integer[]{5, 1}, new String[]{"E", "X"}));
+            assertThrows(StromException.class, () -> strom.vlozVse(new Integer[]{6, 6}, new String[]{"F", "F"}));
+            assertEquals(4, strom.dejMohutnost());
+            assertThrows(IllegalArgumentException.class, () -> new BStromTable<Integer, String>(1));
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje, že strom postavený hromadným vložením do prázdné i neprázdné tabulky (pro různé počty prvků
+     * a stupně) obsahuje všechny prvky ve správném pořadí, má všechna patra zaplněná podle mohutnosti a lze
+     * z něj postupně odebrat všechny prvky (odebírání by při porušení podmínek B-stromu selhalo)
+     */
+    @Test
+    public void test_03_02_vlozVseStavbaStromu() {
+        try {
+            for (int stupenStromu = STUPEN; stupenStromu <= STUPEN + 2; stupenStromu++) {
+                for (int pocet = 1; pocet <= ROZSAH_KLICU; pocet = pocet * 3 + 1) {
+                    final BStromTable<Integer, String> tabulka = new BStromTable<>(stupenStromu);
+                    for (int klic = 1; klic < pocet; klic += 4)
+                        tabulka.vloz(klic, String.valueOf(klic));
+                    final int pocetPredem = tabulka.dejMohutnost();
+                    final Integer[] klice = new Integer[pocet - pocetPredem];
+                    final String[] hodnoty = new String[klice.length];
+                    int index = 0;
+                    for (int klic = pocet - 1; klic >= 0; klic--) {
+                        if (klic % 4 != 1) {
+                            klice[index] = klic;
+                            hodnoty[index++] = String.valueOf(klic);
+                        }
+                    }
+                    tabulka.vlozVse(klice, hodnoty);
+
+                    assertEquals(pocet, tabulka.dejMohutnost());
+                    assertEquals(pocet, Arrays.stream(tabulka.dejSirkyPater()).sum());
+                    assertEquals(tabulka.dejSirkyPater().length, tabulka.dejVysku());
+                    for (int poradi = 0; poradi < pocet; poradi++)
+                        assertEquals(Integer.valueOf(poradi), tabulka.dejKlicNaPoradi(poradi));
+                    tabulka.vloz(pocet, String.valueOf(pocet));
+                    for (int klic = pocet; klic >= 0; klic--)
+                        assertEquals(String.valueOf(klic), tabulka.odeber(klic));
+                    assertTrue(tabulka.jePrazdny());
+                }
+            }
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    private String dejObsah(Iterator<String> iterator) {
+        final StringBuilder sb = new StringBuilder();
+        while (iterator.hasNext())
+            sb.append(iterator.next()).append(", ");
+        return sb.toString();
+    }
+}
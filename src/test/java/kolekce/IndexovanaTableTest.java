@@ -0,0 +1,194 @@
+package kolekce;
+
+import cz.upce.fei.bdats.strom.AbstrTable;
+import cz.upce.fei.bdats.strom.ETypProhl;
+import cz.upce.fei.bdats.strom.IAbstrTable;
+import cz.upce.fei.bdats.strom.IndexovanaTable;
+import cz.upce.fei.bdats.strom.PosluchacTabulky;
+import cz.upce.fei.bdats.strom.RadixovyStrom;
+import cz.upce.fei.bdats.vyjimky.StromException;
+import org.junit.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testovací případy pro:
+ * <ol>
+ * <li> <b>test_01_</b> Scénáře shody indexu se stromem při náhodném vkládání a odebírání
+ * <li> <b>test_02_</b> Scénáře hromadného vložení, hromadného odebrání, zrušení a indexování neprázdné tabulky
+ * <li> <b>test_03_</b> Scénáře doplňkových indexů ({@link IndexovanaTable#pridejPosluchace(PosluchacTabulky)})
+ * </ol>
+ */
+public class IndexovanaTableTest {
+
+    private final int POCET_OPERACI = 20_000;
+    private final int ROZSAH_KLICU = 500;
+    /**
+     * Násobek klíčů, díky kterému mají klíče stejné nejnižší bity hašovacího kódu a často kolidují
+     */
+    private final int KROK_KOLIZI = 1 << 20;
+    private final long SEMINKO = 13L;
+
+    /**
+     * Instance datové struktury
+     */
+    private IAbstrTable<Integer, String> strom;
+
+    @Before
+    public void setUp() {
+        strom = new IndexovanaTable<>(new AbstrTable<Integer, String>());
+    }
+
+    @After
+    public void tearDown() {
+        strom = null;
+    }
+
+    /**
+     * Ověřuje, že po náhodných vloženích a odebráních kolidujících i nekolidujících klíčů odpovídají
+     * {@code najdi} a {@code obsahuje} obsahu stromu (odebírání s posunem následujících slotů)
+     */
+    @Test
+    public void test_01_01_shodaSeStromem() {
+        final IAbstrTable<Integer, String> vzor = new AbstrTable<>();
+        final Random random = new Random(SEMINKO);
+        try {
+            for (int i = 0; i < POCET_OPERACI; i++) {
+                final int zaklad = random.nextInt(ROZSAH_KLICU);
+                final int klic = random.nextBoolean() ? zaklad : zaklad * KROK_KOLIZI;
+                if (vzor.obsahuje(klic)) {
+                    assertEquals(vzor.odeber(klic), strom.odeber(klic));
+                } else {
+                    vzor.vloz(klic, String.valueOf(klic));
+                    strom.vloz(klic, String.valueOf(klic));
+                }
+            }
+
+            for (int zaklad = 0; zaklad < ROZSAH_KLICU; zaklad++) {
+                for (int klic : new int[]{zaklad, zaklad * KROK_KOLIZI}) {
+                    assertEquals(vzor.obsahuje(klic), strom.obsahuje(klic));
+                    if (vzor.obsahuje(klic))
+                        assertEquals(vzor.najdi(klic), strom.najdi(klic));
+                }
+            }
+            assertEquals(vzor.vypisStrom(ETypProhl.HLOUBKA), strom.vypisStrom(ETypProhl.HLOUBKA));
+            assertThrows(StromException.class, () -> strom.najdi(-1));
+            assertThrows(StromException.class, () -> strom.najdi(null));
+            assertFalse(strom.obsahuje(null));
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje, že duplicitní klíč neovlivní index a neúspěšné hromadné vložení do indexu nic nepřidá
+     */
+    @Test
+    public void test_01_02_neuspesnyZapis() {
+        try {
+            strom.vloz(1, "A");
+            assertThrows(StromException.class, () -> strom.vloz(1, "X"));
+            assertEquals("A", strom.najdi(1));
+            assertThrows(StromException.class, () -> strom.vlozVse(new Integer[]{2, 1}, new String[]{"B", "X"}));
+            assertFalse(strom.obsahuje(2));
+            assertThrows(StromException.class, () -> strom.odeber(3));
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje hromadné vložení (se zvětšením indexu), zrušení a zaindexování již naplněné tabulky
+     */
+    @Test
+    public void test_02_01_vlozVseAZrus() {
+        try {
+            final Integer[] klice = new Integer[ROZSAH_KLICU];
+            final String[] hodnoty = new String[ROZSAH_KLICU];
+            for (int i = 0; i < ROZSAH_KLICU; i++) {
+                klice[i] = i;
+                hodnoty[i] = String.valueOf(i);
+            }
+            final AbstrTable<Integer, String> naplnena = new AbstrTable<>();
+            naplnena.vlozVse(klice, hodnoty);
+            final IAbstrTable<Integer, String> dodatecne = new IndexovanaTable<>(naplnena);
+            assertEquals("250", dodatecne.najdi(250));
+
+            strom.vlozVse(klice, hodnoty);
+            for (int i = 0; i < ROZSAH_KLICU; i++)
+                assertEquals(hodnoty[i], strom.najdi(i));
+            strom.zrus();
+            assertFalse(strom.obsahuje(0));
+            assertTrue(strom.jePrazdny());
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje, že po odebrání intervalu a sady klíčů index odebrané klíče neobsahuje a ostatní ano
+     */
+    @Test
+    public void test_02_02_odeberRozsah() {
+        try {
+            for (int klic = 0; klic < ROZSAH_KLICU; klic++)
+                strom.vloz(klic, String.valueOf(klic));
+
+            assertEquals(100, strom.odeberRozsah(100, 200));
+            assertEquals(2, strom.odeberVse(List.of(0, 150, 499)));
+            for (int klic = 0; klic < ROZSAH_KLICU; klic++)
+                assertEquals(klic != 0 && klic != 499 && (klic < 100 || klic >= 200), strom.obsahuje(klic));
+            assertEquals(ROZSAH_KLICU - 102, strom.dejMohutnost());
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje, že posluchač dostane obsah tabulky při registraci a potom jen úspěšné zápisy (včetně
+     * hromadného odebrání a zrušení) a že předponový strom zaregistrovaný k tabulce řetězců odpovídá jejímu
+     * obsahu
+     */
+    @Test
+    public void test_03_01_posluchac() {
+        final List<String> udalosti = new ArrayList<>();
+        final IndexovanaTable<Integer, String> tabulka = new IndexovanaTable<>(new AbstrTable<Integer, String>());
+        final IndexovanaTable<String, Integer> nazvy = new IndexovanaTable<>(new AbstrTable<String, Integer>());
+        final RadixovyStrom predpony = new RadixovyStrom();
+        try {
+            tabulka.vloz(1, "A");
+            tabulka.pridejPosluchace(new PosluchacTabulky<>() {
+                @Override
+                public void priVlozeni(Integer klic, String hodnota) { udalosti.add("+" + klic + hodnota); }
+
+                @Override
+                public void priOdebrani(Integer klic, String hodnota) { udalosti.add("-" + klic + hodnota); }
+
+                @Override
+                public void priZruseni() { udalosti.add("0"); }
+            });
+            tabulka.vlozVse(new Integer[]{2, 3, 4}, new String[]{"B", "C", "D"});
+            assertThrows(StromException.class, () -> tabulka.vloz(2, "X"));
+            assertThrows(StromException.class, () -> tabulka.odeber(5));
+            tabulka.odeber(1);
+            tabulka.odeberRozsah(3, 4);
+            tabulka.odeberVse(List.of(2, 7));
+            tabulka.zrus();
+            assertEquals(List.of("+1A", "+2B", "+3C", "+4D", "-1A", "-3C", "-2B", "0"), udalosti);
+
+            nazvy.vloz("Hradec", 1);
+            nazvy.pridejPosluchace(predpony);
+            nazvy.vlozVse(new String[]{"Hranice", "Brno", "Hrabová"}, new Integer[]{2, 3, 4});
+            nazvy.odeber("Brno");
+            assertEquals(List.of("Hrabová", "Hradec", "Hranice"), predpony.dejDoplneni("Hra", 5));
+            nazvy.zrus();
+            assertEquals(0, predpony.dejPocet());
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+}
@@ -0,0 +1,443 @@
+package kolekce;
+
+import cz.upce.fei.bdats.strom.AbstrTable;
+import cz.upce.fei.bdats.strom.BKStrom;
+import cz.upce.fei.bdats.strom.BStromTable;
+import cz.upce.fei.bdats.strom.IAbstrTable;
+import cz.upce.fei.bdats.strom.PerzistentniTable;
+import cz.upce.fei.bdats.strom.PocitadlaStromu;
+import cz.upce.fei.bdats.strom.PoleTable;
+import cz.upce.fei.bdats.strom.RetezcovyKodovac;
+import cz.upce.fei.bdats.strom.SoubeznaTable;
+import cz.upce.fei.bdats.strom.SplayTable;
+import cz.upce.fei.bdats.vyjimky.StromException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Jednoduché měření výkonu implementací {@link IAbstrTable}. Nejde o jednotkový test (nespouští se při
+ * {@code mvn test}), měření se spouští ručně metodou {@link MereniVykonu#main(String[])}, např.:
+ *
+ * <pre>
+ * mvn test-compile
+ * java -cp target/classes:target/test-classes kolekce.MereniVykonu soubeh
+ * </pre>
+ *
+ * <p> Každé měření se před vlastním během několikrát zopakuje kvůli zahřátí JIT překladače
+ */
+public final class MereniVykonu {
+
+    private static final int POCET_KLICU = 1_000_000;
+    private static final int POCET_DOTAZU = 2_000_000;
+    private static final int POCET_ZAHRATI = 3;
+    private static final long NANOSEKUND_V_MILISEKUNDE = 1_000_000L;
+    private static final int POCET_OBCI = 100_000;
+    private static final double ZIPF_EXPONENT = 1.0;
+    private static final int POCET_NAZVU = 300_000;
+    private static final int POCET_PRIBLIZNYCH_DOTAZU = 2_000;
+
+    private MereniVykonu() {}
+
+    public static void main(String[] args) throws Exception {
+        final String mereni = args.length > 0 ? args[0] : "soubeh";
+        switch (mereni) {
+            case "soubeh" -> merSoubeh();
+            case "pamet" -> merPamet();
+            case "bstrom" -> merBStrom(args.length > 1 ? Integer.parseInt(args[1]) : POCET_KLICU);
+            case "metriky" -> merMetriky();
+            case "zipf" -> merZipf(args.length > 1 ? Double.parseDouble(args[1]) : ZIPF_EXPONENT);
+            case "predpony" -> merPredpony();
+            case "podobnost" -> merPodobnost(args.length > 1 ? Integer.parseInt(args[1]) : POCET_NAZVU);
+            default -> System.out.println("Neznámé měření: " + mereni);
+        }
+    }
+
+// <editor-fold defaultstate="collapsed" desc="Měření: souběžné čtení (SoubeznaTable)">
+    /**
+     * Měří propustnost čtení {@link SoubeznaTable} při rostoucím počtu vláken. Každé vlákno provede
+     * {@link MereniVykonu#POCET_DOTAZU} vyhledání náhodných klíčů; při škálování by měla celková propustnost
+     * (dotazy za sekundu) růst s počtem jader
+     */
+    private static void merSoubeh() throws Exception {
+        final IAbstrTable<Integer, Integer> tabulka = new SoubeznaTable<>(new AbstrTable<Integer, Integer>());
+        tabulka.vlozVse(dejSerazeneKlice(POCET_KLICU), dejSerazeneKlice(POCET_KLICU));
+
+        final int maxVlaken = Runtime.getRuntime().availableProcessors();
+        for (int vlakna = 1; vlakna <= maxVlaken; vlakna *= 2) {
+            for (int i = 0; i < POCET_ZAHRATI; i++)
+                merCteni(tabulka, vlakna);
+            final long cas = merCteni(tabulka, vlakna);
+            final long dotazu = (long) vlakna * POCET_DOTAZU;
+            System.out.printf("vlaken=%d: %d ms, %.1f mil. dotazu/s%n",
+                    vlakna, cas / NANOSEKUND_V_MILISEKUNDE, dotazu * 1e3 / cas);
+        }
+    }
+
+    private static long merCteni(IAbstrTable<Integer, Integer> tabulka, int vlakna) throws InterruptedException {
+        final AtomicLong kontrolniSoucet = new AtomicLong();
+        final Thread[] ctenari = new Thread[vlakna];
+        for (int i = 0; i < vlakna; i++) {
+            final long seminko = i;
+            ctenari[i] = new Thread(() -> {
+                final Random random = new Random(seminko);
+                long soucet = 0;
+                for (int j = 0; j < POCET_DOTAZU; j++) {
+                    try {
+                        soucet += tabulka.najdi(random.nextInt(POCET_KLICU));
+                    } catch (StromException ignored) {}
+                }
+                kontrolniSoucet.addAndGet(soucet);
+            });
+        }
+        final long zacatek = System.nanoTime();
+        for (Thread ctenar : ctenari)
+            ctenar.start();
+        for (Thread ctenar : ctenari)
+            ctenar.join();
+        return System.nanoTime() - zacatek;
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Měření: paměť na prvek a vyhledávání (AbstrTable vs. PoleTable)">
+    /**
+     * Porovná paměť obsazenou strukturou stromu (klíče a hodnoty jsou sdílené a do měření se nezapočítávají)
+     * a dobu vyhledání náhodných klíčů u {@link AbstrTable} a {@link PoleTable}
+     */
+    private static void merPamet() throws Exception {
+        final Integer[] klice = dejSerazeneKlice(POCET_KLICU);
+        merPamet("AbstrTable", new AbstrTable<>(), klice);
+        merPamet("PoleTable", new PoleTable<>(), klice);
+    }
+
+    private static void merPamet(String nazev, IAbstrTable<Integer, Integer> tabulka, Integer[] klice)
+            throws StromException, InterruptedException {
+        final long predVlozenim = dejObsazenouPamet();
+        for (Integer klic : klice)
+            tabulka.vloz(klic, klic);
+        final long bajtuNaPrvek = (dejObsazenouPamet() - predVlozenim) / klice.length;
+
+        final Random random = new Random(POCET_KLICU);
+        for (int i = 0; i < POCET_ZAHRATI * POCET_DOTAZU; i++)
+            tabulka.najdi(klice[random.nextInt(klice.length)]);
+        final long zacatek = System.nanoTime();
+        for (int i = 0; i < POCET_DOTAZU; i++)
+            tabulka.najdi(klice[random.nextInt(klice.length)]);
+        final long cas = System.nanoTime() - zacatek;
+        System.out.printf("%s: %d B/prvek, najdi %d ms (%d dotazu)%n",
+                nazev, bajtuNaPrvek, cas / NANOSEKUND_V_MILISEKUNDE, POCET_DOTAZU);
+    }
+
+    private static long dejObsazenouPamet() throws InterruptedException {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < POCET_ZAHRATI; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Měření: propustnost vkládání a vyhledávání (AbstrTable vs. BStromTable)">
+    /**
+     * Porovná propustnost vkládání a vyhledávání náhodně promíchaných řetězcových klíčů (podobných názvům obcí)
+     * u {@link AbstrTable} a {@link BStromTable}. Počet klíčů lze zadat druhým argumentem, např.
+     * {@code bstrom 10000000} (při 10^7 klíčích je potřeba zvětšit haldu, např. {@code -Xmx4g})
+     */
+    private static void merBStrom(int pocetKlicu) throws StromException {
+        final String[] klice = new String[pocetKlicu];
+        for (int i = 0; i < pocetKlicu; i++)
+            klice[i] = "Obec-" + i;
+        final List<String> promichane = new ArrayList<>(List.of(klice));
+        Collections.shuffle(promichane, new Random(pocetKlicu));
+        promichane.toArray(klice);
+
+        for (int i = 0; i < POCET_ZAHRATI; i++) {
+            merBStrom(null, new AbstrTable<>(), klice);
+            merBStrom(null, new BStromTable<>(), klice);
+        }
+        merBStrom("AbstrTable", new AbstrTable<>(), klice);
+        merBStrom("BStromTable", new BStromTable<>(), klice);
+    }
+
+    /**
+     * @param nazev Název vypsaný ve výsledku, {@code null} u zahřívacího běhu (nic se nevypisuje)
+     */
+    private static void merBStrom(String nazev, IAbstrTable<String, String> tabulka, String[] klice)
+            throws StromException {
+        long zacatek = System.nanoTime();
+        for (String klic : klice)
+            tabulka.vloz(klic, klic);
+        final long casVkladani = System.nanoTime() - zacatek;
+
+        final Random random = new Random(klice.length);
+        long kontrolniSoucet = 0;
+        zacatek = System.nanoTime();
+        for (int i = 0; i < POCET_DOTAZU; i++)
+            kontrolniSoucet += tabulka.najdi(klice[random.nextInt(klice.length)]).length();
+        final long casVyhledavani = System.nanoTime() - zacatek;
+
+        if (nazev != null)
+            System.out.printf("%s (n=%d, vyska=%d): vloz %.2f mil./s, najdi %.2f mil./s [%d]%n",
+                    nazev, klice.length, tabulka.dejVysku(), klice.length * 1e3 / casVkladani,
+                    POCET_DOTAZU * 1e3 / casVyhledavani, kontrolniSoucet);
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Měření: metriky a počítadla jednotlivých implementací">
+    /**
+     * Provede na všech implementacích stejnou posloupnost operací (vložení náhodně promíchaných klíčů,
+     * vyhledání a odebrání poloviny klíčů) a vypíše tvar výsledného stromu a počty porovnání a vyvažovacích
+     * kroků na jednu operaci. Na rozdíl od měření času výsledek nezávisí na zahřátí JIT ani na zatížení stroje
+     */
+    private static void merMetriky() throws StromException {
+        final Integer[] klice = dejSerazeneKlice(POCET_KLICU);
+        final List<Integer> promichane = new ArrayList<>(List.of(klice));
+        Collections.shuffle(promichane, new Random(POCET_KLICU));
+        promichane.toArray(klice);
+
+        merMetriky("AbstrTable", new AbstrTable<>(), klice);
+        merMetriky("PoleTable", new PoleTable<>(), klice);
+        merMetriky("PerzistentniTable", new PerzistentniTable<>(), klice);
+        merMetriky("BStromTable", new BStromTable<>(), klice);
+    }
+
+    private static void merMetriky(String nazev, IAbstrTable<Integer, Integer> tabulka, Integer[] klice)
+            throws StromException {
+        final PocitadlaStromu pocitadla = tabulka.dejPocitadla();
+        pocitadla.zapni();
+        for (Integer klic : klice)
+            tabulka.vloz(klic, klic);
+        final long porovnaniVkladani = pocitadla.dejPocetPorovnani();
+        final long vyvazeniVkladani = pocitadla.dejPocetVyvazeni();
+
+        pocitadla.vynuluj();
+        final Random random = new Random(klice.length);
+        for (int i = 0; i < POCET_DOTAZU; i++)
+            tabulka.najdi(klice[random.nextInt(klice.length)]);
+        final long porovnaniVyhledavani = pocitadla.dejPocetPorovnani();
+
+        pocitadla.vynuluj();
+        for (int i = 0; i < klice.length; i += 2)
+            tabulka.odeber(klice[i]);
+
+        System.out.printf("%s: %s%n", nazev, tabulka.dejMetriky());
+        System.out.printf("  porovnani na vloz %.2f, najdi %.2f, odeber %.2f; vyvazeni na vloz %.3f, odeber %.3f%n",
+                (double) porovnaniVkladani / klice.length, (double) porovnaniVyhledavani / POCET_DOTAZU,
+                (double) pocitadla.dejPocetPorovnani() / pocitadla.dejPocetOdebrani(),
+                (double) vyvazeniVkladani / klice.length,
+                (double) pocitadla.dejPocetVyvazeni() / pocitadla.dejPocetOdebrani());
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Měření: nerovnoměrné vyhledávání (SplayTable)">
+    /**
+     * Porovná {@link AbstrTable} a {@link SplayTable} (klasický s periodou {@code 1} a s výchozí periodou
+     * přesunu do kořene) při vyhledávání klíčů se Zipfovým rozdělením: klíč s {@code i}-tou nejvyšší četností
+     * se vyhledává s pravděpodobností úměrnou {@code 1 / i^s}, což odpovídá dotazům na obce, kdy několik set
+     * velkých obcí tvoří většinu dotazů. Exponent {@code s} lze zadat druhým argumentem, např.
+     * {@code zipf 1.2}; při {@code zipf 0} jsou dotazy rovnoměrné
+     *
+     * <p> Vypisuje propustnost a průměrný počet porovnání klíčů na jedno vyhledání
+     */
+    private static void merZipf(double exponent) throws StromException {
+        final Integer[] klice = dejSerazeneKlice(POCET_OBCI);
+        final List<Integer> promichane = new ArrayList<>(List.of(klice));
+        Collections.shuffle(promichane, new Random(POCET_OBCI));
+        promichane.toArray(klice);
+        // pořadí četností je na pořadí vkládání nezávislé, jinak by nejčastější klíče ležely u kořene AVL stromu
+        final Integer[] podleCetnosti = klice.clone();
+        Collections.shuffle(Arrays.asList(podleCetnosti), new Random(POCET_DOTAZU));
+        final Integer[] dotazy = dejZipfovyDotazy(podleCetnosti, exponent);
+
+        for (int i = 0; i < POCET_ZAHRATI; i++) {
+            merZipf(null, new AbstrTable<>(), klice, dotazy);
+            merZipf(null, new SplayTable<>(1), klice, dotazy);
+            merZipf(null, new SplayTable<>(), klice, dotazy);
+        }
+        merZipf("AbstrTable", new AbstrTable<>(), klice, dotazy);
+        merZipf("SplayTable(1)", new SplayTable<>(1), klice, dotazy);
+        merZipf("SplayTable(" + SplayTable.VYCHOZI_PERIODA + ")", new SplayTable<>(), klice, dotazy);
+    }
+
+    /**
+     * @param nazev Název vypsaný ve výsledku, {@code null} u zahřívacího běhu (nic se nevypisuje)
+     */
+    private static void merZipf(String nazev, IAbstrTable<Integer, Integer> tabulka, Integer[] klice,
+                                Integer[] dotazy) throws StromException {
+        for (Integer klic : klice)
+            tabulka.vloz(klic, klic);
+
+        long kontrolniSoucet = 0;
+        final long zacatek = System.nanoTime();
+        for (Integer klic : dotazy)
+            kontrolniSoucet += tabulka.najdi(klic);
+        final long cas = System.nanoTime() - zacatek;
+
+        final PocitadlaStromu pocitadla = tabulka.dejPocitadla();
+        pocitadla.zapni();
+        for (Integer klic : dotazy)
+            tabulka.najdi(klic);
+        pocitadla.vypni();
+
+        if (nazev != null)
+            System.out.printf("%s (n=%d): najdi %.2f mil./s, porovnani na najdi %.2f, rotace na najdi %.2f [%d]%n",
+                    nazev, klice.length, dotazy.length * 1e3 / cas,
+                    (double) pocitadla.dejPocetPorovnani() / dotazy.length,
+                    (double) pocitadla.dejPocetVyvazeni() / dotazy.length, kontrolniSoucet);
+    }
+
+    /**
+     * Vygeneruje {@link MereniVykonu#POCET_DOTAZU} klíčů se Zipfovým rozdělením: četnost klíče {@code klice[i]}
+     * je úměrná {@code 1 / (i + 1)^exponent}. Klíč se vybírá binárním vyhledáním v distribuční funkci
+     */
+    private static Integer[] dejZipfovyDotazy(Integer[] klice, double exponent) {
+        final double[] distribuce = new double[klice.length];
+        double soucet = 0;
+        for (int i = 0; i < klice.length; i++) {
+            soucet += 1 / Math.pow(i + 1, exponent);
+            distribuce[i] = soucet;
+        }
+        final Random random = new Random(klice.length);
+        final Integer[] dotazy = new Integer[POCET_DOTAZU];
+        for (int i = 0; i < POCET_DOTAZU; i++) {
+            final int pozice = Arrays.binarySearch(distribuce, random.nextDouble() * soucet);
+            dotazy[i] = klice[Math.min(pozice >= 0 ? pozice : -pozice - 1, klice.length - 1)];
+        }
+        return dotazy;
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Měření: předpony řetězcových klíčů (RetezcovyKodovac)">
+    /**
+     * Porovná vyhledávání názvů obcí v {@link AbstrTable} bez kodéru a s kodérem předpon
+     * {@link RetezcovyKodovac}. Názvy mají společné předpony ({@code Nové }, {@code Horní }, ...), takže bez
+     * kodéru musí {@link String#compareTo(String)} projít několik shodných znaků na každém patře
+     */
+    private static void merPredpony() throws StromException {
+        final String[] predpony = {"", "Nové ", "Horní ", "Dolní ", "Velké ", "Malé ", "Staré ", "Bílá "};
+        final String[] koreny = {"Město", "Ves", "Lhota", "Hradiště", "Újezd", "Žďár", "Kostelec", "Chlum"};
+        final Random random = new Random(POCET_OBCI);
+        final List<String> nazvy = new ArrayList<>();
+        for (String predpona : predpony)
+            for (String koren : koreny)
+                for (int i = 0; nazvy.size() < POCET_OBCI && i < POCET_OBCI / (predpony.length * koreny.length); i++)
+                    nazvy.add(predpona + koren + (i == 0 ? "" : " " + i));
+        Collections.shuffle(nazvy, random);
+        final String[] klice = nazvy.toArray(new String[0]);
+        final String[] dotazy = new String[POCET_DOTAZU];
+        for (int i = 0; i < POCET_DOTAZU; i++)
+            dotazy[i] = klice[random.nextInt(klice.length)];
+
+        for (int i = 0; i < POCET_ZAHRATI; i++) {
+            merPredpony(null, new AbstrTable<>(), klice, dotazy);
+            merPredpony(null, new AbstrTable<>(new RetezcovyKodovac()), klice, dotazy);
+        }
+        merPredpony("AbstrTable", new AbstrTable<>(), klice, dotazy);
+        merPredpony("AbstrTable(RetezcovyKodovac)", new AbstrTable<>(new RetezcovyKodovac()), klice, dotazy);
+    }
+
+    /**
+     * @param nazev Název vypsaný ve výsledku, {@code null} u zahřívacího běhu (nic se nevypisuje)
+     */
+    private static void merPredpony(String nazev, IAbstrTable<String, String> tabulka, String[] klice,
+                                    String[] dotazy) throws StromException {
+        for (String klic : klice)
+            tabulka.vloz(klic, klic);
+
+        long kontrolniSoucet = 0;
+        final long zacatek = System.nanoTime();
+        for (String klic : dotazy)
+            kontrolniSoucet += tabulka.najdi(klic).length();
+        final long cas = System.nanoTime() - zacatek;
+
+        final PocitadlaStromu pocitadla = tabulka.dejPocitadla();
+        pocitadla.zapni();
+        for (String klic : dotazy)
+            tabulka.najdi(klic);
+        pocitadla.vypni();
+
+        if (nazev != null)
+            System.out.printf("%s (n=%d): najdi %.2f mil./s, uplna porovnani na najdi %.2f [%d]%n",
+                    nazev, klice.length, dotazy.length * 1e3 / cas,
+                    (double) pocitadla.dejPocetPorovnani() / dotazy.length, kontrolniSoucet);
+    }
+// </editor-fold>
+
+// <editor-fold defaultstate="collapsed" desc="Měření: přibližné vyhledávání názvů (BKStrom)">
+    /**
+     * Měří přibližné vyhledávání v {@link BKStrom} nad náhodnými názvy ze slabik. Dotazem je existující název
+     * s jedním náhodným překlepem (záměna, vložení nebo smazání znaku); pro vzdálenosti 1 a 2 se vypíše doba
+     * jednoho dotazu, počet výpočtů vzdálenosti na dotaz (podíl z počtu názvů) a průměrný počet nalezených
+     * názvů. Počet názvů lze zadat druhým argumentem
+     */
+    private static void merPodobnost(int pocetNazvu) {
+        final String[] slabiky = {"bra", "ně", "lho", "ta", "ves", "hor", "ní", "dol", "ko", "stel", "ec", "ú",
+                "je", "zd", "přa", "pod", "ra", "do", "mí", "st", "ov", "ice", "ny", "ště"};
+        final Random random = new Random(pocetNazvu);
+        final BKStrom<String> strom = new BKStrom<>();
+        final List<String> nazvy = new ArrayList<>(pocetNazvu);
+        while (nazvy.size() < pocetNazvu) {
+            final StringBuilder nazev = new StringBuilder();
+            final int pocetSlabik = 2 + random.nextInt(4);
+            for (int i = 0; i < pocetSlabik; i++)
+                nazev.append(slabiky[random.nextInt(slabiky.length)]);
+            nazev.setCharAt(0, Character.toUpperCase(nazev.charAt(0)));
+            if (random.nextBoolean())
+                nazev.append(" ").append(random.nextInt(100));
+            if (strom.vloz(nazev.toString(), nazev.toString()))
+                nazvy.add(nazev.toString());
+        }
+
+        final String[] dotazy = new String[POCET_PRIBLIZNYCH_DOTAZU];
+        for (int i = 0; i < dotazy.length; i++) {
+            final StringBuilder dotaz = new StringBuilder(nazvy.get(random.nextInt(nazvy.size())));
+            final int pozice = random.nextInt(dotaz.length());
+            switch (random.nextInt(3)) {
+                case 0 -> dotaz.setCharAt(pozice, 'x');
+                case 1 -> dotaz.insert(pozice, 'x');
+                default -> dotaz.deleteCharAt(pozice);
+            }
+            dotazy[i] = dotaz.toString();
+        }
+
+        for (int i = 0; i < POCET_ZAHRATI; i++)
+            merPodobnost(null, strom, dotazy, 1);
+        merPodobnost("BKStrom", strom, dotazy, 1);
+        merPodobnost("BKStrom", strom, dotazy, 2);
+    }
+
+    /**
+     * @param nazev Název vypsaný ve výsledku, {@code null} u zahřívacího běhu (nic se nevypisuje)
+     */
+    private static void merPodobnost(String nazev, BKStrom<String> strom, String[] dotazy, int maxVzdalenost) {
+        final PocitadlaStromu pocitadla = strom.dejPocitadla();
+        pocitadla.vynuluj();
+        pocitadla.zapni();
+        long pocetNalezenych = 0;
+        final long zacatek = System.nanoTime();
+        for (String dotaz : dotazy)
+            pocetNalezenych += strom.najdiPodobne(dotaz, maxVzdalenost).size();
+        final long cas = System.nanoTime() - zacatek;
+        pocitadla.vypni();
+
+        if (nazev != null) {
+            final double vypoctuNaDotaz = (double) pocitadla.dejPocetPorovnani() / dotazy.length;
+            System.out.printf("%s (n=%d, k=%d): %.3f ms/dotaz, vzdalenosti na dotaz %.0f (%.1f %%), nalezeno %.2f%n",
+                    nazev, strom.dejPocet(), maxVzdalenost, cas / 1e6 / dotazy.length, vypoctuNaDotaz,
+                    100 * vypoctuNaDotaz / strom.dejPocet(), (double) pocetNalezenych / dotazy.length);
+        }
+    }
+// </editor-fold>
+
+    private static Integer[] dejSerazeneKlice(int pocet) {
+        final Integer[] klice = new Integer[pocet];
+        for (int i = 0; i < pocet; i++)
+            klice[i] = i;
+        return klice;
+    }
+}
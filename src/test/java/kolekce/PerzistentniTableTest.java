@@ -0,0 +1,276 @@
+package kolekce;
+
+import cz.upce.fei.bdats.strom.ETypProhl;
+import cz.upce.fei.bdats.strom.IAbstrTable;
+import cz.upce.fei.bdats.strom.PerzistentniTable;
+import cz.upce.fei.bdats.vyjimky.StromException;
+import org.junit.*;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testovací případy pro:
+ * <ol>
+ * <li> <b>test_01_</b> Scénáře metody {@link PerzistentniTable#snimek()}
+ * <li> <b>test_02_</b> Scénáře metody {@link PerzistentniTable#vlozVse(Comparable[], Object[])}
+ * <li> <b>test_03_</b> Scénáře metod {@link PerzistentniTable#odeberRozsah(Comparable, Comparable)} a
+ * {@link PerzistentniTable#odeberVse(Iterable)}
+ * <li> <b>test_04_</b> Scénáře metod {@link PerzistentniTable#rozdel(Comparable)} a
+ * {@link PerzistentniTable#spoj(IAbstrTable)}
+ * <li> <b>test_05_</b> Scénáře metody {@link PerzistentniTable#dejSoucty(Comparable, Comparable)}
+ * </ol>
+ */
+public class PerzistentniTableTest {
+
+    private final int POCET_OPERACI = 5_000;
+    private final int ROZSAH_KLICU = 1_000;
+
+    /**
+     * Instance datové struktury
+     */
+    private PerzistentniTable<Integer, String> strom;
+
+    @Before
+    public void setUp() {
+        strom = new PerzistentniTable<>();
+    }
+
+    @After
+    public void tearDown() {
+        strom = null;
+    }
+
+    /**
+     * Ověřuje, že zápisy do tabulky po pořízení snímku snímek nezmění a zápis do snímku nezmění tabulku
+     */
+    @Test
+    public void test_01_01_snimekJeNezavisly() {
+        try {
+            strom.vloz(1, "A");
+            strom.vloz(2, "B");
+            final PerzistentniTable<Integer, String> snimek = strom.snimek();
+
+            strom.vloz(3, "C");
+            strom.odeber(1);
+            snimek.vloz(4, "D");
+
+            assertEquals(2, strom.dejMohutnost());
+            assertTrue(strom.obsahuje(3));
+            assertFalse(strom.obsahuje(4));
+            assertEquals(3, snimek.dejMohutnost());
+            assertEquals("A", snimek.najdi(1));
+            assertFalse(snimek.obsahuje(3));
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje, že rozpracovaný iterátor vrací verzi stromu platnou při svém vytvoření
+     */
+    @Test
+    public void test_01_02_iteratorNadVerzi() {
+        try {
+            strom.vloz(1, "A");
+            strom.vloz(2, "B");
+            final Iterator<String> iterator = strom.vytvorIterator(ETypProhl.HLOUBKA);
+            assertEquals("A", iterator.next());
+
+            strom.odeber(2);
+            strom.vloz(3, "C");
+
+            assertEquals("B", iterator.next());
+            assertFalse(iterator.hasNext());
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje, že při duplicitním klíči ve vstupu se tabulka nezmění
+     */
+    @Test
+    public void test_02_01_vlozVseAtomicky() {
+        try {
+            strom.vloz(5, "A");
+            assertThrows(StromException.class,
+                    () -> strom.vlozVse(new Integer[]{7, 3, 5}, new String[]{"B", "C", "D"}));
+            assertEquals(1, strom.dejMohutnost());
+            assertFalse(strom.obsahuje(7));
+
+            strom.vlozVse(new Integer[]{7, 3}, new String[]{"B", "C"});
+            assertEquals("C", strom.dejPrvekNaPoradi(0));
+            assertEquals("B", strom.dejPrvekNaPoradi(2));
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje, že neseřazená dávka vložená do neprázdné tabulky se slije s jejím obsahem do stromu minimální
+     * výšky, dříve pořízený snímek se nezmění a duplicita vůči tabulce ponechá tabulku beze změny
+     */
+    @Test
+    public void test_02_02_vlozVseDoNeprazdne() {
+        try {
+            for (int klic = 0; klic < ROZSAH_KLICU; klic += 2)
+                strom.vloz(klic, String.valueOf(klic));
+            final PerzistentniTable<Integer, String> snimek = strom.snimek();
+
+            final Integer[] klice = new Integer[ROZSAH_KLICU / 2];
+            final String[] hodnoty = new String[klice.length];
+            for (int i = 0; i < klice.length; i++) {
+                klice[i] = ROZSAH_KLICU - 1 - 2 * i;
+                hodnoty[i] = String.valueOf(klice[i]);
+            }
+            strom.vlozVse(klice, hodnoty);
+            assertEquals(ROZSAH_KLICU, strom.dejMohutnost());
+            for (int klic = 0; klic < ROZSAH_KLICU; klic++)
+                assertEquals(String.valueOf(klic), strom.dejPrvekNaPoradi(klic));
+            assertEquals(32 - Integer.numberOfLeadingZeros(ROZSAH_KLICU), strom.dejVysku());
+            assertEquals(ROZSAH_KLICU / 2, snimek.dejMohutnost());
+
+            assertThrows(StromException.class,
+                    () -> strom.vlozVse(new Integer[]{-1, 10}, new String[]{"X", "Y"}));
+            assertEquals(ROZSAH_KLICU, strom.dejMohutnost());
+            assertFalse(strom.obsahuje(-1));
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje odebrání intervalu a sady klíčů a že snímek pořízený před odebráním zůstane nezměněn
+     */
+    @Test
+    public void test_03_01_odeberRozsah() {
+        try {
+            for (int klic = 0; klic < ROZSAH_KLICU; klic++)
+                strom.vloz(klic, String.valueOf(klic));
+            final PerzistentniTable<Integer, String> snimek = strom.snimek();
+
+            assertEquals(500, strom.odeberRozsah(250, 750));
+            assertEquals(3, strom.odeberVse(List.of(0, 999, 500, 1)));
+            assertEquals(497, strom.dejMohutnost());
+            assertEquals(Integer.valueOf(2), strom.dejKlicNaPoradi(0));
+            assertEquals(Integer.valueOf(750), strom.dejKlicNaPoradi(248));
+            assertTrue(strom.dejVysku() <= (int) (1.44 * Math.log(strom.dejMohutnost() + 2) / Math.log(2)));
+
+            assertEquals(ROZSAH_KLICU, snimek.dejMohutnost());
+            assertEquals("500", snimek.najdi(500));
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje, že rozdělení a spojení nezmění dříve pořízený snímek a že spojení s prolínajícími se klíči
+     * při společném klíči ponechá obě tabulky beze změny
+     */
+    @Test
+    public void test_04_01_rozdelASpoj() {
+        try {
+            for (int klic = 0; klic < ROZSAH_KLICU; klic++)
+                strom.vloz(klic, String.valueOf(klic));
+            final PerzistentniTable<Integer, String> snimek = strom.snimek();
+
+            final PerzistentniTable<Integer, String> vetsi = strom.rozdel(ROZSAH_KLICU / 2);
+            assertEquals(ROZSAH_KLICU / 2, strom.dejMohutnost());
+            assertEquals(Integer.valueOf(ROZSAH_KLICU / 2), vetsi.dejPrvniKlic());
+            assertEquals(ROZSAH_KLICU, snimek.dejMohutnost());
+
+            vetsi.spoj(strom);
+            assertTrue(strom.jePrazdny());
+            assertEquals(snimek.vypisStrom(ETypProhl.HLOUBKA), vetsi.vypisStrom(ETypProhl.HLOUBKA));
+
+            strom.vloz(-1, "X");
+            strom.vloz(ROZSAH_KLICU / 3, "Y");
+            assertThrows(StromException.class, () -> vetsi.spoj(strom));
+            assertEquals(2, strom.dejMohutnost());
+            assertEquals(ROZSAH_KLICU, vetsi.dejMohutnost());
+            strom.odeber(ROZSAH_KLICU / 3);
+            strom.vloz(ROZSAH_KLICU + 1, "Z");
+            vetsi.spoj(strom);
+            assertEquals(ROZSAH_KLICU + 2, vetsi.dejMohutnost());
+            assertEquals(Integer.valueOf(-1), vetsi.dejPrvniKlic());
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje, že opakovaná souběžná spojení {@code a.spoj(b)} a {@code b.spoj(a)} (mezi nimiž se prvky
+     * rozdělením vracejí do druhé tabulky) se nezablokují a že se do výsledku promítnou všechna vložení do
+     * tabulek souběžná se spojováním
+     */
+    @Test(timeout = 20_000)
+    public void test_04_02_soubezneSpojeni() throws Exception {
+        for (int klic = 0; klic < ROZSAH_KLICU; klic++)
+            strom.vloz(klic, String.valueOf(klic));
+        final PerzistentniTable<Integer, String> vetsi = strom.rozdel(ROZSAH_KLICU / 2);
+
+        final AtomicInteger chyby = new AtomicInteger();
+        final Thread[] vlakna = {
+                new Thread(() -> opakujSpojeni(strom, vetsi, chyby)),
+                new Thread(() -> opakujSpojeni(vetsi, strom, chyby)),
+                new Thread(() -> {
+                    try {
+                        for (int klic = ROZSAH_KLICU; klic < 2 * ROZSAH_KLICU; klic++)
+                            (klic % 2 == 0 ? strom : vetsi).vloz(klic, String.valueOf(klic));
+                    } catch (StromException ex) {
+                        chyby.incrementAndGet();
+                    }
+                })
+        };
+        for (Thread vlakno : vlakna)
+            vlakno.start();
+        for (Thread vlakno : vlakna)
+            vlakno.join();
+
+        assertEquals(0, chyby.get());
+        strom.spoj(vetsi);
+        assertEquals(2 * ROZSAH_KLICU, strom.dejMohutnost());
+        for (int klic = 0; klic < 2 * ROZSAH_KLICU; klic++)
+            assertTrue(strom.obsahuje(klic));
+    }
+
+    private void opakujSpojeni(PerzistentniTable<Integer, String> cil, PerzistentniTable<Integer, String> zdroj,
+                               AtomicInteger chyby) {
+        try {
+            for (int i = 0; i < POCET_OPERACI; i++) {
+                cil.spoj(zdroj);
+                zdroj.spoj(cil.rozdel(ROZSAH_KLICU / 2));
+            }
+        } catch (StromException ex) {
+            chyby.incrementAndGet();
+        }
+    }
+
+    /**
+     * Ověřuje součty ukazatelů v intervalech, jejich zachování ve snímku po dalších zápisech a přenesení
+     * ukazatelů do tabulky vzniklé rozdělením
+     */
+    @Test
+    public void test_05_01_soucty() {
+        strom = new PerzistentniTable<>(List.of(String::length));
+        try {
+            for (int klic = 0; klic < ROZSAH_KLICU; klic++)
+                strom.vloz(klic, String.valueOf(klic));
+            final PerzistentniTable<Integer, String> snimek = strom.snimek();
+            strom.odeberRozsah(0, 10);
+
+            assertArrayEquals(new long[]{90 * 2}, strom.dejSoucty(null, 100));
+            assertArrayEquals(new long[]{10 + 90 * 2 + 900 * 3}, snimek.dejSoucty(null, null));
+            assertArrayEquals(new long[]{0}, strom.dejSoucty(500, 500));
+            final PerzistentniTable<Integer, String> vetsi = strom.rozdel(100);
+            assertArrayEquals(new long[]{900 * 3}, vetsi.dejSoucty(null, null));
+            assertArrayEquals(new long[]{3 + 3}, vetsi.dejSoucty(998, 1_500));
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package kolekce;
+
+import cz.upce.fei.bdats.strom.ETypProhl;
+import cz.upce.fei.bdats.strom.IAbstrTable;
+import cz.upce.fei.bdats.strom.PoleTable;
+import cz.upce.fei.bdats.vyjimky.StromException;
+import org.junit.*;
+
+import java.util.Iterator;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testovací případy pro:
+ * <ol>
+ * <li> <b>test_01_</b> Scénáře opětovného použití uvolněných slotů
+ * <li> <b>test_02_</b> Scénáře metody {@link PoleTable#vlozVse(Comparable[], Object[])}
+ * </ol>
+ */
+public class PoleTableTest {
+
+    private final int ROZSAH_KLICU = 1_000;
+
+    /**
+     * Instance datové struktury
+     */
+    private IAbstrTable<Integer, String> strom;
+
+    @Before
+    public void setUp() {
+        strom = new PoleTable<>();
+    }
+
+    @After
+    public void tearDown() {
+        strom = null;
+    }
+
+    /**
+     * Ověřuje, že po odebrání všech prvků a jejich opětovném vložení (do uvolněných slotů) je tabulka
+     * konzistentní
+     */
+    @Test
+    public void test_01_01_opetovneVlozeni() {
+        try {
+            for (int kolo = 0; kolo < 2; kolo++) {
+                for (int klic = 0; klic < ROZSAH_KLICU; klic++)
+                    strom.vloz(klic, String.valueOf(klic));
+                assertEquals(ROZSAH_KLICU, strom.dejMohutnost());
+                assertEquals("500", strom.najdi(500));
+                for (int klic = 0; klic < ROZSAH_KLICU; klic++)
+                    assertEquals(String.valueOf(klic), strom.odeber(klic));
+                assertTrue(strom.jePrazdny());
+            }
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje hromadné vložení do neprázdné tabulky
+     */
+    @Test
+    public void test_02_01_vlozVse() {
+        try {
+            strom.vloz(2, "B");
+            strom.vlozVse(new Integer[]{3, 1, 4}, new String[]{"C", "A", "D"});
+            assertEquals("A, B, C, D, ", dejObsah(strom.vytvorIterator(ETypProhl.HLOUBKA)));
+            assertEquals(3, strom.dejVysku());
+            assertThrows(StromException.class, () -> strom.vlozVse(new Integer[]{5, 1}, new String[]{"E", "X"}));
+            assertEquals(4, strom.dejMohutnost());
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    private String dejObsah(Iterator<String> iterator) {
+        final StringBuilder sb = new StringBuilder();
+        while (iterator.hasNext())
+            sb.append(iterator.next()).append(", ");
+        return sb.toString();
+    }
+}
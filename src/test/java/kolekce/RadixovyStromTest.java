@@ -0,0 +1,121 @@
+package kolekce;
+
+import cz.upce.fei.bdats.strom.RadixovyStrom;
+import org.junit.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testovací případy pro:
+ * <ol>
+ * <li> <b>test_01_</b> Scénáře shody s {@link TreeSet} při náhodném vkládání a odebírání (dělení a slučování
+ * hran, počty a doplnění podle předpony)
+ * <li> <b>test_02_</b> Scénáře okrajových případů (prázdný klíč, klíč jako předpona jiného klíče, neplatný
+ * počet doplnění)
+ * </ol>
+ */
+public class RadixovyStromTest {
+
+    private final int POCET_OPERACI = 20_000;
+    private final int POCET_DOPLNENI = 7;
+    private final long SEMINKO = 22L;
+
+    /**
+     * Instance datové struktury
+     */
+    private RadixovyStrom strom;
+
+    @Before
+    public void setUp() {
+        strom = new RadixovyStrom();
+    }
+
+    @After
+    public void tearDown() {
+        strom = null;
+    }
+
+    /**
+     * Ověřuje, že po náhodných vloženích a odebráních názvů se společnými předponami odpovídají
+     * {@code obsahuje}, počty klíčů s předponou a doplnění obsahu {@link TreeSet} pro všechny předpony
+     * vložených názvů
+     */
+    @Test
+    public void test_01_01_shodaSTreeSet() {
+        final String[] zaklady = {"Nové Město", "Nová Ves", "Nový Jičín", "Horní", "Hora", "Hořice", "Ústí", "Ú"};
+        final NavigableSet<String> vzor = new TreeSet<>();
+        final Random random = new Random(SEMINKO);
+        final List<String> klice = new ArrayList<>();
+        for (int i = 0; i < POCET_OPERACI; i++) {
+            final String zaklad = zaklady[random.nextInt(zaklady.length)];
+            final String klic = zaklad.substring(0, 1 + random.nextInt(zaklad.length()))
+                    + (random.nextBoolean() ? "" : String.valueOf(random.nextInt(50)));
+            klice.add(klic);
+            if (vzor.contains(klic)) {
+                assertEquals(vzor.remove(klic), strom.odeber(klic));
+            } else {
+                assertEquals(vzor.add(klic), strom.vloz(klic));
+            }
+        }
+
+        assertEquals(vzor.size(), strom.dejPocet());
+        for (String klic : new TreeSet<>(klice)) {
+            assertEquals(vzor.contains(klic), strom.obsahuje(klic));
+            for (int delka = 0; delka <= klic.length(); delka++) {
+                final String predpona = klic.substring(0, delka);
+                final NavigableSet<String> sPredponou = dejSPredponou(vzor, predpona);
+                assertEquals(sPredponou.size(), strom.dejPocetSPredponou(predpona));
+                assertEquals(new ArrayList<>(sPredponou).subList(0, Math.min(POCET_DOPLNENI, sPredponou.size())),
+                        strom.dejDoplneni(predpona, POCET_DOPLNENI));
+            }
+        }
+        assertEquals(0, strom.dejPocetSPredponou("Nové Město X"));
+        assertTrue(strom.dejDoplneni("X", POCET_DOPLNENI).isEmpty());
+    }
+
+    /**
+     * Ověřuje prázdný klíč, klíč, který je předponou jiného klíče (vnitřní koncový uzel), opakované vložení
+     * a odebrání, zrušení a neplatný počet doplnění
+     */
+    @Test
+    public void test_02_01_okrajovePripady() {
+        assertTrue(strom.vloz(""));
+        assertTrue(strom.vloz("Lhota"));
+        assertTrue(strom.vloz("Lhotka"));
+        assertTrue(strom.vloz("Lhot"));
+        assertFalse(strom.vloz("Lhota"));
+        assertEquals(List.of("", "Lhot", "Lhota"), strom.dejDoplneni("", 3));
+        assertEquals(3, strom.dejPocetSPredponou("Lh"));
+
+        assertTrue(strom.odeber("Lhot"));
+        assertFalse(strom.odeber("Lhot"));
+        assertFalse(strom.odeber("Lho"));
+        assertTrue(strom.odeber(""));
+        assertEquals(List.of("Lhota", "Lhotka"), strom.dejDoplneni("Lhot", 10));
+        assertTrue(strom.odeber("Lhota"));
+        assertEquals(List.of("Lhotka"), strom.dejDoplneni("L", 10));
+        assertEquals(List.of(), strom.dejDoplneni("L", 0));
+        assertThrows(IllegalArgumentException.class, () -> strom.dejDoplneni("L", -1));
+
+        strom.zrus();
+        assertEquals(0, strom.dejPocet());
+        assertFalse(strom.obsahuje("Lhotka"));
+    }
+
+    private NavigableSet<String> dejSPredponou(NavigableSet<String> mnozina, String predpona) {
+        final NavigableSet<String> konec = mnozina.tailSet(predpona, true);
+        final NavigableSet<String> vysledek = new TreeSet<>();
+        for (String klic : konec) {
+            if (!klic.startsWith(predpona))
+                break;
+            vysledek.add(klic);
+        }
+        return vysledek;
+    }
+}
@@ -0,0 +1,146 @@
+package kolekce;
+
+import cz.upce.fei.bdats.data.Obec;
+import cz.upce.fei.bdats.strom.AbstrTable;
+import cz.upce.fei.bdats.strom.IndexovanaTable;
+import cz.upce.fei.bdats.strom.SekundarniIndex;
+import cz.upce.fei.bdats.vyjimky.StromException;
+import org.junit.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testovací případy pro:
+ * <ol>
+ * <li> <b>test_01_</b> Scénáře shody s úplným průchodem všech obcí při náhodném vkládání a odebírání přes
+ * {@link IndexovanaTable} (vyhledání podle hodnoty a podle intervalu atributu)
+ * <li> <b>test_02_</b> Scénáře registrace k neprázdné tabulce, atributu {@code null} a zrušení tabulky
+ * </ol>
+ */
+public class SekundarniIndexTest {
+
+    private final int POCET_OPERACI = 5_000;
+    private final int POCET_DOTAZU = 300;
+    private final int ROZSAH_NAZVU = 2_000;
+    private final int POCET_KRAJU = 14;
+    private final int MAX_OBYVATEL = 5_000;
+    private final long SEMINKO = 25L;
+
+    /**
+     * Instance tabulky, ke které jsou indexy zaregistrované
+     */
+    private IndexovanaTable<String, Obec> tabulka;
+
+    @Before
+    public void setUp() {
+        tabulka = new IndexovanaTable<>(new AbstrTable<String, Obec>());
+    }
+
+    @After
+    public void tearDown() {
+        tabulka = null;
+    }
+
+    /**
+     * Ověřuje, že po náhodných vloženích a odebráních obcí vrací index podle čísla kraje a index podle počtu
+     * obyvatel stejné obce ve stejném pořadí jako filtrování všech obcí tabulky
+     */
+    @Test
+    public void test_01_01_shodaSUplnymPruchodem() {
+        final SekundarniIndex<Integer, String, Obec> indexKraju = new SekundarniIndex<>(Obec::getCisloKraje);
+        final SekundarniIndex<Integer, String, Obec> indexObyvatel = new SekundarniIndex<>(Obec::getCelkem);
+        tabulka.pridejPosluchace(indexKraju);
+        tabulka.pridejPosluchace(indexObyvatel);
+        final TreeMap<String, Obec> vzor = new TreeMap<>();
+        final Random random = new Random(SEMINKO);
+        try {
+            for (int i = 0; i < POCET_OPERACI; i++) {
+                final String nazev = "Obec " + random.nextInt(ROZSAH_NAZVU);
+                if (vzor.containsKey(nazev)) {
+                    assertEquals(vzor.remove(nazev), tabulka.odeber(nazev));
+                } else {
+                    final Obec obec = dejObec(nazev, 1 + random.nextInt(POCET_KRAJU), random.nextInt(MAX_OBYVATEL));
+                    vzor.put(nazev, obec);
+                    tabulka.vloz(nazev, obec);
+                }
+            }
+        } catch (StromException ex) {
+            fail();
+        }
+
+        assertEquals(vzor.size(), indexKraju.dejPocet());
+        for (int kraj = 0; kraj <= POCET_KRAJU + 1; kraj++) {
+            final int cisloKraje = kraj;
+            assertEquals(dejVyhovujici(vzor, obec -> obec.getCisloKraje() == cisloKraje),
+                    indexKraju.najdi(cisloKraje));
+        }
+        final Comparator<Obec> poradi = Comparator.comparingInt(Obec::getCelkem).thenComparing(Obec::getNazevObce);
+        for (int i = 0; i < POCET_DOTAZU; i++) {
+            final int od = random.nextInt(MAX_OBYVATEL);
+            final int po = od + random.nextInt(MAX_OBYVATEL / 10);
+            final List<Obec> ocekavane = dejVyhovujici(vzor, obec -> obec.getCelkem() >= od && obec.getCelkem() < po);
+            ocekavane.sort(poradi);
+            assertEquals(ocekavane, indexObyvatel.najdiRozsah(od, po));
+        }
+        final List<Obec> vsechny = new ArrayList<>(vzor.values());
+        vsechny.sort(poradi);
+        assertEquals(vsechny, indexObyvatel.najdiRozsah(null, null));
+    }
+
+    /**
+     * Ověřuje naplnění indexu zaregistrovaného k neprázdné tabulce, vynechání obcí s PSČ {@code null},
+     * odebrání poslední obce skupiny a vyprázdnění indexu při zrušení tabulky
+     */
+    @Test
+    public void test_02_01_registraceAZruseni() {
+        final Obec lhota = new Obec(1, "Kraj", "Lhota", "53002", 100, 110, 210);
+        final Obec lhotka = new Obec(1, "Kraj", "Lhotka", "53002", 50, 40, 90);
+        final Obec bezPsc = new Obec(2, "Kraj", "Bez PSČ", null, 1, 1, 2);
+        try {
+            tabulka.vloz(lhotka.getNazevObce(), lhotka);
+            tabulka.vloz(bezPsc.getNazevObce(), bezPsc);
+            final SekundarniIndex<String, String, Obec> indexPsc = new SekundarniIndex<>(Obec::getPsc);
+            tabulka.pridejPosluchace(indexPsc);
+            tabulka.vloz(lhota.getNazevObce(), lhota);
+
+            assertEquals(2, indexPsc.dejPocet());
+            assertEquals(1, indexPsc.dejPocetHodnot());
+            assertEquals(List.of(lhota, lhotka), indexPsc.najdi("53002"));
+            assertTrue(indexPsc.najdi("53003").isEmpty());
+
+            tabulka.odeber(lhota.getNazevObce());
+            tabulka.odeber(bezPsc.getNazevObce());
+            assertEquals(List.of(lhotka), indexPsc.najdi("53002"));
+            tabulka.odeber(lhotka.getNazevObce());
+            assertEquals(0, indexPsc.dejPocetHodnot());
+
+            tabulka.vloz(lhota.getNazevObce(), lhota);
+            tabulka.zrus();
+            assertEquals(0, indexPsc.dejPocet());
+            assertTrue(indexPsc.najdiRozsah(null, null).isEmpty());
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    private Obec dejObec(String nazev, int cisloKraje, int celkem) {
+        return new Obec(cisloKraje, "Kraj " + cisloKraje, nazev, String.valueOf(50_000 + cisloKraje),
+                celkem / 2, celkem - celkem / 2, celkem);
+    }
+
+    private List<Obec> dejVyhovujici(TreeMap<String, Obec> obce, Predicate<Obec> podminka) {
+        final List<Obec> vysledek = new ArrayList<>();
+        for (Obec obec : obce.values()) {
+            if (podminka.test(obec))
+                vysledek.add(obec);
+        }
+        return vysledek;
+    }
+}
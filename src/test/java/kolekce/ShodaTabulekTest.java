@@ -0,0 +1,205 @@
+package kolekce;
+
+import cz.upce.fei.bdats.strom.AbstrTable;
+import cz.upce.fei.bdats.strom.BStromTable;
+import cz.upce.fei.bdats.strom.ETypProhl;
+import cz.upce.fei.bdats.strom.IAbstrTable;
+import cz.upce.fei.bdats.strom.PerzistentniTable;
+import cz.upce.fei.bdats.strom.PoleTable;
+import cz.upce.fei.bdats.strom.SplayTable;
+import cz.upce.fei.bdats.vyjimky.StromException;
+import org.junit.*;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testovací případy shody implementací {@link IAbstrTable} se vzorovou {@link AbstrTable}, spouštěné pro každou
+ * implementaci zvlášť:
+ * <ol>
+ * <li> <b>test_01_</b> Scénáře shody s {@link AbstrTable} při náhodném vkládání, odebírání a vyhledávání
+ * <li> <b>test_02_</b> Scénáře metody {@link IAbstrTable#vypisStrom(ETypProhl, Appendable, int, int)}
+ * <li> <b>test_03_</b> Scénáře metody {@link IAbstrTable#vytvorSpliterator()}
+ * </ol>
+ * Scénáře specifické pro jednotlivé implementace jsou v jejich vlastních testovacích třídách
+ */
+@RunWith(Parameterized.class)
+public class ShodaTabulekTest {
+
+    private final int POCET_OPERACI = 20_000;
+    private final int ROZSAH_KLICU = 2_000;
+    private final long SEMINKO = 7L;
+    /**
+     * Nejmenší stupeň B-stromu, při kterém mají i malé tabulky více pater a uzly se často dělí a slučují
+     */
+    private static final int STUPEN_B_STROMU = 2;
+
+    /**
+     * Název implementace ve výpisu testů
+     */
+    @Parameterized.Parameter(0)
+    public String nazev;
+
+    /**
+     * Tovární metoda testované implementace
+     */
+    @Parameterized.Parameter(1)
+    public Supplier<IAbstrTable<Integer, String>> tovarna;
+
+    /**
+     * Příznak implementace, která vyvažuje strom stejně jako {@link AbstrTable} (AVL), a musí tedy mít i stejný
+     * tvar stromu
+     */
+    @Parameterized.Parameter(2)
+    public boolean tvarAvl;
+
+    /**
+     * Instance datové struktury
+     */
+    private IAbstrTable<Integer, String> strom;
+
+    @Parameterized.Parameters(name = "{0}")
+    public static List<Object[]> dejImplementace() {
+        return List.of(
+                new Object[]{"PoleTable", (Supplier<IAbstrTable<Integer, String>>) PoleTable::new, true},
+                new Object[]{"PerzistentniTable",
+                        (Supplier<IAbstrTable<Integer, String>>) PerzistentniTable::new, true},
+                new Object[]{"BStromTable",
+                        (Supplier<IAbstrTable<Integer, String>>) () -> new BStromTable<>(STUPEN_B_STROMU), false},
+                new Object[]{"SplayTable", (Supplier<IAbstrTable<Integer, String>>) SplayTable::new, false});
+    }
+
+    @Before
+    public void setUp() {
+        strom = tovarna.get();
+    }
+
+    @After
+    public void tearDown() {
+        strom = null;
+    }
+
+    /**
+     * Ověřuje, že po stejné posloupnosti náhodných vložení, odebrání a vyhledání vrací tabulka stejné prvky ve
+     * stejném pořadí a stejné odpovědi na pořadové, rozsahové a navigační dotazy (včetně sestupného iterátoru
+     * od klíče) jako {@link AbstrTable}.
+     * Implementace vyvažované jako AVL strom musí mít navíc stejný tvar stromu (výpis do šířky, výška, šířky
+     * a obsah pater)
+     */
+    @Test
+    public void test_01_01_shodaSAbstrTable() {
+        final IAbstrTable<Integer, String> vzor = new AbstrTable<>();
+        final Random random = new Random(SEMINKO);
+        try {
+            for (int i = 0; i < POCET_OPERACI; i++) {
+                final int klic = random.nextInt(ROZSAH_KLICU);
+                if (random.nextBoolean()) {
+                    assertEquals(vzor.obsahuje(klic), strom.obsahuje(klic));
+                } else if (vzor.obsahuje(klic)) {
+                    assertEquals(vzor.odeber(klic), strom.odeber(klic));
+                } else {
+                    vzor.vloz(klic, String.valueOf(klic));
+                    strom.vloz(klic, String.valueOf(klic));
+                }
+            }
+
+            assertEquals(vzor.dejMohutnost(), strom.dejMohutnost());
+            assertEquals(vzor.dejMohutnost(), Arrays.stream(strom.dejSirkyPater()).sum());
+            assertEquals(vzor.vypisStrom(ETypProhl.HLOUBKA), strom.vypisStrom(ETypProhl.HLOUBKA));
+            assertEquals(dejObsah(vzor.vytvorSestupnyIterator()), dejObsah(strom.vytvorSestupnyIterator()));
+            assertEquals(dejObsah(vzor.vytvorIterator(250, 760)), dejObsah(strom.vytvorIterator(250, 760)));
+            for (int poradi = 0; poradi < vzor.dejMohutnost(); poradi++)
+                assertEquals(vzor.dejKlicNaPoradi(poradi), strom.dejKlicNaPoradi(poradi));
+            for (int klic = -1; klic <= ROZSAH_KLICU; klic++) {
+                assertEquals(vzor.dejPoradi(klic), strom.dejPoradi(klic));
+                assertEquals(vzor.dejPocetMensich(klic), strom.dejPocetMensich(klic));
+                assertEquals(vzor.dejKlicNejvyse(klic), strom.dejKlicNejvyse(klic));
+                assertEquals(vzor.dejKlicNejmene(klic), strom.dejKlicNejmene(klic));
+                assertEquals(vzor.dejPredchoziKlic(klic), strom.dejPredchoziKlic(klic));
+                assertEquals(vzor.dejNasledujiciKlic(klic), strom.dejNasledujiciKlic(klic));
+            }
+            assertEquals(vzor.dejPrvniKlic(), strom.dejPrvniKlic());
+            assertEquals(vzor.dejPosledniKlic(), strom.dejPosledniKlic());
+            assertEquals(dejObsah(vzor.vytvorSestupnyIterator(ROZSAH_KLICU / 3)),
+                    dejObsah(strom.vytvorSestupnyIterator(ROZSAH_KLICU / 3)));
+            assertEquals(vzor.dejPocetVRozsahu(100, 300), strom.dejPocetVRozsahu(100, 300));
+            assertThrows(StromException.class, () -> strom.vloz(vzor.dejKlicNaPoradi(0), "X"));
+            assertThrows(StromException.class, () -> strom.odeber(ROZSAH_KLICU));
+            assertEquals(vzor.dejMohutnost(), strom.dejMohutnost());
+
+            if (tvarAvl) {
+                assertEquals(vzor.vypisStrom(ETypProhl.SIRKA), strom.vypisStrom(ETypProhl.SIRKA));
+                assertEquals(vzor.dejVysku(), strom.dejVysku());
+                assertArrayEquals(vzor.dejSirkyPater(), strom.dejSirkyPater());
+                assertEquals(dejObsah(vzor.vytvorIteratorPatra(3)), dejObsah(strom.vytvorIteratorPatra(3)));
+            }
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje, že výřez výpisu zapsaný do cíle odpovídá příslušným řádkům úplného výpisu pro oba typy průchodu
+     */
+    @Test
+    public void test_02_01_vypisDoCile() {
+        try {
+            for (int klic = 0; klic < 100; klic++)
+                strom.vloz((klic * 37) % 100, String.valueOf(klic));
+            for (ETypProhl typ : ETypProhl.values()) {
+                final String[] radky = strom.vypisStrom(typ).split("\n");
+                final StringBuilder cil = new StringBuilder();
+                strom.vypisStrom(typ, cil);
+                assertEquals(strom.vypisStrom(typ), cil.toString());
+
+                cil.setLength(0);
+                strom.vypisStrom(typ, cil, 10, 25);
+                assertEquals(String.join("\n", Arrays.copyOfRange(radky, 10, 35)) + "\n", cil.toString());
+                cil.setLength(0);
+                strom.vypisStrom(typ, cil, 95, 25);
+                assertEquals(String.join("\n", Arrays.copyOfRange(radky, 95, 100)) + "\n", cil.toString());
+                cil.setLength(0);
+                strom.vypisStrom(typ, cil, 100, 5);
+                assertEquals("", cil.toString());
+                assertThrows(IllegalArgumentException.class, () -> strom.vypisStrom(typ, cil, -1, 5));
+            }
+        } catch (StromException | IOException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje, že paralelní proud vrátí prvky ve stejném pořadí jako in-order iterátor
+     */
+    @Test
+    public void test_03_01_parallelStream() {
+        try {
+            for (int klic = ROZSAH_KLICU - 1; klic >= 0; klic--)
+                strom.vloz(klic, String.valueOf(klic));
+
+            final StringBuilder ocekavany = new StringBuilder();
+            strom.vytvorIterator(ETypProhl.HLOUBKA).forEachRemaining(ocekavany::append);
+            final StringBuilder skutecny = new StringBuilder();
+            strom.parallelStream().forEachOrdered(skutecny::append);
+            assertEquals(ocekavany.toString(), skutecny.toString());
+            assertEquals(ROZSAH_KLICU, strom.parallelStream().count());
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    private String dejObsah(Iterator<String> iterator) {
+        final StringBuilder sb = new StringBuilder();
+        while (iterator.hasNext())
+            sb.append(iterator.next()).append(", ");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,137 @@
+package kolekce;
+
+import cz.upce.fei.bdats.strom.AbstrTable;
+import cz.upce.fei.bdats.strom.ETypProhl;
+import cz.upce.fei.bdats.strom.IAbstrTable;
+import cz.upce.fei.bdats.strom.SoubeznaTable;
+import cz.upce.fei.bdats.strom.SplayTable;
+import cz.upce.fei.bdats.vyjimky.StromException;
+import org.junit.*;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testovací případy pro:
+ * <ol>
+ * <li> <b>test_01_</b> Scénáře základních operací přes obal {@link SoubeznaTable} a odmítnutí tabulky, kterou
+ * mění i čtení ({@link SplayTable})
+ * <li> <b>test_02_</b> Scénáře souběžného čtení a zápisu
+ * <li> <b>test_03_</b> Scénáře iterátorů nad snímkem
+ * </ol>
+ */
+public class SoubeznaTableTest {
+
+    private final int POCET_PREDVLOZENYCH = 10_000;
+    private final int POCET_CTENARU = 4;
+
+    /**
+     * Instance datové struktury
+     */
+    private IAbstrTable<Integer, String> strom;
+
+    @Before
+    public void setUp() {
+        strom = new SoubeznaTable<>(new AbstrTable<Integer, String>());
+    }
+
+    @After
+    public void tearDown() {
+        strom = null;
+    }
+
+    /**
+     * Ověřuje, že obal předává vkládání, vyhledání, pořadové dotazy a odebírání obalené tabulce
+     */
+    @Test
+    public void test_01_01_zakladniOperace() {
+        try {
+            strom.vloz(5, "A");
+            strom.vloz(3, "B");
+            strom.vloz(7, "C");
+
+            assertEquals("B", strom.najdi(3));
+            assertEquals(3, strom.dejMohutnost());
+            assertEquals("C", strom.dejPrvekNaPoradi(2));
+            assertEquals("A", strom.odeber(5));
+            assertFalse(strom.obsahuje(5));
+            assertThrows(StromException.class, () -> strom.vloz(3, "X"));
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje, že obal odmítne {@link SplayTable}, jejíž vyhledávání rotuje strom
+     */
+    @Test
+    public void test_01_02_odmitnutiSplayTable() {
+        assertThrows(IllegalArgumentException.class, () -> new SoubeznaTable<>(new SplayTable<Integer, String>()));
+    }
+
+    /**
+     * Ověřuje, že čtenáři mohou vyhledávat předem vložené klíče, zatímco jiné vlákno vkládá nové klíče, a že
+     * na konci tabulka obsahuje všechny prvky
+     */
+    @Test
+    public void test_02_01_soubeh() throws Exception {
+        for (int klic = 0; klic < POCET_PREDVLOZENYCH; klic++)
+            strom.vloz(klic, String.valueOf(klic));
+
+        final AtomicInteger chyby = new AtomicInteger();
+        final Thread zapisovatel = new Thread(() -> {
+            try {
+                for (int klic = POCET_PREDVLOZENYCH; klic < 2 * POCET_PREDVLOZENYCH; klic++)
+                    strom.vloz(klic, String.valueOf(klic));
+            } catch (StromException ex) {
+                chyby.incrementAndGet();
+            }
+        });
+        final Thread[] ctenari = new Thread[POCET_CTENARU];
+        for (int i = 0; i < ctenari.length; i++) {
+            ctenari[i] = new Thread(() -> {
+                for (int klic = 0; klic < POCET_PREDVLOZENYCH; klic++) {
+                    try {
+                        if (!String.valueOf(klic).equals(strom.najdi(klic)))
+                            chyby.incrementAndGet();
+                    } catch (StromException ex) {
+                        chyby.incrementAndGet();
+                    }
+                }
+            });
+        }
+
+        zapisovatel.start();
+        for (Thread ctenar : ctenari)
+            ctenar.start();
+        zapisovatel.join();
+        for (Thread ctenar : ctenari)
+            ctenar.join();
+
+        assertEquals(0, chyby.get());
+        assertEquals(2 * POCET_PREDVLOZENYCH, strom.dejMohutnost());
+    }
+
+    /**
+     * Ověřuje, že iterátor vrací stav tabulky v okamžiku svého vytvoření a pozdější zápis ho neovlivní
+     */
+    @Test
+    public void test_03_01_snimek() {
+        try {
+            strom.vloz(1, "A");
+            strom.vloz(2, "B");
+
+            final Iterator<String> iterator = strom.vytvorIterator(ETypProhl.HLOUBKA);
+            strom.vloz(3, "C");
+            strom.odeber(1);
+
+            assertEquals("A", iterator.next());
+            assertEquals("B", iterator.next());
+            assertFalse(iterator.hasNext());
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+}
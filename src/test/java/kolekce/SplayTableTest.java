@@ -0,0 +1,126 @@
+package kolekce;
+
+import cz.upce.fei.bdats.strom.ETypProhl;
+import cz.upce.fei.bdats.strom.IAbstrTable;
+import cz.upce.fei.bdats.strom.PocitadlaStromu;
+import cz.upce.fei.bdats.strom.SplayTable;
+import cz.upce.fei.bdats.vyjimky.StromException;
+import org.junit.*;
+
+import java.util.Iterator;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testovací případy pro:
+ * <ol>
+ * <li> <b>test_01_</b> Scénáře přesunu uzlu do kořene a degenerovaného (lineárního) stromu
+ * <li> <b>test_02_</b> Scénáře metody {@link SplayTable#vlozVse(Comparable[], Object[])} a iterátoru při
+ * vyhledávání
+ * </ol>
+ */
+public class SplayTableTest {
+
+    private final int ROZSAH_KLICU = 2_000;
+    /**
+     * Počet seřazených klíčů, po jejichž vložení je strom lineární (rekurzivní průchod by přetekl zásobník)
+     */
+    private final int POCET_SERAZENYCH = 200_000;
+    /**
+     * Perioda klasického splay stromu, který přesouvá uzel do kořene při každém vyhledání (deterministický tvar)
+     */
+    private final int KAZDE_VYHLEDANI = 1;
+
+    /**
+     * Instance datové struktury
+     */
+    private IAbstrTable<Integer, String> strom;
+
+    @Before
+    public void setUp() {
+        strom = new SplayTable<>(KAZDE_VYHLEDANI);
+    }
+
+    @After
+    public void tearDown() {
+        strom = null;
+    }
+
+    /**
+     * Ověřuje, že vyhledaný klíč se přesune do kořene a jeho opětovné vyhledání stojí jediné porovnání
+     */
+    @Test
+    public void test_01_01_presunDoKorene() {
+        try {
+            for (int i = 0; i < ROZSAH_KLICU; i++) {
+                final int klic = (i * 37) % ROZSAH_KLICU;
+                strom.vloz(klic, String.valueOf(klic));
+            }
+
+            final PocitadlaStromu pocitadla = strom.dejPocitadla();
+            pocitadla.zapni();
+            strom.najdi(ROZSAH_KLICU / 2);
+            assertEquals(String.valueOf(ROZSAH_KLICU / 2), dejKlicKorene());
+            pocitadla.vynuluj();
+            strom.najdi(ROZSAH_KLICU / 2);
+            assertEquals(1, pocitadla.dejPocetPorovnani());
+            assertEquals(0, pocitadla.dejPocetVyvazeni());
+
+            strom.dejKlicNaPoradi(10);
+            assertEquals("10", dejKlicKorene());
+            assertEquals(ROZSAH_KLICU, strom.dejMohutnost(10));
+            assertThrows(IllegalArgumentException.class, () -> new SplayTable<Integer, String>(0));
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje, že po vložení seřazených klíčů (lineární strom) fungují vyhledání, výpis, dotazy na patra
+     * i odebírání bez přetečení zásobníku a že vyhledání nejhlubšího klíče strom zhruba o polovinu zkrátí
+     */
+    @Test
+    public void test_01_02_linearniStrom() {
+        try {
+            for (int klic = 0; klic < POCET_SERAZENYCH; klic++)
+                strom.vloz(klic, String.valueOf(klic));
+            assertEquals(POCET_SERAZENYCH, strom.dejVysku());
+            assertEquals(POCET_SERAZENYCH, strom.vypisStrom(ETypProhl.SIRKA).split("\n").length);
+
+            assertEquals("0", strom.najdi(0));
+            assertTrue(strom.dejVysku() <= POCET_SERAZENYCH / 2 + 2);
+            for (int klic = 0; klic < POCET_SERAZENYCH; klic += 2)
+                strom.odeber(klic);
+            assertEquals(POCET_SERAZENYCH / 2, strom.dejMohutnost());
+            assertEquals(Integer.valueOf(1), strom.dejPrvniKlic());
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    /**
+     * Ověřuje hromadné vložení do neprázdné tabulky, jeho atomičnost při duplicitě a to, že iterátor do
+     * hloubky zůstane platný i po vyhledáváních, která mění tvar stromu
+     */
+    @Test
+    public void test_02_01_vlozVseAIterator() {
+        try {
+            strom.vloz(2, "B");
+            strom.vlozVse(new Integer[]{3, 1, 5, 4}, new String[]{"C", "A", "E", "D"});
+            assertThrows(StromException.class, () -> strom.vlozVse(new Integer[]{6, 1}, new String[]{"F", "X"}));
+            assertEquals(5, strom.dejMohutnost());
+
+            final Iterator<String> iterator = strom.vytvorIterator(ETypProhl.HLOUBKA);
+            final StringBuilder sb = new StringBuilder();
+            for (int klic = 5; iterator.hasNext(); klic--) {
+                sb.append(iterator.next()).append(", ");
+                strom.najdi(Math.max(klic, 1));
+            }
+            assertEquals("A, B, C, D, E, ", sb.toString());
+        } catch (StromException ex) {
+            fail();
+        }
+    }
+
+    private String dejKlicKorene() { return strom.vytvorIteratorPatra(1).next(); }
+}